@@ -0,0 +1,379 @@
+package com.example.mal2017_assessmentmodule.server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ApiServer - Local reference implementation of the coursework API.
+ *
+ * Serves every endpoint ApiService calls, from an in-memory store, so the
+ * app and load tests can run without the university server:
+ * - POST   {base}create_student/{student_id}
+ * - POST   {base}create_user/{student_id}
+ * - GET    {base}read_all_users/{student_id}
+ * - GET    {base}read_user/{student_id}/{user_id}
+ * - PUT    {base}update_user/{student_id}/{user_id}
+ * - DELETE {base}delete_user/{student_id}/{user_id}
+ *
+ * Features:
+ * - JDK HTTP server, one virtual thread per request
+ * - Injected latency, error rate and payload size (see ServerConfig)
+ * - Idempotency-Key header honoured on create/update/delete: a retried
+ *   request gets the first response instead of being applied again
+ * - gzip responses when the client accepts them
+ *
+ * Admin endpoints (never delayed or failed):
+ * - GET  /_admin/health            Liveness check
+ * - GET  /_admin/config            Current settings
+ * - POST /_admin/config?key=value  Change settings while running
+ * - POST /_admin/reset             Drop all data
+ *
+ * Run: ./gradlew :api-server:run --args="--port=8080 --latency-ms=150 --error-rate=0.05"
+ * then point ApiClient.BASE_URL at http://10.0.2.2:8080/comp2000/coursework/
+ * (the host machine as seen from the emulator).
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class ApiServer {
+
+    private static final String ADMIN_PATH = "/_admin/";
+    private static final int MIN_GZIP_BYTES = 512;
+    private static final int MAX_REMEMBERED_REPLIES = 10000;
+    // Pending connections; the JDK default (50) drops SYNs under load
+    private static final int ACCEPT_BACKLOG = 1024;
+
+    /**
+     * Status code and JSON body of a response
+     */
+    private static class Reply {
+        final int status;
+        final String body;
+
+        Reply(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private final ServerConfig config;
+    private final UserStore store = new UserStore();
+    private final Gson gson = new Gson();
+    // Replies to mutating requests, keyed by student ID + Idempotency-Key
+    private final Map<String, Reply> replies = new ConcurrentHashMap<>();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public ApiServer(ServerConfig config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) throws IOException {
+        ServerConfig config;
+        try {
+            config = ServerConfig.fromArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: ApiServer [--key=value ...], see ServerConfig for keys");
+            System.exit(2);
+            return;
+        }
+
+        ApiServer apiServer = new ApiServer(config);
+        apiServer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(apiServer::stop));
+        System.out.println("Reference API listening on http://localhost:" + apiServer.getPort()
+                + config.getBasePath() + " " + config.toMap());
+    }
+
+    /**
+     * Start listening on the configured port (0 picks a free port, see getPort())
+     */
+    public void start() throws IOException {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(config.getPort()), ACCEPT_BACKLOG);
+        server.createContext(config.getBasePath(), this::handleApi);
+        server.createContext(ADMIN_PATH, this::handleAdmin);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdown();
+            server = null;
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public UserStore getStore() {
+        return store;
+    }
+
+    // ==================== API ====================
+
+    private void handleApi(HttpExchange exchange) throws IOException {
+        try {
+            long delay = config.sampleLatencyMs();
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+
+            Reply reply;
+            if (config.shouldFail()) {
+                reply = message(config.getErrorStatus(), "Injected failure");
+            } else {
+                String path = exchange.getRequestURI().getPath()
+                        .substring(config.getBasePath().length());
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                reply = dispatch(exchange.getRequestMethod(), path.split("/"), body,
+                        exchange.getRequestHeaders().getFirst("Idempotency-Key"));
+            }
+            send(exchange, reply);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exchange.close();
+        } catch (Exception e) {
+            send(exchange, message(500, "Internal error: " + e.getMessage()));
+        }
+    }
+
+    private Reply dispatch(String method, String[] parts, String body, String idempotencyKey) {
+        if (parts.length < 2 || parts[1].isEmpty()) {
+            return message(404, "Unknown endpoint");
+        }
+        String studentId = parts[1];
+
+        if (!"GET".equals(method) && idempotencyKey != null) {
+            if (replies.size() > MAX_REMEMBERED_REPLIES) {
+                replies.clear();
+            }
+            // Runs the request at most once per key
+            return replies.computeIfAbsent(studentId + ":" + idempotencyKey,
+                    key -> route(method, parts, studentId, body));
+        }
+        return route(method, parts, studentId, body);
+    }
+
+    private Reply route(String method, String[] parts, String studentId, String body) {
+        String endpoint = parts[0];
+
+        if (endpoint.equals("create_student") && parts.length == 2) {
+            if (!method.equals("POST")) {
+                return message(405, "Method not allowed");
+            }
+            return store.createStudent(studentId, config.getSeedUsers())
+                    ? message(201, "Student database created")
+                    : message(200, "Student database already exists");
+        }
+
+        if (!store.hasStudent(studentId)) {
+            if (!config.isAutoCreateStudents()) {
+                return message(404, "Student not found");
+            }
+            store.createStudent(studentId, config.getSeedUsers());
+        }
+
+        if (parts.length == 2) {
+            switch (endpoint) {
+                case "create_user":
+                    return method.equals("POST") ? createUser(studentId, body) : message(405, "Method not allowed");
+                case "read_all_users":
+                    return method.equals("GET") ? readAllUsers(studentId) : message(405, "Method not allowed");
+                default:
+                    return message(404, "Unknown endpoint");
+            }
+        }
+
+        if (parts.length == 3) {
+            int userId;
+            try {
+                userId = Integer.parseInt(parts[2]);
+            } catch (NumberFormatException e) {
+                return message(400, "Invalid user ID");
+            }
+            switch (endpoint) {
+                case "read_user":
+                    return method.equals("GET") ? readUser(studentId, userId) : message(405, "Method not allowed");
+                case "update_user":
+                    return method.equals("PUT") ? updateUser(studentId, userId, body) : message(405, "Method not allowed");
+                case "delete_user":
+                    return method.equals("DELETE") ? deleteUser(studentId, userId) : message(405, "Method not allowed");
+                default:
+                    return message(404, "Unknown endpoint");
+            }
+        }
+
+        return message(404, "Unknown endpoint");
+    }
+
+    private Reply createUser(String studentId, String body) {
+        UserRecord user = parseUser(body);
+        if (user == null) {
+            return message(400, "Invalid user JSON");
+        }
+        UserRecord stored = store.createUser(studentId, user);
+
+        JsonObject json = new JsonObject();
+        json.addProperty("message", "User created successfully");
+        json.addProperty("user_id", stored.getUserId());
+        return new Reply(201, json.toString());
+    }
+
+    private Reply readAllUsers(String studentId) {
+        List<UserRecord> users = store.getAllUsers(studentId);
+        JsonArray array = new JsonArray();
+        for (UserRecord user : users) {
+            array.add(toJson(user));
+        }
+
+        JsonObject json = new JsonObject();
+        json.add("users", array);
+        return new Reply(200, json.toString());
+    }
+
+    private Reply readUser(String studentId, int userId) {
+        UserRecord user = store.getUser(studentId, userId);
+        if (user == null) {
+            return message(404, "User not found");
+        }
+
+        JsonObject json = new JsonObject();
+        json.add("user", toJson(user));
+        return new Reply(200, json.toString());
+    }
+
+    private Reply updateUser(String studentId, int userId, String body) {
+        UserRecord user = parseUser(body);
+        if (user == null) {
+            return message(400, "Invalid user JSON");
+        }
+        return store.updateUser(studentId, userId, user)
+                ? message(200, "User updated successfully")
+                : message(404, "User not found");
+    }
+
+    private Reply deleteUser(String studentId, int userId) {
+        return store.deleteUser(studentId, userId)
+                ? message(200, "User deleted successfully")
+                : message(404, "User not found");
+    }
+
+    private UserRecord parseUser(String body) {
+        try {
+            UserRecord user = gson.fromJson(body, UserRecord.class);
+            return user != null && user.getEmail() != null ? user : null;
+        } catch (JsonSyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * User JSON with the configured padding field, if any
+     */
+    private JsonElement toJson(UserRecord user) {
+        JsonObject json = gson.toJsonTree(user).getAsJsonObject();
+        String padding = config.getPadding();
+        if (!padding.isEmpty()) {
+            json.addProperty("padding", padding);
+        }
+        return json;
+    }
+
+    // ==================== ADMIN ====================
+
+    private void handleAdmin(HttpExchange exchange) throws IOException {
+        String action = exchange.getRequestURI().getPath().substring(ADMIN_PATH.length());
+        String method = exchange.getRequestMethod();
+
+        Reply reply;
+        if (action.equals("health") && method.equals("GET")) {
+            reply = new Reply(200, "{\"status\":\"ok\"}");
+        } else if (action.equals("config") && method.equals("GET")) {
+            reply = new Reply(200, gson.toJson(config.toMap()));
+        } else if (action.equals("config") && method.equals("POST")) {
+            try {
+                for (Map.Entry<String, String> entry : parseQuery(exchange.getRequestURI().getRawQuery()).entrySet()) {
+                    config.set(entry.getKey(), entry.getValue());
+                }
+                reply = new Reply(200, gson.toJson(config.toMap()));
+            } catch (IllegalArgumentException e) {
+                reply = message(400, e.getMessage());
+            }
+        } else if (action.equals("reset") && method.equals("POST")) {
+            store.clear();
+            replies.clear();
+            reply = message(200, "All data cleared");
+        } else {
+            reply = message(404, "Unknown admin endpoint");
+        }
+        send(exchange, reply);
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int split = pair.indexOf('=');
+            if (split > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, split), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(split + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    // ==================== RESPONSES ====================
+
+    private static Reply message(int status, String message) {
+        JsonObject json = new JsonObject();
+        json.addProperty("message", message);
+        return new Reply(status, json.toString());
+    }
+
+    private static void send(HttpExchange exchange, Reply reply) throws IOException {
+        byte[] bytes = reply.body.getBytes(StandardCharsets.UTF_8);
+
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip") && bytes.length >= MIN_GZIP_BYTES) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(bytes);
+            }
+            bytes = buffer.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(reply.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
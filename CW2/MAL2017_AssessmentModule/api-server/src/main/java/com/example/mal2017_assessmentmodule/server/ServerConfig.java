@@ -0,0 +1,179 @@
+package com.example.mal2017_assessmentmodule.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ServerConfig - Settings and fault injection for the reference API.
+ *
+ * Set from "--key=value" command line arguments at start-up, and
+ * from the admin endpoint while running (same keys).
+ *
+ * Keys:
+ * - port                  Listen port (start-up only, default 8080)
+ * - base-path             Path prefix of the API (start-up only,
+ *                         default /comp2000/coursework/)
+ * - latency-ms            Added delay before every API response
+ * - latency-jitter-ms     Extra random delay, 0..jitter
+ * - error-rate            Fraction of API requests answered with error-status (0.0 - 1.0)
+ * - error-status          Status code for injected errors (default 500)
+ * - padding-bytes         Extra "padding" field of this size on every returned user
+ * - seed-users            Synthetic users added when a student database is created
+ * - auto-create-students  Create unknown student databases on first use (default true)
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class ServerConfig {
+
+    private volatile int port = 8080;
+    private volatile String basePath = "/comp2000/coursework/";
+    private volatile long latencyMs = 0;
+    private volatile long latencyJitterMs = 0;
+    private volatile double errorRate = 0.0;
+    private volatile int errorStatus = 500;
+    private volatile int paddingBytes = 0;
+    private volatile int seedUsers = 0;
+    private volatile boolean autoCreateStudents = true;
+
+    private volatile String padding = "";
+
+    /**
+     * Build a config from "--key=value" arguments
+     *
+     * @throws IllegalArgumentException on an unknown key or bad value
+     */
+    public static ServerConfig fromArgs(String[] args) {
+        ServerConfig config = new ServerConfig();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int split = arg.indexOf('=');
+            config.set(arg.substring(2, split), arg.substring(split + 1));
+        }
+        return config;
+    }
+
+    /**
+     * Change one setting
+     *
+     * @throws IllegalArgumentException on an unknown key or bad value
+     */
+    public void set(String key, String value) {
+        try {
+            switch (key) {
+                case "port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "base-path":
+                    basePath = normaliseBasePath(value);
+                    break;
+                case "latency-ms":
+                    latencyMs = requireNonNegative(Long.parseLong(value), key);
+                    break;
+                case "latency-jitter-ms":
+                    latencyJitterMs = requireNonNegative(Long.parseLong(value), key);
+                    break;
+                case "error-rate":
+                    double rate = Double.parseDouble(value);
+                    if (rate < 0.0 || rate > 1.0) {
+                        throw new IllegalArgumentException("error-rate must be between 0 and 1");
+                    }
+                    errorRate = rate;
+                    break;
+                case "error-status":
+                    int status = Integer.parseInt(value);
+                    if (status < 400 || status > 599) {
+                        throw new IllegalArgumentException("error-status must be 4xx or 5xx");
+                    }
+                    errorStatus = status;
+                    break;
+                case "padding-bytes":
+                    paddingBytes = (int) requireNonNegative(Integer.parseInt(value), key);
+                    padding = buildPadding(paddingBytes);
+                    break;
+                case "seed-users":
+                    seedUsers = (int) requireNonNegative(Integer.parseInt(value), key);
+                    break;
+                case "auto-create-students":
+                    autoCreateStudents = Boolean.parseBoolean(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown setting: " + key);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + value, e);
+        }
+    }
+
+    /**
+     * Current settings, for the admin endpoint
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("port", port);
+        map.put("base-path", basePath);
+        map.put("latency-ms", latencyMs);
+        map.put("latency-jitter-ms", latencyJitterMs);
+        map.put("error-rate", errorRate);
+        map.put("error-status", errorStatus);
+        map.put("padding-bytes", paddingBytes);
+        map.put("seed-users", seedUsers);
+        map.put("auto-create-students", autoCreateStudents);
+        return map;
+    }
+
+    // ==================== FAULT INJECTION ====================
+
+    /**
+     * Delay to apply to the next response
+     */
+    public long sampleLatencyMs() {
+        long jitter = latencyJitterMs;
+        return latencyMs + (jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0);
+    }
+
+    /**
+     * Whether the next request should get an injected error
+     */
+    public boolean shouldFail() {
+        double rate = errorRate;
+        return rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    /**
+     * Padding string of padding-bytes characters (empty when disabled)
+     */
+    public String getPadding() {
+        return padding;
+    }
+
+    private static String buildPadding(int size) {
+        StringBuilder builder = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        return builder.toString();
+    }
+
+    private static String normaliseBasePath(String path) {
+        String result = path.startsWith("/") ? path : "/" + path;
+        return result.endsWith("/") ? result : result + "/";
+    }
+
+    private static long requireNonNegative(long value, String key) {
+        if (value < 0) {
+            throw new IllegalArgumentException(key + " must not be negative");
+        }
+        return value;
+    }
+
+    // Getters
+    public int getPort() { return port; }
+    public String getBasePath() { return basePath; }
+    public int getErrorStatus() { return errorStatus; }
+    public int getSeedUsers() { return seedUsers; }
+    public boolean isAutoCreateStudents() { return autoCreateStudents; }
+}
@@ -0,0 +1,78 @@
+package com.example.mal2017_assessmentmodule.server;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * UserRecord - A user as stored and returned by the reference API.
+ *
+ * Field names match the app's User model so both sides
+ * serialise to the same JSON.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class UserRecord {
+
+    @SerializedName("user_id")
+    private int userId;
+
+    @SerializedName("username")
+    private String username;
+
+    @SerializedName("password")
+    private String password;
+
+    @SerializedName("firstname")
+    private String firstname;
+
+    @SerializedName("lastname")
+    private String lastname;
+
+    @SerializedName("email")
+    private String email;
+
+    @SerializedName("contact")
+    private String contact;
+
+    @SerializedName("usertype")
+    private String usertype;
+
+    public UserRecord() {}
+
+    /**
+     * Copy with a new user ID, so stored records are never shared with callers
+     */
+    public UserRecord copyWithId(int userId) {
+        UserRecord copy = new UserRecord();
+        copy.userId = userId;
+        copy.username = username;
+        copy.password = password;
+        copy.firstname = firstname;
+        copy.lastname = lastname;
+        copy.email = email;
+        copy.contact = contact;
+        copy.usertype = usertype;
+        return copy;
+    }
+
+    /**
+     * Synthetic user for seeding a student database
+     */
+    public static UserRecord generated(int index) {
+        UserRecord user = new UserRecord();
+        user.username = "user" + index;
+        user.password = "password" + index;
+        user.firstname = "Test";
+        user.lastname = "User " + index;
+        user.email = "user" + index + "@example.com";
+        user.contact = String.format("07%09d", index);
+        user.usertype = index % 10 == 0 ? "staff" : "guest";
+        return user;
+    }
+
+    // Getters
+    public int getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public String getEmail() { return email; }
+    public String getUsertype() { return usertype; }
+}
@@ -0,0 +1,146 @@
+package com.example.mal2017_assessmentmodule.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * UserStore - In-memory users tables, one per student ID.
+ *
+ * Features:
+ * - Separate table per student, as on the coursework server
+ * - User IDs assigned in increasing order per student
+ * - Optional synthetic seed users when a student is created
+ * - Thread-safe: each student's table has its own lock
+ *
+ * Records are copied on the way in and out, so callers never
+ * hold a reference to stored data.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class UserStore {
+
+    private static class Student {
+        final TreeMap<Integer, UserRecord> users = new TreeMap<>();
+        int nextUserId = 1;
+
+        UserRecord insert(UserRecord user) {
+            UserRecord stored = user.copyWithId(nextUserId++);
+            users.put(stored.getUserId(), stored);
+            return stored;
+        }
+    }
+
+    private final Map<String, Student> students = new ConcurrentHashMap<>();
+
+    /**
+     * Create a student database
+     *
+     * @param seedUsers Number of synthetic users to add
+     * @return true if created, false if it already existed
+     */
+    public boolean createStudent(String studentId, int seedUsers) {
+        boolean[] created = {false};
+        students.computeIfAbsent(studentId, id -> {
+            Student student = new Student();
+            for (int i = 1; i <= seedUsers; i++) {
+                student.insert(UserRecord.generated(i));
+            }
+            created[0] = true;
+            return student;
+        });
+        return created[0];
+    }
+
+    public boolean hasStudent(String studentId) {
+        return students.containsKey(studentId);
+    }
+
+    /**
+     * All users ordered by user ID, or null if the student does not exist
+     */
+    public List<UserRecord> getAllUsers(String studentId) {
+        Student student = students.get(studentId);
+        if (student == null) {
+            return null;
+        }
+        synchronized (student) {
+            List<UserRecord> result = new ArrayList<>(student.users.size());
+            for (UserRecord user : student.users.values()) {
+                result.add(user.copyWithId(user.getUserId()));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * One user, or null if the student or user does not exist
+     */
+    public UserRecord getUser(String studentId, int userId) {
+        Student student = students.get(studentId);
+        if (student == null) {
+            return null;
+        }
+        synchronized (student) {
+            UserRecord user = student.users.get(userId);
+            return user != null ? user.copyWithId(userId) : null;
+        }
+    }
+
+    /**
+     * Add a user with the next free user ID (any ID in the request is ignored)
+     *
+     * @return The stored user, or null if the student does not exist
+     */
+    public UserRecord createUser(String studentId, UserRecord user) {
+        Student student = students.get(studentId);
+        if (student == null) {
+            return null;
+        }
+        synchronized (student) {
+            return student.insert(user);
+        }
+    }
+
+    /**
+     * Replace an existing user, keeping its user ID
+     *
+     * @return true if the user existed
+     */
+    public boolean updateUser(String studentId, int userId, UserRecord user) {
+        Student student = students.get(studentId);
+        if (student == null) {
+            return false;
+        }
+        synchronized (student) {
+            if (!student.users.containsKey(userId)) {
+                return false;
+            }
+            student.users.put(userId, user.copyWithId(userId));
+            return true;
+        }
+    }
+
+    /**
+     * @return true if the user existed
+     */
+    public boolean deleteUser(String studentId, int userId) {
+        Student student = students.get(studentId);
+        if (student == null) {
+            return false;
+        }
+        synchronized (student) {
+            return student.users.remove(userId) != null;
+        }
+    }
+
+    /**
+     * Drop every student database
+     */
+    public void clear() {
+        students.clear();
+    }
+}
@@ -18,4 +18,29 @@
 
 # If you keep the line number information, uncomment this to
 # hide the original source file name.
-#-renamesourcefileattribute SourceFile
\ No newline at end of file
+#-renamesourcefileattribute SourceFile
+
+# ==================== LOGGING ====================
+
+# Remove AppLog debug/verbose calls, and the message arguments built
+# only for them, from release builds
+-assumenosideeffects class com.example.mal2017_assessmentmodule.AppLog {
+    public static void v(...);
+    public static void d(...);
+}
+
+# ==================== GSON ====================
+
+# Gson reads and writes fields by reflection, and TypeToken needs the
+# generic signatures of its anonymous subclasses
+-keepattributes Signature, *Annotation*, InnerClasses, EnclosingMethod
+-keep class * extends com.google.gson.reflect.TypeToken
+-keepclassmembers,allowobfuscation class * {
+    @com.google.gson.annotations.SerializedName <fields>;
+}
+
+# Classes serialised with Gson (API payloads, session, outbox, metrics export)
+-keep class com.example.mal2017_assessmentmodule.models.** { *; }
+-keep class com.example.mal2017_assessmentmodule.api.ApiMetrics$Snapshot { *; }
+-keep class com.example.mal2017_assessmentmodule.api.ApiMetrics$EndpointSnapshot { *; }
+-keep class com.example.mal2017_assessmentmodule.api.LatencyHistogram$Snapshot { *; }
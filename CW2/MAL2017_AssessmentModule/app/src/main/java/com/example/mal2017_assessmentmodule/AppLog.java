@@ -0,0 +1,162 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.util.Log;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * AppLog - Logging facade used instead of android.util.Log.
+ *
+ * Features:
+ * - Same call shape as Log (AppLog.d(TAG, "message"))
+ * - Lazy messages: AppLog.d(TAG, () -> "Loaded " + items.size()) only
+ *   builds the string when the message will actually be logged
+ * - Per-tag minimum level (setLevel)
+ * - Per-tag sampling of chatty tags (setSampling), below WARN only
+ * - Debug and verbose logging is off in release builds, and R8 removes
+ *   the calls and their arguments entirely (see proguard-rules.pro)
+ *
+ * Default level: DEBUG in debug builds, INFO in release builds.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public final class AppLog {
+
+    /**
+     * Level and sampling overrides for one tag
+     */
+    private static class TagConfig {
+        volatile int level = -1;      // -1 = default level
+        volatile int sampleEvery = 1; // Log 1 in N messages below WARN
+        final AtomicLong counter = new AtomicLong();
+    }
+
+    private static final Map<String, TagConfig> tagConfigs = new ConcurrentHashMap<>();
+    private static volatile int defaultLevel = BuildConfig.DEBUG ? Log.DEBUG : Log.INFO;
+
+    private AppLog() {}
+
+    // ==================== CONFIGURATION ====================
+
+    /**
+     * Minimum level for tags without their own level (Log.VERBOSE ... Log.ASSERT)
+     */
+    public static void setDefaultLevel(int level) {
+        defaultLevel = level;
+    }
+
+    /**
+     * Minimum level for one tag
+     */
+    public static void setLevel(String tag, int level) {
+        config(tag).level = level;
+    }
+
+    /**
+     * Only log every Nth message of a tag below WARN (1 = log all).
+     * Warnings and errors are never sampled.
+     */
+    public static void setSampling(String tag, int everyN) {
+        config(tag).sampleEvery = Math.max(1, everyN);
+    }
+
+    /**
+     * Drop all per-tag overrides
+     */
+    public static void resetTags() {
+        tagConfigs.clear();
+    }
+
+    private static TagConfig config(String tag) {
+        return tagConfigs.computeIfAbsent(tag, key -> new TagConfig());
+    }
+
+    /**
+     * Whether a message at this level passes the tag's level (ignores sampling)
+     */
+    public static boolean isLoggable(String tag, int level) {
+        TagConfig config = tagConfigs.get(tag);
+        int minimum = config != null && config.level >= 0 ? config.level : defaultLevel;
+        return level >= minimum;
+    }
+
+    private static boolean shouldLog(String tag, int level) {
+        if (!isLoggable(tag, level)) {
+            return false;
+        }
+        if (level >= Log.WARN) {
+            return true;
+        }
+        TagConfig config = tagConfigs.get(tag);
+        return config == null || config.sampleEvery <= 1
+                || config.counter.getAndIncrement() % config.sampleEvery == 0;
+    }
+
+    // ==================== VERBOSE / DEBUG (debug builds only) ====================
+
+    public static void v(String tag, String message) {
+        if (BuildConfig.DEBUG && shouldLog(tag, Log.VERBOSE)) {
+            Log.v(tag, message);
+        }
+    }
+
+    public static void v(String tag, Supplier<String> message) {
+        if (BuildConfig.DEBUG && shouldLog(tag, Log.VERBOSE)) {
+            Log.v(tag, message.get());
+        }
+    }
+
+    public static void d(String tag, String message) {
+        if (BuildConfig.DEBUG && shouldLog(tag, Log.DEBUG)) {
+            Log.d(tag, message);
+        }
+    }
+
+    public static void d(String tag, Supplier<String> message) {
+        if (BuildConfig.DEBUG && shouldLog(tag, Log.DEBUG)) {
+            Log.d(tag, message.get());
+        }
+    }
+
+    // ==================== INFO / WARN / ERROR ====================
+
+    public static void i(String tag, String message) {
+        if (shouldLog(tag, Log.INFO)) {
+            Log.i(tag, message);
+        }
+    }
+
+    public static void i(String tag, Supplier<String> message) {
+        if (shouldLog(tag, Log.INFO)) {
+            Log.i(tag, message.get());
+        }
+    }
+
+    public static void w(String tag, String message) {
+        if (shouldLog(tag, Log.WARN)) {
+            Log.w(tag, message);
+        }
+    }
+
+    public static void w(String tag, String message, Throwable throwable) {
+        if (shouldLog(tag, Log.WARN)) {
+            Log.w(tag, message, throwable);
+        }
+    }
+
+    public static void e(String tag, String message) {
+        if (shouldLog(tag, Log.ERROR)) {
+            Log.e(tag, message);
+        }
+    }
+
+    public static void e(String tag, String message, Throwable throwable) {
+        if (shouldLog(tag, Log.ERROR)) {
+            Log.e(tag, message, throwable);
+        }
+    }
+}
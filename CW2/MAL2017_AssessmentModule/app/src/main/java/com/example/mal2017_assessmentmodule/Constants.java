@@ -1,5 +1,9 @@
 package com.example.mal2017_assessmentmodule;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Constants - Application-wide constant values.
  *
@@ -22,6 +26,10 @@ public class Constants {
     public static final String CATEGORY_DESSERTS = "Desserts";
     public static final String CATEGORY_BEVERAGES = "Beverages";
 
+    // Menu sections, in display order
+    public static final List<String> MENU_CATEGORIES = Collections.unmodifiableList(Arrays.asList(
+            CATEGORY_APPETIZERS, CATEGORY_MAIN_COURSE, CATEGORY_DESSERTS, CATEGORY_BEVERAGES));
+
     // Reservation Status
     public static final String STATUS_PENDING = "pending";
     public static final String STATUS_CONFIRMED = "confirmed";
@@ -0,0 +1,68 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.content.Context;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DrawableResolver - Maps menu image keys ("laksa") to drawable ids.
+ *
+ * Features:
+ * - Bundled dish images come from a fixed table of R.drawable ids, so
+ *   the common case never calls Resources.getIdentifier
+ * - Any other key is looked up with getIdentifier once and cached,
+ *   misses included (cached as 0), so a bad key costs one lookup per
+ *   process, not one per bind
+ *
+ * Add new bundled images to BUNDLED.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public final class DrawableResolver {
+
+    private static final String TAG = "DrawableResolver";
+
+    private static final Map<String, Integer> BUNDLED = new HashMap<>();
+    static {
+        BUNDLED.put("cendol", R.drawable.cendol);
+        BUNDLED.put("char_kway_teow", R.drawable.char_kway_teow);
+        BUNDLED.put("laksa", R.drawable.laksa);
+        BUNDLED.put("nasi_goreng", R.drawable.nasi_goreng);
+        BUNDLED.put("nasi_lemak", R.drawable.nasi_lemak);
+        BUNDLED.put("roti_canai", R.drawable.roti_canai);
+        BUNDLED.put("satay", R.drawable.satay);
+        BUNDLED.put("teh_tarik", R.drawable.teh_tarik);
+    }
+
+    // Keys outside BUNDLED, resolved on first use; 0 = no such drawable
+    private static final Map<String, Integer> resolved = new ConcurrentHashMap<>();
+
+    private DrawableResolver() {}
+
+    /**
+     * Drawable id for an image key
+     *
+     * @return Resource id, or 0 if the key is empty or has no drawable
+     */
+    public static int resolve(Context context, String imageKey) {
+        if (imageKey == null || imageKey.isEmpty()) {
+            return 0;
+        }
+        Integer resourceId = BUNDLED.get(imageKey);
+        if (resourceId == null) {
+            resourceId = resolved.get(imageKey);
+        }
+        if (resourceId == null) {
+            resourceId = context.getResources().getIdentifier(
+                    imageKey, "drawable", context.getPackageName());
+            resolved.put(imageKey, resourceId);
+            if (resourceId == 0) {
+                AppLog.d(TAG, () -> "No drawable for image key: " + imageKey);
+            }
+        }
+        return resourceId;
+    }
+}
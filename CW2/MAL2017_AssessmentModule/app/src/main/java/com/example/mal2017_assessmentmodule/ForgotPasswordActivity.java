@@ -4,7 +4,6 @@ import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
 import android.text.TextUtils;
-import android.util.Log;
 import android.view.View;
 import android.widget.Button;
 import android.widget.ProgressBar;
@@ -170,7 +169,7 @@ public class ForgotPasswordActivity extends AppCompatActivity {
                 });
 
             } catch (Exception e) {
-                Log.e(TAG, "Password reset error: " + e.getMessage(), e);
+                AppLog.e(TAG, "Password reset error: " + e.getMessage(), e);
                 runOnUiThread(() -> {
                     showLoading(false);
                     Toast.makeText(ForgotPasswordActivity.this,
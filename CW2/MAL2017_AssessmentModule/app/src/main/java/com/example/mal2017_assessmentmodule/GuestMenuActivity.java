@@ -2,7 +2,6 @@ package com.example.mal2017_assessmentmodule;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.util.Log;
 import android.view.MenuItem;
 import android.widget.Button;
 import android.widget.Toast;
@@ -33,14 +32,13 @@ public class GuestMenuActivity extends AppCompatActivity {
 
     private MenuItemAdapter menuItemAdapter;
     private DatabaseHelper dbHelper;
-    private String currentCategory = Constants.CATEGORY_ALL;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
         try {
-            Log.d(TAG, "onCreate started");
+            AppLog.d(TAG, "onCreate started");
             setContentView(R.layout.activity_guest_dashboard);
 
             dbHelper = DatabaseHelper.getInstance(this);
@@ -52,9 +50,12 @@ public class GuestMenuActivity extends AppCompatActivity {
             setupBottomNavigation();
             loadMenuItems();
 
-            Log.d(TAG, "onCreate completed successfully");
+            // Download remote dish photos ahead of scrolling (unmetered networks only)
+            MenuImageStore.getInstance(this).prefetchMenu();
+
+            AppLog.d(TAG, "onCreate completed successfully");
         } catch (Exception e) {
-            Log.e(TAG, "Error in onCreate: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error in onCreate: " + e.getMessage(), e);
             Toast.makeText(this, "Error loading menu: " + e.getMessage(), Toast.LENGTH_LONG).show();
             finish();
         }
@@ -67,13 +68,13 @@ public class GuestMenuActivity extends AppCompatActivity {
             rvMenuItems = findViewById(R.id.rv_menu_items);
             bottomNavigation = findViewById(R.id.bottom_navigation);
 
-            if (btnMakeReservation == null) Log.e(TAG, "btnMakeReservation is NULL");
-            if (tabLayout == null) Log.e(TAG, "tabLayout is NULL");
-            if (rvMenuItems == null) Log.e(TAG, "rvMenuItems is NULL");
-            if (bottomNavigation == null) Log.e(TAG, "bottomNavigation is NULL");
+            if (btnMakeReservation == null) AppLog.e(TAG, "btnMakeReservation is NULL");
+            if (tabLayout == null) AppLog.e(TAG, "tabLayout is NULL");
+            if (rvMenuItems == null) AppLog.e(TAG, "rvMenuItems is NULL");
+            if (bottomNavigation == null) AppLog.e(TAG, "bottomNavigation is NULL");
 
         } catch (Exception e) {
-            Log.e(TAG, "Error initializing views: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error initializing views: " + e.getMessage(), e);
         }
     }
 
@@ -81,43 +82,45 @@ public class GuestMenuActivity extends AppCompatActivity {
         try {
             if (tabLayout == null) return;
 
-            tabLayout.addTab(tabLayout.newTab().setText("All"));
-            tabLayout.addTab(tabLayout.newTab().setText("Appetizers"));
-            tabLayout.addTab(tabLayout.newTab().setText("Main Course"));
-            tabLayout.addTab(tabLayout.newTab().setText("Desserts"));
-            tabLayout.addTab(tabLayout.newTab().setText("Beverages"));
+            tabLayout.addTab(tabLayout.newTab().setText(Constants.CATEGORY_ALL));
+            for (String category : Constants.MENU_CATEGORIES) {
+                tabLayout.addTab(tabLayout.newTab().setText(category));
+            }
 
             tabLayout.addOnTabSelectedListener(new TabLayout.OnTabSelectedListener() {
                 @Override
                 public void onTabSelected(TabLayout.Tab tab) {
-                    filterByCategory(tab.getPosition());
+                    showCategory(tab.getPosition());
                 }
 
                 @Override
                 public void onTabUnselected(TabLayout.Tab tab) {}
 
                 @Override
-                public void onTabReselected(TabLayout.Tab tab) {}
+                public void onTabReselected(TabLayout.Tab tab) {
+                    showCategory(tab.getPosition());  // Back to the start of the section
+                }
             });
         } catch (Exception e) {
-            Log.e(TAG, "Error setting up tabs: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error setting up tabs: " + e.getMessage(), e);
         }
     }
 
     private void setupRecyclerView() {
         try {
             if (rvMenuItems == null) {
-                Log.e(TAG, "RecyclerView is NULL!");
+                AppLog.e(TAG, "RecyclerView is NULL!");
                 return;
             }
 
             LinearLayoutManager layoutManager = new LinearLayoutManager(this);
             rvMenuItems.setLayoutManager(layoutManager);
             rvMenuItems.setHasFixedSize(true);
+            RowViewPools.getInstance(this).attach(rvMenuItems, R.layout.item_guest_view_menu);
 
-            Log.d(TAG, "RecyclerView setup completed");
+            AppLog.d(TAG, "RecyclerView setup completed");
         } catch (Exception e) {
-            Log.e(TAG, "Error setting up RecyclerView: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error setting up RecyclerView: " + e.getMessage(), e);
         }
     }
 
@@ -129,13 +132,13 @@ public class GuestMenuActivity extends AppCompatActivity {
                         Intent intent = new Intent(GuestMenuActivity.this, MakeReservationActivity.class);
                         startActivity(intent);
                     } catch (Exception e) {
-                        Log.e(TAG, "Error starting MakeReservationActivity: " + e.getMessage(), e);
+                        AppLog.e(TAG, "Error starting MakeReservationActivity: " + e.getMessage(), e);
                         Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
                     }
                 });
             }
         } catch (Exception e) {
-            Log.e(TAG, "Error setting up click listeners: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error setting up click listeners: " + e.getMessage(), e);
         }
     }
 
@@ -162,36 +165,37 @@ public class GuestMenuActivity extends AppCompatActivity {
                             return true;
                         }
                     } catch (Exception e) {
-                        Log.e(TAG, "Navigation error: " + e.getMessage(), e);
+                        AppLog.e(TAG, "Navigation error: " + e.getMessage(), e);
                         Toast.makeText(GuestMenuActivity.this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
                     }
                     return false;
                 }
             });
         } catch (Exception e) {
-            Log.e(TAG, "Error setting up navigation: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error setting up navigation: " + e.getMessage(), e);
         }
     }
 
     private void loadMenuItems() {
         try {
-            Log.d(TAG, "Loading menu items for category: " + currentCategory);
+            AppLog.d(TAG, "Loading menu items");
 
-            List<com.example.mal2017_assessmentmodule.models.MenuItem> items;
+            // The whole menu, grouped by category; tabs only scroll it
+            List<com.example.mal2017_assessmentmodule.models.MenuItem> items = dbHelper.getAllMenuItems();
 
-            if (currentCategory.equals(Constants.CATEGORY_ALL)) {
-                items = dbHelper.getAllMenuItems();
-            } else {
-                items = dbHelper.getMenuItemsByCategory(currentCategory);
-            }
-
-            Log.d(TAG, "Found " + items.size() + " menu items");
+            AppLog.d(TAG, "Found " + items.size() + " menu items");
 
             if (items.isEmpty()) {
                 items = new ArrayList<>();
                 Toast.makeText(this, "No menu items found", Toast.LENGTH_SHORT).show();
             }
 
+            // Reuse the adapter so only changed rows are rebound
+            if (menuItemAdapter != null) {
+                menuItemAdapter.updateData(items);
+                return;
+            }
+
             menuItemAdapter = new MenuItemAdapter(this, items);
             menuItemAdapter.setOnItemClickListener(item -> {
                 Toast.makeText(this, "Selected: " + item.getName(), Toast.LENGTH_SHORT).show();
@@ -202,34 +206,25 @@ public class GuestMenuActivity extends AppCompatActivity {
             }
 
         } catch (Exception e) {
-            Log.e(TAG, "Error loading menu items: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error loading menu items: " + e.getMessage(), e);
             Toast.makeText(this, "Error loading menu: " + e.getMessage(), Toast.LENGTH_SHORT).show();
         }
     }
 
-    private void filterByCategory(int categoryPosition) {
+    /**
+     * Jump to a tab's section; no query, no new adapter
+     */
+    private void showCategory(int tabPosition) {
         try {
-            switch (categoryPosition) {
-                case 0:
-                    currentCategory = Constants.CATEGORY_ALL;
-                    break;
-                case 1:
-                    currentCategory = Constants.CATEGORY_APPETIZERS;
-                    break;
-                case 2:
-                    currentCategory = Constants.CATEGORY_MAIN_COURSE;
-                    break;
-                case 3:
-                    currentCategory = Constants.CATEGORY_DESSERTS;
-                    break;
-                case 4:
-                    currentCategory = Constants.CATEGORY_BEVERAGES;
-                    break;
-            }
+            String category = tabPosition == 0
+                    ? Constants.CATEGORY_ALL
+                    : Constants.MENU_CATEGORIES.get(tabPosition - 1);
 
-            loadMenuItems();
+            if (menuItemAdapter != null && rvMenuItems != null) {
+                menuItemAdapter.scrollToCategory(rvMenuItems, category);
+            }
         } catch (Exception e) {
-            Log.e(TAG, "Error filtering: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error showing category: " + e.getMessage(), e);
         }
     }
 
@@ -239,7 +234,7 @@ public class GuestMenuActivity extends AppCompatActivity {
         try {
             loadMenuItems();
         } catch (Exception e) {
-            Log.e(TAG, "Error in onResume: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error in onResume: " + e.getMessage(), e);
         }
     }
 }
\ No newline at end of file
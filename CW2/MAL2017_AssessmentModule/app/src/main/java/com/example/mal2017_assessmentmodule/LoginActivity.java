@@ -3,7 +3,6 @@ package com.example.mal2017_assessmentmodule;
 import android.content.Intent;
 import android.os.Bundle;
 import android.text.TextUtils;
-import android.util.Log;
 import android.view.View;
 import android.widget.Button;
 import android.widget.ProgressBar;
@@ -12,17 +11,13 @@ import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import com.android.volley.Response;
-import com.android.volley.VolleyError;
+import com.example.mal2017_assessmentmodule.api.ApiClient;
 import com.example.mal2017_assessmentmodule.api.ApiService;
 import com.example.mal2017_assessmentmodule.database.DatabaseHelper;
 import com.example.mal2017_assessmentmodule.models.User;
 import com.google.android.material.textfield.TextInputEditText;
 import com.google.android.material.textfield.TextInputLayout;
 
-import java.util.List;
-import java.util.Map;
-
 /**
  * LoginActivity - Complete authentication with API integration.
  *
@@ -35,9 +30,9 @@ import java.util.Map;
  *
  * Authentication Flow:
  * 1. Validate email and password
- * 2. Try to authenticate with API first
- * 3. If API succeeds, sync user to local database
- * 4. If API fails or no connection, try local database
+ * 2. Check API and local database at the same time (LoginOrchestrator)
+ * 3. First source with a matching user wins, the other is ignored
+ * 4. API matches are synced to the local database in the background
  * 5. Create session and navigate to appropriate home screen
  *
  * Test Credentials:
@@ -47,7 +42,7 @@ import java.util.Map;
  * - Student: john.doe@example.com / test
  *
  * @author BSCS2509254
- * @version 5.0 (Fixed API Authentication)
+ * @version 6.0 (Concurrent API/Local Authentication)
  */
 public class LoginActivity extends AppCompatActivity {
 
@@ -64,6 +59,7 @@ public class LoginActivity extends AppCompatActivity {
     private DatabaseHelper dbHelper;
     private SessionManager sessionManager;
     private ApiService apiService;
+    private LoginOrchestrator loginOrchestrator;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -76,11 +72,21 @@ public class LoginActivity extends AppCompatActivity {
 
             // Initialize services
             sessionManager = new SessionManager(this);
-            apiService = new ApiService(this);
+            // Not tied to this activity: when the local database wins, the
+            // login moves on and finishes here while read_all_users still
+            // reconciles the local copy
+            apiService = new ApiService(getApplicationContext());
+            loginOrchestrator = new LoginOrchestrator(this, apiService);
+
+            // Send any user changes left over from an earlier session
+            OutboxManager.getInstance(this).scheduleFlush();
+
+            // Inflate list rows while the login screen sits idle
+            RowViewPools.getInstance(this).prewarm(this);
 
             // Check if already logged in
             if (sessionManager.isLoggedIn()) {
-                Log.d(TAG, "User already logged in, navigating to home");
+                AppLog.d(TAG, "User already logged in, navigating to home");
                 navigateToHome();
                 return;
             }
@@ -89,9 +95,9 @@ public class LoginActivity extends AppCompatActivity {
             new Thread(() -> {
                 try {
                     dbHelper = DatabaseHelper.getInstance(LoginActivity.this);
-                    Log.d(TAG, "Database initialized successfully");
+                    AppLog.d(TAG, "Database initialized successfully");
                 } catch (Exception e) {
-                    Log.e(TAG, "Database initialization error: " + e.getMessage(), e);
+                    AppLog.e(TAG, "Database initialization error: " + e.getMessage(), e);
                 }
             }).start();
 
@@ -101,7 +107,7 @@ public class LoginActivity extends AppCompatActivity {
             showTestCredentialsHint();
 
         } catch (Exception e) {
-            Log.e(TAG, "Error in onCreate: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error in onCreate: " + e.getMessage(), e);
             Toast.makeText(this, "Error initializing app: " + e.getMessage(), Toast.LENGTH_LONG).show();
         }
     }
@@ -146,7 +152,7 @@ public class LoginActivity extends AppCompatActivity {
      * Validates input and authenticates user
      */
     private void handleLogin() {
-        Log.d(TAG, "=== Login Attempt Started ===");
+        AppLog.d(TAG, "=== Login Attempt Started ===");
 
         // Clear previous errors
         tilEmail.setError(null);
@@ -155,210 +161,50 @@ public class LoginActivity extends AppCompatActivity {
         String email = etEmail.getText().toString().trim();
         String password = etPassword.getText().toString().trim();
 
-        Log.d(TAG, "Email entered: " + email);
-        Log.d(TAG, "Password length: " + password.length());
+        AppLog.d(TAG, () -> "Email entered: " + email);
+        AppLog.d(TAG, () -> "Password length: " + password.length());
 
         if (!validateInputs(email, password)) {
-            Log.d(TAG, "Validation failed");
+            AppLog.d(TAG, "Validation failed");
             return;
         }
 
         showLoading(true);
 
-        // Try API authentication first
-        authenticateWithApi(email, password);
-    }
-
-    /**
-     * Authenticate user with API
-     * Fetches all users and compares credentials
-     */
-    private void authenticateWithApi(String email, String password) {
-        Log.d(TAG, "=== API Authentication Started ===");
-        Log.d(TAG, "Fetching users from API with Student ID: " + Constants.STUDENT_ID);
-
-        apiService.getAllUsers(Constants.STUDENT_ID,
-                new Response.Listener<Map<String, List<User>>>() {
-                    @Override
-                    public void onResponse(Map<String, List<User>> response) {
-                        Log.d(TAG, "=== API Response Received ===");
-                        Log.d(TAG, "Response map keys: " + response.keySet());
-
-                        List<User> users = response.get("users");
-
-                        if (users == null) {
-                            Log.e(TAG, "Users list is NULL in API response");
-                            Log.d(TAG, "Falling back to local database");
-                            authenticateWithLocalDatabase(email, password);
-                            return;
-                        }
-
-                        Log.d(TAG, "Number of users fetched from API: " + users.size());
-
-                        // Debug: Print all users from API
-                        for (int i = 0; i < users.size(); i++) {
-                            User u = users.get(i);
-                            Log.d(TAG, String.format("User %d: email=%s, usertype=%s",
-                                    i + 1, u.getEmail(), u.getUsertype()));
-                        }
-
-                        // Find user with matching email and password
-                        User authenticatedUser = null;
-                        for (User user : users) {
-                            Log.d(TAG, "Comparing with user: " + user.getEmail());
-
-                            // Case-insensitive email comparison
-                            boolean emailMatches = user.getEmail().equalsIgnoreCase(email);
-                            boolean passwordMatches = user.getPassword().equals(password);
-
-                            Log.d(TAG, "Email matches: " + emailMatches);
-                            Log.d(TAG, "Password matches: " + passwordMatches);
-
-                            if (emailMatches && passwordMatches) {
-                                authenticatedUser = user;
-                                Log.d(TAG, "=== MATCH FOUND ===");
-                                Log.d(TAG, "Authenticated user: " + user.getUsername());
-                                Log.d(TAG, "User type: " + user.getUsertype());
-                                break;
-                            }
-                        }
-
-                        if (authenticatedUser != null) {
-                            Log.d(TAG, "Authentication successful via API");
-                            onApiAuthenticationSuccess(authenticatedUser);
-                        } else {
-                            Log.d(TAG, "No matching user found in API");
-                            Log.d(TAG, "Trying local database as fallback");
-                            authenticateWithLocalDatabase(email, password);
-                        }
-                    }
-                },
-                new Response.ErrorListener() {
-                    @Override
-                    public void onErrorResponse(VolleyError error) {
-                        Log.e(TAG, "=== API Authentication Failed ===");
-                        Log.e(TAG, "Error: " + error.toString());
-                        if (error.getMessage() != null) {
-                            Log.e(TAG, "Error message: " + error.getMessage());
-                        }
-                        if (error.networkResponse != null) {
-                            Log.e(TAG, "Status code: " + error.networkResponse.statusCode);
-                        }
-
-                        // Show error to user
-                        runOnUiThread(() -> {
-                            Toast.makeText(LoginActivity.this,
-                                    "API connection failed. Trying local database...",
-                                    Toast.LENGTH_SHORT).show();
-                        });
-
-                        // Fallback to local database
-                        authenticateWithLocalDatabase(email, password);
-                    }
-                });
+        // Check API and local database at the same time
+        authenticate(email, password);
     }
 
     /**
-     * Handle successful API authentication
-     * Sync user to local database and create session
+     * Authenticate user against the API and local database concurrently
+     * The first source that recognises the credentials wins
      */
-    private void onApiAuthenticationSuccess(User user) {
-        Log.d(TAG, "=== Syncing user to local database ===");
-
-        // Sync user to local database in background
-        new Thread(() -> {
-            try {
-                if (dbHelper == null) {
-                    dbHelper = DatabaseHelper.getInstance(this);
-                }
-
-                // Check if user exists in local database
-                User localUser = null;
-                List<User> allUsers = dbHelper.getAllUsers();
-                for (User u : allUsers) {
-                    if (u.getEmail().equalsIgnoreCase(user.getEmail())) {
-                        localUser = u;
-                        break;
-                    }
-                }
-
-                // If user doesn't exist locally, add them
-                if (localUser == null) {
-                    // Generate local user ID
-                    int newUserId = allUsers.size() + 1;
-                    user.setUserId(newUserId);
-                    boolean added = dbHelper.addUser(user);
-                    Log.d(TAG, "User added to local database: " + added);
-                } else {
-                    // Use existing local user ID and update data
-                    user.setUserId(localUser.getUserId());
-                    boolean updated = dbHelper.updateUser(user);
-                    Log.d(TAG, "Local user data updated: " + updated);
-                }
-
-                // Update UI on main thread
-                runOnUiThread(() -> {
-                    showLoading(false);
-                    onLoginSuccess(user);
-                });
-
-            } catch (Exception e) {
-                Log.e(TAG, "Error syncing user to database: " + e.getMessage(), e);
-                runOnUiThread(() -> {
-                    showLoading(false);
-                    onLoginSuccess(user);
-                });
+    private void authenticate(String email, String password) {
+        AppLog.d(TAG, "=== Authentication Started (API + local) ===");
+
+        loginOrchestrator.login(email, password, new LoginOrchestrator.Callback() {
+            @Override
+            public void onAuthenticated(User user, boolean fromApi) {
+                AppLog.d(TAG, () -> "Authenticated via " + (fromApi ? "API" : "local database"));
+                showLoading(false);
+                onLoginSuccess(user);
             }
-        }).start();
-    }
-
-    /**
-     * Authenticate with local database (fallback)
-     */
-    private void authenticateWithLocalDatabase(String email, String password) {
-        Log.d(TAG, "=== Local Database Authentication Started ===");
-
-        new Thread(() -> {
-            try {
-                if (dbHelper == null) {
-                    dbHelper = DatabaseHelper.getInstance(this);
-                }
 
-                User localUser = dbHelper.getUserByCredentials(email, password);
-
-                runOnUiThread(() -> {
-                    showLoading(false);
-
-                    if (localUser != null) {
-                        Log.d(TAG, "=== User authenticated via local database ===");
-                        Log.d(TAG, "Username: " + localUser.getUsername());
-                        Log.d(TAG, "User type: " + localUser.getUsertype());
-                        onLoginSuccess(localUser);
-                    } else {
-                        Log.d(TAG, "=== Authentication Failed ===");
-                        Log.d(TAG, "No matching user in local database");
-
-                        // Show detailed error message
-                        Toast.makeText(LoginActivity.this,
-                                "Invalid email or password.\n\n" +
-                                        "Please check:\n" +
-                                        "• Email: guest@mail.com or staff@mail.com\n" +
-                                        "• Password: password123\n" +
-                                        "• Internet connection for API",
-                                Toast.LENGTH_LONG).show();
-                    }
-                });
-
-            } catch (Exception e) {
-                Log.e(TAG, "Local authentication error: " + e.getMessage(), e);
-                runOnUiThread(() -> {
-                    showLoading(false);
-                    Toast.makeText(LoginActivity.this,
-                            "Authentication error: " + e.getMessage(),
-                            Toast.LENGTH_SHORT).show();
-                });
+            @Override
+            public void onRejected() {
+                AppLog.d(TAG, "=== Authentication Failed ===");
+                showLoading(false);
+
+                // Show detailed error message
+                Toast.makeText(LoginActivity.this,
+                        "Invalid email or password.\n\n" +
+                                "Please check:\n" +
+                                "• Email: guest@mail.com or staff@mail.com\n" +
+                                "• Password: password123\n" +
+                                "• Internet connection for API",
+                        Toast.LENGTH_LONG).show();
             }
-        }).start();
+        });
     }
 
     /**
@@ -368,13 +214,13 @@ public class LoginActivity extends AppCompatActivity {
      * @param user Authenticated user object
      */
     private void onLoginSuccess(User user) {
-        Log.d(TAG, "=== Login Success ===");
-        Log.d(TAG, "User: " + user.getFullName());
-        Log.d(TAG, "Type: " + user.getUsertype());
+        AppLog.d(TAG, "=== Login Success ===");
+        AppLog.d(TAG, () -> "User: " + user.getFullName());
+        AppLog.d(TAG, () -> "Type: " + user.getUsertype());
 
         // Save session
         sessionManager.createLoginSession(user);
-        Log.d(TAG, "Session created");
+        AppLog.d(TAG, "Session created");
 
         // Show welcome message
         String userType = user.isStaff() ? "Staff" : "Guest";
@@ -394,17 +240,17 @@ public class LoginActivity extends AppCompatActivity {
             Intent intent;
 
             if (sessionManager != null && sessionManager.isStaff()) {
-                Log.d(TAG, "Navigating to Staff Dashboard");
+                AppLog.d(TAG, "Navigating to Staff Dashboard");
                 intent = new Intent(this, StaffDashboardActivity.class);
             } else {
-                Log.d(TAG, "Navigating to Guest Menu");
+                AppLog.d(TAG, "Navigating to Guest Menu");
                 intent = new Intent(this, GuestMenuActivity.class);
             }
 
             startActivity(intent);
             finish();
         } catch (Exception e) {
-            Log.e(TAG, "Error navigating to home: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error navigating to home: " + e.getMessage(), e);
             Toast.makeText(this, "Navigation error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
         }
     }
@@ -448,6 +294,36 @@ public class LoginActivity extends AppCompatActivity {
         etPassword.setEnabled(!show);
     }
 
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // Connect to the API host while the user types, so the login
+        // request does not wait for DNS and the handshake
+        ApiClient.getInstance(this).warmUp();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        ApiClient.getInstance(this).cancelWarmUp();
+        // The login's ApiService uses the application context, so nothing
+        // else stops an attempt still in progress. Cancel it here, so its
+        // result can't open the next screen while the app is in the
+        // background, and let the user try again on return
+        if (loginOrchestrator != null && progressBar.getVisibility() == View.VISIBLE) {
+            loginOrchestrator.cancel();
+            showLoading(false);
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (loginOrchestrator != null) {
+            loginOrchestrator.cancel();
+        }
+    }
+
     /**
      * Handle forgot password click
      */
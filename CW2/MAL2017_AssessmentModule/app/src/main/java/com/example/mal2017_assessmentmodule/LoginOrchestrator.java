@@ -0,0 +1,194 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.mal2017_assessmentmodule.api.ApiService;
+import com.example.mal2017_assessmentmodule.database.DatabaseHelper;
+import com.example.mal2017_assessmentmodule.models.User;
+
+import java.util.List;
+
+/**
+ * LoginOrchestrator - Runs the API and local database login checks at the same time.
+ *
+ * Authentication Flow:
+ * 1. Start the API user lookup and the local getUserByCredentials query together
+ * 2. The first positive match wins and is delivered to the callback
+ * 3. A miss or error from one side is not final - wait for the other side
+ * 4. Only when both sides miss is the login rejected
+ * 5. Whenever the API returns a match, the matched user gets its local user
+ *    ID first (one lookup, or one insert for a new user); the match is then
+ *    delivered, and only after that are all returned users delta-synced
+ *    into the local database in the background (UserSyncManager)
+ *
+ * The losing side's result is never delivered. If the local database wins,
+ * the API request keeps running only to reconcile the local copy.
+ *
+ * All callbacks are delivered on the main thread.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class LoginOrchestrator {
+
+    private static final String TAG = "LoginOrchestrator";
+
+    /**
+     * Result callback for a login attempt
+     */
+    public interface Callback {
+        void onAuthenticated(User user, boolean fromApi);
+        void onRejected();
+    }
+
+    private final Context context;
+    private final ApiService apiService;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Per-attempt state, only touched on the main thread
+    private Object currentAttempt;
+    private boolean finished;
+    private boolean localDone;
+    private boolean remoteDone;
+
+    /**
+     * @param apiService Should be created with the application context, so
+     *                   the reconciling request survives the login screen
+     */
+    public LoginOrchestrator(Context context, ApiService apiService) {
+        this.context = context.getApplicationContext();
+        this.apiService = apiService;
+    }
+
+    /**
+     * Start a login attempt. Must be called on the main thread.
+     * Any attempt still in progress is cancelled.
+     */
+    public void login(String email, String password, Callback callback) {
+        cancel();
+
+        Object attempt = new Object();
+        currentAttempt = attempt;
+        finished = false;
+        localDone = false;
+        remoteDone = false;
+
+        AppLog.d(TAG, "Starting API and local login checks");
+
+        // Remote check
+        apiService.getAllUsers(Constants.STUDENT_ID, attempt,
+                response -> {
+                    List<User> users = response != null ? response.get("users") : null;
+                    User match = findMatch(users, email, password);
+                    if (match != null) {
+                        reconcileLocalCopy(attempt, users, match, callback);
+                    } else {
+                        onRemoteMiss(attempt, callback);
+                    }
+                },
+                error -> {
+                    AppLog.e(TAG, "API login check failed: " + error.toString());
+                    onRemoteMiss(attempt, callback);
+                });
+
+        // Local check
+        new Thread(() -> {
+            User localUser = null;
+            try {
+                localUser = DatabaseHelper.getInstance(context).getUserByCredentials(email, password);
+            } catch (Exception e) {
+                AppLog.e(TAG, "Local login check failed: " + e.getMessage(), e);
+            }
+            User result = localUser;
+            mainHandler.post(() -> onLocalResult(attempt, result, callback));
+        }).start();
+    }
+
+    /**
+     * Cancel the current attempt if it has not produced a result yet.
+     * No callback will be delivered for it. Once a result has been
+     * delivered, the background reconcile is left to finish.
+     */
+    public void cancel() {
+        if (currentAttempt != null && !finished) {
+            apiService.cancelRequests(currentAttempt);
+            currentAttempt = null;
+        }
+    }
+
+    private void onLocalResult(Object attempt, User localUser, Callback callback) {
+        if (attempt != currentAttempt) return;
+        localDone = true;
+
+        if (finished) return;
+
+        if (localUser != null) {
+            AppLog.d(TAG, "Local database answered first");
+            finished = true;
+            callback.onAuthenticated(localUser, false);
+        } else if (remoteDone) {
+            finished = true;
+            callback.onRejected();
+        }
+    }
+
+    private void onRemoteMiss(Object attempt, Callback callback) {
+        if (attempt != currentAttempt) return;
+        remoteDone = true;
+
+        if (!finished && localDone) {
+            finished = true;
+            callback.onRejected();
+        }
+    }
+
+    private void onRemoteMatch(Object attempt, User user, Callback callback) {
+        if (attempt != currentAttempt) return;
+        remoteDone = true;
+
+        if (!finished) {
+            AppLog.d(TAG, "API answered first");
+            finished = true;
+            callback.onAuthenticated(user, true);
+        }
+    }
+
+    /**
+     * Give the matched user its local user ID and deliver the match, then
+     * delta-sync all API users into the local database. The full sync never
+     * delays the login; it runs whether or not the API won the race.
+     */
+    private void reconcileLocalCopy(Object attempt, List<User> users, User user, Callback callback) {
+        new Thread(() -> {
+            UserSyncManager syncManager = UserSyncManager.getInstance(context);
+            try {
+                syncManager.resolveLocalUser(user);
+            } catch (Exception e) {
+                AppLog.e(TAG, "Error resolving local user: " + e.getMessage(), e);
+            }
+
+            mainHandler.post(() -> onRemoteMatch(attempt, user, callback));
+
+            try {
+                syncManager.applyRemoteUsers(users);
+            } catch (Exception e) {
+                AppLog.e(TAG, "Error syncing users to database: " + e.getMessage(), e);
+            }
+        }).start();
+    }
+
+    private User findMatch(List<User> users, String email, String password) {
+        if (users == null) {
+            return null;
+        }
+        for (User user : users) {
+            if (user.getEmail() != null && user.getEmail().equalsIgnoreCase(email)
+                    && password.equals(user.getPassword())) {
+                return user;
+            }
+        }
+        return null;
+    }
+}
@@ -11,7 +11,6 @@ import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Bundle;
 import android.text.TextUtils;
-import android.util.Log;
 import android.widget.ArrayAdapter;
 import android.widget.AutoCompleteTextView;
 import android.widget.Button;
@@ -102,9 +101,9 @@ public class MakeReservationActivity extends AppCompatActivity {
     }
 
     private void prefillUserData() {
-        if (sessionManager.isLoggedIn()) {
-            String fullName = sessionManager.getLoggedInUser().getFullName();
-            etGuestName.setText(fullName);
+        SessionManager.Session session = sessionManager.getSession();
+        if (session.isLoggedIn()) {
+            etGuestName.setText(session.getFullName());
         }
     }
 
@@ -210,13 +209,11 @@ public class MakeReservationActivity extends AppCompatActivity {
 
         int partySize = parsePartySize(partySizeStr);
 
-        int userId = sessionManager.isLoggedIn() ?
-                sessionManager.getLoggedInUser().getUserId() : 0;
-
-        String guestEmail = sessionManager.isLoggedIn() ?
-                sessionManager.getLoggedInUser().getEmail() : "";
-        String guestContact = sessionManager.isLoggedIn() ?
-                sessionManager.getLoggedInUser().getContact() : "";
+        // One snapshot, so all fields come from the same session
+        SessionManager.Session session = sessionManager.getSession();
+        int userId = session.getUserId();
+        String guestEmail = session.getEmail();
+        String guestContact = session.getContact();
 
         // Generate reservation ID
         int reservationId = (int) (System.currentTimeMillis() % 100000);
@@ -278,7 +275,7 @@ public class MakeReservationActivity extends AppCompatActivity {
             NotificationManager notificationManager = getSystemService(NotificationManager.class);
             if (notificationManager != null) {
                 notificationManager.createNotificationChannel(channel);
-                Log.d(TAG, "Notification channel created");
+                AppLog.d(TAG, "Notification channel created");
             }
         }
     }
@@ -299,9 +296,9 @@ public class MakeReservationActivity extends AppCompatActivity {
         super.onRequestPermissionsResult(requestCode, permissions, grantResults);
         if (requestCode == NOTIFICATION_PERMISSION_CODE) {
             if (grantResults.length > 0 && grantResults[0] == PackageManager.PERMISSION_GRANTED) {
-                Log.d(TAG, "Notification permission granted");
+                AppLog.d(TAG, "Notification permission granted");
             } else {
-                Log.d(TAG, "Notification permission denied");
+                AppLog.d(TAG, "Notification permission denied");
                 Toast.makeText(this, "Enable notifications to receive reservation updates", Toast.LENGTH_LONG).show();
             }
         }
@@ -313,7 +310,7 @@ public class MakeReservationActivity extends AppCompatActivity {
             if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
                 if (ActivityCompat.checkSelfPermission(this, Manifest.permission.POST_NOTIFICATIONS)
                         != PackageManager.PERMISSION_GRANTED) {
-                    Log.d(TAG, "Notification permission not granted");
+                    AppLog.d(TAG, "Notification permission not granted");
                     Toast.makeText(this, "Enable notifications in settings to receive updates", Toast.LENGTH_LONG).show();
                     return;
                 }
@@ -353,10 +350,10 @@ public class MakeReservationActivity extends AppCompatActivity {
 
             notificationManager.notify(reservation.getReservationId(), builder.build());
 
-            Log.d(TAG, "Notification sent successfully: " + title);
+            AppLog.d(TAG, "Notification sent successfully: " + title);
             Toast.makeText(this, "Notification sent! Check your notification bar.", Toast.LENGTH_LONG).show();
         } catch (Exception e) {
-            Log.e(TAG, "Error sending notification: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error sending notification: " + e.getMessage(), e);
             Toast.makeText(this, "Could not send notification: " + e.getMessage(), Toast.LENGTH_SHORT).show();
         }
     }
@@ -0,0 +1,126 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.mal2017_assessmentmodule.models.MenuItem;
+import com.example.mal2017_assessmentmodule.models.MenuItemRow;
+import com.example.mal2017_assessmentmodule.models.MenuSections;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MenuFilter - Builds menu rows and runs menu searches off the main thread.
+ *
+ * Features:
+ * - Debounced: a query runs DEBOUNCE_MS after the last keystroke
+ * - Background: display rows (MenuItemRow), grouped by category
+ *   (MenuSections), and the MenuSearchIndex are built and searched on
+ *   one shared worker thread, so builds and searches never overlap
+ * - Stale results dropped: every new query or data set bumps a
+ *   generation, and results of an older generation are never delivered
+ * - Results are delivered on the main thread
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class MenuFilter {
+
+    private static final String TAG = "MenuFilter";
+
+    private static final long DEBOUNCE_MS = 150;
+
+    // One worker for all filters; work is short and only one screen types at a time
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MenuFilter");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public interface Listener {
+        /** Grouped rows of a new data set; every data set is delivered, in order */
+        void onRowsBuilt(MenuSections sections);
+
+        /** Results of the latest query only */
+        void onFiltered(String query, List<MenuItemRow> results);
+    }
+
+    private final Listener listener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicInteger generation = new AtomicInteger();
+    private Runnable pendingQuery;
+
+    // Only touched on the worker thread
+    private MenuSearchIndex index;
+
+    public MenuFilter(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Build rows, sections and the index for a new data set, then apply the query
+     * (if not blank). Results still running for the old one are dropped.
+     *
+     * @param items Items to show; the list must not change afterwards
+     */
+    public void setItems(List<MenuItem> items, String query) {
+        int queryGeneration = generation.incrementAndGet();
+        executor.execute(() -> {
+            long start = System.nanoTime();
+            List<MenuItemRow> rows = MenuItemRow.fromAll(items);
+            MenuSections sections = MenuSections.group(rows, Constants.MENU_CATEGORIES);
+            index = new MenuSearchIndex(rows);
+            AppLog.d(TAG, () -> "Built " + rows.size() + " rows, sections and index in "
+                    + (System.nanoTime() - start) / 1000 + " us");
+            mainHandler.post(() -> listener.onRowsBuilt(sections));
+
+            if (query != null && !query.trim().isEmpty()) {
+                search(query, queryGeneration);
+            }
+        });
+    }
+
+    /**
+     * Search once typing pauses. Call on the main thread.
+     */
+    public void filter(String query) {
+        cancel();
+        pendingQuery = () -> {
+            pendingQuery = null;
+            run(query);
+        };
+        mainHandler.postDelayed(pendingQuery, DEBOUNCE_MS);
+    }
+
+    /**
+     * Drop a pending query and any result not yet delivered
+     */
+    public void cancel() {
+        if (pendingQuery != null) {
+            mainHandler.removeCallbacks(pendingQuery);
+            pendingQuery = null;
+        }
+        generation.incrementAndGet();
+    }
+
+    private void run(String query) {
+        int queryGeneration = generation.incrementAndGet();
+        executor.execute(() -> search(query, queryGeneration));
+    }
+
+    // Worker thread
+    private void search(String query, int queryGeneration) {
+        if (queryGeneration != generation.get() || index == null) {
+            return;  // A newer query or data set is already on its way
+        }
+        List<MenuItemRow> results = index.search(query);
+        mainHandler.post(() -> {
+            if (queryGeneration == generation.get()) {
+                listener.onFiltered(query, results);
+            }
+        });
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.mal2017_assessmentmodule;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Priority;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.data.DataFetcher;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.signature.ObjectKey;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * MenuImageLoader - Glide loader for remote menu images (MenuImageStore.Remote).
+ *
+ * Loads through MenuImageStore instead of Glide's own HTTP fetcher, so a
+ * photo is downloaded once into the content-addressed store and decoded
+ * from there. A load Glide cancels also cancels its download.
+ * Registered in RestaurantGlideModule.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class MenuImageLoader implements ModelLoader<MenuImageStore.Remote, InputStream> {
+
+    private final MenuImageStore store;
+
+    MenuImageLoader(MenuImageStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public LoadData<InputStream> buildLoadData(@NonNull MenuImageStore.Remote model,
+                                               int width, int height, @NonNull Options options) {
+        return new LoadData<>(new ObjectKey(model.getUrl()), new Fetcher(store, model.getUrl()));
+    }
+
+    @Override
+    public boolean handles(@NonNull MenuImageStore.Remote model) {
+        return true;
+    }
+
+    /**
+     * Opens the stored file, downloading it first if needed.
+     * Glide calls loadData on one of its own background threads.
+     */
+    private static class Fetcher implements DataFetcher<InputStream> {
+        private final MenuImageStore store;
+        private final String url;
+        private final MenuImageStore.Cancellation cancellation = new MenuImageStore.Cancellation();
+        private InputStream stream;
+
+        Fetcher(MenuImageStore store, String url) {
+            this.store = store;
+            this.url = url;
+        }
+
+        @Override
+        public void loadData(@NonNull Priority priority, @NonNull DataCallback<? super InputStream> callback) {
+            try {
+                stream = new FileInputStream(store.fetch(url, cancellation));
+                callback.onDataReady(stream);
+            } catch (IOException e) {
+                callback.onLoadFailed(e);
+            }
+        }
+
+        @Override
+        public void cleanup() {
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (IOException ignored) {
+                    // Nothing to do
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            // Stops a download in progress; nothing is stored
+            cancellation.cancel();
+        }
+
+        @NonNull
+        @Override
+        public Class<InputStream> getDataClass() {
+            return InputStream.class;
+        }
+
+        @NonNull
+        @Override
+        public DataSource getDataSource() {
+            return store.getCached(url) != null ? DataSource.LOCAL : DataSource.REMOTE;
+        }
+    }
+
+    public static class Factory implements ModelLoaderFactory<MenuImageStore.Remote, InputStream> {
+        private final MenuImageStore store;
+
+        public Factory(MenuImageStore store) {
+            this.store = store;
+        }
+
+        @NonNull
+        @Override
+        public ModelLoader<MenuImageStore.Remote, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new MenuImageLoader(store);
+        }
+
+        @Override
+        public void teardown() {
+            // Store is a singleton, nothing to release
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+
+import com.example.mal2017_assessmentmodule.database.DatabaseHelper;
+import com.example.mal2017_assessmentmodule.models.MenuItem;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * MenuImageStore - Persistent, content-addressed store for remote menu images.
+ *
+ * Features:
+ * - Each image is saved once under the SHA-256 of its bytes, so items
+ *   (or URLs) showing the same photo share one file
+ * - URL -> hash index in SharedPreferences; a known URL is never
+ *   downloaded again, even after a restart
+ * - Concurrent requests for the same URL wait for one download
+ * - prefetchMenu() downloads every menu image in the background, only on
+ *   an unmetered network (Wi-Fi, Ethernet), and deletes images no menu
+ *   item uses any more. Storing a download and pruning share one lock, and
+ *   images stored while a prefetch runs are never pruned by it
+ * - A download can be cancelled (Cancellation), e.g. when Glide drops
+ *   the load
+ *
+ * Glide reads from the store through MenuImageLoader, so the adapter
+ * never touches it directly. The store only keeps whole originals: a
+ * thumbnail request for a URL not stored yet waits for the full download
+ * like the main request does, and only saves decoding time after that.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class MenuImageStore {
+
+    private static final String TAG = "MenuImageStore";
+
+    private static final String DIR_NAME = "menu_images";
+    private static final String PREF_NAME = "MenuImageIndex";
+    private static final long TIMEOUT_SECONDS = 20;
+
+    /**
+     * Glide model for a remote menu image
+     */
+    public static final class Remote {
+        private final String url;
+
+        public Remote(String url) {
+            this.url = url;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Remote && ((Remote) o).url.equals(url);
+        }
+
+        @Override
+        public int hashCode() {
+            return url.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return url;
+        }
+    }
+
+    /**
+     * Cancels a fetch from another thread. A fetch waiting on another
+     * caller's download of the same URL is not affected.
+     */
+    public static final class Cancellation {
+        private volatile boolean cancelled;
+        private volatile Call call;
+
+        public void cancel() {
+            cancelled = true;
+            Call current = call;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        void attach(Call call) {
+            this.call = call;
+            if (cancelled) {
+                call.cancel();
+            }
+        }
+    }
+
+    private static MenuImageStore instance;
+
+    private final Context context;
+    private final File dir;
+    private final SharedPreferences index;
+    private final OkHttpClient client;
+    private final Map<String, Object> urlLocks = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean prefetching = new AtomicBoolean(false);
+
+    // Guards the store directory and index against prune() running mid-store
+    private final Object storeLock = new Object();
+    // URLs stored since the running prefetch read the menu; prune keeps them
+    private final Set<String> storedDuringPrefetch = new HashSet<>();
+
+    private MenuImageStore(Context context) {
+        this.context = context.getApplicationContext();
+        this.dir = new File(this.context.getFilesDir(), DIR_NAME);
+        this.index = this.context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        this.client = new OkHttpClient.Builder()
+                .connectTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Get singleton instance of MenuImageStore
+     */
+    public static synchronized MenuImageStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new MenuImageStore(context);
+        }
+        return instance;
+    }
+
+    /**
+     * True if a menu image key is a URL rather than a drawable name
+     */
+    public static boolean isRemote(String imageKey) {
+        return imageKey != null
+                && (imageKey.startsWith("http://") || imageKey.startsWith("https://"));
+    }
+
+    /**
+     * Stored file for a URL, or null if it has not been downloaded
+     */
+    public File getCached(String url) {
+        String hash = index.getString(url, null);
+        if (hash == null) {
+            return null;
+        }
+        File file = new File(dir, hash);
+        return file.isFile() ? file : null;
+    }
+
+    /**
+     * Stored file for a URL, downloading it first if needed.
+     * Blocking - call off the main thread.
+     */
+    public File fetch(String url) throws IOException {
+        return fetch(url, null);
+    }
+
+    /**
+     * Stored file for a URL, downloading it first if needed. A cancelled
+     * download throws an IOException and stores nothing.
+     * Blocking - call off the main thread.
+     */
+    public File fetch(String url, Cancellation cancellation) throws IOException {
+        File cached = getCached(url);
+        if (cached != null) {
+            return cached;
+        }
+
+        Object lock = urlLocks.computeIfAbsent(url, key -> new Object());
+        try {
+            synchronized (lock) {
+                // Another thread may have finished the download while we waited
+                cached = getCached(url);
+                return cached != null ? cached : download(url, cancellation);
+            }
+        } finally {
+            urlLocks.remove(url, lock);
+        }
+    }
+
+    private File download(String url, Cancellation cancellation) throws IOException {
+        long start = System.nanoTime();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Cannot create " + dir);
+        }
+
+        Request request = new Request.Builder().url(url).build();
+        // Outside dir, so prune() never sees a download in progress
+        File temp = File.createTempFile("menu_image", ".tmp", context.getCacheDir());
+        String hash;
+        Call call = client.newCall(request);
+        if (cancellation != null) {
+            cancellation.attach(call);
+        }
+        try (Response response = call.execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                throw new IOException("HTTP " + response.code() + " for " + url);
+            }
+            hash = copyAndHash(body.byteStream(), temp);
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+
+        File target = new File(dir, hash);
+        synchronized (storeLock) {
+            // Same bytes already stored for another URL: keep the existing file
+            if (target.isFile()) {
+                temp.delete();
+                AppLog.d(TAG, () -> "Deduplicated " + url + " -> " + hash);
+            } else if (!temp.renameTo(target)) {
+                temp.delete();
+                throw new IOException("Cannot store " + url);
+            }
+
+            index.edit().putString(url, hash).apply();
+            storedDuringPrefetch.add(url);
+        }
+        AppLog.d(TAG, () -> "Downloaded " + url + " (" + target.length() + " bytes) in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        return target;
+    }
+
+    private static String copyAndHash(InputStream in, File target) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);  // Always available on Android
+        }
+
+        byte[] buffer = new byte[16 * 1024];
+        try (OutputStream out = new FileOutputStream(target)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        }
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Download every remote menu image not stored yet, in the background.
+     * Does nothing on a metered network or while a prefetch is running.
+     */
+    public void prefetchMenu() {
+        if (!isUnmetered()) {
+            AppLog.d(TAG, "Skipping image prefetch on a metered network");
+            return;
+        }
+        if (!prefetching.compareAndSet(false, true)) {
+            return;
+        }
+
+        executor.execute(() -> {
+            try {
+                synchronized (storeLock) {
+                    storedDuringPrefetch.clear();
+                }
+                List<MenuItem> items = DatabaseHelper.getInstance(context).getAllMenuItems();
+                Set<String> urls = new HashSet<>();
+                int downloaded = 0;
+                int failed = 0;
+
+                for (MenuItem item : items) {
+                    String url = item.getImageUrl();
+                    if (!isRemote(url) || !urls.add(url)) {
+                        continue;
+                    }
+                    if (getCached(url) != null) {
+                        continue;
+                    }
+                    // Stop if the device moved to mobile data
+                    if (!isUnmetered()) {
+                        break;
+                    }
+                    try {
+                        fetch(url);
+                        downloaded++;
+                    } catch (IOException e) {
+                        failed++;
+                        AppLog.d(TAG, () -> "Prefetch failed for " + url + ": " + e.getMessage());
+                    }
+                }
+
+                prune(urls);
+                int downloadedCount = downloaded;
+                int failedCount = failed;
+                AppLog.d(TAG, () -> "Prefetch done: " + urls.size() + " remote images, "
+                        + downloadedCount + " downloaded, " + failedCount + " failed");
+            } catch (Exception e) {
+                AppLog.e(TAG, "Image prefetch failed: " + e.getMessage(), e);
+            } finally {
+                prefetching.set(false);
+            }
+        });
+    }
+
+    /**
+     * Forget URLs no menu item uses and delete files nothing points to.
+     * URLs stored since the menu was read count as used: they may belong
+     * to items newer than the menu this prefetch saw.
+     */
+    private void prune(Set<String> liveUrls) {
+        synchronized (storeLock) {
+            SharedPreferences.Editor editor = index.edit();
+            Set<String> liveHashes = new HashSet<>();
+            for (Map.Entry<String, ?> entry : index.getAll().entrySet()) {
+                if (liveUrls.contains(entry.getKey()) || storedDuringPrefetch.contains(entry.getKey())) {
+                    liveHashes.add(String.valueOf(entry.getValue()));
+                } else {
+                    editor.remove(entry.getKey());
+                }
+            }
+            editor.apply();
+
+            File[] files = dir.listFiles();
+            if (files == null) {
+                return;
+            }
+            for (File file : files) {
+                if (!liveHashes.contains(file.getName()) && file.delete()) {
+                    AppLog.d(TAG, () -> "Deleted unused image " + file.getName());
+                }
+            }
+        }
+    }
+
+    private boolean isUnmetered() {
+        ConnectivityManager connectivity =
+                (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivity == null) {
+            return false;
+        }
+        Network network = connectivity.getActiveNetwork();
+        NetworkCapabilities capabilities = network != null
+                ? connectivity.getNetworkCapabilities(network) : null;
+        return capabilities != null
+                && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED);
+    }
+}
@@ -1,33 +1,123 @@
 package com.example.mal2017_assessmentmodule;
 
 import android.content.Context;
-import android.util.Log;
-import android.view.LayoutInflater;
+import android.graphics.drawable.Drawable;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.integration.recyclerview.RecyclerViewPreloader;
+import com.bumptech.glide.load.engine.DiskCacheStrategy;
+import com.bumptech.glide.util.ViewPreloadSizeProvider;
 import com.example.mal2017_assessmentmodule.models.MenuItem;
+import com.example.mal2017_assessmentmodule.models.MenuItemRow;
+import com.example.mal2017_assessmentmodule.models.MenuSections;
 import com.google.android.material.card.MaterialCardView;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * MenuItemAdapter - FIXED to load local drawable images
+ *
+ * List changes (filter, category, updateData) are diffed on a background
+ * thread by AsyncListDiffer, so only rows that changed are rebound and
+ * item animations are kept. A price or availability change rebinds just
+ * that part of the row (see PAYLOAD_*). Stable ids come from itemId.
+ *
+ * Search text goes through MenuFilter: debounced, matched against a
+ * normalized index on a background thread, stale results dropped.
+ *
+ * Image keys resolve through DrawableResolver (no getIdentifier per bind),
+ * and a RecyclerViewPreloader decodes the images of the next
+ * PRELOAD_AHEAD rows while the list scrolls.
+ *
+ * Image keys that are URLs load through MenuImageStore (downloaded once,
+ * shared by identical photos). A small thumbnail is decoded first and
+ * replaced by the full-size image when it is ready.
+ *
+ * The adapter shows MenuItemRow view models, built with their formatted
+ * price on the MenuFilter worker when data loads, so binding only
+ * assigns fields.
+ *
+ * Row views come from RowViewPools: pre-inflated while the app is idle,
+ * and recycled through a pool shared with every other menu list. A holder
+ * may therefore be bound by several adapters over its life, so it holds
+ * no reference to any one of them.
+ *
+ * Without a search the whole menu is shown at once, grouped by category
+ * (MenuSections) under headers that stick to the top while their section
+ * scrolls. scrollToCategory() jumps to a section without reloading.
  */
-public class MenuItemAdapter extends RecyclerView.Adapter<MenuItemAdapter.ViewHolder> {
+public class MenuItemAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder>
+        implements StickyHeaderDecoration.SectionSource {
 
     private static final String TAG = "MenuItemAdapter";
 
+    private static final int PRELOAD_AHEAD = 6;  // About one screen of rows
+    private static final float THUMBNAIL_SIZE = 0.1f;  // Of the view size
+
+    // Partial rebind payloads, combined as bit flags
+    static final int PAYLOAD_PRICE = 1;
+    static final int PAYLOAD_AVAILABILITY = 1 << 1;
+    private static final int CHANGED_OTHER = 1 << 2;  // Needs a full rebind
+
+    private static final DiffUtil.ItemCallback<MenuItemRow> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<MenuItemRow>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull MenuItemRow oldItem, @NonNull MenuItemRow newItem) {
+                    return oldItem.getStableId() == newItem.getStableId();
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull MenuItemRow oldItem, @NonNull MenuItemRow newItem) {
+                    return changedParts(oldItem, newItem) == 0;
+                }
+
+                @Override
+                public Object getChangePayload(@NonNull MenuItemRow oldItem, @NonNull MenuItemRow newItem) {
+                    int changed = changedParts(oldItem, newItem);
+                    return (changed & CHANGED_OTHER) != 0 ? null : changed;
+                }
+            };
+
     private Context context;
-    private List<MenuItem> menuItems;
-    private List<MenuItem> menuItemsFull;
+    private final RequestManager glide;
+    private final ViewPreloadSizeProvider<MenuItemRow> preloadSizeProvider = new ViewPreloadSizeProvider<>();
+    private RecyclerViewPreloader<MenuItemRow> preloader;
+    private StickyHeaderDecoration stickyHeaders;
+    private final AsyncListDiffer<MenuItemRow> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+    private MenuSections sections = MenuSections.EMPTY;
+    private MenuSections shownSections;  // Sections on screen, null while showing search results
+    private String currentQuery = "";
+    private final MenuFilter menuFilter = new MenuFilter(new MenuFilter.Listener() {
+        @Override
+        public void onRowsBuilt(MenuSections built) {
+            sections = built;
+            if (currentQuery.trim().isEmpty()) {
+                submit(built.getRows(), built, null);
+            }
+        }
+
+        @Override
+        public void onFiltered(String query, List<MenuItemRow> results) {
+            submit(results, null, null);
+        }
+    });
     private OnItemClickListener listener;
 
     public interface OnItemClickListener {
@@ -36,146 +126,315 @@ public class MenuItemAdapter extends RecyclerView.Adapter<MenuItemAdapter.ViewHo
 
     public MenuItemAdapter(Context context, List<MenuItem> menuItems) {
         this.context = context;
-        this.menuItems = menuItems;
-        this.menuItemsFull = new ArrayList<>(menuItems);
+        this.glide = Glide.with(context);
+        setHasStableIds(true);
+        menuFilter.setItems(new ArrayList<>(menuItems), currentQuery);
     }
 
     public void setOnItemClickListener(OnItemClickListener listener) {
         this.listener = listener;
     }
 
+    @Override
+    public int getItemViewType(int position) {
+        // Layouts double as pool keys shared with other menu lists
+        return differ.getCurrentList().get(position).isHeader()
+                ? R.layout.item_menu_section_header
+                : R.layout.item_guest_view_menu;
+    }
+
     @NonNull
     @Override
-    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(context).inflate(R.layout.item_guest_view_menu, parent, false);
-        return new ViewHolder(view);
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = RowViewPools.getInstance(context).inflate(parent, viewType);
+        return viewType == R.layout.item_menu_section_header ? new HeaderViewHolder(view) : new ViewHolder(view);
     }
 
     @Override
-    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder viewHolder, int position) {
         try {
-            MenuItem item = menuItems.get(position);
+            MenuItemRow item = differ.getCurrentList().get(position);
+            if (viewHolder instanceof HeaderViewHolder) {
+                ((HeaderViewHolder) viewHolder).tvTitle.setText(item.getName());
+                return;
+            }
+
+            ViewHolder holder = (ViewHolder) viewHolder;
+            // Holders may come from the shared pool, so take the size from a bound one
+            preloadSizeProvider.setView(holder.ivImage);
 
             holder.tvName.setText(item.getName());
             holder.tvDescription.setText(item.getDescription());
-            holder.tvPrice.setText(item.getFormattedPrice());
             holder.tvCategory.setText(item.getCategory());
+            bindPrice(holder, item);
 
             // Load image from drawable folder
-            loadImageFromDrawable(holder.ivImage, item.getImageUrl());
+            loadImageFromDrawable(holder.ivImage, item.getImageKey());
 
-            // Set availability indicator
-            if (!item.isAvailable()) {
-                holder.tvAvailability.setVisibility(View.VISIBLE);
-                holder.cardView.setAlpha(0.6f);
-            } else {
-                holder.tvAvailability.setVisibility(View.GONE);
-                holder.cardView.setAlpha(1.0f);
-            }
+            bindAvailability(holder, item);
 
-            // Click listener
-            holder.itemView.setOnClickListener(v -> {
-                if (listener != null) {
-                    listener.onItemClick(item);
-                }
-            });
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error binding item: " + e.getMessage(), e);
+        }
+    }
 
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder viewHolder, int position,
+                                 @NonNull List<Object> payloads) {
+        if (payloads.isEmpty() || !(viewHolder instanceof ViewHolder)) {
+            onBindViewHolder(viewHolder, position);
+            return;
+        }
+        try {
+            ViewHolder holder = (ViewHolder) viewHolder;
+            MenuItemRow item = differ.getCurrentList().get(position);
+            int changed = 0;
+            for (Object payload : payloads) {
+                changed |= (Integer) payload;
+            }
+            if ((changed & PAYLOAD_PRICE) != 0) {
+                bindPrice(holder, item);
+            }
+            if ((changed & PAYLOAD_AVAILABILITY) != 0) {
+                bindAvailability(holder, item);
+            }
         } catch (Exception e) {
-            Log.e(TAG, "Error binding item: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error rebinding item: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        preloader = new RecyclerViewPreloader<>(glide, new ImagePreloadProvider(),
+                preloadSizeProvider, PRELOAD_AHEAD);
+        recyclerView.addOnScrollListener(preloader);
+        stickyHeaders = new StickyHeaderDecoration(this, R.layout.item_menu_section_header,
+                R.id.tv_section_title);
+        recyclerView.addItemDecoration(stickyHeaders);
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onDetachedFromRecyclerView(recyclerView);
+        if (preloader != null) {
+            recyclerView.removeOnScrollListener(preloader);
+            preloader = null;
+        }
+        if (stickyHeaders != null) {
+            recyclerView.removeItemDecoration(stickyHeaders);
+            stickyHeaders = null;
         }
     }
 
     @Override
     public int getItemCount() {
-        return menuItems.size();
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).getStableId();
+    }
+
+    @Override
+    public int getHeaderPosition(int position) {
+        // Only the grouped list has sections; search results are flat
+        return shownSections != null ? shownSections.headerPositionFor(position) : -1;
+    }
+
+    @Override
+    public String getHeaderTitle(int headerPosition) {
+        return differ.getCurrentList().get(headerPosition).getName();
+    }
+
+    private void onRowClicked(int position) {
+        if (listener != null) {
+            listener.onItemClick(differ.getCurrentList().get(position).getItem());
+        }
+    }
+
+    private void bindPrice(ViewHolder holder, MenuItemRow item) {
+        holder.tvPrice.setText(item.getPriceText());
+    }
+
+    private void bindAvailability(ViewHolder holder, MenuItemRow item) {
+        // Set availability indicator
+        if (!item.isAvailable()) {
+            holder.tvAvailability.setVisibility(View.VISIBLE);
+            holder.cardView.setAlpha(0.6f);
+        } else {
+            holder.tvAvailability.setVisibility(View.GONE);
+            holder.cardView.setAlpha(1.0f);
+        }
     }
 
     /**
-     * Load image from drawable folder
+     * Which parts of a row differ between two versions of an item
+     */
+    private static int changedParts(MenuItemRow oldItem, MenuItemRow newItem) {
+        int changed = 0;
+        if (!oldItem.getPriceText().equals(newItem.getPriceText())) {
+            changed |= PAYLOAD_PRICE;
+        }
+        if (oldItem.isAvailable() != newItem.isAvailable()) {
+            changed |= PAYLOAD_AVAILABILITY;
+        }
+        if (!Objects.equals(oldItem.getName(), newItem.getName())
+                || !Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                || !Objects.equals(oldItem.getCategory(), newItem.getCategory())
+                || !Objects.equals(oldItem.getImageKey(), newItem.getImageKey())) {
+            changed |= CHANGED_OTHER;
+        }
+        return changed;
+    }
+
+    /**
+     * Load image from drawable folder, or from MenuImageStore for URLs
      */
     private void loadImageFromDrawable(ImageView imageView, String imageFileName) {
         try {
-            if (imageFileName == null || imageFileName.isEmpty()) {
-                imageView.setImageResource(R.drawable.ic_menu_placeholder);
+            if (MenuImageStore.isRemote(imageFileName)) {
+                remoteImageRequest(imageFileName).into(imageView);
                 return;
             }
 
-            // Get resource ID from drawable name
-            int resourceId = context.getResources().getIdentifier(
-                    imageFileName,
-                    "drawable",
-                    context.getPackageName()
-            );
-
+            int resourceId = DrawableResolver.resolve(context, imageFileName);
             if (resourceId != 0) {
-                // Image found in drawable
-                Glide.with(context)
-                        .load(resourceId)
-                        .placeholder(R.drawable.ic_menu_placeholder)
-                        .error(R.drawable.ic_menu_placeholder)
-                        .centerCrop()
-                        .into(imageView);
-
-                Log.d(TAG, "Loaded image: " + imageFileName);
+                imageRequest(resourceId).into(imageView);
             } else {
-                // Image not found, use placeholder
-                Log.w(TAG, "Image not found: " + imageFileName);
+                // No image or not found, use placeholder
+                glide.clear(imageView);
                 imageView.setImageResource(R.drawable.ic_menu_placeholder);
             }
 
         } catch (Exception e) {
-            Log.e(TAG, "Error loading image: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error loading image: " + e.getMessage(), e);
             imageView.setImageResource(R.drawable.ic_menu_placeholder);
         }
     }
 
     /**
-     * Filter menu items by search query
+     * The one request used for binding and preloading; both must match
+     * for the preloaded image to be a cache hit
      */
-    public void filter(String query) {
-        menuItems.clear();
+    private RequestBuilder<Drawable> imageRequest(int resourceId) {
+        return glide.load(resourceId)
+                .placeholder(R.drawable.ic_menu_placeholder)
+                .error(R.drawable.ic_menu_placeholder)
+                .centerCrop();
+    }
 
-        if (query.isEmpty()) {
-            menuItems.addAll(menuItemsFull);
-        } else {
-            String lowerCaseQuery = query.toLowerCase();
-            for (MenuItem item : menuItemsFull) {
-                if (item.getName().toLowerCase().contains(lowerCaseQuery) ||
-                        item.getDescription().toLowerCase().contains(lowerCaseQuery)) {
-                    menuItems.add(item);
-                }
+    /**
+     * Request for an image URL: thumbnail first, then full size. Glide
+     * only keeps the resized results; MenuImageStore keeps the originals.
+     * Both decode the stored original, so for an image not downloaded yet
+     * the thumbnail waits for the whole download and only the placeholder
+     * shows until then.
+     */
+    private RequestBuilder<Drawable> remoteImageRequest(String url) {
+        MenuImageStore.Remote model = new MenuImageStore.Remote(url);
+        return glide.load(model)
+                .diskCacheStrategy(DiskCacheStrategy.RESOURCE)
+                .thumbnail(glide.load(model)
+                        .diskCacheStrategy(DiskCacheStrategy.RESOURCE)
+                        .sizeMultiplier(THUMBNAIL_SIZE)
+                        .centerCrop())
+                .placeholder(R.drawable.ic_menu_placeholder)
+                .error(R.drawable.ic_menu_placeholder)
+                .centerCrop();
+    }
+
+    /**
+     * Tells the preloader which image each upcoming row will show
+     */
+    private class ImagePreloadProvider implements ListPreloader.PreloadModelProvider<MenuItemRow> {
+        @NonNull
+        @Override
+        public List<MenuItemRow> getPreloadItems(int position) {
+            List<MenuItemRow> items = differ.getCurrentList();
+            if (position < 0 || position >= items.size() || items.get(position).isHeader()) {
+                return Collections.emptyList();
             }
+            return Collections.singletonList(items.get(position));
         }
 
-        notifyDataSetChanged();
+        @Nullable
+        @Override
+        public RequestBuilder<?> getPreloadRequestBuilder(@NonNull MenuItemRow item) {
+            if (MenuImageStore.isRemote(item.getImageKey())) {
+                return remoteImageRequest(item.getImageKey());
+            }
+            int resourceId = DrawableResolver.resolve(context, item.getImageKey());
+            return resourceId != 0 ? imageRequest(resourceId) : null;
+        }
     }
 
     /**
-     * Filter by category
+     * Filter menu items by search query. Matching happens in the
+     * background; the list updates once typing pauses.
      */
-    public void filterByCategory(String category) {
-        menuItems.clear();
+    public void filter(String query) {
+        currentQuery = query != null ? query : "";
+        if (currentQuery.trim().isEmpty()) {
+            menuFilter.cancel();
+            submit(sections.getRows(), sections, null);
+            return;
+        }
+        menuFilter.filter(currentQuery);
+    }
 
-        if (category.equals("All")) {
-            menuItems.addAll(menuItemsFull);
-        } else {
-            for (MenuItem item : menuItemsFull) {
-                if (item.getCategory().equals(category)) {
-                    menuItems.add(item);
-                }
+    /**
+     * Show the whole menu and scroll a list to a category's section (or
+     * the top for "All"). Clears the search; nothing is reloaded.
+     */
+    public void scrollToCategory(RecyclerView list, String category) {
+        currentQuery = "";
+        menuFilter.cancel();
+        MenuSections shown = sections;
+        Runnable jump = () -> {
+            int position = Constants.CATEGORY_ALL.equals(category) ? 0 : shown.positionOf(category);
+            if (position >= 0 && list.getLayoutManager() instanceof LinearLayoutManager) {
+                ((LinearLayoutManager) list.getLayoutManager()).scrollToPositionWithOffset(position, 0);
             }
-        }
+        };
+        // Runs the jump at once if the grouped list is already shown, and
+        // drops a search result still being diffed
+        submit(shown.getRows(), shown, jump);
+    }
 
-        notifyDataSetChanged();
+    /**
+     * Diff in a new list, noting whether it is the grouped one once it is
+     * on screen
+     *
+     * @param grouped Sections the rows come from, or null for search results
+     * @param then    Run after the list is committed, or null
+     */
+    private void submit(List<MenuItemRow> rows, @Nullable MenuSections grouped, @Nullable Runnable then) {
+        differ.submitList(rows, () -> {
+            shownSections = grouped;
+            if (then != null) {
+                then.run();
+            }
+        });
     }
 
     /**
-     * Update full dataset
+     * Update full dataset, keeping the current search. Rows are built in
+     * the background. Items must be new objects, not the previous ones
+     * changed in place, or the diff cannot see the change.
      */
     public void updateData(List<MenuItem> newItems) {
-        this.menuItems = newItems;
-        this.menuItemsFull = new ArrayList<>(newItems);
-        notifyDataSetChanged();
+        menuFilter.setItems(new ArrayList<>(newItems), currentQuery);
+    }
+
+    static class HeaderViewHolder extends RecyclerView.ViewHolder {
+        TextView tvTitle;
+
+        HeaderViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvTitle = itemView.findViewById(R.id.tv_section_title);
+        }
     }
 
     static class ViewHolder extends RecyclerView.ViewHolder {
@@ -196,6 +455,16 @@ public class MenuItemAdapter extends RecyclerView.Adapter<MenuItemAdapter.ViewHo
             tvPrice = itemView.findViewById(R.id.tv_item_price);
             tvCategory = itemView.findViewById(R.id.tv_category);
             tvAvailability = itemView.findViewById(R.id.tv_availability);
+
+            // Set once; finds the adapter and item at click time, since
+            // the holder is shared between lists and partially rebound
+            itemView.setOnClickListener(v -> {
+                RecyclerView.Adapter<?> adapter = getBindingAdapter();
+                int position = getBindingAdapterPosition();
+                if (adapter instanceof MenuItemAdapter && position != RecyclerView.NO_POSITION) {
+                    ((MenuItemAdapter) adapter).onRowClicked(position);
+                }
+            });
         }
     }
-}
\ No newline at end of file
+}
@@ -93,6 +93,7 @@ public class MenuManagementActivity extends AppCompatActivity {
         LinearLayoutManager layoutManager = new LinearLayoutManager(this);
         rvMenuItems.setLayoutManager(layoutManager);
         rvMenuItems.setHasFixedSize(true);
+        RowViewPools.getInstance(this).attach(rvMenuItems, R.layout.item_guest_view_menu);
     }
 
     private void setupClickListeners() {
@@ -137,12 +138,13 @@ public class MenuManagementActivity extends AppCompatActivity {
      * Load menu items from database
      */
     private void loadMenuItems() {
-        List<com.example.mal2017_assessmentmodule.models.MenuItem> items;
+        // The whole menu, grouped by category; the category dialog only scrolls it
+        List<com.example.mal2017_assessmentmodule.models.MenuItem> items = dbHelper.getAllMenuItems();
 
-        if (currentCategory.equals(Constants.CATEGORY_ALL)) {
-            items = dbHelper.getAllMenuItems();
-        } else {
-            items = dbHelper.getMenuItemsByCategory(currentCategory);
+        // Reuse the adapter so only changed rows are rebound
+        if (menuItemAdapter != null) {
+            menuItemAdapter.updateData(items);
+            return;
         }
 
         menuItemAdapter = new MenuItemAdapter(this, items);
@@ -158,7 +160,7 @@ public class MenuManagementActivity extends AppCompatActivity {
     }
 
     /**
-     * Show category filter dialog
+     * Show category dialog; the choice jumps to its section
      */
     private void showFilterDialog() {
         String[] categories = {
@@ -170,10 +172,14 @@ public class MenuManagementActivity extends AppCompatActivity {
         };
 
         new MaterialAlertDialogBuilder(this)
-                .setTitle("Filter by Category")
+                .setTitle("Go to Category")
                 .setSingleChoiceItems(categories, getCurrentCategoryIndex(), (dialog, which) -> {
                     currentCategory = categories[which];
-                    loadMenuItems();
+                    if (menuItemAdapter != null) {
+                        // Showing the whole menu again, so the search no longer applies
+                        etSearch.setText("");
+                        menuItemAdapter.scrollToCategory(rvMenuItems, currentCategory);
+                    }
                     dialog.dismiss();
                 })
                 .setNegativeButton("Cancel", null)
@@ -201,5 +207,7 @@ public class MenuManagementActivity extends AppCompatActivity {
     protected void onResume() {
         super.onResume();
         loadMenuItems();
+        // Picks up image URLs of items added or edited meanwhile
+        MenuImageStore.getInstance(this).prefetchMenu();
     }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.example.mal2017_assessmentmodule;
+
+import com.example.mal2017_assessmentmodule.models.MenuItemRow;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * MenuSearchIndex - Search text of a menu, normalized once per data set.
+ *
+ * Features:
+ * - Name and description of every item are lower-cased and accent-folded
+ *   ("Crème Brûlée" -> "creme brulee") when the index is built, so a
+ *   query only normalizes itself
+ * - Substring match on name or description, results in menu order
+ * - Typing more letters only searches the previous matches
+ *
+ * Not thread-safe: build and search it on one background thread
+ * (see MenuFilter).
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class MenuSearchIndex {
+
+    private final List<MenuItemRow> items;
+    private final String[] names;
+    private final String[] descriptions;
+
+    // Matches of the previous query, narrowed when the query grows
+    private String lastQuery;
+    private int[] lastMatches;
+    private int lastMatchCount;
+
+    /**
+     * @param items Menu rows; the list must not change afterwards
+     */
+    public MenuSearchIndex(List<MenuItemRow> items) {
+        this.items = items;
+        this.names = new String[items.size()];
+        this.descriptions = new String[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            MenuItemRow item = items.get(i);
+            names[i] = normalize(item.getName());
+            descriptions[i] = normalize(item.getDescription());
+        }
+    }
+
+    /**
+     * Items whose name or description contains the query, ignoring case
+     * and accents. A blank query matches everything.
+     */
+    public List<MenuItemRow> search(String query) {
+        String normalized = normalize(query).trim();
+        if (normalized.isEmpty()) {
+            lastQuery = null;
+            return new ArrayList<>(items);
+        }
+
+        boolean narrowing = lastQuery != null && normalized.startsWith(lastQuery);
+        int candidateCount = narrowing ? lastMatchCount : items.size();
+        int[] matches = new int[candidateCount];
+        int matchCount = 0;
+
+        for (int c = 0; c < candidateCount; c++) {
+            int i = narrowing ? lastMatches[c] : c;
+            if (names[i].contains(normalized) || descriptions[i].contains(normalized)) {
+                matches[matchCount++] = i;
+            }
+        }
+
+        lastQuery = normalized;
+        lastMatches = matches;
+        lastMatchCount = matchCount;
+
+        List<MenuItemRow> results = new ArrayList<>(matchCount);
+        for (int m = 0; m < matchCount; m++) {
+            results.add(items.get(matches[m]));
+        }
+        return results;
+    }
+
+    /**
+     * Lower-case and strip accents. Plain ASCII skips the Unicode
+     * decomposition.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        boolean ascii = true;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char ch = decomposed.charAt(i);
+            if (Character.getType(ch) != Character.NON_SPACING_MARK) {
+                folded.append(ch);
+            }
+        }
+        return folded.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -2,7 +2,6 @@ package com.example.mal2017_assessmentmodule;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.util.Log;
 import android.view.View;
 import android.widget.ProgressBar;
 import android.widget.TextView;
@@ -38,7 +37,7 @@ public class MyReservationsActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
 
         try {
-            Log.d(TAG, "onCreate started");
+            AppLog.d(TAG, "onCreate started");
             setContentView(R.layout.activity_guest_view_reservations);
 
             dbHelper = DatabaseHelper.getInstance(this);
@@ -49,9 +48,9 @@ public class MyReservationsActivity extends AppCompatActivity {
             setupRecyclerView();
             loadReservations();
 
-            Log.d(TAG, "onCreate completed successfully");
+            AppLog.d(TAG, "onCreate completed successfully");
         } catch (Exception e) {
-            Log.e(TAG, "Error in onCreate: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error in onCreate: " + e.getMessage(), e);
             Toast.makeText(this, "Error loading reservations: " + e.getMessage(), Toast.LENGTH_LONG).show();
             finish();
         }
@@ -66,7 +65,7 @@ public class MyReservationsActivity extends AppCompatActivity {
                 getSupportActionBar().setTitle("My Reservations");
             }
         } catch (Exception e) {
-            Log.e(TAG, "Error setting up toolbar: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error setting up toolbar: " + e.getMessage(), e);
         }
     }
 
@@ -76,28 +75,29 @@ public class MyReservationsActivity extends AppCompatActivity {
             tvEmptyState = findViewById(R.id.tv_empty_state);
             progressBar = findViewById(R.id.progress_bar);
 
-            if (rvReservations == null) Log.e(TAG, "rvReservations is NULL");
-            if (tvEmptyState == null) Log.e(TAG, "tvEmptyState is NULL");
-            if (progressBar == null) Log.e(TAG, "progressBar is NULL");
+            if (rvReservations == null) AppLog.e(TAG, "rvReservations is NULL");
+            if (tvEmptyState == null) AppLog.e(TAG, "tvEmptyState is NULL");
+            if (progressBar == null) AppLog.e(TAG, "progressBar is NULL");
         } catch (Exception e) {
-            Log.e(TAG, "Error initializing views: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error initializing views: " + e.getMessage(), e);
         }
     }
 
     private void setupRecyclerView() {
         try {
             if (rvReservations == null) {
-                Log.e(TAG, "Cannot setup RecyclerView - it is NULL");
+                AppLog.e(TAG, "Cannot setup RecyclerView - it is NULL");
                 return;
             }
 
             LinearLayoutManager layoutManager = new LinearLayoutManager(this);
             rvReservations.setLayoutManager(layoutManager);
             rvReservations.setHasFixedSize(false);
+            RowViewPools.getInstance(this).attach(rvReservations, R.layout.item_staff_view_reservation);
 
-            Log.d(TAG, "RecyclerView setup completed");
+            AppLog.d(TAG, "RecyclerView setup completed");
         } catch (Exception e) {
-            Log.e(TAG, "Error setting up RecyclerView: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error setting up RecyclerView: " + e.getMessage(), e);
         }
     }
 
@@ -106,14 +106,14 @@ public class MyReservationsActivity extends AppCompatActivity {
             showLoading(true);
 
             if (sessionManager == null || !sessionManager.isLoggedIn()) {
-                Log.e(TAG, "User not logged in");
+                AppLog.e(TAG, "User not logged in");
                 Toast.makeText(this, "Please login first", Toast.LENGTH_SHORT).show();
                 finish();
                 return;
             }
 
             int userId = sessionManager.getLoggedInUser().getUserId();
-            Log.d(TAG, "Loading reservations for user ID: " + userId);
+            AppLog.d(TAG, "Loading reservations for user ID: " + userId);
 
             if (dbHelper == null) {
                 dbHelper = DatabaseHelper.getInstance(this);
@@ -125,7 +125,7 @@ public class MyReservationsActivity extends AppCompatActivity {
                 reservations = new ArrayList<>();
             }
 
-            Log.d(TAG, "Found " + reservations.size() + " reservations");
+            AppLog.d(TAG, "Found " + reservations.size() + " reservations");
 
             showLoading(false);
 
@@ -136,7 +136,7 @@ public class MyReservationsActivity extends AppCompatActivity {
             }
 
         } catch (Exception e) {
-            Log.e(TAG, "Error loading reservations: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error loading reservations: " + e.getMessage(), e);
             showLoading(false);
             Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
             showEmptyState();
@@ -152,14 +152,14 @@ public class MyReservationsActivity extends AppCompatActivity {
                 tvEmptyState.setVisibility(View.VISIBLE);
             }
         } catch (Exception e) {
-            Log.e(TAG, "Error showing empty state: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error showing empty state: " + e.getMessage(), e);
         }
     }
 
     private void showReservations(List<Reservation> reservations) {
         try {
             if (rvReservations == null) {
-                Log.e(TAG, "Cannot show reservations - RecyclerView is NULL");
+                AppLog.e(TAG, "Cannot show reservations - RecyclerView is NULL");
                 return;
             }
 
@@ -168,24 +168,30 @@ public class MyReservationsActivity extends AppCompatActivity {
                 tvEmptyState.setVisibility(View.GONE);
             }
 
+            // Reuse the adapter so only changed rows are rebound
+            if (reservationAdapter != null) {
+                reservationAdapter.updateData(reservations);
+                return;
+            }
+
             reservationAdapter = new ReservationAdapter(this, reservations);
             reservationAdapter.setOnItemClickListener(reservation -> {
                 try {
-                    Log.d(TAG, "Reservation clicked: " + reservation.getReservationId());
+                    AppLog.d(TAG, "Reservation clicked: " + reservation.getReservationId());
                     Intent intent = new Intent(MyReservationsActivity.this, ReservationDetailActivity.class);
                     intent.putExtra(Constants.EXTRA_RESERVATION_ID, reservation.getReservationId());
                     startActivity(intent);
                 } catch (Exception e) {
-                    Log.e(TAG, "Error opening reservation detail: " + e.getMessage(), e);
+                    AppLog.e(TAG, "Error opening reservation detail: " + e.getMessage(), e);
                     Toast.makeText(MyReservationsActivity.this, "Error opening reservation", Toast.LENGTH_SHORT).show();
                 }
             });
 
             rvReservations.setAdapter(reservationAdapter);
-            Log.d(TAG, "Adapter set with " + reservations.size() + " items");
+            AppLog.d(TAG, "Adapter set with " + reservations.size() + " items");
 
         } catch (Exception e) {
-            Log.e(TAG, "Error showing reservations: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error showing reservations: " + e.getMessage(), e);
             Toast.makeText(this, "Error displaying reservations", Toast.LENGTH_SHORT).show();
         }
     }
@@ -196,7 +202,7 @@ public class MyReservationsActivity extends AppCompatActivity {
                 progressBar.setVisibility(show ? View.VISIBLE : View.GONE);
             }
         } catch (Exception e) {
-            Log.e(TAG, "Error toggling loading: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error toggling loading: " + e.getMessage(), e);
         }
     }
 
@@ -210,10 +216,10 @@ public class MyReservationsActivity extends AppCompatActivity {
     protected void onResume() {
         super.onResume();
         try {
-            Log.d(TAG, "onResume - reloading reservations");
+            AppLog.d(TAG, "onResume - reloading reservations");
             loadReservations();
         } catch (Exception e) {
-            Log.e(TAG, "Error in onResume: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error in onResume: " + e.getMessage(), e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,323 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.android.volley.Response;
+import com.android.volley.VolleyError;
+import com.android.volley.toolbox.HttpHeaderParser;
+import com.example.mal2017_assessmentmodule.api.ApiService;
+import com.example.mal2017_assessmentmodule.database.DatabaseHelper;
+import com.example.mal2017_assessmentmodule.models.OutboxEntry;
+import com.example.mal2017_assessmentmodule.models.User;
+import com.google.gson.Gson;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * OutboxManager - Sends user changes to the API in the background.
+ *
+ * Screens save a change to the local database, record it here and
+ * return straight away. The change is kept in the outbox table until
+ * the API accepts it, so nothing is lost while offline.
+ *
+ * Features:
+ * - Durable outbox table with an idempotency key per change
+ * - Superseded changes to the same user are collapsed before sending;
+ *   a change that may already have been sent (attempted, or in flight)
+ *   is never altered, the newer change is queued after it
+ * - Ordered batches: only the oldest pending change per user is sent
+ *   at a time, so a user's changes reach the API in order
+ * - Bounded concurrency (MAX_IN_FLIGHT requests at once)
+ * - Exponential backoff on failure, capped at MAX_BACKOFF_MS; a change is
+ *   only dropped on a 4xx response that a retry cannot fix. 408 and 429
+ *   are retried, no sooner than the response's Retry-After
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class OutboxManager {
+
+    private static final String TAG = "OutboxManager";
+
+    private static final int BATCH_SIZE = 20;
+    private static final int SCAN_LIMIT = 100;
+    private static final int MAX_IN_FLIGHT = 3;
+    private static final long BASE_BACKOFF_MS = 5000;
+    private static final long MAX_BACKOFF_MS = 10 * 60 * 1000;
+    private static final long BATCH_TIMEOUT_MS = 60000;
+
+    enum Result { SENT, RETRY, DROP }
+
+    private static OutboxManager instance;
+
+    private final DatabaseHelper dbHelper;
+    private final ApiService apiService;
+    private final Gson gson = new Gson();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Runnable retryRunnable = this::scheduleFlush;
+
+    // Outbox IDs picked for the current batch; guards enqueue against them
+    private final Set<Long> inFlightIds = new HashSet<>();
+
+    private OutboxManager(Context context) {
+        Context appContext = context.getApplicationContext();
+        this.dbHelper = DatabaseHelper.getInstance(appContext);
+        this.apiService = new ApiService(appContext).background();
+    }
+
+    /**
+     * Get singleton instance of OutboxManager
+     */
+    public static synchronized OutboxManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new OutboxManager(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Record a new user for the API. Call from a background thread.
+     */
+    public void enqueueCreate(User user) {
+        enqueue(OutboxEntry.OP_CREATE, user.getUserId(), gson.toJson(user));
+    }
+
+    /**
+     * Record a user update for the API. Call from a background thread.
+     */
+    public void enqueueUpdate(User user) {
+        enqueue(OutboxEntry.OP_UPDATE, user.getUserId(), gson.toJson(user));
+    }
+
+    /**
+     * Record a user deletion for the API. Call from a background thread.
+     */
+    public void enqueueDelete(int userId) {
+        enqueue(OutboxEntry.OP_DELETE, userId, null);
+    }
+
+    private void enqueue(String operation, int userId, String payload) {
+        boolean queued;
+        synchronized (inFlightIds) {
+            queued = dbHelper.enqueueUserMutation(operation, userId, payload, inFlightIds);
+        }
+        if (queued) {
+            AppLog.d(TAG, () -> "Queued " + operation + " for user " + userId);
+            scheduleFlush();
+        } else {
+            AppLog.e(TAG, "Failed to queue " + operation + " for user " + userId);
+        }
+    }
+
+    /**
+     * Start sending pending changes in the background.
+     * Does nothing if a flush is already waiting to run.
+     */
+    public void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            executor.execute(this::flush);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+
+        try {
+            while (true) {
+                long now = System.currentTimeMillis();
+                List<OutboxEntry> batch;
+                synchronized (inFlightIds) {
+                    batch = nextBatch(now);
+                    for (OutboxEntry entry : batch) {
+                        inFlightIds.add(entry.getOutboxId());
+                    }
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+                AppLog.d(TAG, () -> "Sending batch of " + batch.size() + " changes");
+                try {
+                    sendBatch(batch);
+                } finally {
+                    // Every entry is now deleted or has attempts > 0
+                    synchronized (inFlightIds) {
+                        for (OutboxEntry entry : batch) {
+                            inFlightIds.remove(entry.getOutboxId());
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error flushing outbox: " + e.getMessage(), e);
+        }
+
+        scheduleRetry();
+    }
+
+    /**
+     * Pick due entries, keeping only the oldest one per user and skipping
+     * users whose earlier change is still waiting for a retry
+     */
+    private List<OutboxEntry> nextBatch(long now) {
+        Set<Integer> busyUsers = new HashSet<>(dbHelper.getBlockedOutboxUserIds(now));
+        List<OutboxEntry> batch = new ArrayList<>();
+
+        for (OutboxEntry entry : dbHelper.getDueOutboxEntries(now, SCAN_LIMIT)) {
+            if (busyUsers.add(entry.getUserId())) {
+                batch.add(entry);
+                if (batch.size() == BATCH_SIZE) {
+                    break;
+                }
+            }
+        }
+        return batch;
+    }
+
+    private void sendBatch(List<OutboxEntry> batch) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        CountDownLatch done = new CountDownLatch(batch.size());
+        Map<Long, Result> results = new ConcurrentHashMap<>();
+        Map<Long, Long> retryAfter = new ConcurrentHashMap<>();
+
+        for (OutboxEntry entry : batch) {
+            inFlight.acquire();
+            send(entry, (result, retryAfterMs) -> {
+                results.put(entry.getOutboxId(), result);
+                retryAfter.put(entry.getOutboxId(), retryAfterMs);
+                inFlight.release();
+                done.countDown();
+            });
+        }
+
+        if (!done.await(BATCH_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            AppLog.w(TAG, "Batch timed out, unfinished changes will be retried");
+        }
+
+        // Apply results here, off the main thread
+        long now = System.currentTimeMillis();
+        for (OutboxEntry entry : batch) {
+            Result result = results.get(entry.getOutboxId());
+            if (result == Result.SENT || result == Result.DROP) {
+                if (result == Result.DROP) {
+                    AppLog.w(TAG, "Dropping change rejected by the API: " + entry);
+                }
+                dbHelper.deleteOutboxEntry(entry.getOutboxId(), entry.getIdempotencyKey());
+            } else {
+                // Transient failure or no answer in time: keep retrying at the capped backoff
+                Long serverDelay = retryAfter.get(entry.getOutboxId());
+                long backoff = Math.max(backoffMs(entry.getAttempts()),
+                        serverDelay == null ? 0 : serverDelay);
+                dbHelper.markOutboxAttemptFailed(entry.getOutboxId(), now + backoff);
+            }
+        }
+    }
+
+    private interface ResultCallback {
+        void onResult(Result result, long retryAfterMs);
+    }
+
+    private void send(OutboxEntry entry, ResultCallback callback) {
+        Response.Listener<Map<String, String>> onSuccess = response -> callback.onResult(Result.SENT, 0);
+        Response.ErrorListener onError = error -> callback.onResult(classify(error),
+                retryAfterMs(error, System.currentTimeMillis()));
+
+        switch (entry.getOperation()) {
+            case OutboxEntry.OP_CREATE:
+                apiService.createUser(Constants.STUDENT_ID,
+                        gson.fromJson(entry.getPayload(), User.class),
+                        entry.getIdempotencyKey(), onSuccess, onError);
+                break;
+            case OutboxEntry.OP_UPDATE:
+                apiService.updateUser(Constants.STUDENT_ID, entry.getUserId(),
+                        gson.fromJson(entry.getPayload(), User.class),
+                        entry.getIdempotencyKey(), onSuccess, onError);
+                break;
+            case OutboxEntry.OP_DELETE:
+                apiService.deleteUser(Constants.STUDENT_ID, entry.getUserId(),
+                        entry.getIdempotencyKey(), onSuccess, onError);
+                break;
+            default:
+                AppLog.e(TAG, "Unknown outbox operation: " + entry.getOperation());
+                callback.onResult(Result.DROP, 0);
+        }
+    }
+
+    /**
+     * A 4xx response will fail the same way every time, everything else is
+     * retried. 408 (request timeout) and 429 (too many requests) are the
+     * server asking to try again later.
+     */
+    static Result classify(VolleyError error) {
+        if (error.networkResponse == null) {
+            return Result.RETRY;
+        }
+        int status = error.networkResponse.statusCode;
+        if (status == 408 || status == 429) {
+            return Result.RETRY;
+        }
+        if (status >= 400 && status < 500) {
+            return Result.DROP;
+        }
+        return Result.RETRY;
+    }
+
+    /**
+     * Wait before the next attempt of an entry that failed attempts times:
+     * BASE_BACKOFF_MS doubled per attempt, capped at MAX_BACKOFF_MS
+     */
+    static long backoffMs(int attempts) {
+        return Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(attempts, 16));
+    }
+
+    /**
+     * The wait asked for by the response's Retry-After header, in seconds
+     * or as an HTTP date, capped at MAX_BACKOFF_MS
+     *
+     * @return Milliseconds, or 0 if there is no usable header
+     */
+    static long retryAfterMs(VolleyError error, long now) {
+        if (error.networkResponse == null || error.networkResponse.headers == null) {
+            return 0;
+        }
+        String value = error.networkResponse.headers.get("Retry-After");
+        if (value == null) {
+            return 0;
+        }
+        value = value.trim();
+        long delay;
+        try {
+            delay = TimeUnit.SECONDS.toMillis(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            long date = HttpHeaderParser.parseDateAsEpoch(value);
+            delay = date > 0 ? date - now : 0;
+        }
+        return Math.max(0, Math.min(MAX_BACKOFF_MS, delay));
+    }
+
+    /**
+     * Wake up again when the earliest backed-off change is due
+     */
+    private void scheduleRetry() {
+        long next = dbHelper.getNextOutboxAttemptTime(System.currentTimeMillis());
+        mainHandler.removeCallbacks(retryRunnable);
+        if (next > 0) {
+            long delay = Math.max(0, next - System.currentTimeMillis());
+            mainHandler.postDelayed(retryRunnable, delay);
+        }
+    }
+}
@@ -5,7 +5,6 @@ import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
 import android.text.TextUtils;
-import android.util.Log;
 import android.view.View;
 import android.widget.Button;
 import android.widget.ProgressBar;
@@ -64,7 +63,7 @@ public class ProfileActivity extends AppCompatActivity {
             loadUserData();
             setupClickListeners();
         } catch (Exception e) {
-            Log.e(TAG, "Error in onCreate: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error in onCreate: " + e.getMessage(), e);
             Toast.makeText(this, "Error loading profile: " + e.getMessage(), Toast.LENGTH_SHORT).show();
             finish();
         }
@@ -183,6 +182,9 @@ public class ProfileActivity extends AppCompatActivity {
                 currentUser.setUsername(username);
 
                 boolean success = dbHelper.updateUser(currentUser);
+                if (success) {
+                    OutboxManager.getInstance(this).enqueueUpdate(currentUser);
+                }
 
                 runOnUiThread(() -> {
                     showLoading(false);
@@ -208,7 +210,7 @@ public class ProfileActivity extends AppCompatActivity {
                 });
 
             } catch (Exception e) {
-                Log.e(TAG, "Error updating profile: " + e.getMessage(), e);
+                AppLog.e(TAG, "Error updating profile: " + e.getMessage(), e);
                 runOnUiThread(() -> {
                     showLoading(false);
                     Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
@@ -308,6 +310,9 @@ public class ProfileActivity extends AppCompatActivity {
             try {
                 currentUser.setPassword(newPassword);
                 boolean success = dbHelper.updateUser(currentUser);
+                if (success) {
+                    OutboxManager.getInstance(this).enqueueUpdate(currentUser);
+                }
 
                 runOnUiThread(() -> {
                     showLoading(false);
@@ -321,7 +326,7 @@ public class ProfileActivity extends AppCompatActivity {
                 });
 
             } catch (Exception e) {
-                Log.e(TAG, "Error changing password: " + e.getMessage(), e);
+                AppLog.e(TAG, "Error changing password: " + e.getMessage(), e);
                 runOnUiThread(() -> {
                     showLoading(false);
                     Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
@@ -364,6 +369,9 @@ public class ProfileActivity extends AppCompatActivity {
         new Thread(() -> {
             try {
                 boolean success = dbHelper.deleteUser(currentUser.getUserId());
+                if (success) {
+                    OutboxManager.getInstance(this).enqueueDelete(currentUser.getUserId());
+                }
 
                 runOnUiThread(() -> {
                     showLoading(false);
@@ -382,7 +390,7 @@ public class ProfileActivity extends AppCompatActivity {
                 });
 
             } catch (Exception e) {
-                Log.e(TAG, "Error deleting account: " + e.getMessage(), e);
+                AppLog.e(TAG, "Error deleting account: " + e.getMessage(), e);
                 runOnUiThread(() -> {
                     showLoading(false);
                     Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
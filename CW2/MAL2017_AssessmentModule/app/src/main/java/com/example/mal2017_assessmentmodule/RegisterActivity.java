@@ -4,7 +4,6 @@ import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
 import android.text.TextUtils;
-import android.util.Log;
 import android.view.View;
 import android.widget.Button;
 import android.widget.ProgressBar;
@@ -28,6 +27,7 @@ import com.google.android.material.textfield.TextInputLayout;
  * - Password confirmation
  * - Auto-generate user ID
  * - Save to local database
+ * - Queue the new account for the API (OutboxManager)
  *
  * @author BSCS2509254
  * @version 2.0
@@ -156,6 +156,11 @@ public class RegisterActivity extends AppCompatActivity {
                 // Save to database
                 boolean success = dbHelper.addUser(newUser);
 
+                // Send to the API in the background
+                if (success) {
+                    OutboxManager.getInstance(RegisterActivity.this).enqueueCreate(newUser);
+                }
+
                 // Update UI on main thread
                 new Handler(Looper.getMainLooper()).post(() -> {
                     showLoading(false);
@@ -173,7 +178,7 @@ public class RegisterActivity extends AppCompatActivity {
                 });
 
             } catch (Exception e) {
-                Log.e(TAG, "Registration error: " + e.getMessage(), e);
+                AppLog.e(TAG, "Registration error: " + e.getMessage(), e);
                 runOnUiThread(() -> {
                     showLoading(false);
                     Toast.makeText(RegisterActivity.this,
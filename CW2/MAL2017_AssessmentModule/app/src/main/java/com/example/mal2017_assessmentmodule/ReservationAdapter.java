@@ -1,31 +1,79 @@
 package com.example.mal2017_assessmentmodule;
 
 import android.content.Context;
-import android.util.Log;
-import android.view.LayoutInflater;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.mal2017_assessmentmodule.models.Reservation;
+import com.example.mal2017_assessmentmodule.models.ReservationRow;
 import com.google.android.material.card.MaterialCardView;
 import com.google.android.material.chip.Chip;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * ReservationAdapter - FIXED RecyclerView adapter for displaying reservations
+ *
+ * updateData() is diffed on a background thread by AsyncListDiffer, so a
+ * refresh only rebinds rows that changed. A status change rebinds just the
+ * status chip (PAYLOAD_STATUS). Stable ids come from reservationId.
+ *
+ * Rows are ReservationRow view models with every string preformatted,
+ * built on a background thread when data loads, so binding only assigns
+ * fields.
+ *
+ * Row views come from RowViewPools and are recycled through a pool shared
+ * with the other reservation lists, so holders find their adapter at
+ * click time instead of keeping one.
  */
 public class ReservationAdapter extends RecyclerView.Adapter<ReservationAdapter.ViewHolder> {
 
     private static final String TAG = "ReservationAdapter";
 
+    // Partial rebind payload: only the status changed
+    static final int PAYLOAD_STATUS = 1;
+
+    // Builds rows in the order updateData() was called
+    private static final ExecutorService rowExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ReservationRows");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final DiffUtil.ItemCallback<ReservationRow> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<ReservationRow>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull ReservationRow oldItem, @NonNull ReservationRow newItem) {
+                    return oldItem.getReservationId() == newItem.getReservationId();
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull ReservationRow oldItem, @NonNull ReservationRow newItem) {
+                    return sameExceptStatus(oldItem, newItem)
+                            && Objects.equals(oldItem.getStatus(), newItem.getStatus());
+                }
+
+                @Override
+                public Object getChangePayload(@NonNull ReservationRow oldItem, @NonNull ReservationRow newItem) {
+                    return sameExceptStatus(oldItem, newItem) ? PAYLOAD_STATUS : null;
+                }
+            };
+
     private Context context;
-    private List<Reservation> reservations;
+    private final AsyncListDiffer<ReservationRow> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
     private OnItemClickListener listener;
 
     public interface OnItemClickListener {
@@ -34,22 +82,26 @@ public class ReservationAdapter extends RecyclerView.Adapter<ReservationAdapter.
 
     public ReservationAdapter(Context context, List<Reservation> reservations) {
         this.context = context;
-        this.reservations = reservations != null ? reservations : new ArrayList<>();
-        Log.d(TAG, "Adapter created with " + this.reservations.size() + " items");
+        setHasStableIds(true);
+        updateData(reservations);
     }
 
     public void setOnItemClickListener(OnItemClickListener listener) {
         this.listener = listener;
     }
 
+    @Override
+    public int getItemViewType(int position) {
+        return R.layout.item_staff_view_reservation;  // Pool key shared with other reservation lists
+    }
+
     @NonNull
     @Override
     public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         try {
-            View view = LayoutInflater.from(context).inflate(R.layout.item_staff_view_reservation, parent, false);
-            return new ViewHolder(view);
+            return new ViewHolder(RowViewPools.getInstance(context).inflate(parent, viewType));
         } catch (Exception e) {
-            Log.e(TAG, "Error creating view holder: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error creating view holder: " + e.getMessage(), e);
             throw e;
         }
     }
@@ -57,105 +109,100 @@ public class ReservationAdapter extends RecyclerView.Adapter<ReservationAdapter.
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
         try {
-            if (reservations == null || position >= reservations.size()) {
-                Log.e(TAG, "Invalid position: " + position);
-                return;
-            }
+            ReservationRow row = differ.getCurrentList().get(position);
 
-            Reservation reservation = reservations.get(position);
-
-            if (reservation == null) {
-                Log.e(TAG, "Reservation at position " + position + " is NULL");
-                return;
-            }
-
-            // Set guest name
             if (holder.tvGuestName != null) {
-                String guestName = reservation.getGuestName();
-                holder.tvGuestName.setText(guestName != null ? guestName : "Unknown Guest");
+                holder.tvGuestName.setText(row.getGuestName());
             }
-
-            // Set date
             if (holder.tvDate != null) {
-                try {
-                    holder.tvDate.setText("Date: " + reservation.getFormattedDate());
-                } catch (Exception e) {
-                    holder.tvDate.setText("Date: N/A");
-                    Log.e(TAG, "Error formatting date: " + e.getMessage());
-                }
+                holder.tvDate.setText(row.getDateText());
             }
-
-            // Set time
             if (holder.tvTime != null) {
-                try {
-                    holder.tvTime.setText("Time: " + reservation.getFormattedTime());
-                } catch (Exception e) {
-                    holder.tvTime.setText("Time: N/A");
-                    Log.e(TAG, "Error formatting time: " + e.getMessage());
-                }
+                holder.tvTime.setText(row.getTimeText());
             }
-
-            // Set party size
             if (holder.tvPartySize != null) {
-                try {
-                    holder.tvPartySize.setText("Party Size: " + reservation.getPartySizeText());
-                } catch (Exception e) {
-                    holder.tvPartySize.setText("Party Size: " + reservation.getPartySize());
-                    Log.e(TAG, "Error formatting party size: " + e.getMessage());
-                }
+                holder.tvPartySize.setText(row.getPartySizeText());
             }
 
             // Set status chip
-            if (holder.chipStatus != null) {
-                try {
-                    String status = reservation.getStatus();
-                    holder.chipStatus.setText(status != null ? status.toUpperCase() : "UNKNOWN");
-                    setStatusChipColor(holder.chipStatus, status);
-                } catch (Exception e) {
-                    holder.chipStatus.setText("UNKNOWN");
-                    Log.e(TAG, "Error setting status: " + e.getMessage());
-                }
-            }
+            bindStatus(holder, row);
 
-            // Click listener
-            if (holder.itemView != null) {
-                holder.itemView.setOnClickListener(v -> {
-                    try {
-                        if (listener != null && reservation != null) {
-                            listener.onItemClick(reservation);
-                        }
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error handling click: " + e.getMessage(), e);
-                    }
-                });
-            }
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error binding view holder at position " + position + ": " + e.getMessage(), e);
+        }
+    }
 
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        try {
+            // Only PAYLOAD_STATUS is ever sent
+            bindStatus(holder, differ.getCurrentList().get(position));
         } catch (Exception e) {
-            Log.e(TAG, "Error binding view holder at position " + position + ": " + e.getMessage(), e);
+            AppLog.e(TAG, "Error rebinding status at position " + position + ": " + e.getMessage(), e);
         }
     }
 
     @Override
     public int getItemCount() {
-        return reservations != null ? reservations.size() : 0;
+        return differ.getCurrentList().size();
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return differ.getCurrentList().get(position).getReservationId();
+    }
+
+    private void bindStatus(ViewHolder holder, ReservationRow row) {
+        if (holder.chipStatus != null) {
+            try {
+                holder.chipStatus.setText(row.getStatusText());
+                setStatusChipColor(holder.chipStatus, row.getStatusText());
+            } catch (Exception e) {
+                holder.chipStatus.setText("UNKNOWN");
+                AppLog.e(TAG, "Error setting status: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * True if every displayed field apart from the status is unchanged
+     */
+    private static boolean sameExceptStatus(ReservationRow oldItem, ReservationRow newItem) {
+        return oldItem.getGuestName().equals(newItem.getGuestName())
+                && oldItem.getDateText().equals(newItem.getDateText())
+                && oldItem.getTimeText().equals(newItem.getTimeText())
+                && oldItem.getPartySizeText().equals(newItem.getPartySizeText());
     }
 
-    private void setStatusChipColor(Chip chip, String status) {
+    private void onRowClicked(int position) {
+        if (listener != null) {
+            listener.onItemClick(differ.getCurrentList().get(position).getReservation());
+        }
+    }
+
+    /**
+     * @param statusText Upper-case status from ReservationRow
+     */
+    private void setStatusChipColor(Chip chip, String statusText) {
         try {
-            if (chip == null || status == null) return;
+            if (chip == null) return;
 
             int colorResId;
-            switch (status.toLowerCase()) {
-                case "confirmed":
+            switch (statusText) {
+                case "CONFIRMED":
                     colorResId = R.color.status_confirmed;
                     break;
-                case "pending":
+                case "PENDING":
                     colorResId = R.color.status_pending;
                     break;
-                case "cancelled":
+                case "CANCELLED":
                     colorResId = R.color.status_cancelled;
                     break;
-                case "completed":
+                case "COMPLETED":
                     colorResId = R.color.status_completed;
                     break;
                 default:
@@ -163,18 +210,26 @@ public class ReservationAdapter extends RecyclerView.Adapter<ReservationAdapter.
             }
             chip.setChipBackgroundColorResource(colorResId);
         } catch (Exception e) {
-            Log.e(TAG, "Error setting chip color: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error setting chip color: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Replace the list. Rows are built in the background and shown when
+     * ready. Pass new Reservation objects rather than changing the
+     * displayed ones in place, or the diff cannot see the change.
+     */
     public void updateData(List<Reservation> newReservations) {
-        try {
-            this.reservations = newReservations != null ? newReservations : new ArrayList<>();
-            notifyDataSetChanged();
-            Log.d(TAG, "Data updated: " + this.reservations.size() + " items");
-        } catch (Exception e) {
-            Log.e(TAG, "Error updating data: " + e.getMessage(), e);
-        }
+        List<Reservation> list = newReservations != null ? new ArrayList<>(newReservations) : new ArrayList<>();
+        rowExecutor.execute(() -> {
+            try {
+                List<ReservationRow> rows = ReservationRow.fromAll(list);
+                mainHandler.post(() -> differ.submitList(rows));
+                AppLog.d(TAG, () -> "Data updated: " + rows.size() + " items");
+            } catch (Exception e) {
+                AppLog.e(TAG, "Error updating data: " + e.getMessage(), e);
+            }
+        });
     }
 
     static class ViewHolder extends RecyclerView.ViewHolder {
@@ -196,13 +251,26 @@ public class ReservationAdapter extends RecyclerView.Adapter<ReservationAdapter.
                 chipStatus = itemView.findViewById(R.id.chip_status);
 
                 // Log any null views
-                if (tvGuestName == null) Log.e(TAG, "tvGuestName is NULL in ViewHolder");
-                if (tvDate == null) Log.e(TAG, "tvDate is NULL in ViewHolder");
-                if (tvTime == null) Log.e(TAG, "tvTime is NULL in ViewHolder");
-                if (tvPartySize == null) Log.e(TAG, "tvPartySize is NULL in ViewHolder");
-                if (chipStatus == null) Log.e(TAG, "chipStatus is NULL in ViewHolder");
+                if (tvGuestName == null) AppLog.e(TAG, "tvGuestName is NULL in ViewHolder");
+                if (tvDate == null) AppLog.e(TAG, "tvDate is NULL in ViewHolder");
+                if (tvTime == null) AppLog.e(TAG, "tvTime is NULL in ViewHolder");
+                if (tvPartySize == null) AppLog.e(TAG, "tvPartySize is NULL in ViewHolder");
+                if (chipStatus == null) AppLog.e(TAG, "chipStatus is NULL in ViewHolder");
+
+                // Set once; finds the adapter and reservation at click time
+                itemView.setOnClickListener(v -> {
+                    try {
+                        RecyclerView.Adapter<?> adapter = getBindingAdapter();
+                        int position = getBindingAdapterPosition();
+                        if (adapter instanceof ReservationAdapter && position != RecyclerView.NO_POSITION) {
+                            ((ReservationAdapter) adapter).onRowClicked(position);
+                        }
+                    } catch (Exception e) {
+                        AppLog.e(TAG, "Error handling click: " + e.getMessage(), e);
+                    }
+                });
             } catch (Exception e) {
-                Log.e(TAG, "Error in ViewHolder constructor: " + e.getMessage(), e);
+                AppLog.e(TAG, "Error in ViewHolder constructor: " + e.getMessage(), e);
             }
         }
     }
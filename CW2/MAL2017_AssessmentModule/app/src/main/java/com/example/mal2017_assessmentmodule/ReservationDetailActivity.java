@@ -6,7 +6,6 @@ import android.app.NotificationManager;
 import android.content.pm.PackageManager;
 import android.os.Build;
 import android.os.Bundle;
-import android.util.Log;
 import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
@@ -108,7 +107,7 @@ public class ReservationDetailActivity extends AppCompatActivity {
 
             displayReservationData();
         } catch (Exception e) {
-            Log.e(TAG, "Error loading reservation: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error loading reservation: " + e.getMessage(), e);
             Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
             finish();
         }
@@ -137,7 +136,7 @@ public class ReservationDetailActivity extends AppCompatActivity {
             // Show/hide action buttons based on status and user type
             updateActionButtons();
         } catch (Exception e) {
-            Log.e(TAG, "Error displaying reservation: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error displaying reservation: " + e.getMessage(), e);
         }
     }
 
@@ -238,7 +237,7 @@ public class ReservationDetailActivity extends AppCompatActivity {
             if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
                 if (ActivityCompat.checkSelfPermission(this, Manifest.permission.POST_NOTIFICATIONS)
                         != PackageManager.PERMISSION_GRANTED) {
-                    Log.d(TAG, "Notification permission not granted");
+                    AppLog.d(TAG, "Notification permission not granted");
                     return;
                 }
             }
@@ -262,9 +261,9 @@ public class ReservationDetailActivity extends AppCompatActivity {
 
             notificationManager.notify(reservation.getReservationId(), builder.build());
 
-            Log.d(TAG, "Notification sent: " + title);
+            AppLog.d(TAG, "Notification sent: " + title);
         } catch (Exception e) {
-            Log.e(TAG, "Error sending notification: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error sending notification: " + e.getMessage(), e);
         }
     }
 
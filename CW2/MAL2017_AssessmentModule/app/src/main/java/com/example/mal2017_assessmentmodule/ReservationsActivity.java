@@ -2,7 +2,6 @@ package com.example.mal2017_assessmentmodule;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.util.Log;
 import android.view.View;
 import android.widget.LinearLayout;
 import android.widget.TextView;
@@ -42,7 +41,7 @@ public class ReservationsActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
 
         try {
-            Log.d(TAG, "onCreate started");
+            AppLog.d(TAG, "onCreate started");
             setContentView(R.layout.activity_staff_view_reservations);
 
             dbHelper = DatabaseHelper.getInstance(this);
@@ -61,9 +60,9 @@ public class ReservationsActivity extends AppCompatActivity {
 
             loadReservations();
 
-            Log.d(TAG, "onCreate completed successfully");
+            AppLog.d(TAG, "onCreate completed successfully");
         } catch (Exception e) {
-            Log.e(TAG, "Error in onCreate: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error in onCreate: " + e.getMessage(), e);
             Toast.makeText(this, "Error loading reservations: " + e.getMessage(), Toast.LENGTH_LONG).show();
             finish();
         }
@@ -78,7 +77,7 @@ public class ReservationsActivity extends AppCompatActivity {
                 getSupportActionBar().setTitle("All Reservations");
             }
         } catch (Exception e) {
-            Log.e(TAG, "Error setting up toolbar: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error setting up toolbar: " + e.getMessage(), e);
         }
     }
 
@@ -89,29 +88,30 @@ public class ReservationsActivity extends AppCompatActivity {
             llEmptyState = findViewById(R.id.ll_empty_state);
             chipGroupFilters = findViewById(R.id.chip_group_filters);
 
-            if (rvReservations == null) Log.e(TAG, "rvReservations is NULL");
-            if (swipeRefresh == null) Log.e(TAG, "swipeRefresh is NULL");
-            if (llEmptyState == null) Log.e(TAG, "llEmptyState is NULL");
-            if (chipGroupFilters == null) Log.e(TAG, "chipGroupFilters is NULL");
+            if (rvReservations == null) AppLog.e(TAG, "rvReservations is NULL");
+            if (swipeRefresh == null) AppLog.e(TAG, "swipeRefresh is NULL");
+            if (llEmptyState == null) AppLog.e(TAG, "llEmptyState is NULL");
+            if (chipGroupFilters == null) AppLog.e(TAG, "chipGroupFilters is NULL");
         } catch (Exception e) {
-            Log.e(TAG, "Error initializing views: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error initializing views: " + e.getMessage(), e);
         }
     }
 
     private void setupRecyclerView() {
         try {
             if (rvReservations == null) {
-                Log.e(TAG, "Cannot setup RecyclerView - it is NULL");
+                AppLog.e(TAG, "Cannot setup RecyclerView - it is NULL");
                 return;
             }
 
             LinearLayoutManager layoutManager = new LinearLayoutManager(this);
             rvReservations.setLayoutManager(layoutManager);
             rvReservations.setHasFixedSize(false);
+            RowViewPools.getInstance(this).attach(rvReservations, R.layout.item_staff_view_reservation);
 
-            Log.d(TAG, "RecyclerView setup completed");
+            AppLog.d(TAG, "RecyclerView setup completed");
         } catch (Exception e) {
-            Log.e(TAG, "Error setting up RecyclerView: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error setting up RecyclerView: " + e.getMessage(), e);
         }
     }
 
@@ -124,7 +124,7 @@ public class ReservationsActivity extends AppCompatActivity {
                 });
             }
         } catch (Exception e) {
-            Log.e(TAG, "Error setting up swipe refresh: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error setting up swipe refresh: " + e.getMessage(), e);
         }
     }
 
@@ -147,24 +147,24 @@ public class ReservationsActivity extends AppCompatActivity {
                     currentFilter = Constants.STATUS_CANCELLED;
                 }
 
-                Log.d(TAG, "Filter changed to: " + currentFilter);
+                AppLog.d(TAG, "Filter changed to: " + currentFilter);
                 loadReservations();
             });
         } catch (Exception e) {
-            Log.e(TAG, "Error setting up filters: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error setting up filters: " + e.getMessage(), e);
         }
     }
 
     private void loadReservations() {
         try {
-            Log.d(TAG, "Loading reservations with filter: " + currentFilter);
+            AppLog.d(TAG, "Loading reservations with filter: " + currentFilter);
 
             if (dbHelper == null) {
                 dbHelper = DatabaseHelper.getInstance(this);
             }
 
             List<Reservation> allReservations = dbHelper.getAllReservations();
-            Log.d(TAG, "Total reservations from DB: " + allReservations.size());
+            AppLog.d(TAG, "Total reservations from DB: " + allReservations.size());
 
             List<Reservation> filteredReservations = new ArrayList<>();
 
@@ -179,7 +179,7 @@ public class ReservationsActivity extends AppCompatActivity {
                 }
             }
 
-            Log.d(TAG, "Filtered reservations: " + filteredReservations.size());
+            AppLog.d(TAG, "Filtered reservations: " + filteredReservations.size());
 
             // Update UI
             if (filteredReservations.isEmpty()) {
@@ -189,7 +189,7 @@ public class ReservationsActivity extends AppCompatActivity {
             }
 
         } catch (Exception e) {
-            Log.e(TAG, "Error loading reservations: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error loading reservations: " + e.getMessage(), e);
             Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
             showEmptyState();
         }
@@ -204,14 +204,14 @@ public class ReservationsActivity extends AppCompatActivity {
                 llEmptyState.setVisibility(View.VISIBLE);
             }
         } catch (Exception e) {
-            Log.e(TAG, "Error showing empty state: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error showing empty state: " + e.getMessage(), e);
         }
     }
 
     private void showReservations(List<Reservation> reservations) {
         try {
             if (rvReservations == null) {
-                Log.e(TAG, "Cannot show reservations - RecyclerView is NULL");
+                AppLog.e(TAG, "Cannot show reservations - RecyclerView is NULL");
                 return;
             }
 
@@ -220,24 +220,30 @@ public class ReservationsActivity extends AppCompatActivity {
                 llEmptyState.setVisibility(View.GONE);
             }
 
+            // Reuse the adapter so only changed rows are rebound
+            if (reservationAdapter != null) {
+                reservationAdapter.updateData(reservations);
+                return;
+            }
+
             reservationAdapter = new ReservationAdapter(this, reservations);
             reservationAdapter.setOnItemClickListener(reservation -> {
                 try {
-                    Log.d(TAG, "Reservation clicked: " + reservation.getReservationId());
+                    AppLog.d(TAG, "Reservation clicked: " + reservation.getReservationId());
                     Intent intent = new Intent(ReservationsActivity.this, ReservationDetailActivity.class);
                     intent.putExtra(Constants.EXTRA_RESERVATION_ID, reservation.getReservationId());
                     startActivity(intent);
                 } catch (Exception e) {
-                    Log.e(TAG, "Error opening reservation detail: " + e.getMessage(), e);
+                    AppLog.e(TAG, "Error opening reservation detail: " + e.getMessage(), e);
                     Toast.makeText(ReservationsActivity.this, "Error opening reservation", Toast.LENGTH_SHORT).show();
                 }
             });
 
             rvReservations.setAdapter(reservationAdapter);
-            Log.d(TAG, "Adapter set with " + reservations.size() + " items");
+            AppLog.d(TAG, "Adapter set with " + reservations.size() + " items");
 
         } catch (Exception e) {
-            Log.e(TAG, "Error showing reservations: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error showing reservations: " + e.getMessage(), e);
             Toast.makeText(this, "Error displaying reservations", Toast.LENGTH_SHORT).show();
         }
     }
@@ -252,10 +258,10 @@ public class ReservationsActivity extends AppCompatActivity {
     protected void onResume() {
         super.onResume();
         try {
-            Log.d(TAG, "onResume - reloading reservations");
+            AppLog.d(TAG, "onResume - reloading reservations");
             loadReservations();
         } catch (Exception e) {
-            Log.e(TAG, "Error in onResume: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error in onResume: " + e.getMessage(), e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.app.ActivityManager;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.load.resource.bitmap.DownsampleStrategy;
+import com.bumptech.glide.module.AppGlideModule;
+import com.bumptech.glide.request.RequestOptions;
+
+import java.io.InputStream;
+
+/**
+ * RestaurantGlideModule - App-wide Glide configuration.
+ *
+ * Features:
+ * - Memory cache and bitmap pool sized from the device's memory class:
+ *   small heaps (MemoryClass <= SMALL_HEAP_MB or a low-RAM device) keep
+ *   fewer screens of bitmaps and a smaller share of the heap
+ * - Decodes to RGB_565 by default, half the bytes of ARGB_8888. Glide
+ *   still uses ARGB_8888 for images with alpha, so only opaque photos
+ *   are affected
+ * - Downsamples while decoding so the bitmap just covers the target
+ *   view (matches the centerCrop used by the menu cards)
+ * - Disk cache capped at DISK_CACHE_BYTES
+ * - Remote menu images (MenuImageStore.Remote) load through
+ *   MenuImageLoader and the content-addressed MenuImageStore
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@GlideModule
+public final class RestaurantGlideModule extends AppGlideModule {
+
+    private static final String TAG = "RestaurantGlideModule";
+
+    private static final int SMALL_HEAP_MB = 128;
+    private static final long DISK_CACHE_BYTES = 64L * 1024 * 1024;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        ActivityManager activityManager =
+                (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        int memoryClassMb = activityManager.getMemoryClass();
+        boolean smallHeap = activityManager.isLowRamDevice() || memoryClassMb <= SMALL_HEAP_MB;
+
+        // Screens = bitmaps the size of the whole display
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(smallHeap ? 1.5f : 3f)
+                .setBitmapPoolScreens(smallHeap ? 1f : 2f)
+                .setMaxSizeMultiplier(smallHeap ? 0.25f : 0.33f)
+                .build();
+
+        builder.setMemoryCache(new LruResourceCache(calculator.getMemoryCacheSize()));
+        builder.setBitmapPool(new LruBitmapPool(calculator.getBitmapPoolSize()));
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_BYTES));
+        builder.setDefaultRequestOptions(new RequestOptions()
+                .format(DecodeFormat.PREFER_RGB_565)
+                .downsample(DownsampleStrategy.CENTER_OUTSIDE));
+
+        AppLog.d(TAG, () -> "Memory class " + memoryClassMb + " MB: memory cache "
+                + calculator.getMemoryCacheSize() / 1024 + " KB, bitmap pool "
+                + calculator.getBitmapPoolSize() / 1024 + " KB");
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide,
+                                   @NonNull Registry registry) {
+        registry.prepend(MenuImageStore.Remote.class, InputStream.class,
+                new MenuImageLoader.Factory(MenuImageStore.getInstance(context)));
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        // No Glide modules declared in manifests; skips the manifest scan
+        return false;
+    }
+}
@@ -0,0 +1,390 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.content.ComponentCallbacks;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.pm.ActivityInfo;
+import android.content.res.Configuration;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.appcompat.view.ContextThemeWrapper;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.mal2017_assessmentmodule.api.LatencyHistogram;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * RowViewPools - Process-wide row view pools shared by the list screens.
+ *
+ * Features:
+ * - One shared RecycledViewPool per row layout (menu rows, reservation
+ *   rows); every list showing that row type draws on it, so a screen
+ *   opened after another starts with the rows the previous one left behind
+ * - prewarm() inflates a screenful of each row type while the main thread
+ *   is idle, one row per idle pass; adapters take these views before
+ *   inflating their own
+ * - Pooled rows are dropped when the configuration changes (night mode,
+ *   font scale, rotation...) or memory runs low
+ * - attach() records the time from list setup to the first frame with
+ *   rows (getFirstFrameTimes), split by whether the rows were ready-made
+ *
+ * Pre-inflated rows use the screen's own inflater, so AppCompat's view
+ * factory applies, but are created in a context built on the application
+ * context with the screen's theme and configuration. A row kept in the
+ * shared pool therefore never holds on to a finished activity. Rows an
+ * adapter has to inflate itself use the list's context; they stay in
+ * that list's own pool and die with its screen.
+ *
+ * Adapters must not capture themselves in view holders; holders find
+ * their adapter through getBindingAdapter().
+ *
+ * Call from the main thread only.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class RowViewPools {
+
+    private static final String TAG = "RowViewPools";
+
+    // Rows kept per type: about one screen, plus the row prefetched below it.
+    // A menu card is ~320dp tall, a reservation card ~100dp.
+    private static final int MENU_ROWS = 5;
+    private static final int RESERVATION_ROWS = 9;
+
+    private static final int[] PREWARMED_LAYOUTS = {
+            R.layout.item_guest_view_menu,
+            R.layout.item_staff_view_reservation,
+    };
+
+    // Changes that alter how a row inflates; pooled rows built before one are stale
+    private static final int ROW_CONFIG_CHANGES = ActivityInfo.CONFIG_UI_MODE
+            | ActivityInfo.CONFIG_DENSITY
+            | ActivityInfo.CONFIG_FONT_SCALE
+            | ActivityInfo.CONFIG_LOCALE
+            | ActivityInfo.CONFIG_LAYOUT_DIRECTION
+            | ActivityInfo.CONFIG_ORIENTATION
+            | ActivityInfo.CONFIG_SCREEN_SIZE
+            | ActivityInfo.CONFIG_SMALLEST_SCREEN_SIZE;
+
+    private static RowViewPools instance;
+
+    private final Context appContext;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<Integer, RecyclerView.RecycledViewPool> pools = new HashMap<>();
+    private final Map<Integer, ArrayDeque<View>> spareViews = new HashMap<>();
+    private final Map<Integer, Integer> fallbackInflations = new HashMap<>();
+    private final LatencyHistogram prewarmedFirstFrames = new LatencyHistogram();
+    private final LatencyHistogram coldFirstFrames = new LatencyHistogram();
+
+    private Context rowContext;              // Context of the rows in spareViews and pools
+    private Configuration rowConfiguration;  // Configuration rowContext was built for
+    private Prewarm prewarm;                 // Running pre-inflation, if any
+
+    private RowViewPools(Context context) {
+        this.appContext = context.getApplicationContext();
+        appContext.registerComponentCallbacks(new ComponentCallbacks() {
+            @Override
+            public void onConfigurationChanged(@NonNull Configuration newConfig) {
+                clear("configuration changed");
+            }
+
+            @Override
+            public void onLowMemory() {
+                clear("low memory");
+            }
+        });
+    }
+
+    /**
+     * Get singleton instance of RowViewPools
+     */
+    public static synchronized RowViewPools getInstance(Context context) {
+        if (instance == null) {
+            instance = new RowViewPools(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Use the shared pool for a list's rows and record its first frame
+     *
+     * @param rowLayout Layout of the rows, also used as their view type
+     */
+    public void attach(RecyclerView list, int rowLayout) {
+        Context screen = list.getContext();
+        list.setRecycledViewPool(new ScreenPool(screen, rowLayout));
+        RecyclerView.LayoutManager layoutManager = list.getLayoutManager();
+        if (layoutManager instanceof LinearLayoutManager) {
+            // Hand rows back to the pool when the screen goes away
+            ((LinearLayoutManager) layoutManager).setRecycleChildrenOnDetach(true);
+        }
+        measureFirstFrame(list, rowLayout);
+        prewarm(screen);
+    }
+
+    /**
+     * Pre-inflate rows of every type up to their target count for a
+     * screen, once the main thread has nothing else to do
+     *
+     * @param screen Activity (or themed context) whose theme and
+     *               configuration the rows should have
+     */
+    public void prewarm(Context screen) {
+        Context rows = rowContextFor(screen);
+        if (prewarm != null) {
+            return;
+        }
+        prewarm = new Prewarm(screen, rows);
+        Looper.myQueue().addIdleHandler(prewarm);
+    }
+
+    /**
+     * A row view for onCreateViewHolder: a pre-inflated one if there is
+     * one left for this list's configuration, otherwise inflated now
+     * with the list's context
+     */
+    public View inflate(@NonNull ViewGroup parent, int rowLayout) {
+        ArrayDeque<View> spares = spareViews.get(rowLayout);
+        if (spares != null && matches(parent.getContext())) {
+            View view = spares.poll();
+            if (view != null) {
+                return view;
+            }
+        }
+        Integer inflated = fallbackInflations.get(rowLayout);
+        fallbackInflations.put(rowLayout, inflated != null ? inflated + 1 : 1);
+        return LayoutInflater.from(parent.getContext()).inflate(rowLayout, parent, false);
+    }
+
+    /**
+     * Rows of a layout that are ready to use without inflating
+     */
+    public int getReadyCount(int rowLayout) {
+        ArrayDeque<View> spares = spareViews.get(rowLayout);
+        RecyclerView.RecycledViewPool pool = pools.get(rowLayout);
+        return (spares != null ? spares.size() : 0)
+                + (pool != null ? pool.getRecycledViewCount(rowLayout) : 0);
+    }
+
+    /**
+     * Time from attach() to the first frame with rows, over every list
+     * since the app started
+     *
+     * @param prewarmed true for lists that drew their first frame without
+     *                  inflating a row, false for lists that inflated some
+     */
+    public LatencyHistogram.Snapshot getFirstFrameTimes(boolean prewarmed) {
+        return (prewarmed ? prewarmedFirstFrames : coldFirstFrames).snapshot();
+    }
+
+    private RecyclerView.RecycledViewPool getPool(int rowLayout) {
+        RecyclerView.RecycledViewPool pool = pools.get(rowLayout);
+        if (pool == null) {
+            pool = new RecyclerView.RecycledViewPool();
+            pool.setMaxRecycledViews(rowLayout, targetCount(rowLayout));
+            pools.put(rowLayout, pool);
+        }
+        return pool;
+    }
+
+    /**
+     * Context pooled rows are inflated in for a screen. Drops every pooled
+     * row first if they were built for a different configuration.
+     */
+    private Context rowContextFor(Context screen) {
+        if (rowContext != null && matches(screen)) {
+            return rowContext;
+        }
+        if (rowContext != null) {
+            clear("screen configuration differs");
+        }
+
+        Configuration configuration = screen.getResources().getConfiguration();
+        ContextThemeWrapper rows = new ContextThemeWrapper(appContext, R.style.Theme_MAL2017_AssessmentModule);
+        rows.applyOverrideConfiguration(configuration);
+        // Copies the screen's theme, overlays included, without keeping the screen
+        rows.getTheme().setTo(screen.getTheme());
+        rowContext = rows;
+        rowConfiguration = new Configuration(configuration);
+        return rowContext;
+    }
+
+    /**
+     * True if pooled rows were built for a screen's configuration
+     */
+    private boolean matches(Context screen) {
+        return rowConfiguration != null
+                && (rowConfiguration.diff(screen.getResources().getConfiguration()) & ROW_CONFIG_CHANGES) == 0;
+    }
+
+    /**
+     * True if a row was pre-inflated for the current configuration, so it
+     * may go to the shared pool
+     */
+    private boolean isShared(View view) {
+        Context context = view.getContext();
+        while (context instanceof ContextWrapper) {
+            if (context == rowContext) {
+                return true;
+            }
+            context = ((ContextWrapper) context).getBaseContext();
+        }
+        return false;
+    }
+
+    /**
+     * Drop every pooled row and stop pre-inflating
+     */
+    private void clear(String reason) {
+        for (RecyclerView.RecycledViewPool pool : pools.values()) {
+            pool.clear();
+        }
+        spareViews.clear();
+        rowContext = null;
+        rowConfiguration = null;
+        prewarm = null;  // A running Prewarm sees it was replaced and stops
+        AppLog.d(TAG, () -> "Dropped pooled rows: " + reason);
+    }
+
+    /**
+     * Record how long after setup the list first drew rows, and whether
+     * it had to inflate any of them
+     */
+    private void measureFirstFrame(RecyclerView list, int rowLayout) {
+        long start = SystemClock.uptimeMillis();
+        int readyRows = getReadyCount(rowLayout);
+        int inflatedBefore = fallbackCount(rowLayout);
+        list.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                if (list.getChildCount() == 0) {
+                    return true;  // No rows yet
+                }
+                list.getViewTreeObserver().removeOnPreDrawListener(this);
+                long elapsed = SystemClock.uptimeMillis() - start;
+                int inflated = fallbackCount(rowLayout) - inflatedBefore;
+                (inflated == 0 ? prewarmedFirstFrames : coldFirstFrames).record(elapsed);
+                AppLog.d(TAG, () -> list.getContext().getClass().getSimpleName()
+                        + ": first frame with " + list.getChildCount() + " rows after "
+                        + elapsed + " ms (" + readyRows + " rows ready, " + inflated + " inflated)");
+                return true;
+            }
+        });
+    }
+
+    private int fallbackCount(int rowLayout) {
+        Integer inflated = fallbackInflations.get(rowLayout);
+        return inflated != null ? inflated : 0;
+    }
+
+    private static int targetCount(int rowLayout) {
+        return rowLayout == R.layout.item_guest_view_menu ? MENU_ROWS : RESERVATION_ROWS;
+    }
+
+    private static boolean isPrewarmed(int rowLayout) {
+        for (int layout : PREWARMED_LAYOUTS) {
+            if (layout == rowLayout) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inflates one missing row per idle pass until every type is topped up.
+     * Holds the screen's inflater, and so the screen, only until then.
+     */
+    private final class Prewarm implements MessageQueue.IdleHandler {
+        private final LayoutInflater inflater;
+        private final RecyclerView inflateParent;  // Only supplies RecyclerView layout params
+
+        Prewarm(Context screen, Context rows) {
+            // The clone keeps the screen's factories (AppCompat widgets) but inflates in rows
+            this.inflater = LayoutInflater.from(screen).cloneInContext(rows);
+            this.inflateParent = new RecyclerView(rows);
+            inflateParent.setLayoutManager(new LinearLayoutManager(rows));
+        }
+
+        @Override
+        public boolean queueIdle() {
+            if (prewarm != this) {
+                return false;  // Rows were dropped since this started
+            }
+            try {
+                int rowLayout = nextMissing();
+                if (rowLayout == 0) {
+                    prewarm = null;
+                    return false;
+                }
+                View view = inflater.inflate(rowLayout, inflateParent, false);
+                ArrayDeque<View> spares = spareViews.get(rowLayout);
+                if (spares == null) {
+                    spares = new ArrayDeque<>();
+                    spareViews.put(rowLayout, spares);
+                }
+                spares.add(view);
+                // An idle handler runs once per idle spell; the post starts the next one
+                mainHandler.post(() -> Looper.myQueue().addIdleHandler(this));
+            } catch (Exception e) {
+                prewarm = null;
+                AppLog.e(TAG, "Error pre-inflating rows: " + e.getMessage(), e);
+            }
+            return false;
+        }
+
+        private int nextMissing() {
+            for (int rowLayout : PREWARMED_LAYOUTS) {
+                if (getReadyCount(rowLayout) < targetCount(rowLayout)) {
+                    return rowLayout;
+                }
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * A list's own pool. Pre-inflated rows go on to the shared pool for
+     * other screens; rows the list inflated itself stay here.
+     */
+    private final class ScreenPool extends RecyclerView.RecycledViewPool {
+        private final Context screen;
+
+        ScreenPool(Context screen, int rowLayout) {
+            this.screen = screen;
+            setMaxRecycledViews(rowLayout, targetCount(rowLayout));
+        }
+
+        @Nullable
+        @Override
+        public RecyclerView.ViewHolder getRecycledView(int viewType) {
+            RecyclerView.ViewHolder holder = super.getRecycledView(viewType);
+            if (holder == null && isPrewarmed(viewType) && matches(screen)) {
+                holder = getPool(viewType).getRecycledView(viewType);
+            }
+            return holder;
+        }
+
+        @Override
+        public void putRecycledView(RecyclerView.ViewHolder holder) {
+            if (isShared(holder.itemView)) {
+                getPool(holder.getItemViewType()).putRecycledView(holder);
+            } else {
+                super.putRecycledView(holder);
+            }
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.example.mal2017_assessmentmodule;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.util.Base64;
 
+import com.example.mal2017_assessmentmodule.models.ModelCodec;
 import com.example.mal2017_assessmentmodule.models.User;
 import com.google.gson.Gson;
 
@@ -16,19 +18,65 @@ import com.google.gson.Gson;
  * - User type checking
  *
  * Uses SharedPreferences for persistent storage
- * Uses Gson for object serialization
+ * Uses ModelCodec (binary, Base64 in preferences) for the user; sessions
+ * saved as Gson JSON by older versions are still read and converted on
+ * the next write
+ *
+ * The session is read from SharedPreferences once per process and kept in
+ * memory as an immutable Session shared by every SessionManager. Accessors
+ * only read that object; writes replace it and persist with apply(), so
+ * neither side blocks on disk.
  *
  * @author BSCS2509254
- * @version 2.0
+ * @version 3.1 (In-memory session, binary storage)
  */
 public class SessionManager {
 
+    private static final String TAG = "SessionManager";
     private static final String PREF_NAME = "RestaurantProSession";
     private static final String KEY_IS_LOGGED_IN = "is_logged_in";
-    private static final String KEY_USER_JSON = "user_json";
+    private static final String KEY_USER_JSON = "user_json";      // Before ModelCodec
+    private static final String KEY_USER_BINARY = "user_binary";
+
+    /**
+     * Immutable snapshot of the session. The user is never handed out
+     * directly; getUser() returns a copy the caller may change.
+     */
+    public static final class Session {
+        static final Session LOGGED_OUT = new Session(null);
+
+        private final User user;
+        private final boolean staff;
+        private final boolean guest;
+        private final String fullName;
+
+        Session(User user) {
+            this.user = user != null ? new User(user) : null;
+            this.staff = user != null && Constants.USER_TYPE_STAFF.equalsIgnoreCase(user.getUsertype());
+            this.guest = user != null && Constants.USER_TYPE_GUEST.equalsIgnoreCase(user.getUsertype());
+            this.fullName = user != null ? user.getFullName() : "";
+        }
+
+        public boolean isLoggedIn() { return user != null; }
+        public boolean isStaff() { return staff; }
+        public boolean isGuest() { return guest; }
+        public int getUserId() { return user != null ? user.getUserId() : 0; }
+        public String getEmail() { return user != null ? user.getEmail() : ""; }
+        public String getContact() { return user != null ? user.getContact() : ""; }
+        public String getFullName() { return fullName; }
+
+        /**
+         * Copy of the logged in user, or null if not logged in
+         */
+        public User getUser() {
+            return user != null ? new User(user) : null;
+        }
+    }
+
+    // Shared by all instances; null until first loaded from preferences
+    private static volatile Session current;
 
     private SharedPreferences prefs;
-    private SharedPreferences.Editor editor;
     private Context context;
     private Gson gson;
 
@@ -40,10 +88,50 @@ public class SessionManager {
     public SessionManager(Context context) {
         this.context = context;
         prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
-        editor = prefs.edit();
         gson = new Gson();
     }
 
+    /**
+     * Current session snapshot. Read all values of one operation from the
+     * same snapshot when they must be consistent.
+     */
+    public Session getSession() {
+        Session session = current;
+        if (session == null) {
+            synchronized (SessionManager.class) {
+                session = current;
+                if (session == null) {
+                    session = load();
+                    current = session;
+                }
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Read the saved session (first use in this process only)
+     */
+    private Session load() {
+        if (!prefs.getBoolean(KEY_IS_LOGGED_IN, false)) {
+            return Session.LOGGED_OUT;
+        }
+        try {
+            String userBinary = prefs.getString(KEY_USER_BINARY, null);
+            if (userBinary != null) {
+                return new Session(ModelCodec.decodeUser(Base64.decode(userBinary, Base64.NO_WRAP)));
+            }
+            String userJson = prefs.getString(KEY_USER_JSON, null);
+            if (userJson != null) {
+                return new Session(gson.fromJson(userJson, User.class));
+            }
+            return Session.LOGGED_OUT;
+        } catch (RuntimeException e) {
+            AppLog.e(TAG, "Saved session unreadable, logging out: " + e.getMessage());
+            return Session.LOGGED_OUT;
+        }
+    }
+
     /**
      * Create login session
      * Saves user data and sets logged in flag
@@ -51,13 +139,16 @@ public class SessionManager {
      * @param user User object to save
      */
     public void createLoginSession(User user) {
-        // Convert user object to JSON string
-        String userJson = gson.toJson(user);
+        synchronized (SessionManager.class) {
+            current = new Session(user);
+        }
 
-        // Save to preferences
-        editor.putBoolean(KEY_IS_LOGGED_IN, true);
-        editor.putString(KEY_USER_JSON, userJson);
-        editor.commit();
+        // Persist in the background
+        prefs.edit()
+                .putBoolean(KEY_IS_LOGGED_IN, true)
+                .putString(KEY_USER_BINARY, Base64.encodeToString(ModelCodec.encode(user), Base64.NO_WRAP))
+                .remove(KEY_USER_JSON)
+                .apply();
     }
 
     /**
@@ -66,25 +157,16 @@ public class SessionManager {
      * @return true if user is logged in, false otherwise
      */
     public boolean isLoggedIn() {
-        return prefs.getBoolean(KEY_IS_LOGGED_IN, false);
+        return getSession().isLoggedIn();
     }
 
     /**
      * Get logged in user data
      *
-     * @return User object or null if not logged in
+     * @return Copy of the User object or null if not logged in
      */
     public User getLoggedInUser() {
-        if (!isLoggedIn()) {
-            return null;
-        }
-
-        String userJson = prefs.getString(KEY_USER_JSON, null);
-        if (userJson != null) {
-            return gson.fromJson(userJson, User.class);
-        }
-
-        return null;
+        return getSession().getUser();
     }
 
     /**
@@ -93,8 +175,7 @@ public class SessionManager {
      * @return true if user is staff, false otherwise
      */
     public boolean isStaff() {
-        User user = getLoggedInUser();
-        return user != null && Constants.USER_TYPE_STAFF.equalsIgnoreCase(user.getUsertype());
+        return getSession().isStaff();
     }
 
     /**
@@ -103,8 +184,7 @@ public class SessionManager {
      * @return true if user is guest, false otherwise
      */
     public boolean isGuest() {
-        User user = getLoggedInUser();
-        return user != null && Constants.USER_TYPE_GUEST.equalsIgnoreCase(user.getUsertype());
+        return getSession().isGuest();
     }
 
     /**
@@ -124,8 +204,10 @@ public class SessionManager {
      * Removes all session data
      */
     public void logoutUser() {
-        editor.clear();
-        editor.commit();
+        synchronized (SessionManager.class) {
+            current = Session.LOGGED_OUT;
+        }
+        prefs.edit().clear().apply();
     }
 
     /**
@@ -134,8 +216,7 @@ public class SessionManager {
      * @return User ID or 0 if not logged in
      */
     public int getUserId() {
-        User user = getLoggedInUser();
-        return user != null ? user.getUserId() : 0;
+        return getSession().getUserId();
     }
 
     /**
@@ -144,8 +225,7 @@ public class SessionManager {
      * @return Email or empty string if not logged in
      */
     public String getUserEmail() {
-        User user = getLoggedInUser();
-        return user != null ? user.getEmail() : "";
+        return getSession().getEmail();
     }
 
     /**
@@ -154,7 +234,6 @@ public class SessionManager {
      * @return Full name or empty string if not logged in
      */
     public String getUserFullName() {
-        User user = getLoggedInUser();
-        return user != null ? user.getFullName() : "";
+        return getSession().getFullName();
     }
-}
\ No newline at end of file
+}
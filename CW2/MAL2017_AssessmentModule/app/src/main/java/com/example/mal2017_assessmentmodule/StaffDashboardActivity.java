@@ -2,7 +2,6 @@ package com.example.mal2017_assessmentmodule;
 
 import android.content.Intent;
 import android.os.Bundle;
-import android.util.Log;
 import android.view.MenuItem;
 import android.view.View;
 import android.widget.FrameLayout;
@@ -51,7 +50,7 @@ public class StaffDashboardActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
 
         try {
-            Log.d(TAG, "onCreate started");
+            AppLog.d(TAG, "onCreate started");
             setContentView(R.layout.activity_staff_dashboard);
 
             dbHelper = DatabaseHelper.getInstance(this);
@@ -63,9 +62,9 @@ public class StaffDashboardActivity extends AppCompatActivity {
             setupRecyclerView();
             loadDashboardData();
 
-            Log.d(TAG, "onCreate completed successfully");
+            AppLog.d(TAG, "onCreate completed successfully");
         } catch (Exception e) {
-            Log.e(TAG, "Error in onCreate: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error in onCreate: " + e.getMessage(), e);
             Toast.makeText(this, "Error loading dashboard: " + e.getMessage(), Toast.LENGTH_LONG).show();
             finish();
         }
@@ -84,9 +83,9 @@ public class StaffDashboardActivity extends AppCompatActivity {
             rvRecentReservations = findViewById(R.id.rv_recent_reservations);
             flNotificationBadge = findViewById(R.id.fl_notification_badge);
 
-            Log.d(TAG, "Views initialized");
+            AppLog.d(TAG, "Views initialized");
         } catch (Exception e) {
-            Log.e(TAG, "Error initializing views: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error initializing views: " + e.getMessage(), e);
         }
     }
 
@@ -116,14 +115,14 @@ public class StaffDashboardActivity extends AppCompatActivity {
                             return true;
                         }
                     } catch (Exception e) {
-                        Log.e(TAG, "Navigation error: " + e.getMessage(), e);
+                        AppLog.e(TAG, "Navigation error: " + e.getMessage(), e);
                         Toast.makeText(StaffDashboardActivity.this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
                     }
                     return false;
                 }
             });
         } catch (Exception e) {
-            Log.e(TAG, "Error setting up navigation: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error setting up navigation: " + e.getMessage(), e);
         }
     }
 
@@ -135,7 +134,7 @@ public class StaffDashboardActivity extends AppCompatActivity {
                         Intent intent = new Intent(StaffDashboardActivity.this, MenuManagementActivity.class);
                         startActivity(intent);
                     } catch (Exception e) {
-                        Log.e(TAG, "Error: " + e.getMessage(), e);
+                        AppLog.e(TAG, "Error: " + e.getMessage(), e);
                         Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
                     }
                 });
@@ -147,7 +146,7 @@ public class StaffDashboardActivity extends AppCompatActivity {
                         Intent intent = new Intent(StaffDashboardActivity.this, ReservationsActivity.class);
                         startActivity(intent);
                     } catch (Exception e) {
-                        Log.e(TAG, "Error: " + e.getMessage(), e);
+                        AppLog.e(TAG, "Error: " + e.getMessage(), e);
                         Toast.makeText(this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
                     }
                 });
@@ -165,12 +164,12 @@ public class StaffDashboardActivity extends AppCompatActivity {
                         Intent intent = new Intent(StaffDashboardActivity.this, ReservationsActivity.class);
                         startActivity(intent);
                     } catch (Exception e) {
-                        Log.e(TAG, "Error: " + e.getMessage(), e);
+                        AppLog.e(TAG, "Error: " + e.getMessage(), e);
                     }
                 });
             }
         } catch (Exception e) {
-            Log.e(TAG, "Error setting up click listeners: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error setting up click listeners: " + e.getMessage(), e);
         }
     }
 
@@ -210,22 +209,25 @@ public class StaffDashboardActivity extends AppCompatActivity {
                 }
             }
 
-            Log.d(TAG, "Dashboard data loaded successfully");
+            AppLog.d(TAG, "Dashboard data loaded successfully");
         } catch (Exception e) {
-            Log.e(TAG, "Error loading dashboard data: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error loading dashboard data: " + e.getMessage(), e);
         }
     }
 
     private void setupRecyclerView() {
         try {
             if (rvRecentReservations == null) {
-                Log.e(TAG, "RecyclerView is NULL");
+                AppLog.e(TAG, "RecyclerView is NULL");
                 return;
             }
 
-            LinearLayoutManager layoutManager = new LinearLayoutManager(this);
-            rvRecentReservations.setLayoutManager(layoutManager);
-            rvRecentReservations.setNestedScrollingEnabled(false);
+            if (rvRecentReservations.getLayoutManager() == null) {
+                LinearLayoutManager layoutManager = new LinearLayoutManager(this);
+                rvRecentReservations.setLayoutManager(layoutManager);
+                rvRecentReservations.setNestedScrollingEnabled(false);
+                RowViewPools.getInstance(this).attach(rvRecentReservations, R.layout.item_staff_view_reservation);
+            }
 
             // Load recent reservations (limit 5)
             List<Reservation> recentReservations = dbHelper.getRecentReservations(5);
@@ -234,6 +236,12 @@ public class StaffDashboardActivity extends AppCompatActivity {
                 recentReservations = new ArrayList<>();
             }
 
+            // Reuse the adapter so only changed rows are rebound
+            if (reservationAdapter != null) {
+                reservationAdapter.updateData(recentReservations);
+                return;
+            }
+
             reservationAdapter = new ReservationAdapter(this, recentReservations);
             reservationAdapter.setOnItemClickListener(reservation -> {
                 try {
@@ -242,15 +250,15 @@ public class StaffDashboardActivity extends AppCompatActivity {
                     intent.putExtra(Constants.EXTRA_RESERVATION_ID, reservation.getReservationId());
                     startActivity(intent);
                 } catch (Exception e) {
-                    Log.e(TAG, "Error opening reservation: " + e.getMessage(), e);
+                    AppLog.e(TAG, "Error opening reservation: " + e.getMessage(), e);
                     Toast.makeText(StaffDashboardActivity.this, "Error opening reservation", Toast.LENGTH_SHORT).show();
                 }
             });
             rvRecentReservations.setAdapter(reservationAdapter);
 
-            Log.d(TAG, "RecyclerView setup with " + recentReservations.size() + " items");
+            AppLog.d(TAG, "RecyclerView setup with " + recentReservations.size() + " items");
         } catch (Exception e) {
-            Log.e(TAG, "Error setting up RecyclerView: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error setting up RecyclerView: " + e.getMessage(), e);
         }
     }
 
@@ -268,7 +276,7 @@ public class StaffDashboardActivity extends AppCompatActivity {
             loadDashboardData();
             setupRecyclerView();
         } catch (Exception e) {
-            Log.e(TAG, "Error in onResume: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error in onResume: " + e.getMessage(), e);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.graphics.Canvas;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * StickyHeaderDecoration - Keeps the current section's header pinned to
+ * the top of a sectioned list.
+ *
+ * Features:
+ * - Draws a copy of the header (one view, inflated once) over the list
+ *   once the real header has scrolled past the top
+ * - The next section's header pushes the pinned one up as it arrives
+ * - Lists without sections (e.g. search results) draw nothing
+ *
+ * The pinned header is only drawn, so it does not take touches.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class StickyHeaderDecoration extends RecyclerView.ItemDecoration {
+
+    /**
+     * Section layout of the list, answered in O(1)
+     */
+    public interface SectionSource {
+        /** Position of the header of the section a row is in, or -1 */
+        int getHeaderPosition(int position);
+
+        /** Title shown by the header row at a position */
+        String getHeaderTitle(int headerPosition);
+    }
+
+    private final SectionSource sections;
+    private final int headerLayout;
+    private final int titleViewId;
+    private View header;
+    private TextView headerTitle;
+    private String boundTitle;
+    private int boundWidth = -1;
+
+    /**
+     * @param headerLayout Layout of the header rows
+     * @param titleViewId  TextView in that layout showing the title
+     */
+    public StickyHeaderDecoration(SectionSource sections, int headerLayout, int titleViewId) {
+        this.sections = sections;
+        this.headerLayout = headerLayout;
+        this.titleViewId = titleViewId;
+    }
+
+    @Override
+    public void onDrawOver(@NonNull Canvas canvas, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+        View first = parent.getChildAt(0);
+        if (first == null) {
+            return;
+        }
+        int position = parent.getChildAdapterPosition(first);
+        int headerPosition = position != RecyclerView.NO_POSITION ? sections.getHeaderPosition(position) : -1;
+        if (headerPosition < 0) {
+            return;
+        }
+
+        // The real header is still fully in view; nothing to pin
+        if (headerPosition == position && first.getTop() >= 0) {
+            return;
+        }
+
+        View pinned = bindHeader(parent, sections.getHeaderTitle(headerPosition));
+
+        // Push up by the next section's header once it reaches the pinned one
+        int offset = 0;
+        for (int i = 1; i < parent.getChildCount(); i++) {
+            View child = parent.getChildAt(i);
+            int childPosition = parent.getChildAdapterPosition(child);
+            if (childPosition != RecyclerView.NO_POSITION
+                    && sections.getHeaderPosition(childPosition) == childPosition) {
+                offset = Math.min(0, child.getTop() - pinned.getHeight());
+                break;
+            }
+            if (child.getTop() > pinned.getHeight()) {
+                break;  // Rows further down cannot reach it
+            }
+        }
+
+        canvas.save();
+        canvas.translate(parent.getPaddingLeft(), offset);
+        pinned.draw(canvas);
+        canvas.restore();
+    }
+
+    /**
+     * The pinned header view showing a title, laid out to the list width
+     */
+    private View bindHeader(RecyclerView parent, String title) {
+        if (header == null) {
+            header = LayoutInflater.from(parent.getContext()).inflate(headerLayout, parent, false);
+            headerTitle = header.findViewById(titleViewId);
+        }
+
+        int width = parent.getWidth() - parent.getPaddingLeft() - parent.getPaddingRight();
+        if (!title.equals(boundTitle) || width != boundWidth) {
+            headerTitle.setText(title);
+            header.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+            header.layout(0, 0, header.getMeasuredWidth(), header.getMeasuredHeight());
+            boundTitle = title;
+            boundWidth = width;
+        }
+        return header;
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import com.example.mal2017_assessmentmodule.api.ApiFutures;
+import com.example.mal2017_assessmentmodule.api.ApiService;
+import com.example.mal2017_assessmentmodule.api.FutureApiService;
+import com.example.mal2017_assessmentmodule.database.DatabaseHelper;
+import com.example.mal2017_assessmentmodule.models.User;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * UserSyncManager - Delta synchronisation of the local users table with read_all_users.
+ *
+ * Sync Flow:
+ * 1. Fetch all users from the API (network failures are retried)
+ * 2. Compute a content hash per user
+ * 3. Diff against the stored hashes (matched by email)
+ * 4. Write only the inserts, updates and deletes, plus the sync
+ *    watermark (time, row count, hash of the whole set), in one transaction
+ *
+ * A sync whose set hash matches the stored watermark changes nothing and
+ * skips steps 3 and 4.
+ *
+ * Users created locally (never synced, no stored hash) are never
+ * deleted by a sync. Users with changes waiting in the outbox are left
+ * as they are until the outbox has sent them: the API still has their
+ * old data, which would otherwise overwrite, re-insert or delete them.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class UserSyncManager {
+
+    private static final String TAG = "UserSyncManager";
+
+    private static final int FETCH_ATTEMPTS = 3;
+    private static final long FETCH_RETRY_DELAY_MS = 1000;
+
+    /**
+     * Outcome of a sync run
+     */
+    public static class SyncResult {
+        public int inserted;
+        public int updated;
+        public int deleted;
+        public int unchanged;
+        public int pending;     // Changes left out for users waiting in the outbox
+        public int rowsWritten;
+        public long elapsedMs;
+
+        @Override
+        public String toString() {
+            return "SyncResult{" +
+                    "inserted=" + inserted +
+                    ", updated=" + updated +
+                    ", deleted=" + deleted +
+                    ", unchanged=" + unchanged +
+                    ", pending=" + pending +
+                    ", rowsWritten=" + rowsWritten +
+                    ", elapsedMs=" + elapsedMs +
+                    '}';
+        }
+    }
+
+    public interface SyncCallback {
+        void onComplete(SyncResult result);
+        void onError(String message);
+    }
+
+    private static UserSyncManager instance;
+
+    private final DatabaseHelper dbHelper;
+    private final FutureApiService futureApi;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private UserSyncManager(Context context) {
+        Context appContext = context.getApplicationContext();
+        this.dbHelper = DatabaseHelper.getInstance(appContext);
+        this.futureApi = new FutureApiService(new ApiService(appContext).background());
+    }
+
+    /**
+     * Get singleton instance of UserSyncManager
+     */
+    public static synchronized UserSyncManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new UserSyncManager(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Fetch read_all_users (retrying network failures) and apply the
+     * delta in the background. Callback is delivered on the main thread.
+     */
+    public void sync(SyncCallback callback) {
+        ApiFutures.retry(() -> futureApi.getAllUsers(Constants.STUDENT_ID),
+                        FETCH_ATTEMPTS, FETCH_RETRY_DELAY_MS)
+                .thenApplyAsync(this::applyRemoteUsers, executor)
+                .whenComplete((result, error) -> mainHandler.post(() -> {
+                    if (error == null) {
+                        callback.onComplete(result);
+                    } else {
+                        Throwable cause = ApiFutures.unwrap(error);
+                        AppLog.e(TAG, "Users sync failed: " + cause, cause);
+                        callback.onError(cause.toString());
+                    }
+                }));
+    }
+
+    /**
+     * Give one user from the API its local user ID, inserting it if there is
+     * no local copy yet. Much cheaper than applyRemoteUsers, for when a
+     * caller needs that user's ID before the full sync has run.
+     * Blocking - call off the main thread.
+     *
+     * @return true if the user has a local user ID
+     */
+    public synchronized boolean resolveLocalUser(User user) {
+        if (user.getEmail() == null) {
+            return false;
+        }
+        DatabaseHelper.UserHashEntry local = dbHelper.getUserHash(user.getEmail());
+        if (local != null) {
+            user.setUserId(local.userId);
+            return true;
+        }
+        return dbHelper.addSyncedUser(user);
+    }
+
+    /**
+     * Diff the given API users against the local table and write the changes.
+     * Every remote user that exists locally afterwards has its local user ID
+     * set, unless the set was unchanged and nothing was diffed.
+     * Blocking - call off the main thread.
+     */
+    public synchronized SyncResult applyRemoteUsers(List<User> remoteUsers) {
+        long start = SystemClock.elapsedRealtime();
+        SyncResult result = new SyncResult();
+
+        // Hash of the whole set, independent of order
+        long setHashValue = 0;
+        for (User user : remoteUsers) {
+            setHashValue += user.getContentHashValue();
+        }
+        String setHash = Long.toHexString(setHashValue) + ":" + remoteUsers.size();
+
+        if (setHash.equals(dbHelper.getUserSyncSetHash())) {
+            result.unchanged = remoteUsers.size();
+            result.elapsedMs = SystemClock.elapsedRealtime() - start;
+            AppLog.d(TAG, () -> "Users unchanged since the last sync: " + result);
+            return result;
+        }
+
+        Map<String, DatabaseHelper.UserHashEntry> localHashes = dbHelper.getUserHashes();
+
+        // Local users with changes the API has not seen yet, and their usernames
+        // to recognise the API's copy of a user whose email was changed locally
+        Set<Integer> pendingIds = dbHelper.getOutboxUserIds();
+        Set<String> pendingUsernames = new HashSet<>();
+        for (DatabaseHelper.UserHashEntry local : localHashes.values()) {
+            if (pendingIds.contains(local.userId) && local.username != null) {
+                pendingUsernames.add(local.username);
+            }
+        }
+
+        List<User> inserts = new ArrayList<>();
+        List<User> updates = new ArrayList<>();
+        List<Integer> deleteIds = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+
+        for (User user : remoteUsers) {
+            if (user.getEmail() == null) {
+                continue;
+            }
+            String email = user.getEmail().toLowerCase(Locale.ROOT);
+            if (!seenEmails.add(email)) {
+                continue;
+            }
+
+            DatabaseHelper.UserHashEntry local = localHashes.get(email);
+            if (local == null) {
+                if (pendingUsernames.contains(user.getUsername())) {
+                    result.pending++;
+                } else {
+                    inserts.add(user);
+                }
+            } else {
+                user.setUserId(local.userId);
+                if (pendingIds.contains(local.userId)) {
+                    result.pending++;
+                } else if (user.getContentHash().equals(local.contentHash)) {
+                    result.unchanged++;
+                } else {
+                    updates.add(user);
+                }
+            }
+        }
+
+        // Previously synced users that the API no longer has
+        for (Map.Entry<String, DatabaseHelper.UserHashEntry> entry : localHashes.entrySet()) {
+            DatabaseHelper.UserHashEntry local = entry.getValue();
+            if (local.contentHash != null && !seenEmails.contains(entry.getKey())) {
+                if (pendingIds.contains(local.userId)) {
+                    result.pending++;
+                } else {
+                    deleteIds.add(local.userId);
+                }
+            }
+        }
+
+        // Always written, so the watermark records this sync even when nothing changed.
+        // With changes left out the local table does not match the set yet, so
+        // no set hash is stored and the next sync diffs again.
+        result.rowsWritten = dbHelper.applyUserSyncDelta(inserts, updates, deleteIds,
+                System.currentTimeMillis(), remoteUsers.size(), result.pending == 0 ? setHash : null);
+        result.inserted = inserts.size();
+        result.updated = updates.size();
+        result.deleted = deleteIds.size();
+        result.elapsedMs = SystemClock.elapsedRealtime() - start;
+
+        AppLog.d(TAG, () -> "Users sync complete: " + result);
+        return result;
+    }
+}
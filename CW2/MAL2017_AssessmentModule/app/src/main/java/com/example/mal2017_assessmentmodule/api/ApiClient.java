@@ -1,23 +1,42 @@
 package com.example.mal2017_assessmentmodule.api;
 
+import android.app.Activity;
+import android.app.Application;
 import android.content.Context;
-import android.util.Log;
+import android.os.Bundle;
 
 import com.android.volley.Request;
 import com.android.volley.RequestQueue;
-import com.android.volley.toolbox.Volley;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.BasicNetwork;
+import com.android.volley.toolbox.DiskBasedCache;
+import com.android.volley.toolbox.NoCache;
+import com.example.mal2017_assessmentmodule.AppLog;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * ApiClient - Singleton Volley client for API communication.
  *
  * Features:
- * - Request queue management
+ * - Request queue management: interactive and background lanes
+ *   with their own network threads (RequestLanes, setThreadCounts)
  * - Singleton pattern for efficiency
- * - Automatic request cancellation
- * - Connection timeout handling
+ * - Automatic request cancellation (an activity's requests when it stops)
+ * - Connection timeout handling (adaptive, via CircuitBreaker)
+ * - Circuit breaker per gateway for fast fallback when the API is down
+ * - OkHttp-backed HTTP stack (pooled keep-alive connections, gzip)
+ * - Connection warm-up before the first request (warmUp)
+ * - Replaceable HTTP stack for recording/replaying traffic (useHttpStack)
+ * - Per-endpoint traffic metrics (ApiMetrics)
+ * - Several gateways to the API: the fastest healthy one is used, with
+ *   failover when requests fail (EndpointSelector)
  * - Enhanced logging for debugging
  *
- * IMPORTANT: Update BASE_URL if your API is on different IP/port
+ * IMPORTANT: Update BASE_URLS if your API is on different IP/port
  *
  * @author BSCS2509254
  * @version 3.0 (Enhanced Logging)
@@ -26,23 +45,43 @@ public class ApiClient {
 
     private static final String TAG = "ApiClient";
 
-    // IMPORTANT: Update this IP address to match your API server
+    // IMPORTANT: Update these addresses to match your API server
     // Common options:
     // - "http://10.240.72.69/comp2000/coursework/" (your network IP)
     // - "http://10.0.2.2/comp2000/coursework/" (localhost via emulator)
+    // List every gateway that reaches the API; the first is used until
+    // health probes have measured them all.
+
+    private static final String[] BASE_URLS = {
+            "http://10.240.72.69/comp2000/coursework/",
+    };
 
-    private static final String BASE_URL = "http://10.240.72.69/comp2000/coursework/";
+    private static final String VOLLEY_CACHE_DIR = "volley";  // Same as Volley.newRequestQueue
 
-    private static ApiClient instance;
-    private RequestQueue requestQueue;
+    private static volatile ApiClient instance;
+    private static BaseHttpStack httpStackOverride;
+    private static int interactiveThreads = RequestLanes.DEFAULT_INTERACTIVE_THREADS;
+    private static int backgroundThreads = RequestLanes.DEFAULT_BACKGROUND_THREADS;
+    private static List<String> baseUrlsOverride;
+    private volatile RequestLanes lanes;
     private Context context;
+    private final ApiMetrics metrics = new ApiMetrics();
+    private BaseHttpStack httpStack;
+    private final EndpointSelector endpoints;
+    private ConnectionWarmer warmer;
 
     /**
      * Private constructor for Singleton pattern
      */
     private ApiClient(Context context) {
         this.context = context.getApplicationContext();
-        Log.d(TAG, "ApiClient initialized with BASE_URL: " + BASE_URL);
+        if (this.context instanceof Application) {
+            ((Application) this.context).registerActivityLifecycleCallbacks(new StopCanceller());
+        }
+        endpoints = new EndpointSelector(baseUrlsOverride != null
+                ? baseUrlsOverride : Arrays.asList(BASE_URLS));
+        endpoints.start();
+        AppLog.d(TAG, () -> "ApiClient initialized with base URLs: " + endpoints.getEndpoints());
     }
 
     /**
@@ -51,23 +90,123 @@ public class ApiClient {
     public static synchronized ApiClient getInstance(Context context) {
         if (instance == null) {
             instance = new ApiClient(context);
-            Log.d(TAG, "Created new ApiClient instance");
+            AppLog.d(TAG, "Created new ApiClient instance");
         }
         return instance;
     }
 
     /**
-     * Get request queue (creates if doesn't exist)
+     * Get the interactive request queue (creates the lanes if they don't exist)
      */
     public RequestQueue getRequestQueue() {
-        if (requestQueue == null) {
+        return getLanes().getInteractiveQueue();
+    }
+
+    /**
+     * Get the interactive and background lanes (creates them if they don't exist).
+     *
+     * Both lanes share the HTTP stack and its connection pool. The
+     * background lane has no response cache: sync always wants fresh data.
+     */
+    public synchronized RequestLanes getLanes() {
+        if (lanes == null) {
             if (context == null) {
                 throw new IllegalStateException("Context is null. ApiClient must be initialized with a valid context.");
             }
-            requestQueue = Volley.newRequestQueue(context);
-            Log.d(TAG, "Created new RequestQueue");
+            httpStack = httpStackOverride != null ? httpStackOverride : new OkHttpStack(metrics);
+            BaseHttpStack stack = new MetricsHttpStack(httpStack, metrics);
+
+            // Cache directory is resolved lazily on a cache thread, as Volley does
+            Context appContext = context;
+            RequestQueue interactive = new RequestQueue(
+                    new DiskBasedCache(() -> new File(appContext.getCacheDir(), VOLLEY_CACHE_DIR)),
+                    new BasicNetwork(stack), interactiveThreads);
+            RequestQueue background = new RequestQueue(new NoCache(),
+                    new BasicNetwork(stack), backgroundThreads);
+            interactive.addRequestEventListener(metrics.queueListener());
+            background.addRequestEventListener(metrics.queueListener());
+            interactive.start();
+            background.start();
+
+            lanes = new RequestLanes(interactive, background);
+            AppLog.d(TAG, () -> "Created request lanes (" + httpStack.getClass().getSimpleName()
+                    + ", " + interactiveThreads + " interactive + " + backgroundThreads + " background threads)");
+        }
+        return lanes;
+    }
+
+    /**
+     * Network thread counts of the interactive and background lanes
+     * (defaults 4 and 1). Must be called before the first request is queued.
+     */
+    public static synchronized void setThreadCounts(int interactive, int background) {
+        if (instance != null && instance.lanes != null) {
+            throw new IllegalStateException("Thread counts must be set before the RequestQueue is created");
+        }
+        interactiveThreads = Math.max(1, interactive);
+        backgroundThreads = Math.max(1, background);
+    }
+
+    /**
+     * Get HTTP stack used by the request queue
+     */
+    public BaseHttpStack getHttpStack() {
+        getRequestQueue();
+        return httpStack;
+    }
+
+    /**
+     * Open a connection to the current API endpoint in the background,
+     * so the first request does not pay for DNS and the handshake.
+     * Returns straight away; does nothing with a replaced HTTP stack.
+     */
+    public void warmUp() {
+        ConnectionWarmer connectionWarmer = getWarmer();
+        if (connectionWarmer != null) {
+            connectionWarmer.warmUp(getBaseUrl());
+        }
+    }
+
+    /**
+     * Cancel a warm-up still in progress
+     */
+    public synchronized void cancelWarmUp() {
+        if (warmer != null) {
+            warmer.cancel();
+        }
+    }
+
+    private synchronized ConnectionWarmer getWarmer() {
+        if (warmer == null && getHttpStack() instanceof OkHttpStack) {
+            warmer = new ConnectionWarmer(((OkHttpStack) httpStack).getClient());
+        }
+        return warmer;
+    }
+
+    /**
+     * Use the given HTTP stack instead of OkHttpStack, e.g. a
+     * RecordingHttpStack or ReplayHttpStack for benchmarks.
+     * Must be called before the first request is queued.
+     */
+    public static synchronized void useHttpStack(BaseHttpStack stack) {
+        if (instance != null && instance.lanes != null) {
+            throw new IllegalStateException("HTTP stack must be set before the RequestQueue is created");
         }
-        return requestQueue;
+        httpStackOverride = stack;
+    }
+
+    /**
+     * Get circuit breaker of the gateway a request URL goes to
+     */
+    public CircuitBreaker getCircuitBreaker(String url) {
+        return endpoints.getCircuitBreaker(url);
+    }
+
+    /**
+     * Get traffic metrics of the request queue
+     */
+    public ApiMetrics getMetrics() {
+        return metrics;
     }
 
     /**
@@ -75,26 +214,58 @@ public class ApiClient {
      */
     public <T> void addToRequestQueue(Request<T> request) {
         request.setTag(TAG);
-        Log.d(TAG, "Adding request to queue: " + request.getUrl());
+        AppLog.d(TAG, () -> "Adding request to queue: " + request.getUrl());
         getRequestQueue().add(request);
     }
 
     /**
-     * Cancel all requests with specific tag
+     * Cancel all requests with specific tag, on both lanes
      */
     public void cancelRequests(Object tag) {
-        if (requestQueue != null) {
-            Log.d(TAG, "Cancelling requests with tag: " + tag);
-            requestQueue.cancelAll(tag);
+        if (lanes != null) {
+            AppLog.d(TAG, () -> "Cancelling requests with tag: " + tag);
+            lanes.cancelAll(tag);
+        }
+    }
+
+    /**
+     * Cancel all requests sent on behalf of an activity
+     * (see ApiService(Context)). Runs automatically in its onStop.
+     */
+    public void cancelRequestsFor(Activity activity) {
+        if (lanes != null) {
+            AppLog.d(TAG, () -> "Cancelling requests of " + activity.getClass().getSimpleName());
+            lanes.cancelOwner(activity);
+        }
+    }
+
+    /**
+     * Use these base URLs instead of BASE_URLS, e.g. local stand-in servers.
+     * Must be called before the ApiClient is created.
+     */
+    public static synchronized void useBaseUrls(List<String> baseUrls) {
+        if (instance != null) {
+            throw new IllegalStateException("Base URLs must be set before the ApiClient is created");
         }
+        baseUrlsOverride = new ArrayList<>(baseUrls);
     }
 
     /**
-     * Get base URL
+     * Get the endpoint selector behind getBaseUrl()
+     */
+    public EndpointSelector getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Get base URL of the endpoint currently in use
      */
     public static String getBaseUrl() {
-        Log.d(TAG, "Returning BASE_URL: " + BASE_URL);
-        return BASE_URL;
+        ApiClient client = instance;
+        if (client != null) {
+            return client.endpoints.getBaseUrl();
+        }
+        return baseUrlsOverride != null ? baseUrlsOverride.get(0) : BASE_URLS[0];
     }
 
     /**
@@ -102,9 +273,44 @@ public class ApiClient {
      * Call this to verify API connection
      */
     public static void logApiInfo() {
-        Log.d(TAG, "========================================");
-        Log.d(TAG, "API Configuration:");
-        Log.d(TAG, "BASE_URL: " + BASE_URL);
-        Log.d(TAG, "========================================");
+        AppLog.d(TAG, "========================================");
+        AppLog.d(TAG, "API Configuration:");
+        AppLog.d(TAG, () -> "BASE_URL: " + getBaseUrl());
+        ApiClient client = instance;
+        if (client != null) {
+            for (EndpointSelector.Endpoint endpoint : client.endpoints.getEndpoints()) {
+                AppLog.d(TAG, () -> "Endpoint: " + endpoint);
+            }
+        }
+        AppLog.d(TAG, "========================================");
+    }
+
+    /**
+     * Cancels an activity's requests when it stops: the results could no
+     * longer be shown, and they would hold on to the activity
+     */
+    private class StopCanceller implements Application.ActivityLifecycleCallbacks {
+        @Override
+        public void onActivityStopped(Activity activity) {
+            cancelRequestsFor(activity);
+        }
+
+        @Override
+        public void onActivityCreated(Activity activity, Bundle savedInstanceState) {}
+
+        @Override
+        public void onActivityStarted(Activity activity) {}
+
+        @Override
+        public void onActivityResumed(Activity activity) {}
+
+        @Override
+        public void onActivityPaused(Activity activity) {}
+
+        @Override
+        public void onActivitySaveInstanceState(Activity activity, Bundle outState) {}
+
+        @Override
+        public void onActivityDestroyed(Activity activity) {}
     }
-}
\ No newline at end of file
+}
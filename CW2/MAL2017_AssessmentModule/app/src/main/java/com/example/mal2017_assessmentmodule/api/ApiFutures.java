@@ -0,0 +1,211 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import com.android.volley.NoConnectionError;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * ApiFutures - Combinators for CompletableFuture-based API calls.
+ *
+ * Features:
+ * - withTimeout: fail (and cancel the call) after a deadline
+ * - allOf: run calls concurrently, results in order, fail fast
+ * - retry: repeat a call with exponential backoff while the error is retryable
+ * - unwrap: the original error from a CompletionException
+ *
+ * Java 8 compatible (no orTimeout/delayedExecutor). Timers run on one
+ * shared daemon thread and never do any work themselves.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public final class ApiFutures {
+
+    private static final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ApiFutures-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private ApiFutures() {}
+
+    /**
+     * Future that fails with TimeoutException if the given one has not
+     * completed within timeoutMs. On timeout the given future is cancelled
+     * (an ApiFuture also cancels its Volley request).
+     */
+    public static <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future, long timeoutMs) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        ScheduledFuture<?> timer = scheduler.schedule(() -> {
+            if (result.completeExceptionally(new TimeoutException("Timed out after " + timeoutMs + " ms"))) {
+                future.cancel(true);
+            }
+        }, timeoutMs, TimeUnit.MILLISECONDS);
+
+        future.whenComplete((value, error) -> {
+            timer.cancel(false);
+            complete(result, value, error);
+        });
+        // Cancelling the result cancels the call too
+        result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Wait for all futures, which are already running concurrently.
+     * Results are in the same order as the futures. The first failure
+     * fails the result straight away and cancels the remaining futures.
+     */
+    public static <T> CompletableFuture<List<T>> allOf(List<? extends CompletableFuture<? extends T>> futures) {
+        CompletableFuture<List<T>> result = new CompletableFuture<>();
+        if (futures.isEmpty()) {
+            result.complete(Collections.<T>emptyList());
+            return result;
+        }
+
+        Object[] values = new Object[futures.size()];
+        AtomicInteger remaining = new AtomicInteger(futures.size());
+
+        for (int i = 0; i < futures.size(); i++) {
+            int index = i;
+            futures.get(i).whenComplete((value, error) -> {
+                if (error != null) {
+                    if (result.completeExceptionally(unwrap(error))) {
+                        cancelAll(futures);
+                    }
+                    return;
+                }
+                values[index] = value;
+                if (remaining.decrementAndGet() == 0) {
+                    result.complete(toList(values));
+                }
+            });
+        }
+
+        result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                cancelAll(futures);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Run a call, and run it again after a backoff delay while it fails
+     * with a retryable error. Cancelling the result stops any further
+     * attempts and cancels the one in flight.
+     *
+     * @param call Starts one attempt
+     * @param maxAttempts Total attempts, including the first
+     * @param initialDelayMs Delay before the second attempt, doubled each time
+     * @param retryable Which errors are worth another attempt
+     */
+    public static <T> CompletableFuture<T> retry(Supplier<CompletableFuture<T>> call, int maxAttempts,
+                                                 long initialDelayMs, Predicate<Throwable> retryable) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(call, 1, maxAttempts, initialDelayMs, retryable, result);
+        return result;
+    }
+
+    /**
+     * retry() for network-level failures only: timeouts, no connection, 5xx.
+     * The same errors the circuit breaker counts.
+     */
+    public static <T> CompletableFuture<T> retry(Supplier<CompletableFuture<T>> call, int maxAttempts,
+                                                 long initialDelayMs) {
+        return retry(call, maxAttempts, initialDelayMs, ApiFutures::isTransient);
+    }
+
+    private static <T> void attempt(Supplier<CompletableFuture<T>> call, int attempt, int maxAttempts,
+                                    long delayMs, Predicate<Throwable> retryable,
+                                    CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return;
+        }
+        CompletableFuture<T> current = call.get();
+        result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException) {
+                current.cancel(true);
+            }
+        });
+
+        current.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            if (attempt >= maxAttempts || !retryable.test(cause)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            scheduler.schedule(() -> attempt(call, attempt + 1, maxAttempts, delayMs * 2, retryable, result),
+                    delayMs, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /**
+     * Whether an error is a network-level failure that may go away on retry
+     */
+    public static boolean isTransient(Throwable error) {
+        Throwable cause = unwrap(error);
+        return cause instanceof TimeoutError || cause instanceof NoConnectionError
+                || cause instanceof ServerError || cause instanceof TimeoutException;
+    }
+
+    /**
+     * The original error behind CompletionException/ExecutionException wrappers
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static <T> void complete(CompletableFuture<T> future, T value, Throwable error) {
+        if (error != null) {
+            future.completeExceptionally(unwrap(error));
+        } else {
+            future.complete(value);
+        }
+    }
+
+    private static void cancelAll(List<? extends CompletableFuture<?>> futures) {
+        for (CompletableFuture<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> toList(Object[] values) {
+        List<T> list = new ArrayList<>(values.length);
+        for (Object value : values) {
+            list.add((T) value);
+        }
+        return list;
+    }
+}
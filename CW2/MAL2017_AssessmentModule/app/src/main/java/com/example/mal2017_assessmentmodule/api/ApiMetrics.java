@@ -0,0 +1,301 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import android.os.SystemClock;
+
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.google.gson.GsonBuilder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ApiMetrics - Per-endpoint traffic metrics for the API request queue.
+ *
+ * Recorded per endpoint (read_all_users, update_user, ...):
+ * - Latency histogram per network attempt (request sent to body read)
+ * - Queue wait histogram (queued to network dispatch)
+ * - Request bytes; response body bytes after gzip/deflate decoding,
+ *   and as received on the wire (before decoding, OkHttpStack only)
+ * - Requests, attempts, retries, cache hits
+ * - Successes and failures by error class
+ *   (http_4xx, http_5xx, timeout, no_connection, io)
+ *
+ * Network attempts are recorded by MetricsHttpStack, wire bytes by
+ * OkHttpStack, queue events by the listener from queueListener(). All recorders are lock-free.
+ * snapshot() gives a point-in-time copy for a debug screen or a file dump.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class ApiMetrics {
+
+    public static final String ERROR_HTTP_4XX = "http_4xx";
+    public static final String ERROR_HTTP_5XX = "http_5xx";
+    public static final String ERROR_TIMEOUT = "timeout";
+    public static final String ERROR_NO_CONNECTION = "no_connection";
+    public static final String ERROR_IO = "io";
+
+    /**
+     * Live recorders for one endpoint
+     */
+    private static class EndpointMetrics {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LatencyHistogram queueWait = new LatencyHistogram();
+        final LongAdder requests = new LongAdder();
+        final LongAdder attempts = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder cacheHits = new LongAdder();
+        final LongAdder successes = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        final LongAdder requestBytes = new LongAdder();
+        final LongAdder responseBodyBytes = new LongAdder();
+        final LongAdder responseWireBytes = new LongAdder();
+        final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Per-request state between queue events
+     */
+    private static class InFlight {
+        final long queuedAt = SystemClock.elapsedRealtime();
+        volatile boolean dispatched;
+    }
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final Map<Request<?>, InFlight> inFlight = new ConcurrentHashMap<>();
+    private volatile long startedAt = SystemClock.elapsedRealtime();
+
+    // ==================== RECORDING ====================
+
+    /**
+     * One network attempt that got an HTTP response
+     *
+     * @param responseBodyBytes Body bytes after gzip/deflate decoding
+     * @param retry true if this is not the first attempt of the request
+     */
+    public void recordResponse(String url, long latencyMs, long requestBytes, long responseBodyBytes,
+                               int statusCode, boolean retry) {
+        EndpointMetrics metrics = endpoint(url);
+        recordAttempt(metrics, latencyMs, requestBytes, retry);
+        metrics.responseBodyBytes.add(responseBodyBytes);
+
+        if (statusCode >= 500) {
+            recordError(metrics, ERROR_HTTP_5XX);
+        } else if (statusCode >= 400) {
+            recordError(metrics, ERROR_HTTP_4XX);
+        } else {
+            metrics.successes.increment();
+        }
+    }
+
+    /**
+     * One network attempt that failed without a response
+     *
+     * @param errorClass One of the ERROR_ constants
+     */
+    public void recordFailure(String url, long latencyMs, long requestBytes, String errorClass,
+                              boolean retry) {
+        EndpointMetrics metrics = endpoint(url);
+        recordAttempt(metrics, latencyMs, requestBytes, retry);
+        recordError(metrics, errorClass);
+    }
+
+    /**
+     * Response body bytes as received from the network, before any
+     * gzip/deflate decoding
+     */
+    public void recordWireBytes(String url, long responseWireBytes) {
+        endpoint(url).responseWireBytes.add(responseWireBytes);
+    }
+
+    private static void recordAttempt(EndpointMetrics metrics, long latencyMs, long requestBytes,
+                                      boolean retry) {
+        metrics.latency.record(latencyMs);
+        metrics.attempts.increment();
+        metrics.requestBytes.add(requestBytes);
+        if (retry) {
+            metrics.retries.increment();
+        }
+    }
+
+    private static void recordError(EndpointMetrics metrics, String errorClass) {
+        metrics.failures.increment();
+        metrics.errors.computeIfAbsent(errorClass, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Listener for RequestQueue.addRequestEventListener: queue wait,
+     * request counts, and cache hits (requests that finished without
+     * going to the network and were not cancelled)
+     */
+    public RequestQueue.RequestEventListener queueListener() {
+        return (request, event) -> {
+            switch (event) {
+                case RequestQueue.RequestEvent.REQUEST_QUEUED:
+                    inFlight.put(request, new InFlight());
+                    break;
+                case RequestQueue.RequestEvent.REQUEST_NETWORK_DISPATCH_STARTED:
+                    InFlight started = inFlight.get(request);
+                    if (started != null && !started.dispatched) {
+                        started.dispatched = true;
+                        endpoint(request.getUrl()).queueWait.record(
+                                SystemClock.elapsedRealtime() - started.queuedAt);
+                    }
+                    break;
+                case RequestQueue.RequestEvent.REQUEST_FINISHED:
+                    InFlight finished = inFlight.remove(request);
+                    EndpointMetrics metrics = endpoint(request.getUrl());
+                    metrics.requests.increment();
+                    if (finished != null && !finished.dispatched && !request.isCanceled()) {
+                        metrics.cacheHits.increment();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        };
+    }
+
+    private EndpointMetrics endpoint(String url) {
+        return endpoints.computeIfAbsent(endpointName(url), name -> new EndpointMetrics());
+    }
+
+    /**
+     * Endpoint of an API URL: the last path segment that is not an ID,
+     * e.g. .../read_user/2509254/3 is "read_user"
+     */
+    static String endpointName(String url) {
+        int end = url.indexOf('?');
+        if (end < 0) {
+            end = url.length();
+        }
+        int pathStart = url.indexOf("://");
+        pathStart = url.indexOf('/', pathStart < 0 ? 0 : pathStart + 3);
+        if (pathStart < 0) {
+            return "other";
+        }
+
+        // Walk the path segments from the end, without splitting the URL
+        while (end > pathStart) {
+            int start = url.lastIndexOf('/', end - 1) + 1;
+            if (start < end && !Character.isDigit(url.charAt(start))) {
+                return url.substring(start, end);
+            }
+            end = start - 1;
+        }
+        return "other";
+    }
+
+    // ==================== EXPORT ====================
+
+    /**
+     * Point-in-time copy of one endpoint's metrics
+     */
+    public static class EndpointSnapshot {
+        public long requests;
+        public long attempts;
+        public long retries;
+        public long cacheHits;
+        public long successes;
+        public long failures;
+        public long requestBytes;
+        public long responseBodyBytes;  // Decoded
+        public long responseWireBytes;  // As received, 0 without OkHttpStack
+        public LatencyHistogram.Snapshot latency;
+        public LatencyHistogram.Snapshot queueWait;
+        public Map<String, Long> errors = new TreeMap<>();
+    }
+
+    /**
+     * Point-in-time copy of all metrics
+     */
+    public static class Snapshot {
+        public long takenAt;     // Timestamp in milliseconds
+        public long windowMs;    // Time covered, since start or reset()
+        public Map<String, EndpointSnapshot> endpoints = new TreeMap<>();
+
+        public String toJson() {
+            return new GsonBuilder().setPrettyPrinting().create().toJson(this);
+        }
+
+        /**
+         * Write as JSON, e.g. to a file in getFilesDir() for adb pull
+         */
+        public void writeTo(File file) throws IOException {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                writer.write(toJson());
+            }
+        }
+
+        /**
+         * Plain text summary for a debug screen
+         */
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append("API metrics over ").append(windowMs / 1000).append(" s\n");
+            for (Map.Entry<String, EndpointSnapshot> entry : endpoints.entrySet()) {
+                EndpointSnapshot endpoint = entry.getValue();
+                builder.append(entry.getKey())
+                        .append(": requests=").append(endpoint.requests)
+                        .append(" attempts=").append(endpoint.attempts)
+                        .append(" retries=").append(endpoint.retries)
+                        .append(" cacheHits=").append(endpoint.cacheHits)
+                        .append(" ok=").append(endpoint.successes)
+                        .append(" failed=").append(endpoint.failures)
+                        .append(" errors=").append(endpoint.errors)
+                        .append("\n  bytes out=").append(endpoint.requestBytes)
+                        .append(" in=").append(endpoint.responseBodyBytes)
+                        .append(" (wire ").append(endpoint.responseWireBytes).append(')')
+                        .append("\n  latency ").append(endpoint.latency)
+                        .append("\n  queue wait ").append(endpoint.queueWait)
+                        .append('\n');
+            }
+            return builder.toString();
+        }
+    }
+
+    public Snapshot snapshot() {
+        Snapshot snapshot = new Snapshot();
+        snapshot.takenAt = System.currentTimeMillis();
+        snapshot.windowMs = SystemClock.elapsedRealtime() - startedAt;
+
+        for (Map.Entry<String, EndpointMetrics> entry : endpoints.entrySet()) {
+            EndpointMetrics metrics = entry.getValue();
+            EndpointSnapshot endpoint = new EndpointSnapshot();
+            endpoint.requests = metrics.requests.sum();
+            endpoint.attempts = metrics.attempts.sum();
+            endpoint.retries = metrics.retries.sum();
+            endpoint.cacheHits = metrics.cacheHits.sum();
+            endpoint.successes = metrics.successes.sum();
+            endpoint.failures = metrics.failures.sum();
+            endpoint.requestBytes = metrics.requestBytes.sum();
+            endpoint.responseBodyBytes = metrics.responseBodyBytes.sum();
+            endpoint.responseWireBytes = metrics.responseWireBytes.sum();
+            endpoint.latency = metrics.latency.snapshot();
+            endpoint.queueWait = metrics.queueWait.snapshot();
+            for (Map.Entry<String, LongAdder> error : metrics.errors.entrySet()) {
+                endpoint.errors.put(error.getKey(), error.getValue().sum());
+            }
+            snapshot.endpoints.put(entry.getKey(), endpoint);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Start a new measurement window
+     */
+    public void reset() {
+        endpoints.clear();
+        startedAt = SystemClock.elapsedRealtime();
+    }
+}
@@ -1,14 +1,22 @@
 package com.example.mal2017_assessmentmodule.api;
 
+import android.app.Activity;
 import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 
 import com.android.volley.AuthFailureError;
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.NoConnectionError;
 import com.android.volley.Request;
-import com.android.volley.RequestQueue;
 import com.android.volley.Response;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
 import com.android.volley.VolleyError;
 import com.android.volley.toolbox.JsonObjectRequest;
 import com.android.volley.toolbox.StringRequest;
+import com.example.mal2017_assessmentmodule.AppLog;
 import com.example.mal2017_assessmentmodule.models.User;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
@@ -28,6 +36,14 @@ import java.util.Map;
  *
  * Authentication: None required (as per API docs)
  *
+ * Every call goes through the CircuitBreaker of the gateway it is sent to:
+ * when that host keeps failing, calls are rejected straight away with a CircuitOpenError so
+ * callers can use their local database fallback without waiting for a
+ * network timeout.
+ *
+ * Requests go on ApiClient's interactive lane; background() copies send
+ * on the background lane instead, so bulk work does not delay a user.
+ *
  * Response Format: JSON
  *
  * @author BSCS2509254
@@ -36,14 +52,69 @@ import java.util.Map;
 public class ApiService {
 
     private static final String TAG = "ApiService";
+
+    // Volley delivers every response on the main thread; so do we
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
     private Context context;
-    private RequestQueue requestQueue;
+    private ApiClient apiClient;
     private Gson gson;
+    private Object requestTag;  // Applied to every request, see tagged()
+    private Request.Priority requestPriority = Request.Priority.NORMAL;  // See withPriority()
+    private boolean background;  // See background()
+    private Activity owner;      // Requests are cancelled when it stops
 
+    /**
+     * Create a service. When context is an Activity, the requests are
+     * cancelled automatically when the activity stops; pass the
+     * application context for work that must outlive the screen.
+     */
     public ApiService(Context context) {
         this.context = context;
-        this.requestQueue = ApiClient.getInstance(context).getRequestQueue();
+        this.apiClient = ApiClient.getInstance(context);
         this.gson = new Gson();
+        this.owner = context instanceof Activity ? (Activity) context : null;
+    }
+
+    private ApiService(ApiService source) {
+        this.context = source.context;
+        this.apiClient = source.apiClient;
+        this.gson = source.gson;
+        this.requestTag = source.requestTag;
+        this.requestPriority = source.requestPriority;
+        this.background = source.background;
+        this.owner = source.owner;
+    }
+
+    /**
+     * Copy of this service whose requests all carry the given tag,
+     * so they can be cancelled together with cancelRequests(tag)
+     */
+    public ApiService tagged(Object tag) {
+        ApiService copy = new ApiService(this);
+        copy.requestTag = tag;
+        return copy;
+    }
+
+    /**
+     * Copy of this service whose requests use the given Volley priority.
+     * Higher priority requests leave the queue first when the network
+     * dispatchers are busy; requests already being sent are not affected.
+     */
+    public ApiService withPriority(Request.Priority priority) {
+        ApiService copy = new ApiService(this);
+        copy.requestPriority = priority;
+        return copy;
+    }
+
+    /**
+     * Copy of this service that sends on the background lane, for bulk
+     * work nobody is waiting on (sync, outbox). Its requests wait while
+     * interactive requests are active, see RequestLanes.
+     */
+    public ApiService background() {
+        ApiService copy = new ApiService(this);
+        copy.background = true;
+        return copy;
     }
 
     /**
@@ -54,9 +125,12 @@ public class ApiService {
                                       Response.Listener<Map<String, String>> listener,
                                       Response.ErrorListener errorListener) {
         String url = ApiClient.getBaseUrl() + "create_student/" + studentId;
+        CircuitBreaker circuitBreaker = apiClient.getCircuitBreaker(url);
+        long startTime = SystemClock.elapsedRealtime();
         
-        StringRequest request = new StringRequest(Request.Method.POST, url,
+        StringRequest request = stringRequest(Request.Method.POST, url, null,
                 response -> {
+                    circuitBreaker.recordSuccess(SystemClock.elapsedRealtime() - startTime);
                     try {
                         Map<String, String> result = new HashMap<>();
                         result.put("message", response);
@@ -65,16 +139,9 @@ public class ApiService {
                         errorListener.onErrorResponse(new VolleyError("Failed to parse response", e));
                     }
                 },
-                errorListener) {
-            @Override
-            public Map<String, String> getHeaders() throws AuthFailureError {
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
-                return headers;
-            }
-        };
+                trackFailure(url, errorListener));
 
-        requestQueue.add(request);
+        enqueue(request);
     }
 
     /**
@@ -84,13 +151,27 @@ public class ApiService {
     public void createUser(String studentId, User user,
                            Response.Listener<Map<String, String>> listener,
                            Response.ErrorListener errorListener) {
+        createUser(studentId, user, null, listener, errorListener);
+    }
+
+    /**
+     * Create new user, sending an Idempotency-Key header so a retried
+     * request is not applied twice
+     * POST /create_user/{student_id}
+     */
+    public void createUser(String studentId, User user, String idempotencyKey,
+                           Response.Listener<Map<String, String>> listener,
+                           Response.ErrorListener errorListener) {
         String url = ApiClient.getBaseUrl() + "create_user/" + studentId;
+        CircuitBreaker circuitBreaker = apiClient.getCircuitBreaker(url);
+        long startTime = SystemClock.elapsedRealtime();
         
         try {
             JSONObject jsonBody = new JSONObject(gson.toJson(user));
             
-            JsonObjectRequest request = new JsonObjectRequest(Request.Method.POST, url, jsonBody,
+            JsonObjectRequest request = jsonRequest(Request.Method.POST, url, jsonBody, idempotencyKey,
                     response -> {
+                        circuitBreaker.recordSuccess(SystemClock.elapsedRealtime() - startTime);
                         try {
                             Map<String, String> result = new HashMap<>();
                             if (response.has("message")) {
@@ -101,16 +182,9 @@ public class ApiService {
                             errorListener.onErrorResponse(new VolleyError("Failed to parse response", e));
                         }
                     },
-                    errorListener) {
-                @Override
-                public Map<String, String> getHeaders() throws AuthFailureError {
-                    Map<String, String> headers = new HashMap<>();
-                    headers.put("Content-Type", "application/json");
-                    return headers;
-                }
-            };
-
-            requestQueue.add(request);
+                    trackFailure(url, errorListener));
+
+            enqueue(request);
         } catch (JSONException e) {
             errorListener.onErrorResponse(new VolleyError("Failed to create JSON body", e));
         }
@@ -123,10 +197,23 @@ public class ApiService {
     public void getAllUsers(String studentId,
                            Response.Listener<Map<String, List<User>>> listener,
                            Response.ErrorListener errorListener) {
+        getAllUsers(studentId, null, listener, errorListener);
+    }
+
+    /**
+     * Get all users, tagged so the request can be cancelled with cancelRequests(tag)
+     * GET /read_all_users/{student_id}
+     */
+    public void getAllUsers(String studentId, Object tag,
+                           Response.Listener<Map<String, List<User>>> listener,
+                           Response.ErrorListener errorListener) {
         String url = ApiClient.getBaseUrl() + "read_all_users/" + studentId;
+        CircuitBreaker circuitBreaker = apiClient.getCircuitBreaker(url);
+        long startTime = SystemClock.elapsedRealtime();
         
-        JsonObjectRequest request = new JsonObjectRequest(Request.Method.GET, url, null,
+        JsonObjectRequest request = jsonRequest(Request.Method.GET, url, null, null,
                 response -> {
+                    circuitBreaker.recordSuccess(SystemClock.elapsedRealtime() - startTime);
                     try {
                         Type type = new TypeToken<Map<String, List<User>>>(){}.getType();
                         Map<String, List<User>> result = gson.fromJson(response.toString(), type);
@@ -135,16 +222,13 @@ public class ApiService {
                         errorListener.onErrorResponse(new VolleyError("Failed to parse response", e));
                     }
                 },
-                errorListener) {
-            @Override
-            public Map<String, String> getHeaders() throws AuthFailureError {
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
-                return headers;
-            }
-        };
+                trackFailure(url, failover(url, errorListener,
+                        () -> getAllUsers(studentId, tag, listener, errorListener))));
 
-        requestQueue.add(request);
+        if (tag != null) {
+            request.setTag(tag);
+        }
+        enqueue(request);
     }
 
     /**
@@ -155,9 +239,12 @@ public class ApiService {
                        Response.Listener<Map<String, User>> listener,
                        Response.ErrorListener errorListener) {
         String url = ApiClient.getBaseUrl() + "read_user/" + studentId + "/" + userId;
+        CircuitBreaker circuitBreaker = apiClient.getCircuitBreaker(url);
+        long startTime = SystemClock.elapsedRealtime();
         
-        JsonObjectRequest request = new JsonObjectRequest(Request.Method.GET, url, null,
+        JsonObjectRequest request = jsonRequest(Request.Method.GET, url, null, null,
                 response -> {
+                    circuitBreaker.recordSuccess(SystemClock.elapsedRealtime() - startTime);
                     try {
                         Type type = new TypeToken<Map<String, User>>(){}.getType();
                         Map<String, User> result = gson.fromJson(response.toString(), type);
@@ -166,16 +253,10 @@ public class ApiService {
                         errorListener.onErrorResponse(new VolleyError("Failed to parse response", e));
                     }
                 },
-                errorListener) {
-            @Override
-            public Map<String, String> getHeaders() throws AuthFailureError {
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
-                return headers;
-            }
-        };
+                trackFailure(url, failover(url, errorListener,
+                        () -> getUser(studentId, userId, listener, errorListener))));
 
-        requestQueue.add(request);
+        enqueue(request);
     }
 
     /**
@@ -185,13 +266,27 @@ public class ApiService {
     public void updateUser(String studentId, int userId, User user,
                           Response.Listener<Map<String, String>> listener,
                           Response.ErrorListener errorListener) {
+        updateUser(studentId, userId, user, null, listener, errorListener);
+    }
+
+    /**
+     * Update user, sending an Idempotency-Key header so a retried
+     * request is not applied twice
+     * PUT /update_user/{student_id}/{user_id}
+     */
+    public void updateUser(String studentId, int userId, User user, String idempotencyKey,
+                          Response.Listener<Map<String, String>> listener,
+                          Response.ErrorListener errorListener) {
         String url = ApiClient.getBaseUrl() + "update_user/" + studentId + "/" + userId;
+        CircuitBreaker circuitBreaker = apiClient.getCircuitBreaker(url);
+        long startTime = SystemClock.elapsedRealtime();
         
         try {
             JSONObject jsonBody = new JSONObject(gson.toJson(user));
             
-            JsonObjectRequest request = new JsonObjectRequest(Request.Method.PUT, url, jsonBody,
+            JsonObjectRequest request = jsonRequest(Request.Method.PUT, url, jsonBody, idempotencyKey,
                     response -> {
+                        circuitBreaker.recordSuccess(SystemClock.elapsedRealtime() - startTime);
                         try {
                             Map<String, String> result = new HashMap<>();
                             if (response.has("message")) {
@@ -202,16 +297,9 @@ public class ApiService {
                             errorListener.onErrorResponse(new VolleyError("Failed to parse response", e));
                         }
                     },
-                    errorListener) {
-                @Override
-                public Map<String, String> getHeaders() throws AuthFailureError {
-                    Map<String, String> headers = new HashMap<>();
-                    headers.put("Content-Type", "application/json");
-                    return headers;
-                }
-            };
-
-            requestQueue.add(request);
+                    trackFailure(url, errorListener));
+
+            enqueue(request);
         } catch (JSONException e) {
             errorListener.onErrorResponse(new VolleyError("Failed to create JSON body", e));
         }
@@ -224,10 +312,24 @@ public class ApiService {
     public void deleteUser(String studentId, int userId,
                           Response.Listener<Map<String, String>> listener,
                           Response.ErrorListener errorListener) {
+        deleteUser(studentId, userId, null, listener, errorListener);
+    }
+
+    /**
+     * Delete user, sending an Idempotency-Key header so a retried
+     * request is not applied twice
+     * DELETE /delete_user/{student_id}/{user_id}
+     */
+    public void deleteUser(String studentId, int userId, String idempotencyKey,
+                          Response.Listener<Map<String, String>> listener,
+                          Response.ErrorListener errorListener) {
         String url = ApiClient.getBaseUrl() + "delete_user/" + studentId + "/" + userId;
+        CircuitBreaker circuitBreaker = apiClient.getCircuitBreaker(url);
+        long startTime = SystemClock.elapsedRealtime();
         
-        StringRequest request = new StringRequest(Request.Method.DELETE, url,
+        StringRequest request = stringRequest(Request.Method.DELETE, url, idempotencyKey,
                 response -> {
+                    circuitBreaker.recordSuccess(SystemClock.elapsedRealtime() - startTime);
                     try {
                         Map<String, String> result = new HashMap<>();
                         result.put("message", response);
@@ -236,15 +338,162 @@ public class ApiService {
                         errorListener.onErrorResponse(new VolleyError("Failed to parse response", e));
                     }
                 },
-                errorListener) {
-            @Override
-            public Map<String, String> getHeaders() throws AuthFailureError {
-                Map<String, String> headers = new HashMap<>();
-                headers.put("Content-Type", "application/json");
-                return headers;
+                trackFailure(url, errorListener));
+
+        enqueue(request);
+    }
+
+    /**
+     * String request with this service's priority and the JSON headers
+     */
+    private StringRequest stringRequest(int method, String url, String idempotencyKey,
+                                        Response.Listener<String> listener,
+                                        Response.ErrorListener errorListener) {
+        return new ApiStringRequest(method, url, requestPriority, idempotencyKey, listener, errorListener);
+    }
+
+    /**
+     * JSON request with this service's priority and the JSON headers
+     */
+    private JsonObjectRequest jsonRequest(int method, String url, JSONObject body, String idempotencyKey,
+                                          Response.Listener<JSONObject> listener,
+                                          Response.ErrorListener errorListener) {
+        return new ApiJsonRequest(method, url, body, requestPriority, idempotencyKey, listener, errorListener);
+    }
+
+    /**
+     * Headers of every API request; the Idempotency-Key only when given
+     */
+    private static Map<String, String> headers(String idempotencyKey) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json");
+        if (idempotencyKey != null) {
+            headers.put("Idempotency-Key", idempotencyKey);
+        }
+        return headers;
+    }
+
+    private static class ApiStringRequest extends StringRequest {
+        private final Priority priority;
+        private final String idempotencyKey;
+
+        ApiStringRequest(int method, String url, Priority priority, String idempotencyKey,
+                         Response.Listener<String> listener, Response.ErrorListener errorListener) {
+            super(method, url, listener, errorListener);
+            this.priority = priority;
+            this.idempotencyKey = idempotencyKey;
+        }
+
+        @Override
+        public Priority getPriority() {
+            return priority;
+        }
+
+        @Override
+        public Map<String, String> getHeaders() throws AuthFailureError {
+            return headers(idempotencyKey);
+        }
+    }
+
+    private static class ApiJsonRequest extends JsonObjectRequest {
+        private final Priority priority;
+        private final String idempotencyKey;
+
+        ApiJsonRequest(int method, String url, JSONObject body, Priority priority, String idempotencyKey,
+                       Response.Listener<JSONObject> listener, Response.ErrorListener errorListener) {
+            super(method, url, body, listener, errorListener);
+            this.priority = priority;
+            this.idempotencyKey = idempotencyKey;
+        }
+
+        @Override
+        public Priority getPriority() {
+            return priority;
+        }
+
+        @Override
+        public Map<String, String> getHeaders() throws AuthFailureError {
+            return headers(idempotencyKey);
+        }
+    }
+
+    /**
+     * Cancel all pending requests with the given tag, on both lanes.
+     * Cancelled requests never call their listeners.
+     */
+    public void cancelRequests(Object tag) {
+        apiClient.cancelRequests(tag);
+    }
+
+    /**
+     * Add request to its lane with the adaptive timeout and no automatic retry,
+     * so an unreachable host fails after one timeout instead of several.
+     * While the circuit breaker is open the request is not sent; its error
+     * listener gets a CircuitOpenError straight away, on the main thread
+     * like every other response.
+     */
+    private <T> void enqueue(Request<T> request) {
+        CircuitBreaker circuitBreaker = apiClient.getCircuitBreaker(request.getUrl());
+        if (!circuitBreaker.allowRequest()) {
+            // Fail fast so the caller can use its local fallback
+            mainHandler.post(() -> request.deliverError(new CircuitOpenError()));
+            return;
+        }
+        if (requestTag != null && request.getTag() == null) {
+            request.setTag(requestTag);
+        }
+        request.setRetryPolicy(new DefaultRetryPolicy(circuitBreaker.getTimeoutMs(), 0,
+                DefaultRetryPolicy.DEFAULT_BACKOFF_MULT));
+        if (background) {
+            apiClient.getLanes().addBackground(request, owner);
+        } else {
+            apiClient.getLanes().addInteractive(request, owner);
+        }
+    }
+
+    /**
+     * For reads: when a request failed at network level (or its gateway's
+     * circuit is open) and the endpoint selector has since moved to another
+     * gateway, send it again there instead of reporting the error. Each failure marks its gateway
+     * unhealthy, so this stops once no healthy gateway is left.
+     * Writes are not repeated here; OutboxManager retries them.
+     */
+    private Response.ErrorListener failover(String url, Response.ErrorListener errorListener,
+                                            Runnable retry) {
+        return error -> {
+            if ((ApiFutures.isTransient(error) || error instanceof CircuitOpenError)
+                    && !url.startsWith(ApiClient.getBaseUrl())) {
+                AppLog.d(TAG, () -> "Failing over to " + ApiClient.getBaseUrl() + " after error on " + url);
+                retry.run();
+            } else {
+                errorListener.onErrorResponse(error);
             }
         };
+    }
 
-        requestQueue.add(request);
+    /**
+     * Wrap an error listener so connection failures are reported to the circuit
+     * breaker and the endpoint selector (which then fails over to another gateway).
+     * Client errors (4xx) still mean the host is reachable, so they do not count;
+     * their response time feeds the adaptive timeout only when a response
+     * actually arrived and was timed.
+     */
+    private Response.ErrorListener trackFailure(String url, Response.ErrorListener errorListener) {
+        CircuitBreaker circuitBreaker = apiClient.getCircuitBreaker(url);
+        return error -> {
+            if (error instanceof CircuitOpenError) {
+                // Never reached the host, so there is nothing to record
+            } else if (error instanceof TimeoutError || error instanceof NoConnectionError
+                    || error instanceof ServerError) {
+                circuitBreaker.recordFailure();
+                apiClient.getEndpoints().reportFailure(url);
+            } else if (error.networkResponse != null && error.getNetworkTimeMs() > 0) {
+                circuitBreaker.recordSuccess(error.getNetworkTimeMs());
+            } else {
+                // Reachable, but there is no response time to sample
+                circuitBreaker.recordSuccess();
+            }
+            errorListener.onErrorResponse(error);
+        };
     }
 }
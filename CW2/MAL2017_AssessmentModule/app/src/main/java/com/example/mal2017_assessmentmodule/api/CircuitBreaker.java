@@ -0,0 +1,160 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import android.os.SystemClock;
+
+import com.example.mal2017_assessmentmodule.AppLog;
+
+import java.util.Arrays;
+
+/**
+ * CircuitBreaker - Guards the API host against repeated slow failures.
+ *
+ * States:
+ * - CLOSED: Requests go to the API as normal
+ * - OPEN: API considered down, requests are rejected immediately
+ *   so callers can go straight to the local database fallback
+ * - HALF_OPEN: Cool-down elapsed, a single probe request is allowed
+ *   through to check whether the API has recovered
+ *
+ * Also tracks recent successful response times and derives an
+ * adaptive request timeout from their 95th percentile, so a healthy
+ * fast server fails fast and a slow server is not cut off too early.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class CircuitBreaker {
+
+    private static final String TAG = "CircuitBreaker";
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    // Consecutive failures before the circuit opens
+    private static final int FAILURE_THRESHOLD = 3;
+
+    // How long the circuit stays open before a probe is allowed
+    private static final long OPEN_DURATION_MS = 15000;
+
+    // Adaptive timeout settings
+    private static final int LATENCY_WINDOW = 50;
+    private static final int MIN_SAMPLES = 5;
+    private static final int DEFAULT_TIMEOUT_MS = 2500;
+    private static final int MIN_TIMEOUT_MS = 1000;
+    private static final int MAX_TIMEOUT_MS = 8000;
+    private static final int TIMEOUT_MULTIPLIER = 3;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean probeInFlight = false;
+    private long probeStartedAt = 0;
+
+    private final long[] latencySamples = new long[LATENCY_WINDOW];
+    private int sampleCount = 0;
+    private int sampleIndex = 0;
+
+    /**
+     * Check whether a request may be sent to the API
+     *
+     * @return true if the request should go out, false if the caller should fall back
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (SystemClock.elapsedRealtime() - openedAt >= OPEN_DURATION_MS) {
+                    AppLog.d(TAG, "Cool-down elapsed, sending probe request");
+                    state = State.HALF_OPEN;
+                    startProbe();
+                    return true;
+                }
+                return false;
+            case HALF_OPEN:
+            default:
+                // Only one probe at a time while half-open. A probe that never
+                // reported back (e.g. cancelled) is given up on after the cool-down.
+                if (probeInFlight
+                        && SystemClock.elapsedRealtime() - probeStartedAt < OPEN_DURATION_MS) {
+                    return false;
+                }
+                startProbe();
+                return true;
+        }
+    }
+
+    private void startProbe() {
+        probeInFlight = true;
+        probeStartedAt = SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * Record a response from the API host
+     *
+     * @param latencyMs Time from enqueue to response; 0 or less is not
+     *                  sampled for the adaptive timeout
+     */
+    public synchronized void recordSuccess(long latencyMs) {
+        recordSuccess();
+        if (latencyMs <= 0) {
+            return;
+        }
+
+        latencySamples[sampleIndex] = latencyMs;
+        sampleIndex = (sampleIndex + 1) % LATENCY_WINDOW;
+        if (sampleCount < LATENCY_WINDOW) {
+            sampleCount++;
+        }
+    }
+
+    /**
+     * Record that the API host answered, without a response time
+     * (e.g. an error response that was not timed)
+     */
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            AppLog.d(TAG, "API recovered, closing circuit");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    /**
+     * Record a failure to reach the API host (timeout, no connection, 5xx)
+     */
+    public synchronized void recordFailure() {
+        probeInFlight = false;
+        consecutiveFailures++;
+
+        if (state == State.HALF_OPEN || consecutiveFailures >= FAILURE_THRESHOLD) {
+            if (state != State.OPEN) {
+                AppLog.w(TAG, "Opening circuit after " + consecutiveFailures + " failures");
+            }
+            state = State.OPEN;
+            openedAt = SystemClock.elapsedRealtime();
+        }
+    }
+
+    /**
+     * Get request timeout based on observed latency
+     *
+     * @return Timeout in milliseconds
+     */
+    public synchronized int getTimeoutMs() {
+        if (sampleCount < MIN_SAMPLES) {
+            return DEFAULT_TIMEOUT_MS;
+        }
+
+        long[] sorted = Arrays.copyOf(latencySamples, sampleCount);
+        Arrays.sort(sorted);
+        long p95 = sorted[(int) Math.ceil(sampleCount * 0.95) - 1];
+
+        long timeout = p95 * TIMEOUT_MULTIPLIER;
+        return (int) Math.max(MIN_TIMEOUT_MS, Math.min(MAX_TIMEOUT_MS, timeout));
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import com.android.volley.VolleyError;
+
+/**
+ * CircuitOpenError - A request was not sent because the circuit breaker is open.
+ *
+ * Delivered to the request's error listener straight away. The request
+ * never reached the API host, so it tells nothing about the host's
+ * health and is not recorded by the circuit breaker or the endpoint
+ * selector.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class CircuitOpenError extends VolleyError {
+
+    public CircuitOpenError() {
+        super("API unavailable (circuit open)");
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import com.example.mal2017_assessmentmodule.AppLog;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * ConnectionWarmer - Opens a pooled connection to the API host ahead of time.
+ *
+ * Sends one HEAD request to the base URL on OkHttp's own threads. That
+ * resolves the host name and leaves a keep-alive connection in the shared
+ * pool, so the first real request (read_all_users on login) skips DNS and
+ * the TCP (and TLS) handshake.
+ *
+ * - Never blocks the caller: the request is enqueued asynchronously
+ * - Bounded: the whole call is cut off after WARM_UP_TIMEOUT_MS
+ * - Cancellable: cancel() drops a warm-up still in progress
+ * - At most one warm-up every MIN_INTERVAL_MS; the pool keeps idle
+ *   connections for minutes, so repeating it sooner gains nothing
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class ConnectionWarmer {
+
+    private static final String TAG = "ConnectionWarmer";
+
+    private static final long WARM_UP_TIMEOUT_MS = 3000;
+    private static final long MIN_INTERVAL_MS = 30 * 1000L;
+
+    private final OkHttpClient client;
+    private Call inFlight;
+    private long lastStartedAt;  // 0 = never
+
+    /**
+     * @param client Client whose connection pool the real requests use
+     */
+    public ConnectionWarmer(OkHttpClient client) {
+        // newBuilder() shares the connection pool and dispatcher
+        this.client = client.newBuilder()
+                .callTimeout(WARM_UP_TIMEOUT_MS, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Start a warm-up of the host behind baseUrl, unless one is running
+     * or ran recently
+     *
+     * @return true if a warm-up was started
+     */
+    public synchronized boolean warmUp(String baseUrl) {
+        long now = TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+        if (inFlight != null || (lastStartedAt != 0 && now - lastStartedAt < MIN_INTERVAL_MS)) {
+            return false;
+        }
+        lastStartedAt = now;
+
+        Request request = new Request.Builder().url(baseUrl).head().build();
+        Call call = client.newCall(request);
+        inFlight = call;
+        long start = System.nanoTime();
+
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                // Closing the (empty) response returns the connection to the pool
+                response.close();
+                finished(call);
+                AppLog.d(TAG, () -> "Warmed up " + baseUrl + " in "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                finished(call);
+                if (!call.isCanceled()) {
+                    AppLog.d(TAG, () -> "Warm-up of " + baseUrl + " failed: " + e.getMessage());
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Cancel a warm-up still in progress
+     */
+    public synchronized void cancel() {
+        if (inFlight != null) {
+            inFlight.cancel();
+            inFlight = null;
+            // Cancelled early, so allow the next warm-up straight away
+            lastStartedAt = 0;
+        }
+    }
+
+    private synchronized void finished(Call call) {
+        if (inFlight == call) {
+            inFlight = null;
+        }
+    }
+}
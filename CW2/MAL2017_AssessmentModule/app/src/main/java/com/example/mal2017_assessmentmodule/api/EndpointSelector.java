@@ -0,0 +1,261 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import com.example.mal2017_assessmentmodule.AppLog;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * EndpointSelector - Picks the API base URL from a list of gateways.
+ *
+ * Features:
+ * - Health probes: a HEAD request to each base URL every PROBE_INTERVAL_MS.
+ *   Any HTTP answer below 500 means healthy; the round trip time feeds a
+ *   moving average per endpoint
+ * - Selection: the healthy endpoint with the lowest average probe time.
+ *   A faster endpoint only takes over when it is clearly faster
+ *   (SWITCH_MARGIN), so similar gateways do not flap
+ * - Failover: a request that fails at network level (reportFailure) marks
+ *   its endpoint unhealthy and the next request goes elsewhere; the
+ *   endpoint comes back after a successful probe
+ * - A CircuitBreaker per endpoint, so one gateway being down does not
+ *   reject requests to the others
+ *
+ * With a single base URL nothing is probed and that URL is always used.
+ * Plain Java (HttpURLConnection, no Volley) so probes never wait behind
+ * queued API requests.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class EndpointSelector {
+
+    private static final String TAG = "EndpointSelector";
+
+    private static final long PROBE_INTERVAL_MS = 60 * 1000L;
+    private static final long RECHECK_DELAY_MS = 5000;   // Extra probe round after a failure
+    private static final int PROBE_TIMEOUT_MS = 3000;
+    private static final double LATENCY_ALPHA = 0.3;   // Weight of the newest probe
+    private static final double SWITCH_MARGIN = 0.2;   // Must be 20% faster to take over
+
+    /**
+     * One base URL and what the probes know about it
+     */
+    public static class Endpoint {
+        private final String baseUrl;
+        private volatile boolean healthy = true;  // Until a probe or request says otherwise
+        private volatile double averageMs = -1;   // -1 = not probed yet
+        private final AtomicInteger failures = new AtomicInteger();
+        private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+        Endpoint(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        public String getBaseUrl() { return baseUrl; }
+        public boolean isHealthy() { return healthy; }
+        public double getAverageMs() { return averageMs; }
+        public int getFailures() { return failures.get(); }
+        public CircuitBreaker getCircuitBreaker() { return circuitBreaker; }
+
+        @Override
+        public String toString() {
+            return baseUrl + (healthy ? " healthy " : " unhealthy ")
+                    + (averageMs >= 0 ? String.format("%.0f ms", averageMs) : "unprobed");
+        }
+    }
+
+    private final List<Endpoint> endpoints;
+    private volatile Endpoint current;
+    private ScheduledExecutorService prober;
+    private ScheduledFuture<?> probeTask;
+    private final AtomicBoolean recheckPending = new AtomicBoolean();
+
+    /**
+     * @param baseUrls Base URLs ending in "/", in order of preference
+     *                 until probes have measured them
+     */
+    public EndpointSelector(List<String> baseUrls) {
+        if (baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("At least one base URL is required");
+        }
+        List<Endpoint> list = new ArrayList<>();
+        for (String baseUrl : baseUrls) {
+            list.add(new Endpoint(baseUrl));
+        }
+        this.endpoints = Collections.unmodifiableList(list);
+        this.current = list.get(0);
+    }
+
+    /**
+     * Start periodic probes, the first one straight away
+     */
+    public synchronized void start() {
+        if (endpoints.size() < 2 || probeTask != null) {
+            return;
+        }
+        prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "EndpointSelector-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        probeTask = prober.scheduleWithFixedDelay(this::probeAll, 0, PROBE_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (prober != null) {
+            prober.shutdownNow();
+            prober = null;
+            probeTask = null;
+        }
+    }
+
+    /**
+     * Base URL to send the next request to
+     */
+    public String getBaseUrl() {
+        return current.getBaseUrl();
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Circuit breaker of the endpoint a URL belongs to; the current
+     * endpoint's for a URL outside all of them
+     */
+    public CircuitBreaker getCircuitBreaker(String url) {
+        Endpoint endpoint = find(url);
+        return (endpoint != null ? endpoint : current).circuitBreaker;
+    }
+
+    /**
+     * A request to this URL failed at network level (timeout, no
+     * connection, 5xx). Its endpoint is avoided until a probe succeeds.
+     */
+    public void reportFailure(String url) {
+        Endpoint endpoint = find(url);
+        if (endpoint == null || endpoints.size() < 2) {
+            return;
+        }
+        endpoint.failures.incrementAndGet();
+        endpoint.healthy = false;
+        if (endpoint == current) {
+            select();
+        }
+        recheckSoon();
+    }
+
+    /**
+     * One extra probe round shortly after a failure, so a blip does not
+     * keep an endpoint out until the next regular probe
+     */
+    private synchronized void recheckSoon() {
+        if (prober != null && recheckPending.compareAndSet(false, true)) {
+            prober.schedule(() -> {
+                recheckPending.set(false);
+                probeAll();
+            }, RECHECK_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Probe every endpoint once and re-select. Blocking; runs on the
+     * probe thread.
+     */
+    public void probeAll() {
+        for (Endpoint endpoint : endpoints) {
+            long latencyMs = probe(endpoint.baseUrl);
+            if (latencyMs >= 0) {
+                endpoint.averageMs = endpoint.averageMs < 0 ? latencyMs
+                        : LATENCY_ALPHA * latencyMs + (1 - LATENCY_ALPHA) * endpoint.averageMs;
+                endpoint.healthy = true;
+            } else {
+                endpoint.healthy = false;
+            }
+        }
+        select();
+        AppLog.d(TAG, () -> "Probed " + endpoints + ", using " + current.baseUrl);
+    }
+
+    /**
+     * Round trip time of a HEAD request in ms, or -1 if unreachable or 5xx
+     */
+    private static long probe(String baseUrl) {
+        HttpURLConnection connection = null;
+        long start = System.nanoTime();
+        try {
+            connection = (HttpURLConnection) new URL(baseUrl).openConnection();
+            connection.setRequestMethod("HEAD");
+            connection.setConnectTimeout(PROBE_TIMEOUT_MS);
+            connection.setReadTimeout(PROBE_TIMEOUT_MS);
+            connection.setUseCaches(false);
+            int status = connection.getResponseCode();
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return status < 500 ? elapsedMs : -1;
+        } catch (IOException e) {
+            AppLog.d(TAG, () -> "Probe failed for " + baseUrl + ": " + e.getMessage());
+            return -1;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Switch to the fastest healthy endpoint if the current one is
+     * unhealthy or clearly slower. Keeps the current one if none is healthy.
+     */
+    private synchronized void select() {
+        Endpoint best = null;
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.healthy && (best == null || faster(endpoint, best))) {
+                best = endpoint;
+            }
+        }
+        if (best == null || best == current) {
+            return;
+        }
+
+        Endpoint previous = current;
+        boolean keep = previous.healthy && (best.averageMs < 0 || previous.averageMs < 0
+                || best.averageMs * (1 + SWITCH_MARGIN) >= previous.averageMs);
+        if (!keep) {
+            current = best;
+            Endpoint selected = best;
+            AppLog.i(TAG, () -> "Switched API endpoint " + previous + " -> " + selected);
+        }
+    }
+
+    /**
+     * Probed endpoints beat unprobed ones; unprobed keep list order
+     */
+    private static boolean faster(Endpoint a, Endpoint b) {
+        if (a.averageMs < 0) {
+            return false;
+        }
+        return b.averageMs < 0 || a.averageMs < b.averageMs;
+    }
+
+    private Endpoint find(String url) {
+        for (Endpoint endpoint : endpoints) {
+            if (url.startsWith(endpoint.baseUrl)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import android.content.Context;
+
+import com.android.volley.VolleyError;
+import com.example.mal2017_assessmentmodule.models.User;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * FutureApiService - ApiService calls as CompletableFutures.
+ *
+ * Lets multi-step flows be composed instead of nesting listeners, and
+ * independent calls run concurrently:
+ *
+ *   futures.getAllUsers(STUDENT_ID)
+ *          .thenCompose(users -> ...)
+ *
+ *   ApiFutures.allOf(Arrays.asList(
+ *          futures.getUser(STUDENT_ID, 1), futures.getUser(STUDENT_ID, 2)))
+ *
+ * Each call returns an ApiFuture: cancel() also cancels its Volley
+ * request. Futures derived with thenApply/thenCompose do not pass
+ * cancellation back, so keep the ApiFuture (or use ApiFutures.withTimeout)
+ * when the request itself should be stopped.
+ *
+ * Futures complete on the main thread, like the Volley listeners;
+ * use the *Async variants with an executor for heavy follow-up work.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class FutureApiService {
+
+    /**
+     * Future for one API request; cancelling it cancels the request
+     */
+    public static class ApiFuture<T> extends CompletableFuture<T> {
+        private final ApiService apiService;
+        private final Object tag;
+
+        ApiFuture(ApiService apiService, Object tag) {
+            this.apiService = apiService;
+            this.tag = tag;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                apiService.cancelRequests(tag);
+            }
+            return cancelled;
+        }
+    }
+
+    private final ApiService apiService;
+
+    public FutureApiService(Context context) {
+        this(new ApiService(context));
+    }
+
+    public FutureApiService(ApiService apiService) {
+        this.apiService = apiService;
+    }
+
+    /**
+     * POST /create_student/{student_id}
+     */
+    public ApiFuture<Map<String, String>> createStudentDatabase(String studentId) {
+        ApiFuture<Map<String, String>> future = newFuture();
+        tagged(future).createStudentDatabase(studentId, future::complete, future::completeExceptionally);
+        return future;
+    }
+
+    /**
+     * POST /create_user/{student_id}
+     *
+     * @param idempotencyKey Sent as Idempotency-Key, or null
+     */
+    public ApiFuture<Map<String, String>> createUser(String studentId, User user, String idempotencyKey) {
+        ApiFuture<Map<String, String>> future = newFuture();
+        tagged(future).createUser(studentId, user, idempotencyKey,
+                future::complete, future::completeExceptionally);
+        return future;
+    }
+
+    /**
+     * GET /read_all_users/{student_id}
+     *
+     * @return The "users" list; fails if the response has none
+     */
+    public ApiFuture<List<User>> getAllUsers(String studentId) {
+        ApiFuture<List<User>> future = newFuture();
+        tagged(future).getAllUsers(studentId,
+                response -> {
+                    List<User> users = response != null ? response.get("users") : null;
+                    if (users != null) {
+                        future.complete(users);
+                    } else {
+                        future.completeExceptionally(new VolleyError("Users list missing in API response"));
+                    }
+                },
+                future::completeExceptionally);
+        return future;
+    }
+
+    /**
+     * GET /read_user/{student_id}/{user_id}
+     */
+    public ApiFuture<Map<String, User>> getUser(String studentId, int userId) {
+        ApiFuture<Map<String, User>> future = newFuture();
+        tagged(future).getUser(studentId, userId, future::complete, future::completeExceptionally);
+        return future;
+    }
+
+    /**
+     * PUT /update_user/{student_id}/{user_id}
+     *
+     * @param idempotencyKey Sent as Idempotency-Key, or null
+     */
+    public ApiFuture<Map<String, String>> updateUser(String studentId, int userId, User user,
+                                                     String idempotencyKey) {
+        ApiFuture<Map<String, String>> future = newFuture();
+        tagged(future).updateUser(studentId, userId, user, idempotencyKey,
+                future::complete, future::completeExceptionally);
+        return future;
+    }
+
+    /**
+     * DELETE /delete_user/{student_id}/{user_id}
+     *
+     * @param idempotencyKey Sent as Idempotency-Key, or null
+     */
+    public ApiFuture<Map<String, String>> deleteUser(String studentId, int userId, String idempotencyKey) {
+        ApiFuture<Map<String, String>> future = newFuture();
+        tagged(future).deleteUser(studentId, userId, idempotencyKey,
+                future::complete, future::completeExceptionally);
+        return future;
+    }
+
+    private <T> ApiFuture<T> newFuture() {
+        return new ApiFuture<>(apiService, new Object());
+    }
+
+    private ApiService tagged(ApiFuture<?> future) {
+        return apiService.tagged(future.tag);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import com.android.volley.Header;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * HttpJournal - Compact on-disk log of HTTP request/response pairs.
+ *
+ * Written by RecordingHttpStack, read by ReplayHttpStack.
+ *
+ * Format (gzip-compressed binary, flushed after every entry so a
+ * journal cut short by the app being killed is still readable):
+ * - Header: magic "HJNL", format version
+ * - Per entry: start offset and duration (ms), Volley method, URL,
+ *   request body, status code, response headers, response body
+ *
+ * A failed exchange is stored with a negative status
+ * (STATUS_TIMEOUT or STATUS_IO_ERROR) and the error message as body.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class HttpJournal {
+
+    private static final int MAGIC = 0x484A4E4C; // "HJNL"
+    private static final int VERSION = 1;
+
+    public static final int STATUS_TIMEOUT = -1;
+    public static final int STATUS_IO_ERROR = -2;
+
+    /**
+     * One recorded exchange
+     */
+    public static class Entry {
+        public final long startOffsetMs;  // Since the recording started
+        public final int durationMs;      // Request sent to body fully read
+        public final int method;          // Request.Method value
+        public final String url;
+        public final byte[] requestBody;  // null when the request had none
+        public final int statusCode;
+        public final List<Header> headers;
+        public final byte[] body;
+
+        public Entry(long startOffsetMs, int durationMs, int method, String url, byte[] requestBody,
+                     int statusCode, List<Header> headers, byte[] body) {
+            this.startOffsetMs = startOffsetMs;
+            this.durationMs = durationMs;
+            this.method = method;
+            this.url = url;
+            this.requestBody = requestBody;
+            this.statusCode = statusCode;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public boolean isFailure() {
+            return statusCode < 0;
+        }
+    }
+
+    /**
+     * Appends entries to a journal file. Thread-safe.
+     */
+    public static class Writer implements Closeable {
+
+        private final DataOutputStream out;
+
+        public Writer(File file) throws IOException {
+            // syncFlush: flush() pushes every entry written so far to the file
+            out = new DataOutputStream(new GZIPOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(file)), true));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.flush();
+        }
+
+        public synchronized void append(Entry entry) throws IOException {
+            out.writeLong(entry.startOffsetMs);
+            out.writeInt(entry.durationMs);
+            out.writeByte(entry.method);
+            out.writeUTF(entry.url);
+            writeBytes(entry.requestBody);
+            out.writeInt(entry.statusCode);
+            out.writeShort(entry.headers.size());
+            for (Header header : entry.headers) {
+                out.writeUTF(header.getName());
+                out.writeUTF(header.getValue());
+            }
+            writeBytes(entry.body);
+            out.flush();
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            if (bytes == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Read every complete entry of a journal, in recorded order
+     *
+     * @throws IOException if the file is missing or not a journal
+     */
+    public static List<Entry> read(File file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(
+                new BufferedInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an HTTP journal: " + file);
+            }
+            int version = in.readUnsignedShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported journal version " + version);
+            }
+
+            while (true) {
+                try {
+                    entries.add(readEntry(in));
+                } catch (EOFException e) {
+                    // End of journal, or an entry cut short by the app being killed
+                    break;
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static Entry readEntry(DataInputStream in) throws IOException {
+        long startOffsetMs = in.readLong();
+        int durationMs = in.readInt();
+        int method = in.readByte();
+        String url = in.readUTF();
+        byte[] requestBody = readBytes(in);
+        int statusCode = in.readInt();
+
+        int headerCount = in.readUnsignedShort();
+        List<Header> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(new Header(in.readUTF(), in.readUTF()));
+        }
+
+        byte[] body = readBytes(in);
+        return new Entry(startOffsetMs, durationMs, method, url, requestBody, statusCode,
+                Collections.unmodifiableList(headers), body);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram - Lock-free histogram of millisecond durations.
+ *
+ * Log-linear buckets: exact below 16 ms, then 8 buckets per power of
+ * two (at most 12.5% error), up to about 17 minutes. Recording is a
+ * few atomic increments, safe from any thread and never blocks.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class LatencyHistogram {
+
+    private static final int LINEAR_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 20;
+    private static final int BUCKET_COUNT = LINEAR_BUCKETS + (MAX_EXPONENT - 3) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long valueMs) {
+        long value = Math.max(0, valueMs);
+        counts.incrementAndGet(bucketOf(value));
+        total.increment();
+        sum.add(value);
+
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Point-in-time copy. Concurrent records may or may not be included.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, sum.sum(), max.get());
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (value >> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - 4) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Highest value that falls into a bucket
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 4;
+        int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (subBucket + 1) * width - 1;
+    }
+
+    /**
+     * Immutable copy of a histogram, with percentile lookups
+     */
+    public static class Snapshot {
+        private final transient long[] counts;
+        public final long count;
+        public final long meanMs;
+        public final long p50Ms;
+        public final long p90Ms;
+        public final long p99Ms;
+        public final long maxMs;
+
+        Snapshot(long[] counts, long count, long sumMs, long maxMs) {
+            this.counts = counts;
+            this.count = count;
+            this.meanMs = count > 0 ? sumMs / count : 0;
+            this.maxMs = maxMs;
+            this.p50Ms = percentile(50.0);
+            this.p90Ms = percentile(90.0);
+            this.p99Ms = percentile(99.0);
+        }
+
+        /**
+         * Value at or below which the given percentage of records fall
+         * (bucket upper bound, never above the recorded max)
+         */
+        public long percentile(double percent) {
+            if (count == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(count * percent / 100.0));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(upperBoundOf(i), maxMs);
+                }
+            }
+            return maxMs;
+        }
+
+        @Override
+        public String toString() {
+            return "n=" + count + " mean=" + meanMs + " p50=" + p50Ms + " p90=" + p90Ms
+                    + " p99=" + p99Ms + " max=" + maxMs + " ms";
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import android.os.SystemClock;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Request;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.HttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Map;
+
+/**
+ * MetricsHttpStack - Records every network attempt of another HttpStack in ApiMetrics.
+ *
+ * An attempt is recorded when its response body has been read and
+ * closed, so the latency and byte count cover the whole transfer.
+ * The bytes counted here are the decoded body the delegate returns;
+ * compressed wire bytes are recorded by OkHttpStack itself.
+ * Attempts after the first (Volley retry policy) count as retries.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class MetricsHttpStack extends BaseHttpStack {
+
+    private final BaseHttpStack delegate;
+    private final ApiMetrics metrics;
+
+    public MetricsHttpStack(BaseHttpStack delegate, ApiMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public HttpResponse executeRequest(Request<?> request, Map<String, String> additionalHeaders)
+            throws IOException, AuthFailureError {
+        long start = SystemClock.elapsedRealtime();
+        String url = request.getUrl();
+        byte[] body = request.getBody();
+        long requestBytes = body != null ? body.length : 0;
+        boolean retry = request.getRetryPolicy().getCurrentRetryCount() > 0;
+
+        HttpResponse response;
+        try {
+            response = delegate.executeRequest(request, additionalHeaders);
+        } catch (IOException e) {
+            metrics.recordFailure(url, SystemClock.elapsedRealtime() - start, requestBytes,
+                    classify(e), retry);
+            throw e;
+        }
+
+        InputStream content = response.getContent();
+        if (content == null) {
+            metrics.recordResponse(url, SystemClock.elapsedRealtime() - start, requestBytes, 0,
+                    response.getStatusCode(), retry);
+            return response;
+        }
+
+        InputStream counting = new CountingInputStream(content, bytesRead ->
+                metrics.recordResponse(url, SystemClock.elapsedRealtime() - start, requestBytes,
+                        bytesRead, response.getStatusCode(), retry));
+        return new HttpResponse(response.getStatusCode(), response.getHeaders(),
+                response.getContentLength(), counting);
+    }
+
+    private static String classify(IOException e) {
+        if (e instanceof SocketTimeoutException) {
+            return ApiMetrics.ERROR_TIMEOUT;
+        }
+        if (e instanceof ConnectException || e instanceof UnknownHostException) {
+            return ApiMetrics.ERROR_NO_CONNECTION;
+        }
+        return ApiMetrics.ERROR_IO;
+    }
+
+    private interface CloseListener {
+        void onClosed(long bytesRead);
+    }
+
+    /**
+     * Counts bytes read and reports once on close
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private final CloseListener listener;
+        private long count;
+        private boolean closed;
+
+        CountingInputStream(InputStream in, CloseListener listener) {
+            super(in);
+            this.listener = listener;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!closed) {
+                    closed = true;
+                    listener.onClosed(count);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Header;
+import com.android.volley.Request;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.HttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Inflater;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.InflaterSource;
+import okio.Okio;
+
+/**
+ * OkHttpStack - Volley HttpStack backed by a shared, connection-pooled OkHttpClient.
+ *
+ * Features:
+ * - Keep-alive connection pool shared by all requests
+ *   (repeat calls to the API host skip the TCP handshake)
+ * - Per-host limit on concurrent requests, taken from the client's
+ *   Dispatcher. Volley calls execute(), which the Dispatcher does not
+ *   limit, so the stack enforces it with a semaphore per host; a request
+ *   holds its permit until its response body is closed
+ * - Requests are replayed after a connection failure only when that is
+ *   safe: not for POST/PATCH unless they carry an Idempotency-Key
+ * - Transparent gzip (OkHttp) and deflate (DeflateInterceptor) response decoding
+ * - Optional ApiMetrics: response body bytes as received, before decoding
+ * - HTTP/2 when the server supports it over TLS
+ * - Volley's per-request timeout is applied to connect/read/write
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class OkHttpStack extends BaseHttpStack {
+
+    // Connection pool defaults
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+    public static final long DEFAULT_KEEP_ALIVE_MINUTES = 5;
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 4;
+
+    private final OkHttpClient client;
+    private final int maxRequestsPerHost;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    public OkHttpStack() {
+        this(createClient(DEFAULT_MAX_IDLE_CONNECTIONS, DEFAULT_KEEP_ALIVE_MINUTES,
+                DEFAULT_MAX_REQUESTS_PER_HOST));
+    }
+
+    /**
+     * Default client, recording response wire bytes in metrics
+     */
+    public OkHttpStack(ApiMetrics metrics) {
+        this(createClient(DEFAULT_MAX_IDLE_CONNECTIONS, DEFAULT_KEEP_ALIVE_MINUTES,
+                DEFAULT_MAX_REQUESTS_PER_HOST).newBuilder()
+                // Added last, so it sits closest to the network, below DeflateInterceptor
+                .addNetworkInterceptor(new WireBytesInterceptor(metrics))
+                .build());
+    }
+
+    /**
+     * @param client Client to send with; its Dispatcher's maxRequestsPerHost
+     *               limits concurrent requests per host
+     */
+    public OkHttpStack(OkHttpClient client) {
+        this.client = client;
+        this.maxRequestsPerHost = client.dispatcher().getMaxRequestsPerHost();
+    }
+
+    /**
+     * Build a client with the given pool and per-host limits
+     *
+     * @param maxIdleConnections Idle connections kept open for reuse
+     * @param keepAliveMinutes How long an idle connection is kept
+     * @param maxRequestsPerHost Concurrent requests (connections) per host,
+     *                           enforced by OkHttpStack for synchronous calls too
+     */
+    public static OkHttpClient createClient(int maxIdleConnections, long keepAliveMinutes,
+                                            int maxRequestsPerHost) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveMinutes, TimeUnit.MINUTES))
+                .dispatcher(dispatcher)
+                .addNetworkInterceptor(new DeflateInterceptor())
+                .retryOnConnectionFailure(true)
+                .build();
+    }
+
+    public OkHttpClient getClient() {
+        return client;
+    }
+
+    @Override
+    public HttpResponse executeRequest(Request<?> request, Map<String, String> additionalHeaders)
+            throws IOException, AuthFailureError {
+        int timeoutMs = request.getTimeoutMs();
+
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder().url(request.getUrl());
+
+        Map<String, String> headers = new HashMap<>(request.getHeaders());
+        headers.putAll(additionalHeaders);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+
+        setMethodAndBody(builder, request);
+        okhttp3.Request okRequest = builder.build();
+
+        // newBuilder() shares the connection pool and dispatcher
+        OkHttpClient requestClient = client.newBuilder()
+                .connectTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .readTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .writeTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .retryOnConnectionFailure(isSafeToReplay(okRequest))
+                .build();
+
+        Semaphore permits = acquirePermit(okRequest.url().host(), timeoutMs);
+        Response response;
+        try {
+            response = requestClient.newCall(okRequest).execute();
+        } catch (IOException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        List<Header> responseHeaders = new ArrayList<>();
+        Headers okHeaders = response.headers();
+        for (int i = 0; i < okHeaders.size(); i++) {
+            responseHeaders.add(new Header(okHeaders.name(i), okHeaders.value(i)));
+        }
+
+        ResponseBody body = response.body();
+        if (body != null && response.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            // Volley never reads or closes the body of a 304
+            body.close();
+            body = null;
+        }
+        if (body == null) {
+            permits.release();
+            return new HttpResponse(response.code(), responseHeaders);
+        }
+        return new HttpResponse(response.code(), responseHeaders,
+                (int) body.contentLength(), new PermitReleasingStream(body.byteStream(), permits));
+    }
+
+    /**
+     * Wait for a free request slot on a host, up to the request timeout
+     */
+    private Semaphore acquirePermit(String host, int timeoutMs) throws IOException {
+        Semaphore permits = hostPermits.computeIfAbsent(host, key -> new Semaphore(maxRequestsPerHost));
+        try {
+            if (!permits.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new SocketTimeoutException("Timed out waiting for a connection to " + host);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a connection to " + host);
+        }
+        return permits;
+    }
+
+    /**
+     * OkHttp silently resends a request whose connection failed. That is
+     * harmless for idempotent methods, but a replayed POST could create a
+     * second user; only allow it when the server can recognise the replay.
+     */
+    static boolean isSafeToReplay(okhttp3.Request request) {
+        String method = request.method();
+        boolean idempotent = !"POST".equals(method) && !"PATCH".equals(method);
+        return idempotent || request.header("Idempotency-Key") != null;
+    }
+
+    private static void setMethodAndBody(okhttp3.Request.Builder builder, Request<?> request)
+            throws AuthFailureError {
+        switch (request.getMethod()) {
+            case Request.Method.DEPRECATED_GET_OR_POST:
+                byte[] postBody = request.getBody();
+                if (postBody != null) {
+                    builder.post(RequestBody.create(postBody,
+                            MediaType.parse(request.getBodyContentType())));
+                } else {
+                    builder.get();
+                }
+                break;
+            case Request.Method.GET:
+                builder.get();
+                break;
+            case Request.Method.DELETE:
+                byte[] deleteBody = request.getBody();
+                builder.delete(deleteBody != null ? createBody(request) : null);
+                break;
+            case Request.Method.POST:
+                builder.post(createBody(request));
+                break;
+            case Request.Method.PUT:
+                builder.put(createBody(request));
+                break;
+            case Request.Method.HEAD:
+                builder.head();
+                break;
+            case Request.Method.OPTIONS:
+                builder.method("OPTIONS", null);
+                break;
+            case Request.Method.TRACE:
+                builder.method("TRACE", null);
+                break;
+            case Request.Method.PATCH:
+                builder.patch(createBody(request));
+                break;
+            default:
+                throw new IllegalStateException("Unknown method type.");
+        }
+    }
+
+    private static RequestBody createBody(Request<?> request) throws AuthFailureError {
+        byte[] body = request.getBody();
+        if (body == null) {
+            body = new byte[0];
+        }
+        return RequestBody.create(body, MediaType.parse(request.getBodyContentType()));
+    }
+
+    /**
+     * Response body stream that gives back the host permit once closed
+     */
+    private static class PermitReleasingStream extends FilterInputStream {
+        private final Semaphore permits;
+        private boolean released;
+
+        PermitReleasingStream(InputStream in, Semaphore permits) {
+            super(in);
+            this.permits = permits;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!released) {
+                    released = true;
+                    permits.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Network interceptor that also advertises and decodes deflate.
+     * OkHttp itself only decodes gzip, and only when it added the header,
+     * so "gzip" is widened here after OkHttp has set it.
+     */
+    static class DeflateInterceptor implements Interceptor {
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            okhttp3.Request request = chain.request();
+            if ("gzip".equals(request.header("Accept-Encoding"))) {
+                request = request.newBuilder().header("Accept-Encoding", "gzip, deflate").build();
+            }
+
+            Response response = chain.proceed(request);
+            ResponseBody body = response.body();
+            if (body == null || !"deflate".equalsIgnoreCase(response.header("Content-Encoding"))) {
+                return response;
+            }
+
+            // zlib-wrapped deflate, as sent by most servers
+            InflaterSource inflated = new InflaterSource(body.source(), new Inflater());
+            return response.newBuilder()
+                    .removeHeader("Content-Encoding")
+                    .removeHeader("Content-Length")
+                    .body(ResponseBody.create(Okio.buffer(inflated), body.contentType(), -1))
+                    .build();
+        }
+    }
+
+    /**
+     * Network interceptor that counts response body bytes as they arrive,
+     * before OkHttp or DeflateInterceptor decode them, and records the
+     * total once the body is exhausted or closed
+     */
+    static class WireBytesInterceptor implements Interceptor {
+        private final ApiMetrics metrics;
+
+        WireBytesInterceptor(ApiMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Response response = chain.proceed(chain.request());
+            ResponseBody body = response.body();
+            if (body == null) {
+                return response;
+            }
+
+            String url = chain.request().url().toString();
+            ForwardingSource counting = new ForwardingSource(body.source()) {
+                private long count;
+                private boolean recorded;
+
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    long read = super.read(sink, byteCount);
+                    if (read > 0) {
+                        count += read;
+                    } else if (read == -1) {
+                        record();
+                    }
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    record();
+                    super.close();
+                }
+
+                private void record() {
+                    if (!recorded) {
+                        recorded = true;
+                        metrics.recordWireBytes(url, count);
+                    }
+                }
+            };
+            return response.newBuilder()
+                    .body(ResponseBody.create(Okio.buffer(counting), body.contentType(), body.contentLength()))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import android.os.SystemClock;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Header;
+import com.android.volley.Request;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.HttpResponse;
+import com.example.mal2017_assessmentmodule.AppLog;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * RecordingHttpStack - Passes requests to another HttpStack and records every exchange.
+ *
+ * Each request/response pair (bodies, headers, status, timing) is
+ * appended to an HttpJournal, for ReplayHttpStack to serve back later.
+ * Failed exchanges (timeouts, connection errors) are recorded too.
+ *
+ * Usage (before the first API call):
+ * ApiClient.useHttpStack(new RecordingHttpStack(new OkHttpStack(), journalFile));
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class RecordingHttpStack extends BaseHttpStack implements Closeable {
+
+    private static final String TAG = "RecordingHttpStack";
+
+    private final BaseHttpStack delegate;
+    private final HttpJournal.Writer writer;
+    private final long recordingStart = SystemClock.elapsedRealtime();
+
+    /**
+     * @param delegate Stack that performs the real requests
+     * @param journal File to record to (replaced if it exists)
+     */
+    public RecordingHttpStack(BaseHttpStack delegate, File journal) throws IOException {
+        this.delegate = delegate;
+        this.writer = new HttpJournal.Writer(journal);
+    }
+
+    @Override
+    public HttpResponse executeRequest(Request<?> request, Map<String, String> additionalHeaders)
+            throws IOException, AuthFailureError {
+        long start = SystemClock.elapsedRealtime();
+        byte[] requestBody = request.getBody();
+
+        HttpResponse response;
+        byte[] body;
+        try {
+            response = delegate.executeRequest(request, additionalHeaders);
+            // Read the whole body now, so the recorded time includes the transfer
+            body = readBody(response.getContent());
+        } catch (IOException e) {
+            int status = e instanceof SocketTimeoutException
+                    ? HttpJournal.STATUS_TIMEOUT : HttpJournal.STATUS_IO_ERROR;
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            record(new HttpJournal.Entry(start - recordingStart,
+                    (int) (SystemClock.elapsedRealtime() - start), request.getMethod(),
+                    request.getUrl(), requestBody, status, Collections.<Header>emptyList(),
+                    message.getBytes(StandardCharsets.UTF_8)));
+            throw e;
+        }
+
+        record(new HttpJournal.Entry(start - recordingStart,
+                (int) (SystemClock.elapsedRealtime() - start), request.getMethod(),
+                request.getUrl(), requestBody, response.getStatusCode(), response.getHeaders(), body));
+
+        if (body == null) {
+            return new HttpResponse(response.getStatusCode(), response.getHeaders());
+        }
+        return new HttpResponse(response.getStatusCode(), response.getHeaders(),
+                body.length, new ByteArrayInputStream(body));
+    }
+
+    private void record(HttpJournal.Entry entry) {
+        try {
+            writer.append(entry);
+        } catch (IOException e) {
+            // Recording must never break the request itself
+            AppLog.e(TAG, "Error writing journal entry: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] readBody(InputStream content) throws IOException {
+        if (content == null) {
+            return null;
+        }
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = content.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+            return buffer.toByteArray();
+        } finally {
+            content.close();
+        }
+    }
+
+    /**
+     * Finish the journal file
+     */
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import android.os.SystemClock;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Request;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.HttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ReplayHttpStack - Serves responses from an HttpJournal instead of the network.
+ *
+ * Lets parsing, caching and login logic be benchmarked against real
+ * payloads with no server and no network variance.
+ *
+ * Matching:
+ * - A request is matched on method + URL + request body (SHA-256 of the
+ *   bytes), falling back
+ *   to method + URL when the body differs (e.g. a new user's details)
+ * - Repeated requests get the recorded responses in recorded order,
+ *   starting again from the first once they run out
+ * - A request that was never recorded fails like a dropped connection
+ *
+ * Timing:
+ * - ORIGINAL: each response is held back for its recorded duration, and
+ *   never returned before its recorded finish time, counted from the
+ *   first replayed request (so a burst keeps the recorded pacing)
+ * - FAST: responses are returned immediately
+ *
+ * Response bodies, headers and status codes are returned byte-for-byte
+ * as recorded; recorded failures are thrown again as IOExceptions.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class ReplayHttpStack extends BaseHttpStack {
+
+    public enum Timing { ORIGINAL, FAST }
+
+    /**
+     * Recorded entries for one key, served round-robin
+     */
+    private static class Responses {
+        final List<HttpJournal.Entry> entries = new ArrayList<>();
+        int next;
+
+        HttpJournal.Entry take() {
+            HttpJournal.Entry entry = entries.get(next);
+            next = (next + 1) % entries.size();
+            return entry;
+        }
+    }
+
+    private final Timing timing;
+    private final Map<String, Responses> byRequest = new HashMap<>();
+    private final Map<String, Responses> byUrl = new HashMap<>();
+    private final long firstOffsetMs;    // Recorded start of the first entry
+    private long replayStart = -1;       // When the first request was replayed
+
+    public ReplayHttpStack(File journal, Timing timing) throws IOException {
+        this(HttpJournal.read(journal), timing);
+    }
+
+    public ReplayHttpStack(List<HttpJournal.Entry> entries, Timing timing) {
+        this.timing = timing;
+        long firstOffset = Long.MAX_VALUE;
+        for (HttpJournal.Entry entry : entries) {
+            firstOffset = Math.min(firstOffset, entry.startOffsetMs);
+            add(byRequest, requestKey(entry.method, entry.url, entry.requestBody), entry);
+            add(byUrl, urlKey(entry.method, entry.url), entry);
+        }
+        this.firstOffsetMs = entries.isEmpty() ? 0 : firstOffset;
+    }
+
+    private static void add(Map<String, Responses> map, String key, HttpJournal.Entry entry) {
+        Responses responses = map.get(key);
+        if (responses == null) {
+            responses = new Responses();
+            map.put(key, responses);
+        }
+        responses.entries.add(entry);
+    }
+
+    @Override
+    public HttpResponse executeRequest(Request<?> request, Map<String, String> additionalHeaders)
+            throws IOException, AuthFailureError {
+        long start = SystemClock.elapsedRealtime();
+        HttpJournal.Entry entry = find(request, start);
+        if (entry == null) {
+            throw new IOException("No recorded response for "
+                    + request.getMethod() + " " + request.getUrl());
+        }
+
+        if (timing == Timing.ORIGINAL) {
+            long recordedFinish = replayStart + (entry.startOffsetMs - firstOffsetMs) + entry.durationMs;
+            long due = Math.max(start + entry.durationMs, recordedFinish);
+            long remaining = due - SystemClock.elapsedRealtime();
+            if (remaining > 0) {
+                SystemClock.sleep(remaining);
+            }
+        }
+
+        if (entry.isFailure()) {
+            String message = new String(entry.body, StandardCharsets.UTF_8);
+            if (entry.statusCode == HttpJournal.STATUS_TIMEOUT) {
+                throw new SocketTimeoutException(message);
+            }
+            throw new IOException(message);
+        }
+
+        if (entry.body == null) {
+            return new HttpResponse(entry.statusCode, entry.headers);
+        }
+        return new HttpResponse(entry.statusCode, entry.headers,
+                entry.body.length, new ByteArrayInputStream(entry.body));
+    }
+
+    private synchronized HttpJournal.Entry find(Request<?> request, long now) throws AuthFailureError {
+        if (replayStart < 0) {
+            replayStart = now;
+        }
+        Responses responses = byRequest.get(
+                requestKey(request.getMethod(), request.getUrl(), request.getBody()));
+        if (responses == null) {
+            responses = byUrl.get(urlKey(request.getMethod(), request.getUrl()));
+        }
+        return responses != null ? responses.take() : null;
+    }
+
+    private static String urlKey(int method, String url) {
+        return method + " " + url;
+    }
+
+    private static String requestKey(int method, String url, byte[] body) {
+        return urlKey(method, url) + " " + (body != null ? sha256(body) : "-");
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
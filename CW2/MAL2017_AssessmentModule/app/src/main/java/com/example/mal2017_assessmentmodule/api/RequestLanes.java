@@ -0,0 +1,175 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.android.volley.Request;
+import com.android.volley.RequestQueue;
+import com.example.mal2017_assessmentmodule.AppLog;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RequestLanes - Separate request queues for interactive and background traffic.
+ *
+ * Features:
+ * - Interactive lane: requests a user is waiting on (login, screens).
+ *   Own network threads, so it never queues behind a bulk sync
+ * - Background lane: sync and outbox traffic, fewer threads
+ * - Pre-emption: while interactive requests are active, new background
+ *   requests are held back and released when the interactive lane is
+ *   idle again (or after MAX_HOLD_MS, so background work cannot starve).
+ *   Background requests already on the network are not interrupted.
+ * - Owners: requests can be recorded against an owner (an Activity) and
+ *   cancelled together with cancelOwner(), whatever their tag
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class RequestLanes {
+
+    private static final String TAG = "RequestLanes";
+
+    public static final int DEFAULT_INTERACTIVE_THREADS = 4;
+    public static final int DEFAULT_BACKGROUND_THREADS = 1;
+    private static final long MAX_HOLD_MS = 3000;
+
+    private final RequestQueue interactiveQueue;
+    private final RequestQueue backgroundQueue;
+    private final AtomicInteger interactiveActive = new AtomicInteger();
+    private final ArrayDeque<Request<?>> held = new ArrayDeque<>();  // Guarded by itself
+    private final Map<Request<?>, Object> owners = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable releaseHeldTask = this::releaseHeld;
+
+    public RequestLanes(RequestQueue interactiveQueue, RequestQueue backgroundQueue) {
+        this.interactiveQueue = interactiveQueue;
+        this.backgroundQueue = backgroundQueue;
+
+        interactiveQueue.addRequestEventListener((request, event) -> {
+            if (event == RequestQueue.RequestEvent.REQUEST_QUEUED) {
+                interactiveActive.incrementAndGet();
+            } else if (event == RequestQueue.RequestEvent.REQUEST_FINISHED) {
+                owners.remove(request);
+                if (interactiveActive.decrementAndGet() == 0) {
+                    releaseHeld();
+                }
+            }
+        });
+        backgroundQueue.addRequestEventListener((request, event) -> {
+            if (event == RequestQueue.RequestEvent.REQUEST_FINISHED) {
+                owners.remove(request);
+            }
+        });
+    }
+
+    public RequestQueue getInteractiveQueue() {
+        return interactiveQueue;
+    }
+
+    public RequestQueue getBackgroundQueue() {
+        return backgroundQueue;
+    }
+
+    /**
+     * Send a request on the interactive lane
+     *
+     * @param owner Owner for cancelOwner(), or null
+     */
+    public <T> void addInteractive(Request<T> request, Object owner) {
+        recordOwner(request, owner);
+        interactiveQueue.add(request);
+    }
+
+    /**
+     * Send a request on the background lane, after any active
+     * interactive requests have finished
+     *
+     * @param owner Owner for cancelOwner(), or null
+     */
+    public <T> void addBackground(Request<T> request, Object owner) {
+        recordOwner(request, owner);
+        synchronized (held) {
+            if (interactiveActive.get() > 0) {
+                held.add(request);
+                if (held.size() == 1) {
+                    mainHandler.postDelayed(releaseHeldTask, MAX_HOLD_MS);
+                }
+                AppLog.v(TAG, () -> "Holding background request: " + request.getUrl());
+                return;
+            }
+        }
+        backgroundQueue.add(request);
+    }
+
+    /**
+     * Cancel requests with the given tag on both lanes, including held ones
+     */
+    public void cancelAll(Object tag) {
+        interactiveQueue.cancelAll(tag);
+        backgroundQueue.cancelAll(tag);
+        cancelHeld(request -> request.getTag() == tag);
+    }
+
+    /**
+     * Cancel every request recorded against the owner
+     */
+    public void cancelOwner(Object owner) {
+        RequestQueue.RequestFilter filter = request -> owners.get(request) == owner;
+        interactiveQueue.cancelAll(filter);
+        backgroundQueue.cancelAll(filter);
+        cancelHeld(filter);
+    }
+
+    /**
+     * Number of background requests waiting for the interactive lane
+     */
+    public int getHeldCount() {
+        synchronized (held) {
+            return held.size();
+        }
+    }
+
+    private void recordOwner(Request<?> request, Object owner) {
+        if (owner != null) {
+            owners.put(request, owner);
+        }
+    }
+
+    private void releaseHeld() {
+        List<Request<?>> released;
+        synchronized (held) {
+            if (held.isEmpty()) {
+                return;
+            }
+            released = new ArrayList<>(held);
+            held.clear();
+        }
+        mainHandler.removeCallbacks(releaseHeldTask);
+        AppLog.d(TAG, () -> "Releasing " + released.size() + " background requests");
+        for (Request<?> request : released) {
+            backgroundQueue.add(request);
+        }
+    }
+
+    private void cancelHeld(RequestQueue.RequestFilter filter) {
+        synchronized (held) {
+            Iterator<Request<?>> iterator = held.iterator();
+            while (iterator.hasNext()) {
+                Request<?> request = iterator.next();
+                if (filter.apply(request)) {
+                    request.cancel();
+                    owners.remove(request);
+                    iterator.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.LruCache;
+
+import com.android.volley.Request;
+import com.android.volley.VolleyError;
+import com.example.mal2017_assessmentmodule.AppLog;
+import com.example.mal2017_assessmentmodule.Constants;
+import com.example.mal2017_assessmentmodule.models.User;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * UserBatchLoader - Load many users by id with read_user.
+ *
+ * Features:
+ * - Repeated ids are fetched once, within a batch and across batches
+ *   that overlap (a second caller joins the request in flight)
+ * - Recently loaded users are served from an in-memory cache
+ * - At most maxConcurrent read_user requests in flight for all batches
+ *   together, so a long list does not flood the request queue
+ * - Per-batch priority: waiting ids are sent highest priority first,
+ *   and the Volley requests carry the same priority
+ *
+ * Usage:
+ *   UserBatchLoader.getInstance(context)
+ *          .getUsers(guestIds, Request.Priority.HIGH)
+ *          .thenAccept(users -> ...);
+ *
+ * The result completes on the main thread. Ids that do not exist or
+ * could not be loaded are missing from the map; it only fails when no
+ * user could be returned because every request failed.
+ *
+ * Cached User objects are shared between callers; do not modify them.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class UserBatchLoader {
+
+    private static final String TAG = "UserBatchLoader";
+
+    public static final int DEFAULT_MAX_CONCURRENT = 4;
+    private static final int CACHE_SIZE = 256;
+    private static final long CACHE_TTL_MS = 5 * 60 * 1000L;  // 5 minutes
+
+    private static UserBatchLoader instance;
+
+    /**
+     * Cache entry with its load time
+     */
+    private static class CachedUser {
+        final User user;
+        final long loadedAt;
+
+        CachedUser(User user, long loadedAt) {
+            this.user = user;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * One read_user request, shared by every batch that wants the id
+     */
+    private static class PendingFetch implements Comparable<PendingFetch> {
+        final int userId;
+        final long sequence;
+        final CompletableFuture<User> future = new CompletableFuture<>();
+        Request.Priority priority;
+
+        PendingFetch(int userId, Request.Priority priority, long sequence) {
+            this.userId = userId;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(PendingFetch other) {
+            // Highest priority first, then first come first served
+            int byPriority = other.priority.compareTo(priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final ApiService apiService;
+    private final String studentId;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final LruCache<Integer, CachedUser> cache = new LruCache<>(CACHE_SIZE);
+    private volatile int maxConcurrent = DEFAULT_MAX_CONCURRENT;
+
+    // Main thread only
+    private final PriorityQueue<PendingFetch> waiting = new PriorityQueue<>();
+    private final Map<Integer, PendingFetch> pendingById = new HashMap<>();
+    private int inFlight;
+    private long nextSequence;
+    private boolean dispatching;
+
+    public UserBatchLoader(ApiService apiService, String studentId) {
+        this.apiService = apiService;
+        this.studentId = studentId;
+    }
+
+    /**
+     * Get singleton instance, loading from the app's student database
+     */
+    public static synchronized UserBatchLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new UserBatchLoader(new ApiService(context.getApplicationContext()),
+                    Constants.STUDENT_ID);
+        }
+        return instance;
+    }
+
+    /**
+     * Maximum read_user requests in flight at once (at least 1).
+     * A higher limit is picked up straight away, a lower one as
+     * requests finish.
+     */
+    public void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        mainHandler.post(this::dispatch);
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Load users with normal priority
+     */
+    public CompletableFuture<Map<Integer, User>> getUsers(int[] ids) {
+        return getUsers(ids, Request.Priority.NORMAL);
+    }
+
+    /**
+     * Load users by id
+     *
+     * @param ids User ids, repeats allowed
+     * @param priority Priority of the requests this batch needs
+     * @return Loaded users by id, in the order of first appearance in ids
+     */
+    public CompletableFuture<Map<Integer, User>> getUsers(int[] ids, Request.Priority priority) {
+        CompletableFuture<Map<Integer, User>> result = new CompletableFuture<>();
+
+        Set<Integer> unique = new LinkedHashSet<>();
+        for (int id : ids) {
+            unique.add(id);
+        }
+
+        Map<Integer, User> cached = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (int id : unique) {
+            User user = getCached(id);
+            if (user != null) {
+                cached.put(id, user);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        AppLog.d(TAG, () -> "getUsers: " + ids.length + " ids, " + unique.size() + " unique, "
+                + cached.size() + " cached");
+
+        if (missing.isEmpty()) {
+            mainHandler.post(() -> result.complete(ordered(unique, cached)));
+            return result;
+        }
+
+        mainHandler.post(() -> {
+            Map<Integer, User> loaded = new HashMap<>(cached);
+            AtomicInteger remaining = new AtomicInteger(missing.size());
+            VolleyError[] firstError = new VolleyError[1];
+
+            for (int id : missing) {
+                fetch(id, priority).whenComplete((user, error) -> {
+                    if (user != null) {
+                        loaded.put(id, user);
+                    } else if (error != null && firstError[0] == null) {
+                        Throwable cause = ApiFutures.unwrap(error);
+                        firstError[0] = cause instanceof VolleyError
+                                ? (VolleyError) cause : new VolleyError(cause);
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        if (loaded.isEmpty() && firstError[0] != null) {
+                            result.completeExceptionally(firstError[0]);
+                        } else {
+                            result.complete(ordered(unique, loaded));
+                        }
+                    }
+                });
+            }
+            dispatch();
+        });
+        return result;
+    }
+
+    /**
+     * Add a user to the cache, e.g. from read_all_users
+     */
+    public void put(User user) {
+        if (user != null) {
+            cache.put(user.getUserId(), new CachedUser(user, SystemClock.elapsedRealtime()));
+        }
+    }
+
+    /**
+     * Drop a user from the cache after it was changed or deleted
+     */
+    public void invalidate(int userId) {
+        cache.remove(userId);
+    }
+
+    public void clearCache() {
+        cache.evictAll();
+    }
+
+    private User getCached(int userId) {
+        CachedUser entry = cache.get(userId);
+        if (entry == null) {
+            return null;
+        }
+        if (SystemClock.elapsedRealtime() - entry.loadedAt > CACHE_TTL_MS) {
+            cache.remove(userId);
+            return null;
+        }
+        return entry.user;
+    }
+
+    /**
+     * Queue a fetch, or join the one already waiting or in flight (main thread)
+     */
+    private CompletableFuture<User> fetch(int userId, Request.Priority priority) {
+        PendingFetch pending = pendingById.get(userId);
+        if (pending == null) {
+            pending = new PendingFetch(userId, priority, nextSequence++);
+            pendingById.put(userId, pending);
+            waiting.add(pending);
+        } else if (priority.compareTo(pending.priority) > 0 && waiting.remove(pending)) {
+            // Not sent yet: move it up for the more urgent batch
+            pending.priority = priority;
+            waiting.add(pending);
+        }
+        return pending.future;
+    }
+
+    /**
+     * Send waiting fetches while below the concurrency limit (main thread).
+     * Requests can fail synchronously (circuit open), so completions that
+     * happen during the loop only update the count instead of recursing.
+     */
+    private void dispatch() {
+        if (dispatching) {
+            return;
+        }
+        dispatching = true;
+        try {
+            while (inFlight < maxConcurrent && !waiting.isEmpty()) {
+                send(waiting.poll());
+            }
+        } finally {
+            dispatching = false;
+        }
+    }
+
+    private void send(PendingFetch pending) {
+        inFlight++;
+        apiService.withPriority(pending.priority).getUser(studentId, pending.userId,
+                response -> {
+                    User user = firstUser(response);
+                    if (user != null) {
+                        put(user);
+                    }
+                    finish(pending, user, null);
+                },
+                error -> {
+                    if (error.networkResponse != null && error.networkResponse.statusCode == 404) {
+                        // Unknown id, not a failure
+                        finish(pending, null, null);
+                    } else {
+                        AppLog.w(TAG, "read_user " + pending.userId + " failed: " + error.getMessage());
+                        finish(pending, null, error);
+                    }
+                });
+    }
+
+    private void finish(PendingFetch pending, User user, VolleyError error) {
+        inFlight--;
+        pendingById.remove(pending.userId);
+        if (error != null) {
+            pending.future.completeExceptionally(error);
+        } else {
+            pending.future.complete(user);
+        }
+        dispatch();
+    }
+
+    /**
+     * read_user wraps the user in an object; the key name is not relied on
+     */
+    private static User firstUser(Map<String, User> response) {
+        if (response == null) {
+            return null;
+        }
+        for (User user : response.values()) {
+            if (user != null) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    private static Map<Integer, User> ordered(Set<Integer> ids, Map<Integer, User> users) {
+        Map<Integer, User> result = new LinkedHashMap<>();
+        for (int id : ids) {
+            User user = users.get(id);
+            if (user != null) {
+                result.put(id, user);
+            }
+        }
+        return result;
+    }
+}
@@ -3,16 +3,26 @@ package com.example.mal2017_assessmentmodule.database;
 import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
+import android.database.sqlite.SQLiteConstraintException;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
-import android.util.Log;
+import android.database.sqlite.SQLiteStatement;
 
+import com.example.mal2017_assessmentmodule.AppLog;
 import com.example.mal2017_assessmentmodule.models.MenuItem;
+import com.example.mal2017_assessmentmodule.models.OutboxEntry;
 import com.example.mal2017_assessmentmodule.models.Reservation;
 import com.example.mal2017_assessmentmodule.models.User;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * DatabaseHelper - SQLite database manager for local data persistence.
@@ -21,6 +31,8 @@ import java.util.List;
  * - Users table: Store user accounts (matches API credentials)
  * - MenuItems table: Cache menu items for offline access
  * - Reservations table: Store reservation data
+ * - Outbox table: User changes waiting to be sent to the API
+ * - Sync state table: Watermark of the last API sync per table
  *
  * Design Patterns:
  * - Singleton pattern for database instance
@@ -42,7 +54,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
 
     // Database Info
     private static final String DATABASE_NAME = "RestaurantPro.db";
-    private static final int DATABASE_VERSION = 2; // Incremented for new sample data
+    private static final int DATABASE_VERSION = 4; // Added user content hash and sync state
 
     // Singleton instance
     private static DatabaseHelper instance;
@@ -51,6 +63,8 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     private static final String TABLE_USERS = "users";
     private static final String TABLE_MENU_ITEMS = "menu_items";
     private static final String TABLE_RESERVATIONS = "reservations";
+    private static final String TABLE_OUTBOX = "outbox";
+    private static final String TABLE_SYNC_STATE = "sync_state";
 
     // Common Column Names
     private static final String KEY_ID = "id";
@@ -64,6 +78,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     private static final String KEY_EMAIL = "email";
     private static final String KEY_CONTACT = "contact";
     private static final String KEY_USERTYPE = "usertype";
+    private static final String KEY_CONTENT_HASH = "content_hash";
 
     // Menu Items Table Columns
     private static final String KEY_ITEM_ID = "item_id";
@@ -84,6 +99,20 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     private static final String KEY_NOTES = "notes";
     private static final String KEY_STATUS = "status";
 
+    // Outbox Table Columns
+    private static final String KEY_IDEMPOTENCY_KEY = "idempotency_key";
+    private static final String KEY_OPERATION = "operation";
+    private static final String KEY_PAYLOAD = "payload";
+    private static final String KEY_ATTEMPTS = "attempts";
+    private static final String KEY_NEXT_ATTEMPT_AT = "next_attempt_at";
+    private static final String KEY_CREATED_AT = "created_at";
+
+    // Sync State Table Columns
+    private static final String KEY_TABLE_NAME = "table_name";
+    private static final String KEY_LAST_SYNCED_AT = "last_synced_at";
+    private static final String KEY_ROW_COUNT = "row_count";
+    private static final String KEY_SET_HASH = "set_hash";
+
     /**
      * Private constructor for Singleton pattern
      */
@@ -108,7 +137,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
      */
     @Override
     public void onCreate(SQLiteDatabase db) {
-        Log.d(TAG, "Creating database tables...");
+        AppLog.d(TAG, "Creating database tables...");
 
         try {
             // Enable foreign key support
@@ -124,10 +153,11 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                     + KEY_LASTNAME + " TEXT,"
                     + KEY_EMAIL + " TEXT UNIQUE,"
                     + KEY_CONTACT + " TEXT,"
-                    + KEY_USERTYPE + " TEXT"
+                    + KEY_USERTYPE + " TEXT,"
+                    + KEY_CONTENT_HASH + " TEXT"
                     + ")";
             db.execSQL(CREATE_USERS_TABLE);
-            Log.d(TAG, "Users table created");
+            AppLog.d(TAG, "Users table created");
 
             // Create Menu Items table
             String CREATE_MENU_ITEMS_TABLE = "CREATE TABLE " + TABLE_MENU_ITEMS + "("
@@ -141,7 +171,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                     + KEY_AVAILABLE + " INTEGER"
                     + ")";
             db.execSQL(CREATE_MENU_ITEMS_TABLE);
-            Log.d(TAG, "Menu items table created");
+            AppLog.d(TAG, "Menu items table created");
 
             // Create Reservations table
             String CREATE_RESERVATIONS_TABLE = "CREATE TABLE " + TABLE_RESERVATIONS + "("
@@ -157,14 +187,17 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                     + KEY_STATUS + " TEXT"
                     + ")";
             db.execSQL(CREATE_RESERVATIONS_TABLE);
-            Log.d(TAG, "Reservations table created");
+            AppLog.d(TAG, "Reservations table created");
 
-            Log.d(TAG, "Database tables created successfully");
+            createOutboxTable(db);
+            createSyncStateTable(db);
+
+            AppLog.d(TAG, "Database tables created successfully");
 
             // Insert sample data matching API credentials
             insertSampleData(db);
         } catch (Exception e) {
-            Log.e(TAG, "Error creating database tables: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error creating database tables: " + e.getMessage(), e);
             throw new RuntimeException("Failed to create database tables", e);
         }
     }
@@ -174,17 +207,66 @@ public class DatabaseHelper extends SQLiteOpenHelper {
      */
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        Log.d(TAG, "Upgrading database from version " + oldVersion + " to " + newVersion);
+        AppLog.d(TAG, () -> "Upgrading database from version " + oldVersion + " to " + newVersion);
+
+        // From version 2 onwards, upgrades only add tables - keep existing data
+        if (oldVersion >= 2) {
+            if (oldVersion < 3) {
+                createOutboxTable(db);
+            }
+            if (oldVersion < 4) {
+                db.execSQL("ALTER TABLE " + TABLE_USERS + " ADD COLUMN " + KEY_CONTENT_HASH + " TEXT");
+                createSyncStateTable(db);
+            }
+            return;
+        }
 
         // Drop older tables if they exist
         db.execSQL("DROP TABLE IF EXISTS " + TABLE_USERS);
         db.execSQL("DROP TABLE IF EXISTS " + TABLE_MENU_ITEMS);
         db.execSQL("DROP TABLE IF EXISTS " + TABLE_RESERVATIONS);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_OUTBOX);
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_SYNC_STATE);
 
         // Create tables again
         onCreate(db);
     }
 
+    /**
+     * Create the outbox table
+     * Rows are sent in insertion (id) order
+     */
+    private void createOutboxTable(SQLiteDatabase db) {
+        String CREATE_OUTBOX_TABLE = "CREATE TABLE " + TABLE_OUTBOX + "("
+                + KEY_ID + " INTEGER PRIMARY KEY AUTOINCREMENT,"
+                + KEY_IDEMPOTENCY_KEY + " TEXT UNIQUE,"
+                + KEY_OPERATION + " TEXT,"
+                + KEY_USER_ID + " INTEGER,"
+                + KEY_PAYLOAD + " TEXT,"
+                + KEY_ATTEMPTS + " INTEGER DEFAULT 0,"
+                + KEY_NEXT_ATTEMPT_AT + " INTEGER DEFAULT 0,"
+                + KEY_CREATED_AT + " INTEGER"
+                + ")";
+        db.execSQL(CREATE_OUTBOX_TABLE);
+        db.execSQL("CREATE INDEX idx_outbox_user ON " + TABLE_OUTBOX + "(" + KEY_USER_ID + ")");
+        AppLog.d(TAG, "Outbox table created");
+    }
+
+    /**
+     * Create the sync state table
+     * One row per synced table, holding the last sync watermark
+     */
+    private void createSyncStateTable(SQLiteDatabase db) {
+        String CREATE_SYNC_STATE_TABLE = "CREATE TABLE " + TABLE_SYNC_STATE + "("
+                + KEY_TABLE_NAME + " TEXT PRIMARY KEY,"
+                + KEY_LAST_SYNCED_AT + " INTEGER,"
+                + KEY_ROW_COUNT + " INTEGER,"
+                + KEY_SET_HASH + " TEXT"
+                + ")";
+        db.execSQL(CREATE_SYNC_STATE_TABLE);
+        AppLog.d(TAG, "Sync state table created");
+    }
+
     // ==================== USER OPERATIONS ====================
 
     /**
@@ -231,7 +313,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 user = cursorToUser(cursor);
             }
         } catch (Exception e) {
-            Log.e(TAG, "Error getting user by credentials: " + e.getMessage(), e);
+            AppLog.e(TAG, "Error getting user by credentials: " + e.getMessage(), e);
         } finally {
             if (cursor != null) {
                 cursor.close();
@@ -338,6 +420,241 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         return user;
     }
 
+    // ==================== USER SYNC OPERATIONS ====================
+    // Like the outbox operations, these leave the shared connection open.
+
+    /**
+     * Stored user ID, username and content hash, keyed by lower-case email
+     */
+    public static class UserHashEntry {
+        public final int userId;
+        public final String username;
+        public final String contentHash;  // null for users never synced from the API
+
+        UserHashEntry(int userId, String username, String contentHash) {
+            this.userId = userId;
+            this.username = username;
+            this.contentHash = contentHash;
+        }
+    }
+
+    /**
+     * Get user ID, username and content hash of every local user, keyed by
+     * lower-case email. Reads only the columns the sync diff needs.
+     */
+    public Map<String, UserHashEntry> getUserHashes() {
+        Map<String, UserHashEntry> hashes = new HashMap<>();
+        String query = "SELECT " + KEY_USER_ID + ", " + KEY_EMAIL + ", " + KEY_USERNAME + ", " +
+                KEY_CONTENT_HASH + " FROM " + TABLE_USERS;
+
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery(query, null);
+
+        if (cursor.moveToFirst()) {
+            do {
+                String email = cursor.getString(1);
+                if (email != null) {
+                    hashes.put(email.toLowerCase(Locale.ROOT),
+                            new UserHashEntry(cursor.getInt(0), cursor.getString(2), cursor.getString(3)));
+                }
+            } while (cursor.moveToNext());
+        }
+
+        cursor.close();
+
+        return hashes;
+    }
+
+    /**
+     * Get user ID, username and content hash of one local user by email (any case), or null
+     */
+    public UserHashEntry getUserHash(String email) {
+        String query = "SELECT " + KEY_USER_ID + ", " + KEY_USERNAME + ", " + KEY_CONTENT_HASH +
+                " FROM " + TABLE_USERS
+                + " WHERE LOWER(" + KEY_EMAIL + ") = ? LIMIT 1";
+
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery(query, new String[]{email.toLowerCase(Locale.ROOT)});
+
+        UserHashEntry entry = null;
+        if (cursor.moveToFirst()) {
+            entry = new UserHashEntry(cursor.getInt(0), cursor.getString(1), cursor.getString(2));
+        }
+
+        cursor.close();
+
+        return entry;
+    }
+
+    /**
+     * Get the hash of the user set recorded by the last sync that wrote one
+     *
+     * @return The set hash, or null if the next sync must diff in full
+     */
+    public String getUserSyncSetHash() {
+        String query = "SELECT " + KEY_SET_HASH + " FROM " + TABLE_SYNC_STATE +
+                " WHERE " + KEY_TABLE_NAME + " = ?";
+
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery(query, new String[]{TABLE_USERS});
+
+        String setHash = null;
+        if (cursor.moveToFirst()) {
+            setHash = cursor.getString(0);
+        }
+
+        cursor.close();
+
+        return setHash;
+    }
+
+    /**
+     * Insert one user fetched from the API, ahead of the next full sync.
+     * The user is given the next free local user ID, as in applyUserSyncDelta.
+     *
+     * @return true if the user was inserted
+     */
+    public boolean addSyncedUser(User user) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        int inserted;
+
+        db.beginTransaction();
+        try {
+            inserted = insertSyncedUsers(db, Collections.singletonList(user));
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        return inserted > 0;
+    }
+
+    /**
+     * Apply a users sync delta and record the watermark in one transaction.
+     * New users are given the next free local user ID (set on the User object).
+     * Updated users must already carry their local user ID. A row that would
+     * break a UNIQUE constraint (e.g. a username taken by a local account)
+     * is skipped; the rest of the delta is still applied.
+     *
+     * The set hash is only recorded if the whole delta was written. A null
+     * or unrecorded set hash makes the next sync diff in full even if the
+     * API's users have not changed.
+     *
+     * @return Number of rows written
+     */
+    public int applyUserSyncDelta(List<User> inserts, List<User> updates, List<Integer> deleteIds,
+                                  long syncedAt, int rowCount, String setHash) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        int rowsWritten = 0;
+        boolean complete = true;
+
+        db.beginTransaction();
+        try {
+            SQLiteStatement update = db.compileStatement("UPDATE " + TABLE_USERS + " SET "
+                    + KEY_USERNAME + " = ?, " + KEY_PASSWORD + " = ?, "
+                    + KEY_FIRSTNAME + " = ?, " + KEY_LASTNAME + " = ?, " + KEY_EMAIL + " = ?, "
+                    + KEY_CONTACT + " = ?, " + KEY_USERTYPE + " = ?, " + KEY_CONTENT_HASH + " = ?"
+                    + " WHERE " + KEY_USER_ID + " = ?");
+            SQLiteStatement delete = db.compileStatement("DELETE FROM " + TABLE_USERS
+                    + " WHERE " + KEY_USER_ID + " = ?");
+
+            for (int userId : deleteIds) {
+                delete.bindLong(1, userId);
+                rowsWritten += delete.executeUpdateDelete();
+            }
+
+            for (User user : updates) {
+                bindUserFields(update, 1, user);
+                update.bindLong(9, user.getUserId());
+                try {
+                    rowsWritten += update.executeUpdateDelete();
+                } catch (SQLiteConstraintException e) {
+                    // e.g. new username already taken by a local account; keep the old row
+                    complete = false;
+                    AppLog.w(TAG, "Skipping synced update of " + user.getEmail() + ": " + e.getMessage());
+                }
+            }
+
+            int inserted = insertSyncedUsers(db, inserts);
+            rowsWritten += inserted;
+            complete &= inserted == inserts.size();
+
+            ContentValues state = new ContentValues();
+            state.put(KEY_TABLE_NAME, TABLE_USERS);
+            state.put(KEY_LAST_SYNCED_AT, syncedAt);
+            state.put(KEY_ROW_COUNT, rowCount);
+            state.put(KEY_SET_HASH, complete ? setHash : null);
+            db.insertWithOnConflict(TABLE_SYNC_STATE, null, state, SQLiteDatabase.CONFLICT_REPLACE);
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+
+        return rowsWritten;
+    }
+
+    /**
+     * Insert users from the API with the next free local user IDs (set on
+     * each User object once its row is written; a user that cannot be
+     * stored is skipped and left with user ID 0). Must run inside a transaction.
+     *
+     * @return Number of users inserted
+     */
+    private int insertSyncedUsers(SQLiteDatabase db, List<User> users) {
+        SQLiteStatement insert = db.compileStatement("INSERT INTO " + TABLE_USERS + " ("
+                + KEY_USER_ID + ", " + KEY_USERNAME + ", " + KEY_PASSWORD + ", "
+                + KEY_FIRSTNAME + ", " + KEY_LASTNAME + ", " + KEY_EMAIL + ", "
+                + KEY_CONTACT + ", " + KEY_USERTYPE + ", " + KEY_CONTENT_HASH
+                + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+
+        int inserted = 0;
+        int nextUserId = getMaxUserId(db) + 1;
+        for (User user : users) {
+            insert.bindLong(1, nextUserId);
+            bindUserFields(insert, 2, user);
+            try {
+                insert.executeInsert();
+            } catch (SQLiteConstraintException e) {
+                // e.g. username already taken by a local account. The ID stays
+                // free for the next user, so this user must not carry it.
+                AppLog.w(TAG, "Skipping synced user " + user.getEmail() + ": " + e.getMessage());
+                user.setUserId(0);
+                continue;
+            }
+            user.setUserId(nextUserId);
+            inserted++;
+            nextUserId++;
+        }
+        return inserted;
+    }
+
+    /**
+     * Bind the eight stored user fields (including content hash) starting at the given index
+     */
+    private void bindUserFields(SQLiteStatement statement, int start, User user) {
+        String[] fields = {user.getUsername(), user.getPassword(), user.getFirstname(),
+                user.getLastname(), user.getEmail(), user.getContact(), user.getUsertype(),
+                user.getContentHash()};
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                statement.bindString(start + i, fields[i]);
+            } else {
+                statement.bindNull(start + i);
+            }
+        }
+    }
+
+    private int getMaxUserId(SQLiteDatabase db) {
+        Cursor cursor = db.rawQuery("SELECT MAX(" + KEY_USER_ID + ") FROM " + TABLE_USERS, null);
+        int maxId = 0;
+        if (cursor.moveToFirst()) {
+            maxId = cursor.getInt(0);
+        }
+        cursor.close();
+        return maxId;
+    }
+
     // ==================== MENU ITEM OPERATIONS ====================
 
     /**
@@ -684,6 +1001,260 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         return reservation;
     }
 
+    // ==================== OUTBOX OPERATIONS ====================
+    // These run on the outbox executor while logins, sync and the UI use
+    // the database too. They leave the shared connection open: the helper
+    // owns it, and closing it here would close it under the other threads.
+
+    /**
+     * Record a user change to be sent to the API later.
+     *
+     * Superseded changes to the same user are collapsed, but only while
+     * they are unsent: never attempted (attempts == 0) and not being sent
+     * right now (not in inFlightIds). An entry that may have reached the
+     * server keeps its payload and idempotency key, and the new change is
+     * queued after it instead.
+     * - update after an unsent create/update replaces that entry's payload
+     * - delete drops the user's unsent creates and updates; no delete is
+     *   queued if that dropped the create, as the server never had the user
+     *
+     * @param operation OutboxEntry.OP_CREATE, OP_UPDATE or OP_DELETE
+     * @param userId Local user ID
+     * @param payload User JSON (null for delete)
+     * @param inFlightIds Outbox IDs of entries currently being sent
+     * @return true if successful, false otherwise
+     */
+    public boolean enqueueUserMutation(String operation, int userId, String payload,
+                                       Set<Long> inFlightIds) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        boolean success = false;
+
+        db.beginTransaction();
+        try {
+            List<OutboxEntry> pending = getOutboxEntriesForUser(db, userId);
+            OutboxEntry latest = pending.isEmpty() ? null : pending.get(pending.size() - 1);
+
+            if (OutboxEntry.OP_UPDATE.equals(operation) && latest != null
+                    && !OutboxEntry.OP_DELETE.equals(latest.getOperation())
+                    && isUnsent(latest, inFlightIds)) {
+                // Fold the new data into the unsent entry, keeping its key
+                ContentValues values = new ContentValues();
+                values.put(KEY_PAYLOAD, payload);
+                db.update(TABLE_OUTBOX, values, KEY_ID + " = ?",
+                        new String[]{String.valueOf(latest.getOutboxId())});
+            } else if (OutboxEntry.OP_DELETE.equals(operation)) {
+                boolean droppedCreate = false;
+                for (OutboxEntry entry : pending) {
+                    if (!OutboxEntry.OP_DELETE.equals(entry.getOperation()) && isUnsent(entry, inFlightIds)) {
+                        db.delete(TABLE_OUTBOX, KEY_ID + " = ?",
+                                new String[]{String.valueOf(entry.getOutboxId())});
+                        droppedCreate |= OutboxEntry.OP_CREATE.equals(entry.getOperation());
+                    }
+                }
+                // Never reached the server, nothing to delete there
+                if (!droppedCreate) {
+                    insertOutboxEntry(db, operation, userId, null);
+                }
+            } else {
+                insertOutboxEntry(db, operation, userId, payload);
+            }
+
+            db.setTransactionSuccessful();
+            success = true;
+        } catch (Exception e) {
+            AppLog.e(TAG, "Error adding outbox entry: " + e.getMessage(), e);
+        } finally {
+            db.endTransaction();
+        }
+
+        return success;
+    }
+
+    private static boolean isUnsent(OutboxEntry entry, Set<Long> inFlightIds) {
+        return entry.getAttempts() == 0 && !inFlightIds.contains(entry.getOutboxId());
+    }
+
+    /**
+     * A user's outbox entries, oldest first
+     */
+    private List<OutboxEntry> getOutboxEntriesForUser(SQLiteDatabase db, int userId) {
+        List<OutboxEntry> entries = new ArrayList<>();
+        Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_OUTBOX +
+                        " WHERE " + KEY_USER_ID + " = ? ORDER BY " + KEY_ID,
+                new String[]{String.valueOf(userId)});
+
+        if (cursor.moveToFirst()) {
+            do {
+                entries.add(cursorToOutboxEntry(cursor));
+            } while (cursor.moveToNext());
+        }
+        cursor.close();
+        return entries;
+    }
+
+    private void insertOutboxEntry(SQLiteDatabase db, String operation, int userId, String payload) {
+        ContentValues values = new ContentValues();
+        values.put(KEY_IDEMPOTENCY_KEY, UUID.randomUUID().toString());
+        values.put(KEY_OPERATION, operation);
+        values.put(KEY_USER_ID, userId);
+        values.put(KEY_PAYLOAD, payload);
+        values.put(KEY_ATTEMPTS, 0);
+        values.put(KEY_NEXT_ATTEMPT_AT, 0);
+        values.put(KEY_CREATED_AT, System.currentTimeMillis());
+        db.insert(TABLE_OUTBOX, null, values);
+    }
+
+    /**
+     * Get outbox entries that are due to be sent, oldest first
+     *
+     * @param now Current time in milliseconds
+     * @param limit Maximum number of entries
+     */
+    public List<OutboxEntry> getDueOutboxEntries(long now, int limit) {
+        List<OutboxEntry> entries = new ArrayList<>();
+        String query = "SELECT * FROM " + TABLE_OUTBOX +
+                " WHERE " + KEY_NEXT_ATTEMPT_AT + " <= ?" +
+                " ORDER BY " + KEY_ID + " LIMIT ?";
+
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(now), String.valueOf(limit)});
+
+        if (cursor.moveToFirst()) {
+            do {
+                entries.add(cursorToOutboxEntry(cursor));
+            } while (cursor.moveToNext());
+        }
+
+        cursor.close();
+
+        return entries;
+    }
+
+    /**
+     * Get IDs of users that have an entry waiting for a retry.
+     * Later entries for these users must wait so changes stay in order.
+     */
+    public List<Integer> getBlockedOutboxUserIds(long now) {
+        List<Integer> userIds = new ArrayList<>();
+        String query = "SELECT DISTINCT " + KEY_USER_ID + " FROM " + TABLE_OUTBOX +
+                " WHERE " + KEY_NEXT_ATTEMPT_AT + " > ?";
+
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(now)});
+
+        if (cursor.moveToFirst()) {
+            do {
+                userIds.add(cursor.getInt(0));
+            } while (cursor.moveToNext());
+        }
+
+        cursor.close();
+
+        return userIds;
+    }
+
+    /**
+     * Get IDs of all users with a change in the outbox, due or not
+     */
+    public Set<Integer> getOutboxUserIds() {
+        Set<Integer> userIds = new HashSet<>();
+        String query = "SELECT DISTINCT " + KEY_USER_ID + " FROM " + TABLE_OUTBOX;
+
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery(query, null);
+
+        if (cursor.moveToFirst()) {
+            do {
+                userIds.add(cursor.getInt(0));
+            } while (cursor.moveToNext());
+        }
+
+        cursor.close();
+
+        return userIds;
+    }
+
+    /**
+     * Get time of the next entry waiting for a retry
+     *
+     * @param now Current time in milliseconds
+     * @return Timestamp in milliseconds, or 0 if nothing is waiting
+     */
+    public long getNextOutboxAttemptTime(long now) {
+        String query = "SELECT MIN(" + KEY_NEXT_ATTEMPT_AT + ") FROM " + TABLE_OUTBOX +
+                " WHERE " + KEY_NEXT_ATTEMPT_AT + " > ?";
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(now)});
+
+        long next = 0;
+        if (cursor.moveToFirst() && !cursor.isNull(0)) {
+            next = cursor.getLong(0);
+        }
+
+        cursor.close();
+        return next;
+    }
+
+    /**
+     * Remove an entry after it was sent (or can never be sent).
+     * The idempotency key must still match the one that was sent.
+     */
+    public boolean deleteOutboxEntry(long outboxId, String idempotencyKey) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        int rowsDeleted = db.delete(TABLE_OUTBOX,
+                KEY_ID + " = ? AND " + KEY_IDEMPOTENCY_KEY + " = ?",
+                new String[]{String.valueOf(outboxId), idempotencyKey});
+
+        return rowsDeleted > 0;
+    }
+
+    /**
+     * Record a failed send and when to try again
+     */
+    public boolean markOutboxAttemptFailed(long outboxId, long nextAttemptAt) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.execSQL("UPDATE " + TABLE_OUTBOX +
+                        " SET " + KEY_ATTEMPTS + " = " + KEY_ATTEMPTS + " + 1, " +
+                        KEY_NEXT_ATTEMPT_AT + " = ?" +
+                        " WHERE " + KEY_ID + " = ?",
+                new Object[]{nextAttemptAt, outboxId});
+
+        return true;
+    }
+
+    /**
+     * Get number of changes waiting to be sent
+     */
+    public int getOutboxCount() {
+        String query = "SELECT COUNT(*) FROM " + TABLE_OUTBOX;
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery(query, null);
+
+        int count = 0;
+        if (cursor.moveToFirst()) {
+            count = cursor.getInt(0);
+        }
+
+        cursor.close();
+        return count;
+    }
+
+    /**
+     * Convert cursor to OutboxEntry object
+     */
+    private OutboxEntry cursorToOutboxEntry(Cursor cursor) {
+        OutboxEntry entry = new OutboxEntry();
+        entry.setOutboxId(cursor.getLong(cursor.getColumnIndexOrThrow(KEY_ID)));
+        entry.setIdempotencyKey(cursor.getString(cursor.getColumnIndexOrThrow(KEY_IDEMPOTENCY_KEY)));
+        entry.setOperation(cursor.getString(cursor.getColumnIndexOrThrow(KEY_OPERATION)));
+        entry.setUserId(cursor.getInt(cursor.getColumnIndexOrThrow(KEY_USER_ID)));
+        entry.setPayload(cursor.getString(cursor.getColumnIndexOrThrow(KEY_PAYLOAD)));
+        entry.setAttempts(cursor.getInt(cursor.getColumnIndexOrThrow(KEY_ATTEMPTS)));
+        entry.setNextAttemptAt(cursor.getLong(cursor.getColumnIndexOrThrow(KEY_NEXT_ATTEMPT_AT)));
+        entry.setCreatedAt(cursor.getLong(cursor.getColumnIndexOrThrow(KEY_CREATED_AT)));
+        return entry;
+    }
+
     // ==================== UTILITY METHODS ====================
 
     /**
@@ -692,7 +1263,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
      */
 
     private void insertSampleData(SQLiteDatabase db) {
-        Log.d(TAG, "Inserting sample data (matching API credentials)...");
+        AppLog.d(TAG, "Inserting sample data (matching API credentials)...");
 
         // Sample Users - MATCHING API EXACTLY
         insertSampleUser(db, 1, "john_doe", "test", "John", "Doe",
@@ -737,7 +1308,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 "Malaysian fried rice with egg, vegetables, and chicken",
                 11.90, "Main Course", "nasi_goreng", true);
 
-        Log.d(TAG, "Sample data inserted successfully (API credentials synced)");
+        AppLog.d(TAG, "Sample data inserted successfully (API credentials synced)");
     }
 
     private void insertSampleUser(SQLiteDatabase db, int userId, String username, String password,
@@ -753,7 +1324,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         values.put(KEY_CONTACT, contact);
         values.put(KEY_USERTYPE, usertype);
         db.insert(TABLE_USERS, null, values);
-        Log.d(TAG, "Inserted user: " + email + " (type: " + usertype + ")");
+        AppLog.d(TAG, () -> "Inserted user: " + email + " (type: " + usertype + ")");
     }
 
     private void insertSampleMenuItem(SQLiteDatabase db, int itemId, String name,
@@ -778,7 +1349,9 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         db.delete(TABLE_USERS, null, null);
         db.delete(TABLE_MENU_ITEMS, null, null);
         db.delete(TABLE_RESERVATIONS, null, null);
+        db.delete(TABLE_OUTBOX, null, null);
+        db.delete(TABLE_SYNC_STATE, null, null);
         db.close();
-        Log.d(TAG, "All data cleared from database");
+        AppLog.d(TAG, "All data cleared from database");
     }
 }
\ No newline at end of file
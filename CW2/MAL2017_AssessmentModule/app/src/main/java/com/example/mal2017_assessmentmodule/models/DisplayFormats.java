@@ -0,0 +1,96 @@
+package com.example.mal2017_assessmentmodule.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DisplayFormats - Shared date, time and price formatters, one set per locale.
+ *
+ * SimpleDateFormat and DecimalFormat are costly to create and not
+ * thread-safe, so each locale gets one set, created on first use and
+ * shared by every thread; the format methods synchronize on that set.
+ * Dates and times always use the current default time zone, so a zone
+ * change on the device shows up without rebuilding the formatters.
+ * Output matches the formats the models used before ("Dec 25, 2025",
+ * "7:30 PM", "RM 15.99").
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public final class DisplayFormats {
+
+    private static final Map<Locale, DisplayFormats> BY_LOCALE = new ConcurrentHashMap<>();
+
+    private final SimpleDateFormat dateFormat;
+    private final SimpleDateFormat timeFormat;
+    private final DecimalFormat priceFormat;
+    private final Date date = new Date();  // Reused under the lock
+
+    private DisplayFormats(Locale locale) {
+        dateFormat = new SimpleDateFormat("MMM dd, yyyy", locale);
+        timeFormat = new SimpleDateFormat("h:mm a", locale);
+        // Same digits and rounding as String.format("%.2f")
+        priceFormat = new DecimalFormat("0.00", DecimalFormatSymbols.getInstance(locale));
+        priceFormat.setRoundingMode(RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Formatters for the current default locale
+     */
+    public static DisplayFormats current() {
+        return forLocale(Locale.getDefault());
+    }
+
+    public static DisplayFormats forLocale(Locale locale) {
+        DisplayFormats formats = BY_LOCALE.get(locale);
+        if (formats == null) {
+            formats = new DisplayFormats(locale);
+            DisplayFormats existing = BY_LOCALE.putIfAbsent(locale, formats);
+            if (existing != null) {
+                formats = existing;
+            }
+        }
+        return formats;
+    }
+
+    /**
+     * Date, e.g. "Dec 25, 2025"
+     */
+    public synchronized String formatDate(long timeMillis) {
+        dateFormat.setTimeZone(TimeZone.getDefault());
+        date.setTime(timeMillis);
+        return dateFormat.format(date);
+    }
+
+    /**
+     * Time of day, e.g. "7:30 PM"
+     */
+    public synchronized String formatTime(long timeMillis) {
+        timeFormat.setTimeZone(TimeZone.getDefault());
+        date.setTime(timeMillis);
+        return timeFormat.format(date);
+    }
+
+    /**
+     * Price in ringgit, e.g. "RM 15.99"
+     */
+    public synchronized String formatPrice(double price) {
+        // Round the shortest decimal form, as String.format does, not the binary value
+        return "RM " + priceFormat.format(BigDecimal.valueOf(price));
+    }
+
+    /**
+     * Party size, e.g. "4 people"
+     */
+    public static String formatPartySize(int partySize) {
+        return partySize == 1 ? "1 person" : partySize + " people";
+    }
+}
@@ -60,7 +60,7 @@ public class MenuItem {
      * Format price for display (e.g., "RM 15.99")
      */
     public String getFormattedPrice() {
-        return String.format("RM %.2f", price);
+        return DisplayFormats.current().formatPrice(price);
     }
 
     @Override
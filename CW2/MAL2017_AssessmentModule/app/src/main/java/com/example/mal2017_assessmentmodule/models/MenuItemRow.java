@@ -0,0 +1,94 @@
+package com.example.mal2017_assessmentmodule.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MenuItemRow - Display-ready, immutable view of a menu list row.
+ *
+ * The price text is formatted once, when the list loads, so binding a
+ * row only assigns fields. Build rows off the main thread with fromAll().
+ *
+ * A row is either a menu item or a category header (see header() and
+ * MenuSections); a header has no item, and its name is the category.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public final class MenuItemRow {
+
+    private final MenuItem item;
+    private final String name;
+    private final String description;
+    private final String category;
+    private final String priceText;
+    private final String imageKey;
+    private final boolean available;
+    private final boolean header;
+
+    private MenuItemRow(MenuItem item, DisplayFormats formats) {
+        this.item = item;
+        this.name = item.getName() != null ? item.getName() : "";
+        this.description = item.getDescription() != null ? item.getDescription() : "";
+        this.category = item.getCategory() != null ? item.getCategory() : "";
+        this.priceText = formats.formatPrice(item.getPrice());
+        this.imageKey = item.getImageUrl();
+        this.available = item.isAvailable();
+        this.header = false;
+    }
+
+    private MenuItemRow(String category) {
+        this.item = null;
+        this.name = category;
+        this.description = "";
+        this.category = category;
+        this.priceText = "";
+        this.imageKey = null;
+        this.available = true;
+        this.header = true;
+    }
+
+    /**
+     * Header row for a category section
+     */
+    public static MenuItemRow header(String category) {
+        return new MenuItemRow(category);
+    }
+
+    /**
+     * Rows for a list of menu items, using the default locale's formats
+     */
+    public static List<MenuItemRow> fromAll(List<MenuItem> items) {
+        DisplayFormats formats = DisplayFormats.current();
+        List<MenuItemRow> rows = new ArrayList<>(items.size());
+        for (MenuItem item : items) {
+            if (item != null) {
+                rows.add(new MenuItemRow(item, formats));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * The menu item this row was built from (treat as read-only), or
+     * null for a header
+     */
+    public MenuItem getItem() { return item; }
+    public int getItemId() { return item != null ? item.getItemId() : 0; }
+
+    /**
+     * Adapter id: the item id, or a negative id derived from the
+     * category for a header, so the two never collide
+     */
+    public long getStableId() {
+        return header ? -1L - (category.hashCode() & 0xffffffffL) : item.getItemId();
+    }
+
+    public boolean isHeader() { return header; }
+    public String getName() { return name; }
+    public String getDescription() { return description; }
+    public String getCategory() { return category; }
+    public String getPriceText() { return priceText; }
+    public String getImageKey() { return imageKey; }
+    public boolean isAvailable() { return available; }
+}
@@ -0,0 +1,97 @@
+package com.example.mal2017_assessmentmodule.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MenuSections - The whole menu as one list, grouped by category.
+ *
+ * Each category is a header row followed by its items. Built once per
+ * data load (off the main thread), after which finding a category's
+ * section or the header above any row is a lookup, not a search.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public final class MenuSections {
+
+    public static final MenuSections EMPTY =
+            new MenuSections(Collections.<MenuItemRow>emptyList(), Collections.<String, Integer>emptyMap(), new int[0]);
+
+    private final List<MenuItemRow> rows;
+    private final Map<String, Integer> headerPositions;
+    private final int[] headerOf;  // Position of the header above each row
+
+    private MenuSections(List<MenuItemRow> rows, Map<String, Integer> headerPositions, int[] headerOf) {
+        this.rows = rows;
+        this.headerPositions = headerPositions;
+        this.headerOf = headerOf;
+    }
+
+    /**
+     * Group item rows by category. Categories come in the given order,
+     * then any others in the order they first appear; items keep their
+     * order within a category.
+     */
+    public static MenuSections group(List<MenuItemRow> items, List<String> categoryOrder) {
+        Map<String, List<MenuItemRow>> byCategory = new LinkedHashMap<>();
+        for (String category : categoryOrder) {
+            byCategory.put(category, new ArrayList<>());
+        }
+        for (MenuItemRow item : items) {
+            List<MenuItemRow> section = byCategory.get(item.getCategory());
+            if (section == null) {
+                section = new ArrayList<>();
+                byCategory.put(item.getCategory(), section);
+            }
+            section.add(item);
+        }
+
+        List<MenuItemRow> rows = new ArrayList<>(items.size() + byCategory.size());
+        Map<String, Integer> headerPositions = new HashMap<>();
+        for (Map.Entry<String, List<MenuItemRow>> section : byCategory.entrySet()) {
+            if (section.getValue().isEmpty()) {
+                continue;  // No header for an empty category
+            }
+            headerPositions.put(section.getKey(), rows.size());
+            rows.add(MenuItemRow.header(section.getKey()));
+            rows.addAll(section.getValue());
+        }
+
+        int[] headerOf = new int[rows.size()];
+        int header = -1;
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i).isHeader()) {
+                header = i;
+            }
+            headerOf[i] = header;
+        }
+        return new MenuSections(Collections.unmodifiableList(rows), headerPositions, headerOf);
+    }
+
+    /**
+     * Headers and items, in display order
+     */
+    public List<MenuItemRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * Position of a category's header, or -1 if it has no items
+     */
+    public int positionOf(String category) {
+        Integer position = headerPositions.get(category);
+        return position != null ? position : -1;
+    }
+
+    /**
+     * Position of the header of the section a row belongs to, or -1
+     */
+    public int headerPositionFor(int position) {
+        return position >= 0 && position < headerOf.length ? headerOf[position] : -1;
+    }
+}
@@ -0,0 +1,484 @@
+package com.example.mal2017_assessmentmodule.models;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ModelCodec - Compact binary encoding of User, MenuItem and Reservation.
+ *
+ * Used instead of JSON for data the app stores itself (session, local
+ * caches): no reflection, no text parsing, about half the size.
+ *
+ * Format:
+ *   record = version:byte type:byte field*
+ *   field  = tag:varint length:varint payload:byte[length]
+ *   list   = version:byte type:byte count:varint (length:varint record-body)*
+ *
+ * - Every field carries its own length, so a reader skips tags it does
+ *   not know: new fields can be added without changing the version.
+ *   Tags are never reused; removed fields leave their number unused.
+ * - Ints and longs are zigzag varints, doubles 8 bytes, strings UTF-8.
+ * - Null strings and zero/false values are not written and decode
+ *   back to the model's defaults.
+ * - VERSION only changes for an incompatible layout. Newer versions
+ *   are rejected so the caller can fall back (e.g. re-fetch).
+ *
+ * Decoding malformed data throws IllegalArgumentException.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public final class ModelCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int TYPE_USER = 1;
+    private static final int TYPE_MENU_ITEM = 2;
+    private static final int TYPE_RESERVATION = 3;
+
+    // User tags
+    private static final int USER_ID = 1;
+    private static final int USER_USERNAME = 2;
+    private static final int USER_PASSWORD = 3;
+    private static final int USER_FIRSTNAME = 4;
+    private static final int USER_LASTNAME = 5;
+    private static final int USER_EMAIL = 6;
+    private static final int USER_CONTACT = 7;
+    private static final int USER_USERTYPE = 8;
+
+    // MenuItem tags
+    private static final int ITEM_ID = 1;
+    private static final int ITEM_NAME = 2;
+    private static final int ITEM_DESCRIPTION = 3;
+    private static final int ITEM_PRICE = 4;
+    private static final int ITEM_CATEGORY = 5;
+    private static final int ITEM_IMAGE_URL = 6;
+    private static final int ITEM_AVAILABLE = 7;
+
+    // Reservation tags
+    private static final int RES_ID = 1;
+    private static final int RES_USER_ID = 2;
+    private static final int RES_GUEST_NAME = 3;
+    private static final int RES_GUEST_EMAIL = 4;
+    private static final int RES_GUEST_CONTACT = 5;
+    private static final int RES_PARTY_SIZE = 6;
+    private static final int RES_DATE_TIME = 7;
+    private static final int RES_NOTES = 8;
+    private static final int RES_STATUS = 9;
+
+    /**
+     * Writes one model's fields
+     */
+    private interface FieldWriter<T> {
+        void write(T value, Writer out);
+    }
+
+    /**
+     * Reads one model from the fields of a record body
+     */
+    private interface FieldReader<T> {
+        T read(Reader in, int end);
+    }
+
+    private ModelCodec() {}
+
+    // ==================== USER ====================
+
+    public static byte[] encode(User user) {
+        return encodeRecord(TYPE_USER, user, ModelCodec::writeUser);
+    }
+
+    public static User decodeUser(byte[] data) {
+        return decodeRecord(data, TYPE_USER, ModelCodec::readUser);
+    }
+
+    public static byte[] encodeUsers(List<User> users) {
+        return encodeList(TYPE_USER, users, ModelCodec::writeUser);
+    }
+
+    public static List<User> decodeUsers(byte[] data) {
+        return decodeList(data, TYPE_USER, ModelCodec::readUser);
+    }
+
+    private static void writeUser(User user, Writer out) {
+        out.intField(USER_ID, user.getUserId());
+        out.stringField(USER_USERNAME, user.getUsername());
+        out.stringField(USER_PASSWORD, user.getPassword());
+        out.stringField(USER_FIRSTNAME, user.getFirstname());
+        out.stringField(USER_LASTNAME, user.getLastname());
+        out.stringField(USER_EMAIL, user.getEmail());
+        out.stringField(USER_CONTACT, user.getContact());
+        out.stringField(USER_USERTYPE, user.getUsertype());
+    }
+
+    private static User readUser(Reader in, int end) {
+        User user = new User();
+        while (in.position < end) {
+            int tag = in.readVarInt(end);
+            int length = in.readLength(end);
+            switch (tag) {
+                case USER_ID: user.setUserId(in.readIntPayload(length)); break;
+                case USER_USERNAME: user.setUsername(in.readString(length)); break;
+                case USER_PASSWORD: user.setPassword(in.readString(length)); break;
+                case USER_FIRSTNAME: user.setFirstname(in.readString(length)); break;
+                case USER_LASTNAME: user.setLastname(in.readString(length)); break;
+                case USER_EMAIL: user.setEmail(in.readString(length)); break;
+                case USER_CONTACT: user.setContact(in.readString(length)); break;
+                case USER_USERTYPE: user.setUsertype(in.readString(length)); break;
+                default: in.skip(length);
+            }
+        }
+        return user;
+    }
+
+    // ==================== MENU ITEM ====================
+
+    public static byte[] encode(MenuItem item) {
+        return encodeRecord(TYPE_MENU_ITEM, item, ModelCodec::writeMenuItem);
+    }
+
+    public static MenuItem decodeMenuItem(byte[] data) {
+        return decodeRecord(data, TYPE_MENU_ITEM, ModelCodec::readMenuItem);
+    }
+
+    public static byte[] encodeMenuItems(List<MenuItem> items) {
+        return encodeList(TYPE_MENU_ITEM, items, ModelCodec::writeMenuItem);
+    }
+
+    public static List<MenuItem> decodeMenuItems(byte[] data) {
+        return decodeList(data, TYPE_MENU_ITEM, ModelCodec::readMenuItem);
+    }
+
+    private static void writeMenuItem(MenuItem item, Writer out) {
+        out.intField(ITEM_ID, item.getItemId());
+        out.stringField(ITEM_NAME, item.getName());
+        out.stringField(ITEM_DESCRIPTION, item.getDescription());
+        out.doubleField(ITEM_PRICE, item.getPrice());
+        out.stringField(ITEM_CATEGORY, item.getCategory());
+        out.stringField(ITEM_IMAGE_URL, item.getImageUrl());
+        out.intField(ITEM_AVAILABLE, item.isAvailable() ? 1 : 0);
+    }
+
+    private static MenuItem readMenuItem(Reader in, int end) {
+        MenuItem item = new MenuItem();
+        while (in.position < end) {
+            int tag = in.readVarInt(end);
+            int length = in.readLength(end);
+            switch (tag) {
+                case ITEM_ID: item.setItemId(in.readIntPayload(length)); break;
+                case ITEM_NAME: item.setName(in.readString(length)); break;
+                case ITEM_DESCRIPTION: item.setDescription(in.readString(length)); break;
+                case ITEM_PRICE: item.setPrice(in.readDouble(length)); break;
+                case ITEM_CATEGORY: item.setCategory(in.readString(length)); break;
+                case ITEM_IMAGE_URL: item.setImageUrl(in.readString(length)); break;
+                case ITEM_AVAILABLE: item.setAvailable(in.readIntPayload(length) != 0); break;
+                default: in.skip(length);
+            }
+        }
+        return item;
+    }
+
+    // ==================== RESERVATION ====================
+
+    public static byte[] encode(Reservation reservation) {
+        return encodeRecord(TYPE_RESERVATION, reservation, ModelCodec::writeReservation);
+    }
+
+    public static Reservation decodeReservation(byte[] data) {
+        return decodeRecord(data, TYPE_RESERVATION, ModelCodec::readReservation);
+    }
+
+    public static byte[] encodeReservations(List<Reservation> reservations) {
+        return encodeList(TYPE_RESERVATION, reservations, ModelCodec::writeReservation);
+    }
+
+    public static List<Reservation> decodeReservations(byte[] data) {
+        return decodeList(data, TYPE_RESERVATION, ModelCodec::readReservation);
+    }
+
+    private static void writeReservation(Reservation reservation, Writer out) {
+        out.intField(RES_ID, reservation.getReservationId());
+        out.intField(RES_USER_ID, reservation.getUserId());
+        out.stringField(RES_GUEST_NAME, reservation.getGuestName());
+        out.stringField(RES_GUEST_EMAIL, reservation.getGuestEmail());
+        out.stringField(RES_GUEST_CONTACT, reservation.getGuestContact());
+        out.intField(RES_PARTY_SIZE, reservation.getPartySize());
+        out.longField(RES_DATE_TIME, reservation.getDateTime());
+        out.stringField(RES_NOTES, reservation.getNotes());
+        out.stringField(RES_STATUS, reservation.getStatus());
+    }
+
+    private static Reservation readReservation(Reader in, int end) {
+        Reservation reservation = new Reservation();
+        while (in.position < end) {
+            int tag = in.readVarInt(end);
+            int length = in.readLength(end);
+            switch (tag) {
+                case RES_ID: reservation.setReservationId(in.readIntPayload(length)); break;
+                case RES_USER_ID: reservation.setUserId(in.readIntPayload(length)); break;
+                case RES_GUEST_NAME: reservation.setGuestName(in.readString(length)); break;
+                case RES_GUEST_EMAIL: reservation.setGuestEmail(in.readString(length)); break;
+                case RES_GUEST_CONTACT: reservation.setGuestContact(in.readString(length)); break;
+                case RES_PARTY_SIZE: reservation.setPartySize(in.readIntPayload(length)); break;
+                case RES_DATE_TIME: reservation.setDateTime(in.readLongPayload(length)); break;
+                case RES_NOTES: reservation.setNotes(in.readString(length)); break;
+                case RES_STATUS: reservation.setStatus(in.readString(length)); break;
+                default: in.skip(length);
+            }
+        }
+        return reservation;
+    }
+
+    // ==================== RECORDS AND LISTS ====================
+
+    private static <T> byte[] encodeRecord(int type, T value, FieldWriter<T> fields) {
+        Writer out = new Writer(64);
+        out.writeByte(VERSION);
+        out.writeByte(type);
+        fields.write(value, out);
+        return out.toByteArray();
+    }
+
+    private static <T> T decodeRecord(byte[] data, int type, FieldReader<T> fields) {
+        Reader in = new Reader(data);
+        in.readHeader(type);
+        return fields.read(in, data.length);
+    }
+
+    private static <T> byte[] encodeList(int type, List<T> values, FieldWriter<T> fields) {
+        Writer out = new Writer(16 + values.size() * 64);
+        out.writeByte(VERSION);
+        out.writeByte(type);
+        out.writeVarInt(values.size());
+        Writer body = new Writer(64);
+        for (T value : values) {
+            body.reset();
+            fields.write(value, body);
+            out.writeVarInt(body.size);
+            out.writeBytes(body.buffer, 0, body.size);
+        }
+        return out.toByteArray();
+    }
+
+    private static <T> List<T> decodeList(byte[] data, int type, FieldReader<T> fields) {
+        Reader in = new Reader(data);
+        in.readHeader(type);
+        int count = in.readVarInt(data.length);
+        // Each record takes at least one byte, so count cannot exceed the data left
+        List<T> values = new ArrayList<>(Math.min(count, data.length - in.position));
+        for (int i = 0; i < count; i++) {
+            int length = in.readLength(data.length);
+            values.add(fields.read(in, in.position + length));
+        }
+        return values;
+    }
+
+    // ==================== BYTES ====================
+
+    /**
+     * Growable output buffer
+     */
+    private static final class Writer {
+        byte[] buffer;
+        int size;
+
+        Writer(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        void intField(int tag, int value) {
+            if (value != 0) {
+                writeVarInt(tag);
+                writeVarInt(varLongSize(zigzag(value)));
+                writeVarLong(zigzag(value));
+            }
+        }
+
+        void longField(int tag, long value) {
+            if (value != 0) {
+                writeVarInt(tag);
+                writeVarInt(varLongSize(zigzag(value)));
+                writeVarLong(zigzag(value));
+            }
+        }
+
+        void doubleField(int tag, double value) {
+            if (value != 0) {
+                writeVarInt(tag);
+                writeVarInt(8);
+                long bits = Double.doubleToLongBits(value);
+                ensure(8);
+                for (int i = 0; i < 8; i++) {
+                    buffer[size++] = (byte) (bits >>> (8 * i));
+                }
+            }
+        }
+
+        void stringField(int tag, String value) {
+            if (value != null) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(tag);
+                writeVarInt(bytes.length);
+                writeBytes(bytes, 0, bytes.length);
+            }
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes, int offset, int length) {
+            ensure(length);
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xffffffffL);
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7fL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+
+        private static int varLongSize(long value) {
+            int bytes = 1;
+            while ((value & ~0x7fL) != 0) {
+                value >>>= 7;
+                bytes++;
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Bounds-checked input cursor
+     */
+    private static final class Reader {
+        final byte[] data;
+        int position;
+
+        Reader(byte[] data) {
+            if (data == null) {
+                throw new IllegalArgumentException("No data");
+            }
+            this.data = data;
+        }
+
+        void readHeader(int expectedType) {
+            if (data.length < 2) {
+                throw new IllegalArgumentException("Data too short");
+            }
+            int version = data[0] & 0xff;
+            int type = data[1] & 0xff;
+            if (version < 1 || version > VERSION) {
+                throw new IllegalArgumentException("Unsupported codec version " + version);
+            }
+            if (type != expectedType) {
+                throw new IllegalArgumentException("Expected type " + expectedType + ", found " + type);
+            }
+            position = 2;
+        }
+
+        /**
+         * Varint that must end before end (the end of the enclosing record)
+         */
+        int readVarInt(int end) {
+            long value = readVarLong(end);
+            if (value > 0xffffffffL) {
+                throw new IllegalArgumentException("Varint too large");
+            }
+            return (int) value;
+        }
+
+        long readVarLong(int end) {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= end) {
+                    throw new IllegalArgumentException("Truncated varint");
+                }
+                byte b = data[position++];
+                value |= (long) (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        /**
+         * Length prefix, checked against the end of the enclosing record
+         */
+        int readLength(int end) {
+            int length = readVarInt(end);
+            if (length < 0 || length > end - position) {
+                throw new IllegalArgumentException("Field length " + length + " past end of record");
+            }
+            return length;
+        }
+
+        int readIntPayload(int length) {
+            return (int) readLongPayload(length);
+        }
+
+        /**
+         * Zigzag varint filling exactly the field's length
+         */
+        long readLongPayload(int length) {
+            int end = position + length;
+            long zigzag = readVarLong(end);
+            if (position != end) {
+                throw new IllegalArgumentException("Integer field of length " + length
+                        + " ends after " + (length - (end - position)) + " bytes");
+            }
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        double readDouble(int length) {
+            if (length != 8) {
+                throw new IllegalArgumentException("Double field of length " + length);
+            }
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits |= (long) (data[position++] & 0xff) << (8 * i);
+            }
+            return Double.longBitsToDouble(bits);
+        }
+
+        String readString(int length) {
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        void skip(int length) {
+            position += length;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.mal2017_assessmentmodule.models;
+
+/**
+ * OutboxEntry Model - A user change waiting to be sent to the API.
+ *
+ * Features:
+ * - Operation type (create, update, delete)
+ * - Idempotency key so a retried send is not applied twice
+ * - User JSON payload (empty for deletes)
+ * - Retry bookkeeping (attempts, next attempt time)
+ *
+ * Entries are sent in order of outboxId.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class OutboxEntry {
+
+    public static final String OP_CREATE = "create";
+    public static final String OP_UPDATE = "update";
+    public static final String OP_DELETE = "delete";
+
+    private long outboxId;
+    private String idempotencyKey;
+    private String operation;
+    private int userId;
+    private String payload;
+    private int attempts;
+    private long nextAttemptAt;  // Timestamp in milliseconds
+    private long createdAt;      // Timestamp in milliseconds
+
+    public OutboxEntry() {}
+
+    // Getters and Setters
+    public long getOutboxId() { return outboxId; }
+    public void setOutboxId(long outboxId) { this.outboxId = outboxId; }
+
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+
+    public String getOperation() { return operation; }
+    public void setOperation(String operation) { this.operation = operation; }
+
+    public int getUserId() { return userId; }
+    public void setUserId(int userId) { this.userId = userId; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public long getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(long nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public long getCreatedAt() { return createdAt; }
+    public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+
+    @Override
+    public String toString() {
+        return "OutboxEntry{" +
+                "outboxId=" + outboxId +
+                ", operation='" + operation + '\'' +
+                ", userId=" + userId +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
@@ -1,9 +1,5 @@
 package com.example.mal2017_assessmentmodule.models;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
-
 /**
  * Reservation Model - Represents a table reservation.
  *
@@ -74,23 +70,21 @@ public class Reservation {
      * Format date for display (e.g., "Dec 25, 2025")
      */
     public String getFormattedDate() {
-        SimpleDateFormat sdf = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
-        return sdf.format(new Date(dateTime));
+        return DisplayFormats.current().formatDate(dateTime);
     }
 
     /**
      * Format time for display (e.g., "7:30 PM")
      */
     public String getFormattedTime() {
-        SimpleDateFormat sdf = new SimpleDateFormat("h:mm a", Locale.getDefault());
-        return sdf.format(new Date(dateTime));
+        return DisplayFormats.current().formatTime(dateTime);
     }
 
     /**
      * Get party size text (e.g., "4 people")
      */
     public String getPartySizeText() {
-        return partySize == 1 ? "1 person" : partySize + " people";
+        return DisplayFormats.formatPartySize(partySize);
     }
 
     @Override
@@ -0,0 +1,62 @@
+package com.example.mal2017_assessmentmodule.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * ReservationRow - Display-ready, immutable view of a reservation list row.
+ *
+ * Every string a row shows is formatted once, when the list loads, so
+ * binding a row only assigns fields. Build rows off the main thread
+ * with fromAll().
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public final class ReservationRow {
+
+    private final Reservation reservation;
+    private final String guestName;
+    private final String dateText;
+    private final String timeText;
+    private final String partySizeText;
+    private final String status;
+    private final String statusText;
+
+    private ReservationRow(Reservation reservation, DisplayFormats formats) {
+        this.reservation = reservation;
+        this.guestName = reservation.getGuestName() != null ? reservation.getGuestName() : "Unknown Guest";
+        this.dateText = "Date: " + formats.formatDate(reservation.getDateTime());
+        this.timeText = "Time: " + formats.formatTime(reservation.getDateTime());
+        this.partySizeText = "Party Size: " + DisplayFormats.formatPartySize(reservation.getPartySize());
+        this.status = reservation.getStatus();
+        this.statusText = status != null ? status.toUpperCase(Locale.ROOT) : "UNKNOWN";
+    }
+
+    /**
+     * Rows for a list of reservations, using the default locale's formats
+     */
+    public static List<ReservationRow> fromAll(List<Reservation> reservations) {
+        DisplayFormats formats = DisplayFormats.current();
+        List<ReservationRow> rows = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            if (reservation != null) {
+                rows.add(new ReservationRow(reservation, formats));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * The reservation this row was built from (treat as read-only)
+     */
+    public Reservation getReservation() { return reservation; }
+    public int getReservationId() { return reservation.getReservationId(); }
+    public String getGuestName() { return guestName; }
+    public String getDateText() { return dateText; }
+    public String getTimeText() { return timeText; }
+    public String getPartySizeText() { return partySizeText; }
+    public String getStatus() { return status; }
+    public String getStatusText() { return statusText; }
+}
@@ -71,6 +71,20 @@ public class User {
         this.usertype = usertype;
     }
 
+    /**
+     * Copy constructor, for handing out copies of a shared user
+     */
+    public User(User other) {
+        this.userId = other.userId;
+        this.username = other.username;
+        this.password = other.password;
+        this.firstname = other.firstname;
+        this.lastname = other.lastname;
+        this.email = other.email;
+        this.contact = other.contact;
+        this.usertype = other.usertype;
+    }
+
     // Getters and Setters
     public int getUserId() { return userId; }
     public void setUserId(int userId) { this.userId = userId; }
@@ -103,6 +117,33 @@ public class User {
         return firstname + " " + lastname;
     }
 
+    /**
+     * Get a hash of all user fields, used by the sync engine to spot changed rows
+     */
+    public String getContentHash() {
+        return Long.toHexString(getContentHashValue());
+    }
+
+    /**
+     * 64-bit FNV-1a hash of all user fields
+     */
+    public long getContentHashValue() {
+        long hash = 0xcbf29ce484222325L;
+        String[] fields = {username, password, firstname, lastname, email, contact, usertype};
+        for (String field : fields) {
+            if (field != null) {
+                for (int i = 0; i < field.length(); i++) {
+                    hash ^= field.charAt(i);
+                    hash *= 0x100000001b3L;
+                }
+            }
+            // Field separator, so "ab"+"c" and "a"+"bc" hash differently
+            hash ^= 0x1f;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
     /**
      * Check if user is staff
      */
@@ -0,0 +1,242 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.android.volley.Response;
+import com.android.volley.TimeoutError;
+import com.example.mal2017_assessmentmodule.api.ApiClient;
+import com.example.mal2017_assessmentmodule.api.ApiService;
+import com.example.mal2017_assessmentmodule.database.DatabaseHelper;
+import com.example.mal2017_assessmentmodule.models.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Timing of the parallel API/local login against a stub API that
+ * answers after a set delay.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class LoginOrchestratorTest {
+
+    private static final String EMAIL = "timing.test@mail.com";
+    private static final String PASSWORD = "password123";
+    private static final long SLOW_API_MS = 1500;
+    private static final long API_MS = 300;
+    private static final long WAIT_LIMIT_MS = 10000;
+
+    private Context context;
+    private DatabaseHelper dbHelper;
+    private ScheduledExecutorService stubServer;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        dbHelper = DatabaseHelper.getInstance(context);
+        dbHelper.clearAllData();
+        stubServer = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        stubServer.shutdownNow();
+        // Singletons would otherwise keep the previous test's context
+        resetSingleton(DatabaseHelper.class);
+        resetSingleton(UserSyncManager.class);
+        resetSingleton(ApiClient.class);
+    }
+
+    @Test
+    public void localMatchDoesNotWaitForSlowApi() throws Exception {
+        User local = user(EMAIL);
+        local.setUserId(7);
+        dbHelper.addUser(local);
+
+        Result result = login(new StubApiService(context, SLOW_API_MS, users(EMAIL)));
+
+        assertTrue(result.authenticated);
+        assertFalse(result.fromApi);
+        assertEquals(7, result.user.getUserId());
+        assertTrue("Took " + result.elapsedMs + " ms", result.elapsedMs < SLOW_API_MS / 2);
+    }
+
+    @Test
+    public void apiMatchIsDeliveredWithLocalUserId() throws Exception {
+        List<User> remote = users(EMAIL);
+        for (int i = 0; i < 2000; i++) {
+            remote.add(user("other" + i + "@mail.com"));
+        }
+
+        Result result = login(new StubApiService(context, API_MS, remote));
+
+        assertTrue(result.authenticated);
+        assertTrue(result.fromApi);
+        assertTrue("Took " + result.elapsedMs + " ms", result.elapsedMs >= API_MS);
+        DatabaseHelper.UserHashEntry stored = dbHelper.getUserHash(EMAIL);
+        assertNotNull("Matched user is stored before delivery", stored);
+        assertEquals(stored.userId, result.user.getUserId());
+
+        // The full sync follows in the background
+        long deadline = System.currentTimeMillis() + WAIT_LIMIT_MS;
+        while (dbHelper.getUserHashes().size() < remote.size()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Background sync did not finish");
+            }
+            Thread.sleep(100);
+        }
+        assertEquals(stored.userId, dbHelper.getUserHash(EMAIL).userId);
+    }
+
+    @Test
+    public void missIsRejectedOnlyAfterApiAnswers() throws Exception {
+        Result result = login(new StubApiService(context, API_MS, users("someone.else@mail.com")));
+
+        assertFalse(result.authenticated);
+        assertTrue("Took " + result.elapsedMs + " ms", result.elapsedMs >= API_MS);
+    }
+
+    @Test
+    public void apiErrorFallsBackToLocalMatch() throws Exception {
+        User local = user(EMAIL);
+        local.setUserId(3);
+        dbHelper.addUser(local);
+
+        Result result = login(new StubApiService(context, 10, null));
+
+        assertTrue(result.authenticated);
+        assertFalse(result.fromApi);
+        assertEquals(3, result.user.getUserId());
+    }
+
+    @Test
+    public void apiErrorAndLocalMissIsRejected() throws Exception {
+        Result result = login(new StubApiService(context, API_MS, null));
+
+        assertFalse(result.authenticated);
+        assertTrue("Took " + result.elapsedMs + " ms", result.elapsedMs >= API_MS);
+    }
+
+    // ==================== HELPERS ====================
+
+    private static class Result {
+        boolean authenticated;
+        boolean fromApi;
+        User user;
+        long elapsedMs;
+    }
+
+    /**
+     * Log in and run the main looper until the callback arrives
+     */
+    private Result login(ApiService apiService) throws InterruptedException {
+        Result result = new Result();
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        new LoginOrchestrator(context, apiService).login(EMAIL, PASSWORD, new LoginOrchestrator.Callback() {
+            @Override
+            public void onAuthenticated(User user, boolean fromApi) {
+                result.elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                result.authenticated = true;
+                result.fromApi = fromApi;
+                result.user = user;
+                done.countDown();
+            }
+
+            @Override
+            public void onRejected() {
+                result.elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                done.countDown();
+            }
+        });
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_LIMIT_MS);
+        while (done.getCount() > 0) {
+            if (System.nanoTime() > deadline) {
+                fail("No login result");
+            }
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.sleep(2);
+        }
+        return result;
+    }
+
+    private static List<User> users(String... emails) {
+        List<User> users = new ArrayList<>();
+        for (String email : emails) {
+            users.add(user(email));
+        }
+        return users;
+    }
+
+    private static User user(String email) {
+        return new User(email, PASSWORD, "Test", "User", email, "0123456789", "guest");
+    }
+
+    private static void resetSingleton(Class<?> type) throws Exception {
+        Field field = type.getDeclaredField("instance");
+        field.setAccessible(true);
+        field.set(null, null);
+    }
+
+    /**
+     * Answers read_all_users on the main thread after a fixed delay, like
+     * Volley would; a null user list answers with a timeout instead
+     */
+    private class StubApiService extends ApiService {
+        private final long delayMs;
+        private final List<User> users;
+
+        StubApiService(Context context, long delayMs, List<User> users) {
+            super(context);
+            this.delayMs = delayMs;
+            this.users = users;
+        }
+
+        @Override
+        public void getAllUsers(String studentId, Object tag,
+                                Response.Listener<Map<String, List<User>>> listener,
+                                Response.ErrorListener errorListener) {
+            Handler mainHandler = new Handler(Looper.getMainLooper());
+            stubServer.schedule(() -> mainHandler.post(() -> {
+                if (users != null) {
+                    listener.onResponse(Collections.singletonMap("users", users));
+                } else {
+                    errorListener.onErrorResponse(new TimeoutError());
+                }
+            }), delayMs, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void cancelRequests(Object tag) {
+            // Nothing queued
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.mal2017_assessmentmodule;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * MenuImageStore downloads against a local HTTP server: deduplication
+ * by content, one download per URL, and cancellation.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class MenuImageStoreTest {
+
+    private static final byte[] IMAGE = "not really a jpeg".getBytes();
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch releaseSlow = new CountDownLatch(1);
+    private MenuImageStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            if (exchange.getRequestURI().getPath().startsWith("/slow")) {
+                try {
+                    releaseSlow.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.sendResponseHeaders(200, IMAGE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(IMAGE);
+            } catch (IOException ignored) {
+                // Client went away
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        store = MenuImageStore.getInstance(ApplicationProvider.getApplicationContext());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        releaseSlow.countDown();
+        server.stop(0);
+        Field instance = MenuImageStore.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+    }
+
+    @Test
+    public void sameBytesShareOneFile() throws Exception {
+        File first = store.fetch(baseUrl + "a.jpg");
+        File second = store.fetch(baseUrl + "b.jpg");
+
+        assertEquals(first, second);
+        assertEquals(IMAGE.length, first.length());
+        assertEquals(first, store.getCached(baseUrl + "a.jpg"));
+    }
+
+    @Test
+    public void knownUrlIsNotDownloadedAgain() throws Exception {
+        store.fetch(baseUrl + "a.jpg");
+        store.fetch(baseUrl + "a.jpg");
+
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void concurrentFetchesShareOneDownload() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        Future<?>[] results = new Future<?>[4];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = callers.submit(() -> store.fetch(baseUrl + "slow/a.jpg"));
+        }
+        Thread.sleep(200);
+        releaseSlow.countDown();
+        for (Future<?> result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+        callers.shutdown();
+
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void cancelStopsTheDownload() throws Exception {
+        MenuImageStore.Cancellation cancellation = new MenuImageStore.Cancellation();
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        Future<File> result = caller.submit(() -> store.fetch(baseUrl + "slow/a.jpg", cancellation));
+        while (requests.get() == 0) {
+            Thread.sleep(5);
+        }
+
+        long start = System.nanoTime();
+        cancellation.cancel();
+        try {
+            result.get(5, TimeUnit.SECONDS);
+            fail("Cancelled fetch returned a file");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        caller.shutdown();
+
+        // Not held until the server answers
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        assertNull(store.getCached(baseUrl + "slow/a.jpg"));
+    }
+}
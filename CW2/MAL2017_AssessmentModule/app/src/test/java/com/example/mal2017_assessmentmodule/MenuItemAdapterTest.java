@@ -0,0 +1,207 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.content.Context;
+import android.os.Looper;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.view.ContextThemeWrapper;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.mal2017_assessmentmodule.models.MenuItem;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Bind counts of MenuItemAdapter refreshes: only changed rows are
+ * rebound, and a price or availability change rebinds just that view.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class MenuItemAdapterTest {
+
+    private static final long WAIT_LIMIT_MS = 10000;
+
+    private Context context;
+    private RecyclerView list;
+    private CountingAdapter adapter;
+    private final AtomicInteger updates = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        context = new ContextThemeWrapper(ApplicationProvider.getApplicationContext(),
+                R.style.Theme_MAL2017_AssessmentModule);
+        list = new RecyclerView(context);
+        list.setLayoutManager(new LinearLayoutManager(context));
+        list.setItemAnimator(null);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Field instance = RowViewPools.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+    }
+
+    @Test
+    public void initialLoadBindsEveryRowOnce() throws Exception {
+        show(menu(4.50, true, "Crispy"));
+
+        // Two section headers and three items
+        assertEquals(5, adapter.fullBinds);
+        assertEquals(0, adapter.partialBinds);
+    }
+
+    @Test
+    public void priceChangeRebindsOnlyThePrice() throws Exception {
+        show(menu(4.50, true, "Crispy"));
+
+        refresh(menu(5.25, true, "Crispy"));
+
+        assertEquals(0, adapter.fullBinds);
+        assertEquals(1, adapter.partialBinds);
+        assertEquals(Collections.<Object>singletonList(MenuItemAdapter.PAYLOAD_PRICE), adapter.lastPayloads);
+    }
+
+    @Test
+    public void availabilityChangeRebindsOnlyTheBadge() throws Exception {
+        show(menu(4.50, true, "Crispy"));
+
+        refresh(menu(4.50, false, "Crispy"));
+
+        assertEquals(0, adapter.fullBinds);
+        assertEquals(1, adapter.partialBinds);
+        assertEquals(Collections.<Object>singletonList(MenuItemAdapter.PAYLOAD_AVAILABILITY),
+                adapter.lastPayloads);
+    }
+
+    @Test
+    public void otherChangeRebindsTheWholeRow() throws Exception {
+        show(menu(4.50, true, "Crispy"));
+
+        refresh(menu(4.50, true, "Extra crispy"));
+
+        assertEquals(1, adapter.fullBinds);
+        assertEquals(0, adapter.partialBinds);
+    }
+
+    // ==================== HELPERS ====================
+
+    private void show(List<MenuItem> items) throws Exception {
+        adapter = new CountingAdapter(context, items);
+        adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+                updates.incrementAndGet();
+            }
+
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount) {
+                updates.incrementAndGet();
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                updates.incrementAndGet();
+            }
+        });
+        list.setAdapter(adapter);
+        awaitUpdate(0);
+        layout();
+        adapter.lastPayloads = null;
+    }
+
+    /**
+     * updateData() and lay the list out again once the diff is applied,
+     * counting only the binds of this refresh
+     */
+    private void refresh(List<MenuItem> items) throws Exception {
+        adapter.fullBinds = 0;
+        adapter.partialBinds = 0;
+        int before = updates.get();
+        adapter.updateData(items);
+        awaitUpdate(before);
+        layout();
+    }
+
+    private void awaitUpdate(int before) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_LIMIT_MS);
+        while (updates.get() == before) {
+            if (System.nanoTime() > deadline) {
+                fail("Adapter was not updated");
+            }
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.sleep(1);
+        }
+    }
+
+    private void layout() {
+        list.measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(4000, View.MeasureSpec.EXACTLY));
+        list.layout(0, 0, 1080, 4000);
+    }
+
+    /**
+     * Spring rolls change with the arguments; the other items never do
+     */
+    private static List<MenuItem> menu(double springRollPrice, boolean springRollsAvailable,
+                                       String springRollDescription) {
+        List<MenuItem> items = new ArrayList<>();
+        items.add(item(1, "Spring Rolls", springRollDescription, springRollPrice,
+                Constants.CATEGORY_APPETIZERS, springRollsAvailable));
+        items.add(item(2, "Satay", "Chicken skewers", 6.00, Constants.CATEGORY_APPETIZERS, true));
+        items.add(item(3, "Cendol", "Shaved ice", 3.75, Constants.CATEGORY_DESSERTS, true));
+        return items;
+    }
+
+    private static MenuItem item(int id, String name, String description, double price,
+                                 String category, boolean available) {
+        MenuItem item = new MenuItem(name, description, price, category, null, available);
+        item.setItemId(id);
+        return item;
+    }
+
+    /**
+     * Counts full binds (no payload) and partial ones
+     */
+    private static class CountingAdapter extends MenuItemAdapter {
+        int fullBinds;
+        int partialBinds;
+        List<Object> lastPayloads;
+
+        CountingAdapter(Context context, List<MenuItem> items) {
+            super(context, items);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position,
+                                     @NonNull List<Object> payloads) {
+            if (payloads.isEmpty()) {
+                fullBinds++;
+            } else {
+                partialBinds++;
+                lastPayloads = new ArrayList<>(payloads);
+            }
+            super.onBindViewHolder(holder, position, payloads);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.mal2017_assessmentmodule;
+
+import com.example.mal2017_assessmentmodule.models.MenuItem;
+import com.example.mal2017_assessmentmodule.models.MenuItemRow;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Cost of menu search on 20,000 generated items: building the index, each
+ * keystroke of a typed query, and the old filter that lower-cased every
+ * item on each keystroke.
+ *
+ * Not part of the normal test run. Run with
+ * ./gradlew :app:testDebugUnitTest -Pbenchmarks --tests '*MenuSearchIndexBenchmark' -i
+ * and read the printed times (best of ROUNDS, after warm-up).
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class MenuSearchIndexBenchmark {
+
+    private static final int ITEMS = 20000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+    private static final String[] KEYSTROKES = {"c", "cr", "cre", "crem", "creme", "jalape", "x", "xy"};
+    private static final String[] WORDS = {"Crème", "Brûlée", "chicken", "Curry", "Noodle", "Soup",
+            "Fried", "Rice", "Beef", "Café", "Salad", "Spicy", "Jalapeño", "Garlic", "Bread"};
+
+    @Test
+    public void searchAsYouType() {
+        List<MenuItemRow> menu = MenuItemRow.fromAll(generateMenu());
+
+        long bestBuild = Long.MAX_VALUE;
+        long bestWorstKeystroke = Long.MAX_VALUE;
+        long bestOldKeystroke = Long.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            long start = System.nanoTime();
+            MenuSearchIndex index = new MenuSearchIndex(menu);
+            long build = System.nanoTime() - start;
+
+            long worstKeystroke = 0;
+            for (String query : KEYSTROKES) {
+                start = System.nanoTime();
+                index.search(query);
+                worstKeystroke = Math.max(worstKeystroke, System.nanoTime() - start);
+            }
+
+            start = System.nanoTime();
+            oldFilter(menu, "crem");
+            long oldKeystroke = System.nanoTime() - start;
+
+            if (round >= WARMUP_ROUNDS) {
+                bestBuild = Math.min(bestBuild, build);
+                bestWorstKeystroke = Math.min(bestWorstKeystroke, worstKeystroke);
+                bestOldKeystroke = Math.min(bestOldKeystroke, oldKeystroke);
+            }
+        }
+
+        System.out.println(String.format(Locale.ROOT,
+                "MenuSearchIndex, %d items: build %.1f ms, slowest keystroke %.2f ms, old filter %.2f ms per keystroke",
+                ITEMS, bestBuild / 1e6, bestWorstKeystroke / 1e6, bestOldKeystroke / 1e6));
+
+        // The old filter misses accented matches ("Crème" for "crem")
+        MenuSearchIndex index = new MenuSearchIndex(menu);
+        System.out.println("Matches for \"crem\": index " + index.search("crem").size()
+                + ", old filter " + oldFilter(menu, "crem"));
+        assertEquals(0, index.search("xy").size());
+    }
+
+    /**
+     * MenuItemAdapter.filter() before the index: lower-case every item
+     */
+    private static int oldFilter(List<MenuItemRow> menu, String query) {
+        int matches = 0;
+        for (MenuItemRow item : menu) {
+            if (item.getName().toLowerCase().contains(query)
+                    || item.getDescription().toLowerCase().contains(query)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static List<MenuItem> generateMenu() {
+        Random random = new Random(1);
+        List<MenuItem> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            MenuItem item = new MenuItem(words(random, 3), words(random, 12), 9.5,
+                    Constants.CATEGORY_MAIN_COURSE, null, true);
+            item.setItemId(i + 1);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static String words(Random random, int count) {
+        String[] picked = new String[count];
+        for (int i = 0; i < count; i++) {
+            picked[i] = WORDS[random.nextInt(WORDS.length)];
+        }
+        return String.join(" ", Arrays.asList(picked));
+    }
+}
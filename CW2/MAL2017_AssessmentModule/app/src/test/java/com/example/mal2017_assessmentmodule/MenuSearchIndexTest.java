@@ -0,0 +1,112 @@
+package com.example.mal2017_assessmentmodule;
+
+import com.example.mal2017_assessmentmodule.models.MenuItem;
+import com.example.mal2017_assessmentmodule.models.MenuItemRow;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * MenuSearchIndex matching, and that narrowing a previous search gives
+ * the same results as searching from scratch.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class MenuSearchIndexTest {
+
+    private static final List<MenuItemRow> MENU = MenuItemRow.fromAll(Arrays.asList(
+            item(1, "Crème Brûlée", "Vanilla custard"),
+            item(2, "Chicken Curry", "Spicy, with rice"),
+            item(3, "Jalapeño Poppers", null),
+            item(4, "Iced Café Latte", "Espresso over ice"),
+            item(5, "Rice Pudding", "Creamy and sweet")));
+
+    @Test
+    public void matchIgnoresCaseAndAccents() {
+        assertEquals(ids(1), ids(new MenuSearchIndex(MENU).search("CREME brulee")));
+        assertEquals(ids(3), ids(new MenuSearchIndex(MENU).search("jalapeno")));
+        assertEquals(ids(4), ids(new MenuSearchIndex(MENU).search("café")));
+    }
+
+    @Test
+    public void matchesNameOrDescriptionInMenuOrder() {
+        assertEquals(ids(2, 5), ids(new MenuSearchIndex(MENU).search("rice")));
+        assertEquals(ids(1, 5), ids(new MenuSearchIndex(MENU).search("cre")));
+    }
+
+    @Test
+    public void blankQueryMatchesEverything() {
+        MenuSearchIndex index = new MenuSearchIndex(MENU);
+        assertEquals(MENU.size(), index.search("   ").size());
+        assertEquals(MENU.size(), index.search("").size());
+        assertTrue(index.search("nothing like this").isEmpty());
+    }
+
+    @Test
+    public void typingMoreLettersKeepsResultsExact() {
+        MenuSearchIndex index = new MenuSearchIndex(MENU);
+        // Narrows, widens again, then starts over
+        for (String query : new String[]{"c", "cr", "cre", "crem", "cr", "ri", "ric", "rice p", ""}) {
+            assertEquals(query, ids(new MenuSearchIndex(MENU).search(query)), ids(index.search(query)));
+        }
+    }
+
+    @Test
+    public void randomTypingMatchesFreshSearch() {
+        Random random = new Random(44);
+        String letters = "aceilnoprsuy é";
+        MenuSearchIndex index = new MenuSearchIndex(MENU);
+        StringBuilder query = new StringBuilder();
+
+        for (int step = 0; step < 2000; step++) {
+            if (query.length() > 0 && random.nextInt(3) == 0) {
+                query.setLength(query.length() - 1);  // Backspace
+            } else if (query.length() < 6) {
+                query.append(letters.charAt(random.nextInt(letters.length())));
+            } else {
+                query.setLength(0);
+            }
+            String q = query.toString();
+            assertEquals(q, ids(new MenuSearchIndex(MENU).search(q)), ids(index.search(q)));
+        }
+    }
+
+    @Test
+    public void normalizeFoldsAccentsAndCase() {
+        assertEquals("creme brulee", MenuSearchIndex.normalize("Crème Brûlée"));
+        assertEquals("plain ascii", MenuSearchIndex.normalize("Plain ASCII"));
+        assertEquals("", MenuSearchIndex.normalize(null));
+    }
+
+    // ==================== HELPERS ====================
+
+    private static MenuItem item(int id, String name, String description) {
+        MenuItem item = new MenuItem(name, description, 5.0, Constants.CATEGORY_MAIN_COURSE, null, true);
+        item.setItemId(id);
+        return item;
+    }
+
+    private static List<Integer> ids(int... ids) {
+        List<Integer> list = new ArrayList<>();
+        for (int id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    private static List<Integer> ids(List<MenuItemRow> rows) {
+        List<Integer> list = new ArrayList<>();
+        for (MenuItemRow row : rows) {
+            list.add(row.getItemId());
+        }
+        return list;
+    }
+}
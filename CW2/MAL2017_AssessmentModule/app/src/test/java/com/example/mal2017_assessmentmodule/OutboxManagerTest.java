@@ -0,0 +1,100 @@
+package com.example.mal2017_assessmentmodule;
+
+import com.android.volley.Header;
+import com.android.volley.NetworkResponse;
+import com.android.volley.NoConnectionError;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+import com.android.volley.VolleyError;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Which failed sends OutboxManager retries, and when.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class OutboxManagerTest {
+
+    private static final long NOW = 1700000000000L;
+
+    @Test
+    public void clientErrorsAreDropped() {
+        assertEquals(OutboxManager.Result.DROP, OutboxManager.classify(status(400)));
+        assertEquals(OutboxManager.Result.DROP, OutboxManager.classify(status(404)));
+        assertEquals(OutboxManager.Result.DROP, OutboxManager.classify(status(409)));
+        assertEquals(OutboxManager.Result.DROP, OutboxManager.classify(status(422)));
+    }
+
+    @Test
+    public void timeoutAndRateLimitResponsesAreRetried() {
+        assertEquals(OutboxManager.Result.RETRY, OutboxManager.classify(status(408)));
+        assertEquals(OutboxManager.Result.RETRY, OutboxManager.classify(status(429)));
+    }
+
+    @Test
+    public void serverAndNetworkErrorsAreRetried() {
+        assertEquals(OutboxManager.Result.RETRY, OutboxManager.classify(status(500)));
+        assertEquals(OutboxManager.Result.RETRY, OutboxManager.classify(status(503)));
+        assertEquals(OutboxManager.Result.RETRY, OutboxManager.classify(new TimeoutError()));
+        assertEquals(OutboxManager.Result.RETRY, OutboxManager.classify(new NoConnectionError()));
+    }
+
+    @Test
+    public void backoffDoublesUpToTheCap() {
+        assertEquals(5000, OutboxManager.backoffMs(0));
+        assertEquals(10000, OutboxManager.backoffMs(1));
+        assertEquals(20000, OutboxManager.backoffMs(2));
+        assertEquals(320000, OutboxManager.backoffMs(6));
+        assertEquals(600000, OutboxManager.backoffMs(7));
+        assertEquals(600000, OutboxManager.backoffMs(16));
+        // No overflow however often it failed
+        assertEquals(600000, OutboxManager.backoffMs(1000));
+    }
+
+    @Test
+    public void retryAfterInSeconds() {
+        assertEquals(120000, OutboxManager.retryAfterMs(status(429, "Retry-After", "120"), NOW));
+        assertEquals(30000, OutboxManager.retryAfterMs(status(503, "retry-after", " 30 "), NOW));
+    }
+
+    @Test
+    public void retryAfterAsHttpDate() {
+        SimpleDateFormat format = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+        String inTwoMinutes = format.format(new Date(NOW + 120000));
+
+        assertEquals(120000, OutboxManager.retryAfterMs(status(429, "Retry-After", inTwoMinutes), NOW));
+        // A date already past asks for no extra wait
+        String past = format.format(new Date(NOW - 60000));
+        assertEquals(0, OutboxManager.retryAfterMs(status(429, "Retry-After", past), NOW));
+    }
+
+    @Test
+    public void retryAfterIsCappedAndIgnoredWhenUnusable() {
+        assertEquals(600000, OutboxManager.retryAfterMs(status(429, "Retry-After", "86400"), NOW));
+        assertEquals(0, OutboxManager.retryAfterMs(status(429, "Retry-After", "soon"), NOW));
+        assertEquals(0, OutboxManager.retryAfterMs(status(429), NOW));
+        assertEquals(0, OutboxManager.retryAfterMs(new TimeoutError(), NOW));
+    }
+
+    // ==================== HELPERS ====================
+
+    private static VolleyError status(int statusCode, String... headers) {
+        List<Header> allHeaders = new ArrayList<>();
+        for (int i = 0; i < headers.length; i += 2) {
+            allHeaders.add(new Header(headers[i], headers[i + 1]));
+        }
+        return new ServerError(new NetworkResponse(statusCode, new byte[0], false, 0, allHeaders));
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.content.Context;
+import android.os.Looper;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.view.ContextThemeWrapper;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.mal2017_assessmentmodule.models.Reservation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Bind counts of ReservationAdapter refreshes: only changed rows are
+ * rebound, and a status change rebinds just the status chip.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ReservationAdapterTest {
+
+    private static final long WAIT_LIMIT_MS = 10000;
+    private static final long DATE_TIME = 1767268800000L;  // Some time on 1 Jan 2026
+
+    private Context context;
+    private RecyclerView list;
+    private CountingAdapter adapter;
+    private final AtomicInteger updates = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        context = new ContextThemeWrapper(ApplicationProvider.getApplicationContext(),
+                R.style.Theme_MAL2017_AssessmentModule);
+        list = new RecyclerView(context);
+        list.setLayoutManager(new LinearLayoutManager(context));
+        list.setItemAnimator(null);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Field instance = RowViewPools.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+    }
+
+    @Test
+    public void initialLoadBindsEveryRowOnce() throws Exception {
+        show(reservations("confirmed", "Alice"));
+
+        assertEquals(4, adapter.fullBinds);
+        assertEquals(0, adapter.partialBinds);
+    }
+
+    @Test
+    public void statusChangeRebindsOnlyTheChip() throws Exception {
+        show(reservations("confirmed", "Alice"));
+
+        refresh(reservations("cancelled", "Alice"));
+
+        assertEquals(0, adapter.fullBinds);
+        assertEquals(1, adapter.partialBinds);
+        assertEquals(Collections.<Object>singletonList(ReservationAdapter.PAYLOAD_STATUS), adapter.lastPayloads);
+    }
+
+    @Test
+    public void otherChangeRebindsTheWholeRow() throws Exception {
+        show(reservations("confirmed", "Alice"));
+
+        refresh(reservations("confirmed", "Alicia"));
+
+        assertEquals(1, adapter.fullBinds);
+        assertEquals(0, adapter.partialBinds);
+    }
+
+    @Test
+    public void unchangedRowsAreNotRebound() throws Exception {
+        show(reservations("confirmed", "Alice"));
+
+        List<Reservation> more = reservations("confirmed", "Alice");
+        more.add(reservation(5, "Eve", "pending"));
+        refresh(more);
+
+        // Only the new row
+        assertEquals(1, adapter.fullBinds);
+        assertEquals(0, adapter.partialBinds);
+    }
+
+    // ==================== HELPERS ====================
+
+    private void show(List<Reservation> reservations) throws Exception {
+        adapter = new CountingAdapter(context, reservations);
+        adapter.registerAdapterDataObserver(new RecyclerView.AdapterDataObserver() {
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+                updates.incrementAndGet();
+            }
+
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount) {
+                updates.incrementAndGet();
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                updates.incrementAndGet();
+            }
+        });
+        list.setAdapter(adapter);
+        awaitUpdate(0);
+        layout();
+        adapter.lastPayloads = null;
+    }
+
+    /**
+     * updateData() and lay the list out again once the diff is applied,
+     * counting only the binds of this refresh
+     */
+    private void refresh(List<Reservation> reservations) throws Exception {
+        adapter.fullBinds = 0;
+        adapter.partialBinds = 0;
+        int before = updates.get();
+        adapter.updateData(reservations);
+        awaitUpdate(before);
+        layout();
+    }
+
+    private void awaitUpdate(int before) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_LIMIT_MS);
+        while (updates.get() == before) {
+            if (System.nanoTime() > deadline) {
+                fail("Adapter was not updated");
+            }
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.sleep(1);
+        }
+    }
+
+    private void layout() {
+        list.measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(4000, View.MeasureSpec.EXACTLY));
+        list.layout(0, 0, 1080, 4000);
+    }
+
+    private static List<Reservation> reservations(String secondStatus, String thirdGuest) {
+        List<Reservation> reservations = new ArrayList<>();
+        reservations.add(reservation(1, "Ann", "confirmed"));
+        reservations.add(reservation(2, "Bob", secondStatus));
+        reservations.add(reservation(3, thirdGuest, "pending"));
+        reservations.add(reservation(4, "Dan", "completed"));
+        return reservations;
+    }
+
+    private static Reservation reservation(int id, String guest, String status) {
+        Reservation reservation = new Reservation(1, guest, guest.toLowerCase() + "@mail.com",
+                "07000000000", 2, DATE_TIME + id * 3600000L, null, status);
+        reservation.setReservationId(id);
+        return reservation;
+    }
+
+    /**
+     * Counts full binds (no payload) and partial ones
+     */
+    private static class CountingAdapter extends ReservationAdapter {
+        int fullBinds;
+        int partialBinds;
+        List<Object> lastPayloads;
+
+        CountingAdapter(Context context, List<Reservation> reservations) {
+            super(context, reservations);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+            if (payloads.isEmpty()) {
+                fullBinds++;
+            } else {
+                partialBinds++;
+                lastPayloads = new ArrayList<>(payloads);
+            }
+            super.onBindViewHolder(holder, position, payloads);
+        }
+    }
+}
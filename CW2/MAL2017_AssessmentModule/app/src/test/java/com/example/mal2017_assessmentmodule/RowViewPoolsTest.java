@@ -0,0 +1,214 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.app.Application;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.Configuration;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.appcompat.view.ContextThemeWrapper;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * RowViewPools: which context rows are inflated in, which rows the shared
+ * pool takes, dropping rows on a configuration change, and first-frame
+ * times.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class RowViewPoolsTest {
+
+    private static final long WAIT_LIMIT_MS = 10000;
+    private static final int ROW = R.layout.item_staff_view_reservation;
+
+    private Application app;
+    private Context context;
+    private RowViewPools pools;
+
+    @Before
+    public void setUp() {
+        app = ApplicationProvider.getApplicationContext();
+        context = new ContextThemeWrapper(app, R.style.Theme_MAL2017_AssessmentModule);
+        pools = RowViewPools.getInstance(context);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Field instance = RowViewPools.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+    }
+
+    @Test
+    public void withoutSparesRowsAreInflatedWithTheListContext() {
+        RecyclerView list = newList();
+
+        View row = pools.inflate(list, ROW);
+
+        assertTrue(inflatedIn(row, context));
+    }
+
+    @Test
+    public void prewarmedRowsAreUsedFirstAndDoNotHoldTheScreen() throws Exception {
+        RecyclerView list = newList();
+        pools.attach(list, ROW);
+        awaitReady(ROW, 9);
+        awaitReady(R.layout.item_guest_view_menu, 5);
+
+        View row = pools.inflate(list, ROW);
+
+        assertFalse(inflatedIn(row, context));
+        assertEquals(8, pools.getReadyCount(ROW));
+    }
+
+    @Test
+    public void configurationChangeDropsPooledRows() throws Exception {
+        RecyclerView list = newList();
+        pools.attach(list, ROW);
+        awaitReady(ROW, 9);
+
+        Configuration night = new Configuration(app.getResources().getConfiguration());
+        night.uiMode = Configuration.UI_MODE_NIGHT_YES | Configuration.UI_MODE_TYPE_NORMAL;
+        app.onConfigurationChanged(night);
+
+        assertEquals(0, pools.getReadyCount(ROW));
+        assertTrue(inflatedIn(pools.inflate(list, ROW), context));
+    }
+
+    @Test
+    public void sharedPoolOnlyTakesPrewarmedRows() throws Exception {
+        RecyclerView first = newList();
+        RowAdapter adapter = new RowAdapter(0);
+        first.setAdapter(adapter);
+        pools.attach(first, ROW);
+        RecyclerView.ViewHolder inflated = adapter.createViewHolder(first, ROW);
+        awaitReady(ROW, 9);
+        RecyclerView.ViewHolder prewarmed = adapter.createViewHolder(first, ROW);
+        first.getRecycledViewPool().putRecycledView(inflated);
+        first.getRecycledViewPool().putRecycledView(prewarmed);
+
+        RecyclerView second = newList();
+        pools.attach(second, ROW);
+
+        assertSame(prewarmed, second.getRecycledViewPool().getRecycledView(ROW));
+        assertNull(second.getRecycledViewPool().getRecycledView(ROW));
+        assertSame(inflated, first.getRecycledViewPool().getRecycledView(ROW));
+    }
+
+    @Test
+    public void firstFrameIsRecordedOncePerList() throws Exception {
+        RecyclerView cold = newList();
+        pools.attach(cold, ROW);
+        cold.setAdapter(new RowAdapter(3));
+        layout(cold);
+        cold.getViewTreeObserver().dispatchOnPreDraw();
+        cold.getViewTreeObserver().dispatchOnPreDraw();
+
+        assertEquals(1, pools.getFirstFrameTimes(false).count);
+        assertEquals(0, pools.getFirstFrameTimes(true).count);
+
+        awaitReady(ROW, 9);
+        RecyclerView warm = newList();
+        pools.attach(warm, ROW);
+        warm.setAdapter(new RowAdapter(3));
+        layout(warm);
+        warm.getViewTreeObserver().dispatchOnPreDraw();
+
+        assertEquals(1, pools.getFirstFrameTimes(false).count);
+        assertEquals(1, pools.getFirstFrameTimes(true).count);
+    }
+
+    // ==================== HELPERS ====================
+
+    private RecyclerView newList() {
+        RecyclerView list = new RecyclerView(context);
+        list.setLayoutManager(new LinearLayoutManager(context));
+        list.setItemAnimator(null);
+        return list;
+    }
+
+    private void awaitReady(int rowLayout, int count) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_LIMIT_MS);
+        while (pools.getReadyCount(rowLayout) < count) {
+            if (System.nanoTime() > deadline) {
+                fail("Rows were not pre-inflated");
+            }
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.sleep(1);
+        }
+    }
+
+    private static void layout(RecyclerView list) {
+        list.measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(4000, View.MeasureSpec.EXACTLY));
+        list.layout(0, 0, 1080, 4000);
+    }
+
+    /**
+     * True if a view's context is, or wraps, the given one
+     */
+    private static boolean inflatedIn(View view, Context context) {
+        Context current = view.getContext();
+        while (current != null) {
+            if (current == context) {
+                return true;
+            }
+            current = current instanceof ContextWrapper ? ((ContextWrapper) current).getBaseContext() : null;
+        }
+        return false;
+    }
+
+    /**
+     * Unbound reservation rows, created through RowViewPools like the real adapters
+     */
+    private class RowAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+        private final int count;
+
+        RowAdapter(int count) {
+            this.count = count;
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            return ROW;
+        }
+
+        @NonNull
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            return new RecyclerView.ViewHolder(pools.inflate(parent, viewType)) {};
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {}
+
+        @Override
+        public int getItemCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.mal2017_assessmentmodule.models.User;
+import com.google.gson.Gson;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.reflect.Field;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Cost of the SessionManager accessors a screen calls together (the five
+ * in MakeReservationActivity.confirmReservation): the in-memory session
+ * against the old path, which read SharedPreferences and parsed the user
+ * JSON with Gson on every call. Also the first read of the saved session.
+ *
+ * Not part of the normal test run. Run with
+ * ./gradlew :app:testDebugUnitTest -Pbenchmarks --tests '*SessionManagerBenchmark' -i
+ * and read the printed times (best of ROUNDS, after warm-up).
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SessionManagerBenchmark {
+
+    private static final int CALLS = 20000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    @After
+    public void tearDown() throws Exception {
+        resetSession();
+    }
+
+    @Test
+    public void accessors() throws Exception {
+        Context context = ApplicationProvider.getApplicationContext();
+        User user = new User("ann", "password123", "Ann", "Lee", "ann@mail.com", "0123456789",
+                Constants.USER_TYPE_GUEST);
+        user.setUserId(42);
+        new SessionManager(context).createLoginSession(user);
+
+        // The old storage: the user as Gson JSON, parsed on each accessor call
+        SharedPreferences oldPrefs = context.getSharedPreferences("OldSession", Context.MODE_PRIVATE);
+        oldPrefs.edit().putBoolean("is_logged_in", true).putString("user_json", new Gson().toJson(user)).commit();
+        Gson gson = new Gson();
+
+        long bestNew = Long.MAX_VALUE;
+        long bestOld = Long.MAX_VALUE;
+        long bestFirstLoad = Long.MAX_VALUE;
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            resetSession();
+            long start = System.nanoTime();
+            SessionManager sessionManager = new SessionManager(context);
+            sessionManager.getSession();
+            long firstLoad = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                sink += confirmReservationReads(sessionManager);
+            }
+            long newTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                sink += oldConfirmReservationReads(oldPrefs, gson);
+            }
+            long oldTime = System.nanoTime() - start;
+
+            if (round >= WARMUP_ROUNDS) {
+                bestFirstLoad = Math.min(bestFirstLoad, firstLoad);
+                bestNew = Math.min(bestNew, newTime);
+                bestOld = Math.min(bestOld, oldTime);
+            }
+        }
+
+        System.out.println(String.format(Locale.ROOT,
+                "SessionManager, 5 accessor calls: in-memory session %.1f ns, old prefs + Gson path %.1f us; "
+                        + "first load of the saved session %.1f us",
+                (double) bestNew / CALLS, bestOld / 1e3 / CALLS, bestFirstLoad / 1e3));
+
+        // Both paths read the same user
+        int expected = confirmReservationReads(new SessionManager(context));
+        assertEquals(expected, oldConfirmReservationReads(oldPrefs, gson));
+        assertEquals(2L * (WARMUP_ROUNDS + ROUNDS) * CALLS * expected, sink);
+    }
+
+    /**
+     * The reads confirmReservation makes, folded into a number so they can't be optimised away
+     */
+    private static int confirmReservationReads(SessionManager sessionManager) {
+        User user = sessionManager.getLoggedInUser();
+        return user.getUserId() + sessionManager.getUserId() + (sessionManager.isStaff() ? 1 : 0)
+                + sessionManager.getUserEmail().length() + sessionManager.getUserFullName().length();
+    }
+
+    /**
+     * The same reads before the in-memory session: each accessor called
+     * getLoggedInUser(), which read the preferences and parsed the JSON
+     */
+    private static int oldConfirmReservationReads(SharedPreferences prefs, Gson gson) {
+        User user = oldGetLoggedInUser(prefs, gson);
+        User forId = oldGetLoggedInUser(prefs, gson);
+        User forStaff = oldGetLoggedInUser(prefs, gson);
+        User forEmail = oldGetLoggedInUser(prefs, gson);
+        User forName = oldGetLoggedInUser(prefs, gson);
+        return user.getUserId() + forId.getUserId()
+                + (Constants.USER_TYPE_STAFF.equalsIgnoreCase(forStaff.getUsertype()) ? 1 : 0)
+                + forEmail.getEmail().length() + forName.getFullName().length();
+    }
+
+    private static User oldGetLoggedInUser(SharedPreferences prefs, Gson gson) {
+        if (!prefs.getBoolean("is_logged_in", false)) {
+            return null;
+        }
+        String userJson = prefs.getString("user_json", null);
+        return userJson != null ? gson.fromJson(userJson, User.class) : null;
+    }
+
+    private static void resetSession() throws Exception {
+        Field field = SessionManager.class.getDeclaredField("current");
+        field.setAccessible(true);
+        field.set(null, null);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.mal2017_assessmentmodule.api.ApiClient;
+import com.example.mal2017_assessmentmodule.database.DatabaseHelper;
+import com.example.mal2017_assessmentmodule.models.User;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Users sync of 100,000 users with 1% churn (a third each updated,
+ * deleted and new): the delta sync against rewriting every synced row,
+ * and a sync of an unchanged set, which the watermark skips.
+ *
+ * Not part of the normal test run. Run with
+ * ./gradlew :app:testDebugUnitTest -Pbenchmarks --tests '*UserSyncBenchmark' -i
+ * and read the printed times (best of ROUNDS, after warm-up).
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class UserSyncBenchmark {
+
+    private static final int USERS = 100000;
+    private static final int CHURN = USERS / 100;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    @After
+    public void tearDown() throws Exception {
+        resetSingleton(DatabaseHelper.class);
+        resetSingleton(UserSyncManager.class);
+        resetSingleton(ApiClient.class);
+    }
+
+    @Test
+    public void deltaAgainstFullRewrite() {
+        Context context = ApplicationProvider.getApplicationContext();
+        DatabaseHelper dbHelper = DatabaseHelper.getInstance(context);
+        dbHelper.clearAllData();
+        UserSyncManager syncManager = UserSyncManager.getInstance(context);
+
+        List<User> base = generateUsers();
+        List<User> churned = churn(base);
+
+        long start = System.nanoTime();
+        syncManager.applyRemoteUsers(base);
+        long initial = System.nanoTime() - start;
+
+        long bestDelta = Long.MAX_VALUE;
+        long bestUnchanged = Long.MAX_VALUE;
+        long bestRewrite = Long.MAX_VALUE;
+        int deltaRows = 0;
+        int rewriteRows = 0;
+        List<User> current = base;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            // Every round moves to the other set, 1% apart either way
+            current = current == base ? churned : base;
+            start = System.nanoTime();
+            UserSyncManager.SyncResult result = syncManager.applyRemoteUsers(current);
+            long delta = System.nanoTime() - start;
+            deltaRows = result.rowsWritten;
+
+            start = System.nanoTime();
+            result = syncManager.applyRemoteUsers(current);
+            long unchanged = System.nanoTime() - start;
+            assertEquals(0, result.rowsWritten);
+
+            start = System.nanoTime();
+            rewriteRows = rewriteAll(dbHelper, current);
+            long rewrite = System.nanoTime() - start;
+
+            if (round >= WARMUP_ROUNDS) {
+                bestDelta = Math.min(bestDelta, delta);
+                bestUnchanged = Math.min(bestUnchanged, unchanged);
+                bestRewrite = Math.min(bestRewrite, rewrite);
+            }
+        }
+
+        System.out.println(String.format(Locale.ROOT,
+                "Users sync, %d users, %d changed: delta %.1f ms (%d rows written), "
+                        + "full rewrite %.1f ms (%d rows written), unchanged set %.1f ms; initial load %.1f ms",
+                USERS, CHURN, bestDelta / 1e6, deltaRows, bestRewrite / 1e6, rewriteRows,
+                bestUnchanged / 1e6, initial / 1e6));
+
+        assertEquals(CHURN, deltaRows);
+        assertEquals(current.size(), dbHelper.getUserHashes().size());
+    }
+
+    /**
+     * The old way: delete every synced user and insert the whole set again.
+     * The set hash is cleared, so the next sync diffs in full.
+     */
+    private static int rewriteAll(DatabaseHelper dbHelper, List<User> users) {
+        SQLiteDatabase db = dbHelper.getWritableDatabase();
+        int rowsWritten = 0;
+        db.beginTransaction();
+        try {
+            rowsWritten += db.delete("users", "content_hash IS NOT NULL", null);
+            SQLiteStatement insert = db.compileStatement("INSERT INTO users (user_id, username, password, "
+                    + "firstname, lastname, email, contact, usertype, content_hash) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            int userId = 1;
+            for (User user : users) {
+                insert.bindLong(1, userId++);
+                insert.bindString(2, user.getUsername());
+                insert.bindString(3, user.getPassword());
+                insert.bindString(4, user.getFirstname());
+                insert.bindString(5, user.getLastname());
+                insert.bindString(6, user.getEmail());
+                insert.bindString(7, user.getContact());
+                insert.bindString(8, user.getUsertype());
+                insert.bindString(9, user.getContentHash());
+                insert.executeInsert();
+                rowsWritten++;
+            }
+            db.delete("sync_state", null, null);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        return rowsWritten;
+    }
+
+    private static List<User> generateUsers() {
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(user(i));
+        }
+        return users;
+    }
+
+    /**
+     * A copy of the set with CHURN users changed: a third updated, a third
+     * gone and a third new
+     */
+    private static List<User> churn(List<User> base) {
+        List<User> churned = new ArrayList<>(USERS);
+        int updated = CHURN / 3;
+        int deleted = CHURN / 3;
+        for (int i = 0; i < base.size(); i++) {
+            if (i < updated) {
+                User user = user(i);
+                user.setContact("0199" + i);
+                churned.add(user);
+            } else if (i >= updated + deleted) {
+                churned.add(base.get(i));
+            }
+        }
+        for (int i = 0; i < CHURN - updated - deleted; i++) {
+            churned.add(user(USERS + i));
+        }
+        return churned;
+    }
+
+    private static User user(int i) {
+        return new User("user" + i, "password" + i, "First" + i, "Last" + i,
+                "user" + i + "@mail.com", "01" + i, i % 10 == 0 ? "staff" : "guest");
+    }
+
+    private static void resetSingleton(Class<?> type) throws Exception {
+        Field field = type.getDeclaredField("instance");
+        field.setAccessible(true);
+        field.set(null, null);
+    }
+}
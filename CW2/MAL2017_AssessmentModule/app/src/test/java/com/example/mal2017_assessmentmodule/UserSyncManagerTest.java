@@ -0,0 +1,208 @@
+package com.example.mal2017_assessmentmodule;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.mal2017_assessmentmodule.api.ApiClient;
+import com.example.mal2017_assessmentmodule.database.DatabaseHelper;
+import com.example.mal2017_assessmentmodule.models.OutboxEntry;
+import com.example.mal2017_assessmentmodule.models.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The users sync diff: what it inserts, updates, deletes and leaves alone.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class UserSyncManagerTest {
+
+    private DatabaseHelper dbHelper;
+    private UserSyncManager syncManager;
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        dbHelper = DatabaseHelper.getInstance(context);
+        dbHelper.clearAllData();
+        syncManager = UserSyncManager.getInstance(context);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        resetSingleton(DatabaseHelper.class);
+        resetSingleton(UserSyncManager.class);
+        resetSingleton(ApiClient.class);
+    }
+
+    @Test
+    public void onlyTheDeltaIsWritten() {
+        UserSyncManager.SyncResult first = syncManager.applyRemoteUsers(users("ann", "ben", "cat"));
+        assertEquals(3, first.inserted);
+        assertEquals(3, first.rowsWritten);
+        int benId = dbHelper.getUserHash("ben@mail.com").userId;
+
+        List<User> remote = users("ann", "ben", "dan");
+        remote.get(1).setContact("0199999999");
+        UserSyncManager.SyncResult second = syncManager.applyRemoteUsers(remote);
+
+        assertEquals(1, second.inserted);
+        assertEquals(1, second.updated);
+        assertEquals(1, second.deleted);
+        assertEquals(1, second.unchanged);
+        assertEquals(3, second.rowsWritten);
+        assertEquals(3, dbHelper.getUserHashes().size());
+        assertNull(dbHelper.getUserHash("cat@mail.com"));
+        assertNotNull(dbHelper.getUserHash("dan@mail.com"));
+        // Updated in place, keeping its local user ID
+        assertEquals(benId, dbHelper.getUserHash("ben@mail.com").userId);
+        assertEquals(remote.get(1).getContentHash(), dbHelper.getUserHash("ben@mail.com").contentHash);
+        assertEquals(benId, remote.get(1).getUserId());
+    }
+
+    @Test
+    public void localOnlyUsersAreKept() {
+        User local = user("local");
+        local.setUserId(50);
+        assertTrue(dbHelper.addUser(local));
+
+        UserSyncManager.SyncResult result = syncManager.applyRemoteUsers(users("ann"));
+
+        assertEquals(0, result.deleted);
+        assertEquals(50, dbHelper.getUserHash("local@mail.com").userId);
+        // New users get IDs after the local ones
+        assertEquals(51, dbHelper.getUserHash("ann@mail.com").userId);
+    }
+
+    @Test
+    public void duplicateEmailsKeepTheFirstUser() {
+        List<User> remote = users("ann");
+        User duplicate = user("ann2");
+        duplicate.setEmail("ANN@mail.com");
+        remote.add(duplicate);
+
+        UserSyncManager.SyncResult result = syncManager.applyRemoteUsers(remote);
+
+        assertEquals(1, result.inserted);
+        assertEquals(1, dbHelper.getUserHashes().size());
+        assertEquals("ann", dbHelper.getUserHash("ann@mail.com").username);
+    }
+
+    @Test
+    public void rowsBreakingAConstraintAreSkipped() {
+        User local = user("taken");
+        local.setEmail("someone.local@mail.com");
+        local.setUserId(10);
+        dbHelper.addUser(local);
+        syncManager.applyRemoteUsers(users("ann", "ben"));
+        int annId = dbHelper.getUserHash("ann@mail.com").userId;
+
+        // "taken" belongs to the local account, for both an update and an insert
+        UserSyncManager.SyncResult result = syncManager.applyRemoteUsers(takenUsernames());
+
+        // The rest of the delta still applies: dan inserted, ben deleted
+        assertEquals(2, result.rowsWritten);
+        assertNotNull(dbHelper.getUserHash("dan@mail.com"));
+        assertNull(dbHelper.getUserHash("ben@mail.com"));
+        assertNull(dbHelper.getUserHash("cat@mail.com"));
+        assertEquals("ann", dbHelper.getUserHash("ann@mail.com").username);
+        assertEquals(annId, dbHelper.getUserHash("ann@mail.com").userId);
+
+        // Not recorded as in step with the API, so the same set is diffed again
+        result = syncManager.applyRemoteUsers(takenUsernames());
+        assertEquals(1, result.unchanged);
+    }
+
+    @Test
+    public void usersWaitingInTheOutboxAreLeftAlone() {
+        syncManager.applyRemoteUsers(users("ann", "ben"));
+        DatabaseHelper.UserHashEntry ben = dbHelper.getUserHash("ben@mail.com");
+
+        // Ben changes his email; the API has not seen it yet
+        User changed = user("ben");
+        changed.setUserId(ben.userId);
+        changed.setEmail("ben.new@mail.com");
+        dbHelper.updateUser(changed);
+        assertTrue(dbHelper.enqueueUserMutation(OutboxEntry.OP_UPDATE, ben.userId, "{}",
+                Collections.<Long>emptySet()));
+
+        List<User> remote = users("ann", "ben", "cat");
+        UserSyncManager.SyncResult result = syncManager.applyRemoteUsers(remote);
+
+        // No re-insert of the old ben, no delete of the new one
+        assertEquals(1, result.inserted);
+        assertEquals(0, result.deleted);
+        assertEquals(2, result.pending);
+        assertNull(dbHelper.getUserHash("ben@mail.com"));
+        assertEquals(ben.userId, dbHelper.getUserHash("ben.new@mail.com").userId);
+
+        // Not recorded as in step with the API, so the same set is diffed again
+        result = syncManager.applyRemoteUsers(users("ann", "ben", "cat"));
+        assertEquals(2, result.pending);
+    }
+
+    @Test
+    public void unchangedSetIsNotDiffedAgain() {
+        syncManager.applyRemoteUsers(users("ann", "ben"));
+        // Removed behind the sync's back, a full diff would put it back
+        dbHelper.deleteUser(dbHelper.getUserHash("ben@mail.com").userId);
+
+        UserSyncManager.SyncResult result = syncManager.applyRemoteUsers(users("ann", "ben"));
+
+        assertEquals(2, result.unchanged);
+        assertEquals(0, result.rowsWritten);
+        assertNull(dbHelper.getUserHash("ben@mail.com"));
+
+        // Any change to the set diffs in full
+        result = syncManager.applyRemoteUsers(users("ann", "ben", "cat"));
+        assertEquals(2, result.inserted);
+        assertNotNull(dbHelper.getUserHash("ben@mail.com"));
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * ann renamed and cat new, both to the local account's username
+     */
+    private static List<User> takenUsernames() {
+        List<User> remote = users("ann", "cat", "dan");
+        remote.get(0).setUsername("taken");
+        remote.get(1).setUsername("taken");
+        return remote;
+    }
+
+    private static List<User> users(String... names) {
+        List<User> users = new ArrayList<>();
+        for (String name : names) {
+            users.add(user(name));
+        }
+        return users;
+    }
+
+    private static User user(String name) {
+        return new User(name, "password123", "Test", name, name + "@mail.com", "0123456789", "guest");
+    }
+
+    private static void resetSingleton(Class<?> type) throws Exception {
+        Field field = type.getDeclaredField("instance");
+        field.setAccessible(true);
+        field.set(null, null);
+    }
+}
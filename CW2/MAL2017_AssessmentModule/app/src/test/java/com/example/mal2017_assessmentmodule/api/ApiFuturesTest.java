@@ -0,0 +1,177 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.NoConnectionError;
+import com.android.volley.ServerError;
+import com.android.volley.TimeoutError;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * ApiFutures combinators: timeout, allOf, retry and error classification.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class ApiFuturesTest {
+
+    private static final long WAIT_MS = 5000;
+
+    @Test
+    public void withTimeoutPassesResultThrough() throws Exception {
+        CompletableFuture<String> call = new CompletableFuture<>();
+        CompletableFuture<String> result = ApiFutures.withTimeout(call, 1000);
+
+        call.complete("ok");
+        assertEquals("ok", result.get(WAIT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void withTimeoutFailsAndCancelsSlowCall() throws Exception {
+        CompletableFuture<String> call = new CompletableFuture<>();
+        CompletableFuture<String> result = ApiFutures.withTimeout(call, 50);
+
+        assertTrue(failure(result) instanceof TimeoutException);
+        assertTrue(call.isCancelled());
+    }
+
+    @Test
+    public void cancellingTimeoutResultCancelsCall() {
+        CompletableFuture<String> call = new CompletableFuture<>();
+        ApiFutures.withTimeout(call, 1000).cancel(true);
+        assertTrue(call.isCancelled());
+    }
+
+    @Test
+    public void allOfKeepsOrder() throws Exception {
+        CompletableFuture<Integer> first = new CompletableFuture<>();
+        CompletableFuture<Integer> second = new CompletableFuture<>();
+        CompletableFuture<List<Integer>> result = ApiFutures.allOf(Arrays.asList(first, second));
+
+        second.complete(2);
+        assertFalse(result.isDone());
+        first.complete(1);
+        assertEquals(Arrays.asList(1, 2), result.get(WAIT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void allOfOfNothingIsEmpty() throws Exception {
+        List<CompletableFuture<Integer>> none = Collections.emptyList();
+        assertTrue(ApiFutures.allOf(none).get().isEmpty());
+    }
+
+    @Test
+    public void allOfFailsFastAndCancelsTheRest() throws Exception {
+        CompletableFuture<Integer> failing = new CompletableFuture<>();
+        CompletableFuture<Integer> pending = new CompletableFuture<>();
+        CompletableFuture<List<Integer>> result = ApiFutures.allOf(Arrays.asList(failing, pending));
+
+        TimeoutError error = new TimeoutError();
+        failing.completeExceptionally(error);
+        assertSame(error, failure(result));
+        assertTrue(pending.isCancelled());
+    }
+
+    @Test
+    public void retryRepeatsTransientFailures() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> result = ApiFutures.retry(() -> {
+            CompletableFuture<String> attempt = new CompletableFuture<>();
+            if (calls.incrementAndGet() < 3) {
+                attempt.completeExceptionally(new NoConnectionError());
+            } else {
+                attempt.complete("ok");
+            }
+            return attempt;
+        }, 3, 10);
+
+        assertEquals("ok", result.get(WAIT_MS, TimeUnit.MILLISECONDS));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void retryGivesUpAfterMaxAttempts() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> result = ApiFutures.retry(() -> {
+            calls.incrementAndGet();
+            return failed(new ServerError());
+        }, 3, 10);
+
+        assertTrue(failure(result) instanceof ServerError);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void retryDoesNotRepeatClientErrors() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> result = ApiFutures.retry(() -> {
+            calls.incrementAndGet();
+            return failed(new AuthFailureError());
+        }, 3, 10);
+
+        assertTrue(failure(result) instanceof AuthFailureError);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void cancellingRetryStopsFurtherAttempts() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> result = ApiFutures.retry(() -> {
+            calls.incrementAndGet();
+            return failed(new TimeoutError());
+        }, 5, 200);
+
+        result.cancel(true);
+        Thread.sleep(500);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void classifiesTransientErrors() {
+        assertTrue(ApiFutures.isTransient(new TimeoutError()));
+        assertTrue(ApiFutures.isTransient(new NoConnectionError()));
+        assertTrue(ApiFutures.isTransient(new ServerError()));
+        assertTrue(ApiFutures.isTransient(new CompletionException(new TimeoutException())));
+        assertFalse(ApiFutures.isTransient(new AuthFailureError()));
+        assertFalse(ApiFutures.isTransient(new CircuitOpenError()));
+    }
+
+    @Test
+    public void unwrapsNestedWrappers() {
+        TimeoutError cause = new TimeoutError();
+        Throwable wrapped = new CompletionException(new ExecutionException(cause));
+        assertSame(cause, ApiFutures.unwrap(wrapped));
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable error) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+
+    private static Throwable failure(CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        fail("Expected a failure");
+        return null;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ApiServerProcess - The api-server module's reference API, run in a
+ * child process for benchmarks.
+ *
+ * The app's unit tests target Java 8 and api-server needs Java 21, so the
+ * server cannot be loaded into the test JVM. With -Pbenchmarks, Gradle
+ * installs it (:api-server:installDist) and passes its location and a
+ * Java 21 launcher as the apiServer.home and apiServer.java system
+ * properties (see app/build.gradle).
+ *
+ * Settings are changed while it runs through its admin endpoint, with
+ * the same keys as its command line (see ServerConfig).
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public final class ApiServerProcess implements Closeable {
+
+    private static final String MAIN_CLASS = "com.example.mal2017_assessmentmodule.server.ApiServer";
+    private static final String READY_LINE = "Reference API listening on ";
+    private static final long START_TIMEOUT_MS = 30000;
+
+    private final Process process;
+    private final String baseUrl;
+    private final String adminUrl;
+
+    private ApiServerProcess(Process process, String baseUrl) {
+        this.process = process;
+        this.baseUrl = baseUrl;
+        this.adminUrl = baseUrl.substring(0, baseUrl.indexOf('/', "http://".length())) + "/_admin/";
+    }
+
+    /**
+     * Start the server on a free port and wait until it listens
+     *
+     * @param settings Extra "--key=value" arguments
+     */
+    public static ApiServerProcess start(String... settings) throws IOException {
+        String home = System.getProperty("apiServer.home");
+        String java = System.getProperty("apiServer.java");
+        if (home == null || java == null) {
+            throw new IllegalStateException("apiServer.home and apiServer.java are not set; "
+                    + "run with ./gradlew :app:testDebugUnitTest -Pbenchmarks");
+        }
+
+        // nodelay: the JDK server writes headers and body separately, and with
+        // Nagle on every response on a kept-alive connection waits for a delayed ACK
+        List<String> command = new ArrayList<>(Arrays.asList(
+                java, "-Dsun.net.httpserver.nodelay=true",
+                "-cp", home + File.separator + "lib" + File.separator + "*", MAIN_CLASS, "--port=0"));
+        command.addAll(Arrays.asList(settings));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+        // "Reference API listening on http://localhost:PORT/base/path/ {settings}"
+        BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(START_TIMEOUT_MS);
+        String line;
+        while ((line = output.readLine()) != null) {
+            if (line.startsWith(READY_LINE)) {
+                String url = line.substring(READY_LINE.length()).split(" ")[0];
+                drain(output);
+                return new ApiServerProcess(process, url);
+            }
+            if (System.nanoTime() > deadline) {
+                break;
+            }
+        }
+        process.destroy();
+        throw new IOException("Reference API did not start (last output: " + line + ")");
+    }
+
+    /**
+     * Base URL of the API, like ApiClient's BASE_URLS
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Change a setting, e.g. configure("latency-ms", "300")
+     */
+    public void configure(String key, String value) throws IOException {
+        admin("config?" + URLEncoder.encode(key, "UTF-8") + "=" + URLEncoder.encode(value, "UTF-8"));
+    }
+
+    /**
+     * Drop all data on the server
+     */
+    public void reset() throws IOException {
+        admin("reset");
+    }
+
+    private void admin(String action) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(adminUrl + action).openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            int status = connection.getResponseCode();
+            if (status != 200) {
+                throw new IOException("Admin " + action + " answered HTTP " + status);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Override
+    public void close() {
+        process.destroy();
+        try {
+            process.waitFor(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Keep reading the server's output so it never blocks on a full pipe
+     */
+    private static void drain(BufferedReader output) {
+        Thread drainer = new Thread(() -> {
+            try {
+                while (output.readLine() != null) {
+                    // Discard
+                }
+            } catch (IOException ignored) {
+                // Process ended
+            }
+        }, "ApiServerOutput");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import android.os.SystemClock;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * CircuitBreaker state machine and adaptive timeout.
+ * Runs under Robolectric so SystemClock can be moved forward.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class CircuitBreakerTest {
+
+    private static final long OPEN_DURATION_MS = 15000;
+
+    private CircuitBreaker breaker;
+
+    @Before
+    public void setUp() {
+        breaker = new CircuitBreaker();
+    }
+
+    @Test
+    public void opensAfterThreeConsecutiveFailures() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void successResetsFailureCount() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess(100);
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void allowsOneProbeAfterCoolDown() {
+        open();
+        advance(OPEN_DURATION_MS - 1);
+        assertFalse(breaker.allowRequest());
+
+        advance(1);
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse("Only one probe at a time", breaker.allowRequest());
+    }
+
+    @Test
+    public void probeSuccessClosesCircuit() {
+        open();
+        advance(OPEN_DURATION_MS);
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordSuccess(100);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void probeFailureReopensCircuit() {
+        open();
+        advance(OPEN_DURATION_MS);
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    public void probeThatNeverReportsIsGivenUpAfterCoolDown() {
+        open();
+        advance(OPEN_DURATION_MS);
+        assertTrue(breaker.allowRequest());
+
+        advance(OPEN_DURATION_MS);
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void defaultTimeoutUntilEnoughSamples() {
+        for (int i = 0; i < 4; i++) {
+            breaker.recordSuccess(2000);
+        }
+        assertEquals(2500, breaker.getTimeoutMs());
+    }
+
+    @Test
+    public void timeoutIsThreeTimesP95WithinBounds() {
+        for (int i = 0; i < 19; i++) {
+            breaker.recordSuccess(100);
+        }
+        breaker.recordSuccess(2000);
+        assertEquals("p95 of 20 samples is the 19th", 1000, breaker.getTimeoutMs());
+
+        breaker.recordSuccess(2000);
+        assertEquals(6000, breaker.getTimeoutMs());
+
+        for (int i = 0; i < 50; i++) {
+            breaker.recordSuccess(5000);
+        }
+        assertEquals(8000, breaker.getTimeoutMs());
+    }
+
+    @Test
+    public void untimedResponsesCloseTheCircuitWithoutSampling() {
+        for (int i = 0; i < 5; i++) {
+            breaker.recordSuccess(1000);
+        }
+        assertEquals(3000, breaker.getTimeoutMs());
+
+        // An error response without a measured time must not pull the timeout down
+        for (int i = 0; i < 50; i++) {
+            breaker.recordSuccess(0);
+            breaker.recordSuccess();
+        }
+        assertEquals(3000, breaker.getTimeoutMs());
+
+        open();
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    private static void advance(long ms) {
+        SystemClock.setCurrentTimeMillis(SystemClock.elapsedRealtime() + ms);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * EndpointSelector failover and per-endpoint circuit breakers.
+ * No probes are started; failures are reported directly.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class EndpointSelectorTest {
+
+    private static final String FIRST = "http://first.example/api/";
+    private static final String SECOND = "http://second.example/api/";
+
+    private final EndpointSelector selector = new EndpointSelector(Arrays.asList(FIRST, SECOND));
+
+    @Test
+    public void failureMovesToNextEndpoint() {
+        assertEquals(FIRST, selector.getBaseUrl());
+
+        selector.reportFailure(FIRST + "read_user/1/2");
+
+        assertEquals(SECOND, selector.getBaseUrl());
+        assertFalse(selector.getEndpoints().get(0).isHealthy());
+        assertEquals(1, selector.getEndpoints().get(0).getFailures());
+    }
+
+    @Test
+    public void eachEndpointHasItsOwnBreaker() {
+        CircuitBreaker first = selector.getCircuitBreaker(FIRST + "read_all_users/1");
+        CircuitBreaker second = selector.getCircuitBreaker(SECOND + "read_all_users/1");
+        assertNotSame(first, second);
+        assertSame(first, selector.getCircuitBreaker(FIRST + "read_user/1/2"));
+
+        first.recordFailure();
+        first.recordFailure();
+        first.recordFailure();
+
+        assertFalse(first.allowRequest());
+        assertTrue(second.allowRequest());
+    }
+
+    @Test
+    public void unknownUrlUsesCurrentEndpointsBreaker() {
+        selector.reportFailure(FIRST);
+
+        assertSame(selector.getCircuitBreaker(SECOND), selector.getCircuitBreaker("http://other.example/"));
+    }
+
+    @Test
+    public void concurrentFailuresAreAllCounted() throws Exception {
+        int threads = 8;
+        int perThread = 1000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    selector.reportFailure(SECOND + "read_user/1/" + i);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread, selector.getEndpoints().get(1).getFailures());
+    }
+}
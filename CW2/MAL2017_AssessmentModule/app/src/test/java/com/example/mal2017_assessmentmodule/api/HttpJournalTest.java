@@ -0,0 +1,121 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import com.android.volley.Header;
+import com.android.volley.Request;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * HttpJournal: entries read back as written, and a journal cut short in
+ * the middle of an entry.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class HttpJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void entriesReadBackAsWritten() throws IOException {
+        File file = folder.newFile("journal.bin");
+        HttpJournal.Entry get = new HttpJournal.Entry(0, 120, Request.Method.GET,
+                "https://example.com/read_all_users/1", null, 200,
+                Arrays.asList(new Header("Content-Type", "application/json"), new Header("ETag", "\"v1\"")),
+                "{\"users\":[]}".getBytes(StandardCharsets.UTF_8));
+        HttpJournal.Entry post = new HttpJournal.Entry(150, 80, Request.Method.POST,
+                "https://example.com/create_user/1", "{\"username\":\"ann\"}".getBytes(StandardCharsets.UTF_8),
+                201, Collections.<Header>emptyList(), null);
+        HttpJournal.Entry timeout = new HttpJournal.Entry(300, 5000, Request.Method.GET,
+                "https://example.com/read_user/1/2", null, HttpJournal.STATUS_TIMEOUT,
+                Collections.<Header>emptyList(), "timeout".getBytes(StandardCharsets.UTF_8));
+
+        try (HttpJournal.Writer writer = new HttpJournal.Writer(file)) {
+            writer.append(get);
+            writer.append(post);
+            writer.append(timeout);
+        }
+        List<HttpJournal.Entry> entries = HttpJournal.read(file);
+
+        assertEquals(3, entries.size());
+        assertEntryEquals(get, entries.get(0));
+        assertEntryEquals(post, entries.get(1));
+        assertEntryEquals(timeout, entries.get(2));
+        assertNull(entries.get(0).requestBody);
+        assertNull(entries.get(1).body);
+        assertFalse(entries.get(0).isFailure());
+        assertTrue(entries.get(2).isFailure());
+    }
+
+    @Test
+    public void entryCutShortIsDropped() throws IOException {
+        File file = folder.newFile("journal.bin");
+        // Not closed: the app was killed while writing the second entry
+        HttpJournal.Writer writer = new HttpJournal.Writer(file);
+        writer.append(entry(0, "first"));
+        long firstEnd = file.length();
+        writer.append(entry(100, "second"));
+        long secondEnd = file.length();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(firstEnd + (secondEnd - firstEnd) / 2);
+        }
+
+        List<HttpJournal.Entry> entries = HttpJournal.read(file);
+
+        assertEquals(1, entries.size());
+        assertEquals("first", new String(entries.get(0).body, StandardCharsets.UTF_8));
+        writer.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void otherFilesAreRejected() throws IOException {
+        File file = folder.newFile("not-a-journal.bin");
+        try (GZIPOutputStream out = new GZIPOutputStream(new FileOutputStream(file))) {
+            out.write("not a journal".getBytes(StandardCharsets.UTF_8));
+        }
+
+        HttpJournal.read(file);
+    }
+
+    // ==================== HELPERS ====================
+
+    private static HttpJournal.Entry entry(long offsetMs, String body) {
+        return new HttpJournal.Entry(offsetMs, 50, Request.Method.GET, "https://example.com/" + body, null,
+                200, Collections.<Header>emptyList(), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertEntryEquals(HttpJournal.Entry expected, HttpJournal.Entry actual) {
+        assertEquals(expected.startOffsetMs, actual.startOffsetMs);
+        assertEquals(expected.durationMs, actual.durationMs);
+        assertEquals(expected.method, actual.method);
+        assertEquals(expected.url, actual.url);
+        assertArrayEquals(expected.requestBody, actual.requestBody);
+        assertEquals(expected.statusCode, actual.statusCode);
+        // Compared by hand: Header.equals needs the Android TextUtils
+        assertEquals(expected.headers.size(), actual.headers.size());
+        for (int i = 0; i < expected.headers.size(); i++) {
+            assertEquals(expected.headers.get(i).getName(), actual.headers.get(i).getName());
+            assertEquals(expected.headers.get(i).getValue(), actual.headers.get(i).getValue());
+        }
+        assertArrayEquals(expected.body, actual.body);
+    }
+}
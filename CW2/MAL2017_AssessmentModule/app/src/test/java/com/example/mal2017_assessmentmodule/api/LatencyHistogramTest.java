@@ -0,0 +1,116 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * LatencyHistogram buckets, percentiles and concurrent recording.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void everyValueFallsInABucketWithinTheErrorBound() {
+        int previous = -1;
+        for (long value = 0; value < (1L << 21); value++) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long upper = LatencyHistogram.upperBoundOf(bucket);
+
+            assertTrue("Buckets must not go backwards at " + value, bucket >= previous);
+            assertTrue("Upper bound " + upper + " below " + value, upper >= value);
+            assertTrue("Error above 12.5% at " + value, upper - value <= value / 8);
+            previous = bucket;
+        }
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        for (int value = 0; value < 16; value++) {
+            assertEquals(value, LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(value)));
+        }
+    }
+
+    @Test
+    public void percentilesOfUniformValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.count);
+        assertEquals(500, snapshot.meanMs);
+        assertEquals(1000, snapshot.maxMs);
+        assertWithin(500, snapshot.p50Ms);
+        assertWithin(900, snapshot.p90Ms);
+        assertWithin(990, snapshot.p99Ms);
+        assertEquals(1000, snapshot.percentile(100));
+    }
+
+    @Test
+    public void percentileNeverExceedsMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);  // Bucket 1000-1023
+
+        assertEquals(1000, histogram.snapshot().p99Ms);
+    }
+
+    @Test
+    public void emptyAndOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().count);
+        assertEquals(0, histogram.snapshot().p50Ms);
+
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE / 4);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.count);
+        assertEquals(0, snapshot.percentile(50));
+        assertEquals(Long.MAX_VALUE / 4, snapshot.maxMs);
+    }
+
+    @Test
+    public void concurrentRecordsAreAllCounted() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 8;
+        int perThread = 100000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record((i + offset) % 5000);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(threads * perThread, snapshot.count);
+        assertEquals(4999, snapshot.maxMs);
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue("Expected about " + expected + ", got " + actual,
+                actual >= expected && actual <= expected + expected / 8);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import android.content.Context;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.mal2017_assessmentmodule.Constants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * How long a login waits for its API check (read_all_users) against the
+ * reference API (api-server) when it is healthy, slow, flaky or down,
+ * with the circuit breaker and adaptive timeout in place.
+ *
+ * This is the wait before LoginOrchestrator can fall back to the local
+ * database when the local check misses; a local match does not wait for
+ * it at all (see LoginOrchestratorTest). "down" is a host that accepts
+ * connections and never answers, the case that used to cost a full
+ * Volley timeout on every login. Logins answered with CircuitOpenError
+ * are counted as fast-failed.
+ *
+ * Not part of the normal test run. Run with
+ * ./gradlew :app:testDebugUnitTest -Pbenchmarks --tests '*LoginLatencyBenchmark' -i
+ * and read the printed times.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class LoginLatencyBenchmark {
+
+    private static final int LOGINS = 20;
+    private static final int SEED_USERS = 50;
+    private static final long WAIT_LIMIT_MS = 60000;
+
+    private ApiServerProcess server;
+    private Context context;
+
+    @Before
+    public void setUp() throws Exception {
+        server = ApiServerProcess.start("--seed-users=" + SEED_USERS);
+        context = ApplicationProvider.getApplicationContext();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        resetApiClient();
+        server.close();
+    }
+
+    @Test
+    public void loginApiCheck() throws Exception {
+        measure("healthy");
+
+        server.configure("latency-ms", "300");
+        server.configure("latency-jitter-ms", "200");
+        measure("slow");
+
+        server.configure("latency-ms", "50");
+        server.configure("latency-jitter-ms", "0");
+        server.configure("error-rate", "0.3");
+        measure("flaky");
+
+        server.configure("error-rate", "0");
+        server.configure("latency-ms", "60000");
+        measure("down");
+    }
+
+    /**
+     * LOGINS API checks one after another, each with a fresh ApiClient
+     * for the mode so circuit state does not carry over
+     */
+    private void measure(String mode) throws Exception {
+        resetApiClient();
+        ApiClient.useBaseUrls(Collections.singletonList(server.getBaseUrl()));
+        ApiService apiService = new ApiService(context);
+
+        long[] times = new long[LOGINS];
+        int fastFailed = 0;
+        int errors = 0;
+        for (int i = 0; i < LOGINS; i++) {
+            Object[] outcome = new Object[1];
+            long start = System.nanoTime();
+            apiService.getAllUsers(Constants.STUDENT_ID,
+                    response -> outcome[0] = response,
+                    error -> outcome[0] = error);
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(WAIT_LIMIT_MS);
+            while (outcome[0] == null) {
+                if (System.nanoTime() > deadline) {
+                    fail("No answer in " + mode + " mode");
+                }
+                shadowOf(Looper.getMainLooper()).idle();
+                Thread.sleep(1);
+            }
+            times[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            if (outcome[0] instanceof CircuitOpenError) {
+                fastFailed++;
+            } else if (outcome[0] instanceof Exception) {
+                errors++;
+            }
+        }
+
+        long total = 0;
+        for (long time : times) {
+            total += time;
+        }
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        System.out.println(String.format(Locale.ROOT,
+                "%-8s %d logins: p50 %d ms, p90 %d ms, max %d ms, total %d ms; "
+                        + "%d errors, %d fast-failed by the open circuit",
+                mode, LOGINS, sorted[LOGINS / 2], sorted[LOGINS * 9 / 10], sorted[LOGINS - 1], total,
+                errors, fastFailed));
+    }
+
+    private static void resetApiClient() throws Exception {
+        Field instance = ApiClient.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        ApiClient client = (ApiClient) instance.get(null);
+        if (client != null) {
+            client.getEndpoints().stop();
+            client.getLanes().getInteractiveQueue().stop();
+            client.getLanes().getBackgroundQueue().stop();
+        }
+        instance.set(null, null);
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Request;
+import com.android.volley.toolbox.BaseHttpStack;
+import com.android.volley.toolbox.HttpResponse;
+import com.android.volley.toolbox.HurlStack;
+import com.android.volley.toolbox.StringRequest;
+import com.example.mal2017_assessmentmodule.Constants;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Repeated read_user calls against the reference API (api-server) with
+ * Volley's HurlStack and with OkHttpStack: time per call, TCP connections
+ * opened (each one a handshake) and bytes on the wire.
+ *
+ * The calls go through a relay that counts connections and bytes in both
+ * directions, so both stacks are measured the same way. Connections are
+ * counted over all calls, warm-up included, since a kept-alive connection
+ * is only opened once. Users carry
+ * PADDING_BYTES of padding, enough for the server to gzip them when the
+ * client accepts it.
+ *
+ * Not part of the normal test run. Run with
+ * ./gradlew :app:testDebugUnitTest -Pbenchmarks --tests '*OkHttpStackBenchmark' -i
+ * and read the printed times (best of ROUNDS, after warm-up).
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class OkHttpStackBenchmark {
+
+    private static final int CALLS = 100;
+    private static final int SEED_USERS = 50;
+    private static final int PADDING_BYTES = 2048;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    private ApiServerProcess server;
+    private CountingRelay relay;
+    private String baseUrl;
+
+    @Before
+    public void setUp() throws Exception {
+        server = ApiServerProcess.start("--seed-users=" + SEED_USERS, "--padding-bytes=" + PADDING_BYTES);
+        URL url = new URL(server.getBaseUrl());
+        relay = new CountingRelay(url.getHost(), url.getPort());
+        baseUrl = new URL(url.getProtocol(), url.getHost(), relay.getPort(), url.getFile()).toString();
+    }
+
+    @After
+    public void tearDown() {
+        relay.close();
+        server.close();
+    }
+
+    @Test
+    public void repeatedReadUser() throws Exception {
+        measure("New socket", new HurlStack() {
+            @Override
+            protected HttpURLConnection createConnection(URL url) throws IOException {
+                // A handshake for every call: what the connection pool saves
+                HttpURLConnection connection = super.createConnection(url);
+                connection.setRequestProperty("Connection", "close");
+                return connection;
+            }
+        });
+        measure("HurlStack", new HurlStack());
+        measure("OkHttpStack", new OkHttpStack());
+    }
+
+    private void measure(String name, BaseHttpStack stack) throws Exception {
+        relay.connections.set(0);
+        long bestTime = Long.MAX_VALUE;
+        long received = 0;
+        long sent = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            relay.resetBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                readUser(stack, 1 + i % SEED_USERS);
+            }
+            long time = System.nanoTime() - start;
+
+            if (round >= WARMUP_ROUNDS && time < bestTime) {
+                bestTime = time;
+                received = relay.bytesToClient.get();
+                sent = relay.bytesToServer.get();
+            }
+        }
+
+        System.out.println(String.format(Locale.ROOT,
+                "%-12s %.2f ms per read_user call, %.0f bytes received and %.0f sent per call; "
+                        + "%d connections opened for all %d calls",
+                name, bestTime / 1e6 / CALLS, (double) received / CALLS, (double) sent / CALLS,
+                relay.connections.get(), (WARMUP_ROUNDS + ROUNDS) * CALLS));
+    }
+
+    private void readUser(BaseHttpStack stack, int userId) throws Exception {
+        StringRequest request = new StringRequest(Request.Method.GET,
+                baseUrl + "read_user/" + Constants.STUDENT_ID + "/" + userId, response -> { }, error -> { });
+        request.setRetryPolicy(new DefaultRetryPolicy(5000, 0, 1f));
+
+        HttpResponse response = stack.executeRequest(request, Collections.<String, String>emptyMap());
+        assertEquals(200, response.getStatusCode());
+        // Read to the end and close, as Volley does, so the connection can be reused
+        try (InputStream in = response.getContent()) {
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) != -1) {
+                // Discard
+            }
+        }
+    }
+
+    /**
+     * TCP relay to the server that counts the connections made through it
+     * and the bytes passed each way
+     */
+    private static final class CountingRelay implements Closeable {
+        final AtomicInteger connections = new AtomicInteger();
+        final AtomicLong bytesToClient = new AtomicLong();
+        final AtomicLong bytesToServer = new AtomicLong();
+
+        private final ServerSocket serverSocket;
+
+        CountingRelay(String host, int port) throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(() -> {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        Socket client = serverSocket.accept();
+                        Socket upstream = new Socket(host, port);
+                        // Pass each write on at once, as a direct connection would
+                        client.setTcpNoDelay(true);
+                        upstream.setTcpNoDelay(true);
+                        connections.incrementAndGet();
+                        pump(client, upstream, bytesToServer);
+                        pump(upstream, client, bytesToClient);
+                    } catch (IOException e) {
+                        // Relay closed
+                    }
+                }
+            }, "CountingRelay");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        void resetBytes() {
+            bytesToClient.set(0);
+            bytesToServer.set(0);
+        }
+
+        @Override
+        public void close() {
+            try {
+                serverSocket.close();
+            } catch (IOException ignored) {
+                // Already closed
+            }
+        }
+
+        private static void pump(Socket from, Socket to, AtomicLong counter) {
+            Thread pump = new Thread(() -> {
+                byte[] buffer = new byte[8192];
+                try {
+                    InputStream in = from.getInputStream();
+                    OutputStream out = to.getOutputStream();
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                        out.flush();
+                        counter.addAndGet(read);
+                    }
+                } catch (IOException ignored) {
+                    // Either side closed
+                } finally {
+                    closeQuietly(from);
+                    closeQuietly(to);
+                }
+            }, "CountingRelayPump");
+            pump.setDaemon(true);
+            pump.start();
+        }
+
+        private static void closeQuietly(Socket socket) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Already closed
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import com.android.volley.DefaultRetryPolicy;
+import com.android.volley.Header;
+import com.android.volley.Request;
+import com.android.volley.toolbox.HttpResponse;
+import com.android.volley.toolbox.StringRequest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * OkHttpStack against a local server: the per-host request cap, the
+ * replay rule for POST/PATCH, and deflate decoding.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class OkHttpStackTest {
+
+    private static final String BODY = "{\"users\":[\"the same text, many times over\"]}";
+    private static final long WAIT_LIMIT_MS = 10000;
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final AtomicReference<String> acceptEncoding = new AtomicReference<>();
+    private final CountDownLatch releaseSlow = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/slow", exchange -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                releaseSlow.await(WAIT_LIMIT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            active.decrementAndGet();
+            respond(exchange, BODY.getBytes(StandardCharsets.UTF_8), null);
+        });
+        server.createContext("/deflate", exchange -> {
+            acceptEncoding.set(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (DeflaterOutputStream deflater = new DeflaterOutputStream(compressed)) {
+                deflater.write(BODY.getBytes(StandardCharsets.UTF_8));
+            }
+            respond(exchange, compressed.toByteArray(), "deflate");
+        });
+        server.createContext("/plain", exchange ->
+                respond(exchange, BODY.getBytes(StandardCharsets.UTF_8), null));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @After
+    public void tearDown() {
+        releaseSlow.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    public void concurrentRequestsPerHostAreCapped() throws Exception {
+        OkHttpStack stack = new OkHttpStack(OkHttpStack.createClient(5, 5, 2));
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                results.add(callers.submit(() -> read(stack.executeRequest(get("slow", 5000),
+                        Collections.<String, String>emptyMap()))));
+            }
+
+            // Two reach the server, the rest wait for a permit
+            long deadline = System.currentTimeMillis() + WAIT_LIMIT_MS;
+            while (active.get() < 2) {
+                if (System.currentTimeMillis() > deadline) {
+                    fail("Requests did not reach the server");
+                }
+                Thread.sleep(10);
+            }
+            Thread.sleep(200);
+            assertEquals(2, active.get());
+
+            releaseSlow.countDown();
+            for (Future<String> result : results) {
+                assertEquals(BODY, result.get(WAIT_LIMIT_MS, TimeUnit.MILLISECONDS));
+            }
+            assertEquals(2, maxActive.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void permitIsHeldUntilTheBodyIsClosed() throws Exception {
+        OkHttpStack stack = new OkHttpStack(OkHttpStack.createClient(5, 5, 1));
+
+        HttpResponse first = stack.executeRequest(get("plain", 5000), Collections.<String, String>emptyMap());
+        try {
+            stack.executeRequest(get("plain", 200), Collections.<String, String>emptyMap());
+            fail("Second request got a permit while the first body was open");
+        } catch (SocketTimeoutException expected) {
+            // Waited the request timeout for the only permit
+        }
+
+        assertEquals(BODY, read(first));
+        assertEquals(BODY, read(stack.executeRequest(get("plain", 5000), Collections.<String, String>emptyMap())));
+    }
+
+    @Test
+    public void onlyIdempotentOrKeyedRequestsAreReplayed() {
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder().url(baseUrl + "x");
+        okhttp3.RequestBody body = okhttp3.RequestBody.create(new byte[0], null);
+
+        assertTrue(OkHttpStack.isSafeToReplay(builder.get().build()));
+        assertTrue(OkHttpStack.isSafeToReplay(builder.put(body).build()));
+        assertTrue(OkHttpStack.isSafeToReplay(builder.delete().build()));
+        assertFalse(OkHttpStack.isSafeToReplay(builder.post(body).build()));
+        assertFalse(OkHttpStack.isSafeToReplay(builder.patch(body).build()));
+        assertTrue(OkHttpStack.isSafeToReplay(builder.post(body).header("Idempotency-Key", "k1").build()));
+        assertTrue(OkHttpStack.isSafeToReplay(builder.patch(body).header("Idempotency-Key", "k2").build()));
+    }
+
+    @Test
+    public void deflateIsAdvertisedAndDecoded() throws Exception {
+        OkHttpStack stack = new OkHttpStack();
+
+        HttpResponse response = stack.executeRequest(get("deflate", 5000), Collections.<String, String>emptyMap());
+
+        assertEquals("gzip, deflate", acceptEncoding.get());
+        assertEquals(BODY, read(response));
+        assertNull(header(response, "Content-Encoding"));
+        assertNull(header(response, "Content-Length"));
+    }
+
+    // ==================== HELPERS ====================
+
+    private Request<String> get(String path, int timeoutMs) {
+        StringRequest request = new StringRequest(Request.Method.GET, baseUrl + path, response -> { }, error -> { });
+        request.setRetryPolicy(new DefaultRetryPolicy(timeoutMs, 0, 1f));
+        return request;
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body, String encoding) throws IOException {
+        if (encoding != null) {
+            exchange.getResponseHeaders().set("Content-Encoding", encoding);
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Read and close the body, which gives back the request's permit
+     */
+    private static String read(HttpResponse response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = response.getContent()) {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String header(HttpResponse response, String name) {
+        for (Header header : response.getHeaders()) {
+            if (header.getName().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+}
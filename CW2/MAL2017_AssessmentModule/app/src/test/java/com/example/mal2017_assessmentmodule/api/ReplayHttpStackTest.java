@@ -0,0 +1,140 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import com.android.volley.AuthFailureError;
+import com.android.volley.Header;
+import com.android.volley.Request;
+import com.android.volley.toolbox.HttpResponse;
+import com.android.volley.toolbox.StringRequest;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * ReplayHttpStack: which recorded response a request gets, and recorded
+ * failures thrown again.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ReplayHttpStackTest {
+
+    private static final String URL = "https://example.com/create_user/1";
+
+    @Test
+    public void requestBodyPicksTheRecordedResponse() throws Exception {
+        ReplayHttpStack stack = new ReplayHttpStack(Arrays.asList(
+                entry(Request.Method.POST, URL, "{\"username\":\"ann\"}", 201, "ann created"),
+                entry(Request.Method.POST, URL, "{\"username\":\"ben\"}", 409, "ben exists")),
+                ReplayHttpStack.Timing.FAST);
+
+        HttpResponse ben = execute(stack, post(URL, "{\"username\":\"ben\"}"));
+        HttpResponse ann = execute(stack, post(URL, "{\"username\":\"ann\"}"));
+
+        assertEquals(409, ben.getStatusCode());
+        assertEquals("ben exists", read(ben));
+        assertEquals(201, ann.getStatusCode());
+        assertEquals("ann created", read(ann));
+    }
+
+    @Test
+    public void otherBodyFallsBackToMethodAndUrl() throws Exception {
+        ReplayHttpStack stack = new ReplayHttpStack(Arrays.asList(
+                entry(Request.Method.POST, URL, "{\"username\":\"ann\"}", 201, "first"),
+                entry(Request.Method.POST, URL, "{\"username\":\"ben\"}", 201, "second")),
+                ReplayHttpStack.Timing.FAST);
+
+        // Never recorded: served the recordings for the URL in order, then from the start
+        assertEquals("first", read(execute(stack, post(URL, "{\"username\":\"cat\"}"))));
+        assertEquals("second", read(execute(stack, post(URL, "{\"username\":\"dan\"}"))));
+        assertEquals("first", read(execute(stack, post(URL, "{\"username\":\"eve\"}"))));
+    }
+
+    @Test
+    public void methodIsPartOfTheMatch() throws Exception {
+        ReplayHttpStack stack = new ReplayHttpStack(Collections.singletonList(
+                entry(Request.Method.POST, URL, "{}", 201, "created")), ReplayHttpStack.Timing.FAST);
+
+        try {
+            execute(stack, new StringRequest(Request.Method.GET, URL, response -> { }, error -> { }));
+            fail("GET was served a recorded POST");
+        } catch (IOException expected) {
+            // Never recorded
+        }
+    }
+
+    @Test
+    public void recordedTimeoutIsThrownAgain() throws Exception {
+        ReplayHttpStack stack = new ReplayHttpStack(Collections.singletonList(
+                entry(Request.Method.POST, URL, "{}", HttpJournal.STATUS_TIMEOUT, "Read timed out")),
+                ReplayHttpStack.Timing.FAST);
+
+        try {
+            execute(stack, post(URL, "{}"));
+            fail("Recorded timeout was not thrown");
+        } catch (SocketTimeoutException expected) {
+            assertEquals("Read timed out", expected.getMessage());
+        }
+    }
+
+    @Test
+    public void recordedIoFailureIsThrownAgain() throws Exception {
+        ReplayHttpStack stack = new ReplayHttpStack(Collections.singletonList(
+                entry(Request.Method.POST, URL, "{}", HttpJournal.STATUS_IO_ERROR, "Connection reset")),
+                ReplayHttpStack.Timing.FAST);
+
+        try {
+            execute(stack, post(URL, "{}"));
+            fail("Recorded failure was not thrown");
+        } catch (SocketTimeoutException unexpected) {
+            fail("Connection failure replayed as a timeout");
+        } catch (IOException expected) {
+            assertEquals("Connection reset", expected.getMessage());
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private static HttpJournal.Entry entry(int method, String url, String requestBody, int status, String body) {
+        return new HttpJournal.Entry(0, 10, method, url, requestBody.getBytes(StandardCharsets.UTF_8), status,
+                Collections.<Header>emptyList(), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Request<String> post(String url, String body) {
+        return new StringRequest(Request.Method.POST, url, response -> { }, error -> { }) {
+            @Override
+            public byte[] getBody() {
+                return body.getBytes(StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    private static HttpResponse execute(ReplayHttpStack stack, Request<?> request)
+            throws IOException, AuthFailureError {
+        return stack.executeRequest(request, Collections.<String, String>emptyMap());
+    }
+
+    private static String read(HttpResponse response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = response.getContent()) {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.mal2017_assessmentmodule.api;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.android.volley.Header;
+import com.android.volley.NetworkResponse;
+import com.android.volley.Request;
+import com.android.volley.Response;
+import com.android.volley.ServerError;
+import com.android.volley.VolleyError;
+import com.example.mal2017_assessmentmodule.models.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * UserBatchLoader.getUsers against a stub read_user with injected latency:
+ * deduplication, caching, the concurrency bound, priorities, and the
+ * throughput gained by sending requests in parallel.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class UserBatchLoaderTest {
+
+    private static final long LATENCY_MS = 50;
+    private static final long WAIT_LIMIT_MS = 10000;
+
+    private ScheduledExecutorService stubServer;
+    private StubApiService api;
+
+    @Before
+    public void setUp() {
+        stubServer = Executors.newScheduledThreadPool(8);
+        api = new StubApiService(ApplicationProvider.getApplicationContext());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        stubServer.shutdownNow();
+        Field instance = ApiClient.class.getDeclaredField("instance");
+        instance.setAccessible(true);
+        instance.set(null, null);
+    }
+
+    @Test
+    public void repeatedIdsAreFetchedOnce() throws Exception {
+        UserBatchLoader loader = new UserBatchLoader(api, "1");
+
+        Map<Integer, User> users = await(loader.getUsers(new int[]{1, 2, 2, 3, 1}));
+
+        assertEquals(Arrays.asList(1, 2, 3), new ArrayList<>(users.keySet()));
+        assertEquals(3, api.calls.get());
+    }
+
+    @Test
+    public void overlappingBatchesShareRequests() throws Exception {
+        UserBatchLoader loader = new UserBatchLoader(api, "1");
+
+        CompletableFuture<Map<Integer, User>> first = loader.getUsers(new int[]{1, 2, 3});
+        CompletableFuture<Map<Integer, User>> second = loader.getUsers(new int[]{2, 3, 4});
+
+        assertEquals(3, await(first).size());
+        assertEquals(3, await(second).size());
+        assertEquals(4, api.calls.get());
+    }
+
+    @Test
+    public void loadedUsersComeFromCache() throws Exception {
+        UserBatchLoader loader = new UserBatchLoader(api, "1");
+        await(loader.getUsers(new int[]{1, 2}));
+
+        Map<Integer, User> again = await(loader.getUsers(new int[]{2, 1}));
+
+        assertEquals(Arrays.asList(2, 1), new ArrayList<>(again.keySet()));
+        assertEquals(2, api.calls.get());
+    }
+
+    @Test
+    public void neverExceedsMaxConcurrent() throws Exception {
+        UserBatchLoader loader = new UserBatchLoader(api, "1");
+        loader.setMaxConcurrent(4);
+
+        await(loader.getUsers(range(1, 20)));
+
+        assertEquals(20, api.calls.get());
+        assertEquals(4, api.maxInFlight.get());
+    }
+
+    @Test
+    public void parallelRequestsRaiseThroughput() throws Exception {
+        int[] ids = range(1, 20);
+
+        UserBatchLoader serial = new UserBatchLoader(api, "1");
+        serial.setMaxConcurrent(1);
+        long serialMs = timed(serial, ids);
+
+        UserBatchLoader parallel = new UserBatchLoader(new StubApiService(
+                ApplicationProvider.getApplicationContext()), "1");
+        parallel.setMaxConcurrent(8);
+        long parallelMs = timed(parallel, ids);
+
+        System.out.println("20 ids at " + LATENCY_MS + " ms latency: " + serialMs
+                + " ms with 1 in flight, " + parallelMs + " ms with 8");
+        assertTrue("Serial took " + serialMs + " ms", serialMs >= ids.length * LATENCY_MS);
+        assertTrue("Parallel took " + parallelMs + " ms", parallelMs * 3 < serialMs);
+    }
+
+    @Test
+    public void urgentBatchIsSentBeforeWaitingIds() throws Exception {
+        UserBatchLoader loader = new UserBatchLoader(api, "1");
+        loader.setMaxConcurrent(1);
+
+        CompletableFuture<Map<Integer, User>> normal = loader.getUsers(range(1, 5));
+        CompletableFuture<Map<Integer, User>> urgent = loader.getUsers(new int[]{10}, Request.Priority.HIGH);
+        await(normal);
+        await(urgent);
+
+        // 1 was already sent when the urgent batch arrived
+        assertEquals(Arrays.asList(1, 10, 2, 3, 4, 5), api.sent);
+        assertEquals(Request.Priority.HIGH, api.priorities.get(1));
+    }
+
+    @Test
+    public void unknownIdsAreLeftOut() throws Exception {
+        api.missingId = 2;
+        UserBatchLoader loader = new UserBatchLoader(api, "1");
+
+        Map<Integer, User> users = await(loader.getUsers(new int[]{1, 2, 3}));
+
+        assertEquals(Arrays.asList(1, 3), new ArrayList<>(users.keySet()));
+    }
+
+    @Test
+    public void failsOnlyWhenNothingLoaded() throws Exception {
+        api.failAll = true;
+        UserBatchLoader loader = new UserBatchLoader(api, "1");
+
+        try {
+            await(loader.getUsers(new int[]{1, 2}));
+            fail("Expected a failure");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ServerError);
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private long timed(UserBatchLoader loader, int[] ids) throws Exception {
+        long start = System.nanoTime();
+        assertEquals(ids.length, await(loader.getUsers(ids)).size());
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Run the main looper until the future completes
+     */
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_LIMIT_MS);
+        while (!future.isDone()) {
+            if (System.nanoTime() > deadline) {
+                fail("getUsers did not complete");
+            }
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.sleep(1);
+        }
+        return future.get();
+    }
+
+    private static int[] range(int from, int to) {
+        int[] ids = new int[to - from + 1];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = from + i;
+        }
+        return ids;
+    }
+
+    /**
+     * read_user that answers on the main thread after LATENCY_MS, like Volley
+     */
+    private class StubApiService extends ApiService {
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final List<Integer> sent = new ArrayList<>();
+        final List<Request.Priority> priorities = new ArrayList<>();
+        private Request.Priority nextPriority = Request.Priority.NORMAL;
+        int missingId = -1;
+        boolean failAll;
+
+        StubApiService(Context context) {
+            super(context);
+        }
+
+        @Override
+        public ApiService withPriority(Request.Priority priority) {
+            nextPriority = priority;
+            return this;
+        }
+
+        @Override
+        public void getUser(String studentId, int userId,
+                            Response.Listener<Map<String, User>> listener,
+                            Response.ErrorListener errorListener) {
+            calls.incrementAndGet();
+            sent.add(userId);
+            priorities.add(nextPriority);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+
+            Handler mainHandler = new Handler(Looper.getMainLooper());
+            stubServer.schedule(() -> mainHandler.post(() -> {
+                inFlight.decrementAndGet();
+                if (failAll) {
+                    errorListener.onErrorResponse(new ServerError());
+                } else if (userId == missingId) {
+                    errorListener.onErrorResponse(new VolleyError(new NetworkResponse(404, new byte[0],
+                            false, LATENCY_MS, Collections.<Header>emptyList())));
+                } else {
+                    User user = new User("user" + userId, "password", "First", "Last",
+                            "user" + userId + "@mail.com", "0123456789", "guest");
+                    user.setUserId(userId);
+                    listener.onResponse(Collections.singletonMap("user", user));
+                }
+            }), LATENCY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.mal2017_assessmentmodule.database;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.example.mal2017_assessmentmodule.models.OutboxEntry;
+import com.example.mal2017_assessmentmodule.models.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The outbox is used from the outbox executor while login threads, the
+ * user sync and the main thread use the same DatabaseHelper. None of them
+ * may close the shared connection under another.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DatabaseHelperConcurrencyTest {
+
+    private static final int ROUNDS = 200;
+    private static final long WAIT_LIMIT_MS = 10000;
+
+    private DatabaseHelper dbHelper;
+    private final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        dbHelper = DatabaseHelper.getInstance(context);
+        dbHelper.clearAllData();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Field field = DatabaseHelper.class.getDeclaredField("instance");
+        field.setAccessible(true);
+        field.set(null, null);
+    }
+
+    @Test
+    public void outboxCallsFromSeveralThreadsShareTheConnection() throws Exception {
+        runConcurrently(
+                // Screens queueing changes
+                round -> assertTrue(dbHelper.enqueueUserMutation(OutboxEntry.OP_CREATE, 1000 + round,
+                        "{}", Collections.<Long>emptySet())),
+                // The outbox executor sending them
+                round -> {
+                    long now = System.currentTimeMillis();
+                    for (OutboxEntry entry : dbHelper.getDueOutboxEntries(now, 20)) {
+                        if (entry.getUserId() % 2 == 0) {
+                            dbHelper.deleteOutboxEntry(entry.getOutboxId(), entry.getIdempotencyKey());
+                        } else {
+                            dbHelper.markOutboxAttemptFailed(entry.getOutboxId(), now + 60000);
+                        }
+                    }
+                },
+                // Scheduling and the UI's pending count
+                round -> {
+                    long now = System.currentTimeMillis();
+                    dbHelper.getBlockedOutboxUserIds(now);
+                    dbHelper.getNextOutboxAttemptTime(now);
+                    dbHelper.getOutboxCount();
+                });
+
+        // Odd users wait for a retry, even ones may not have been picked up yet
+        int waiting = dbHelper.getOutboxCount();
+        assertTrue(waiting >= ROUNDS / 2 && waiting <= ROUNDS);
+        assertEquals(ROUNDS / 2, dbHelper.getBlockedOutboxUserIds(System.currentTimeMillis()).size()
+                + countDueOddUsers());
+    }
+
+    @Test
+    public void syncAndOutboxCallsShareTheConnection() throws Exception {
+        runConcurrently(
+                // The outbox
+                round -> {
+                    assertTrue(dbHelper.enqueueUserMutation(OutboxEntry.OP_UPDATE, round, "{}",
+                            Collections.<Long>emptySet()));
+                    for (OutboxEntry entry : dbHelper.getDueOutboxEntries(System.currentTimeMillis(), 20)) {
+                        dbHelper.deleteOutboxEntry(entry.getOutboxId(), entry.getIdempotencyKey());
+                    }
+                },
+                // The full sync after a login, one new user per round
+                round -> {
+                    dbHelper.getUserHashes();
+                    dbHelper.getOutboxUserIds();
+                    dbHelper.applyUserSyncDelta(Collections.singletonList(user("sync" + round)),
+                            Collections.<User>emptyList(), Collections.<Integer>emptyList(),
+                            System.currentTimeMillis(), round, null);
+                },
+                // Logins resolving the matched user ahead of the sync
+                round -> {
+                    if (dbHelper.getUserHash("login" + round + "@mail.com") == null) {
+                        assertTrue(dbHelper.addSyncedUser(user("login" + round)));
+                    }
+                    dbHelper.getUserSyncSetHash();
+                });
+
+        assertEquals(2 * ROUNDS, dbHelper.getUserHashes().size());
+        assertEquals(0, dbHelper.getOutboxCount());
+    }
+
+    // ==================== HELPERS ====================
+
+    private static User user(String name) {
+        return new User(name, "password123", "Test", name, name + "@mail.com", "0123456789", "guest");
+    }
+
+    private interface Worker {
+        void run(int round) throws Exception;
+    }
+
+    /**
+     * Run each worker ROUNDS times on its own thread, all starting at once,
+     * and fail with the first error any of them hit
+     */
+    private void runConcurrently(Worker... workers) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (Worker worker : workers) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        worker.run(round);
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        long deadline = System.currentTimeMillis() + WAIT_LIMIT_MS;
+        for (Thread thread : threads) {
+            thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            if (thread.isAlive()) {
+                fail("Worker did not finish");
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new AssertionError("Concurrent database use failed", failures.peek());
+        }
+    }
+
+    private int countDueOddUsers() {
+        int count = 0;
+        for (OutboxEntry entry : dbHelper.getDueOutboxEntries(System.currentTimeMillis(), ROUNDS)) {
+            if (entry.getUserId() % 2 == 1) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
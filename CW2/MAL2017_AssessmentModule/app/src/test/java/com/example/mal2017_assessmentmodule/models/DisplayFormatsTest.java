@@ -0,0 +1,82 @@
+package com.example.mal2017_assessmentmodule.models;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * DisplayFormats output, caching, and time zone changes after the
+ * formatters were created.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class DisplayFormatsTest {
+
+    // 25 Dec 2025 19:30 UTC
+    private static final long CHRISTMAS_EVENING_UTC = 1766691000000L;
+
+    private TimeZone originalZone;
+
+    @Before
+    public void setUp() {
+        originalZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(originalZone);
+    }
+
+    @Test
+    public void formatsMatchThePreviousInlineFormats() {
+        DisplayFormats formats = DisplayFormats.forLocale(Locale.US);
+
+        assertEquals("Dec 25, 2025", formats.formatDate(CHRISTMAS_EVENING_UTC));
+        assertEquals("7:30 PM", formats.formatTime(CHRISTMAS_EVENING_UTC));
+        assertEquals(new SimpleDateFormat("MMM dd, yyyy", Locale.US).format(new Date(CHRISTMAS_EVENING_UTC)),
+                formats.formatDate(CHRISTMAS_EVENING_UTC));
+    }
+
+    @Test
+    public void priceRoundsLikeStringFormat() {
+        DisplayFormats formats = DisplayFormats.forLocale(Locale.US);
+
+        assertEquals("RM 15.99", formats.formatPrice(15.99));
+        assertEquals("RM 2.68", formats.formatPrice(2.675));
+        assertEquals("RM " + String.format(Locale.US, "%.2f", 0.125), formats.formatPrice(0.125));
+        assertEquals("RM 0.00", formats.formatPrice(0));
+    }
+
+    @Test
+    public void followsTimeZoneChanges() {
+        DisplayFormats formats = DisplayFormats.forLocale(Locale.US);
+        assertEquals("7:30 PM", formats.formatTime(CHRISTMAS_EVENING_UTC));
+
+        // Kuala Lumpur is UTC+8: already the next morning
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kuala_Lumpur"));
+
+        assertEquals("3:30 AM", formats.formatTime(CHRISTMAS_EVENING_UTC));
+        assertEquals("Dec 26, 2025", formats.formatDate(CHRISTMAS_EVENING_UTC));
+    }
+
+    @Test
+    public void oneSetPerLocale() {
+        assertSame(DisplayFormats.forLocale(Locale.UK), DisplayFormats.forLocale(Locale.UK));
+    }
+
+    @Test
+    public void partySize() {
+        assertEquals("1 person", DisplayFormats.formatPartySize(1));
+        assertEquals("4 people", DisplayFormats.formatPartySize(4));
+    }
+}
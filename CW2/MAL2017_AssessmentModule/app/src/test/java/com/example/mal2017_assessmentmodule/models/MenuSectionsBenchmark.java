@@ -0,0 +1,90 @@
+package com.example.mal2017_assessmentmodule.models;
+
+import com.example.mal2017_assessmentmodule.Constants;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Cost of the grouped menu on 20,000 generated items in five categories
+ * (one not in Constants.MENU_CATEGORIES): grouping the rows on the
+ * worker, and the positionOf() and headerPositionFor() lookups made on
+ * the main thread.
+ *
+ * Not part of the normal test run. Run with
+ * ./gradlew :app:testDebugUnitTest -Pbenchmarks --tests '*MenuSectionsBenchmark' -i
+ * and read the printed times (best of ROUNDS, after warm-up).
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class MenuSectionsBenchmark {
+
+    private static final int ITEMS = 20000;
+    private static final int LOOKUPS = 1000000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+    private static final String[] CATEGORIES = {Constants.CATEGORY_BEVERAGES, Constants.CATEGORY_DESSERTS,
+            Constants.CATEGORY_MAIN_COURSE, "Specials", Constants.CATEGORY_APPETIZERS};
+
+    private long sink;
+
+    @Test
+    public void groupAndLookUp() {
+        List<MenuItemRow> rows = MenuItemRow.fromAll(generateMenu());
+        List<String> order = Constants.MENU_CATEGORIES;
+
+        long bestGroup = Long.MAX_VALUE;
+        long bestPositionOf = Long.MAX_VALUE;
+        long bestHeaderFor = Long.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            long start = System.nanoTime();
+            MenuSections sections = MenuSections.group(rows, order);
+            long group = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                sink += sections.positionOf(order.get(i & 3));
+            }
+            long positionOf = System.nanoTime() - start;
+
+            int size = sections.getRows().size();
+            start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                sink += sections.headerPositionFor(i % size);
+            }
+            long headerFor = System.nanoTime() - start;
+
+            if (round >= WARMUP_ROUNDS) {
+                bestGroup = Math.min(bestGroup, group);
+                bestPositionOf = Math.min(bestPositionOf, positionOf);
+                bestHeaderFor = Math.min(bestHeaderFor, headerFor);
+            }
+        }
+
+        System.out.println(String.format(Locale.ROOT,
+                "MenuSections, %d items: group %.1f ms, positionOf %.1f ns, headerPositionFor %.1f ns per call (%d)",
+                ITEMS, bestGroup / 1e6, (double) bestPositionOf / LOOKUPS, (double) bestHeaderFor / LOOKUPS,
+                sink % 10));
+
+        // 5 headers, the unknown category last
+        MenuSections sections = MenuSections.group(rows, order);
+        assertEquals(ITEMS + CATEGORIES.length, sections.getRows().size());
+        assertEquals(ITEMS + CATEGORIES.length - ITEMS / CATEGORIES.length - 1, sections.positionOf("Specials"));
+    }
+
+    private static List<MenuItem> generateMenu() {
+        List<MenuItem> items = new ArrayList<>(ITEMS);
+        for (int i = 1; i <= ITEMS; i++) {
+            MenuItem item = new MenuItem("Dish " + i, "", i / 7.0, CATEGORIES[i % CATEGORIES.length], null, true);
+            item.setItemId(i);
+            items.add(item);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.mal2017_assessmentmodule.models;
+
+import com.example.mal2017_assessmentmodule.Constants;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * MenuSections grouping: section order, headers, and the position lookups
+ * used by scrollToCategory() and the sticky header.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class MenuSectionsTest {
+
+    @Test
+    public void categoriesFollowTheGivenOrderWithItemsInTheirOriginalOrder() {
+        MenuSections sections = MenuSections.group(rows(
+                item(1, Constants.CATEGORY_DESSERTS),
+                item(2, Constants.CATEGORY_APPETIZERS),
+                item(3, Constants.CATEGORY_DESSERTS),
+                item(4, Constants.CATEGORY_APPETIZERS)), Constants.MENU_CATEGORIES);
+
+        assertEquals(Arrays.asList(
+                Constants.CATEGORY_APPETIZERS, "2", "4",
+                Constants.CATEGORY_DESSERTS, "1", "3"), describe(sections));
+    }
+
+    @Test
+    public void emptyCategoriesGetNoHeader() {
+        MenuSections sections = MenuSections.group(rows(item(1, Constants.CATEGORY_BEVERAGES)),
+                Constants.MENU_CATEGORIES);
+
+        assertEquals(Arrays.asList(Constants.CATEGORY_BEVERAGES, "1"), describe(sections));
+        assertEquals(-1, sections.positionOf(Constants.CATEGORY_APPETIZERS));
+        assertEquals(0, sections.positionOf(Constants.CATEGORY_BEVERAGES));
+    }
+
+    @Test
+    public void unknownCategoriesComeLastInOrderOfFirstAppearance() {
+        MenuSections sections = MenuSections.group(rows(
+                item(1, "Specials"),
+                item(2, Constants.CATEGORY_MAIN_COURSE),
+                item(3, "Kids"),
+                item(4, "Specials")), Constants.MENU_CATEGORIES);
+
+        assertEquals(Arrays.asList(
+                Constants.CATEGORY_MAIN_COURSE, "2",
+                "Specials", "1", "4",
+                "Kids", "3"), describe(sections));
+    }
+
+    @Test
+    public void positionOfPointsAtEachHeader() {
+        MenuSections sections = MenuSections.group(rows(
+                item(1, Constants.CATEGORY_APPETIZERS),
+                item(2, Constants.CATEGORY_MAIN_COURSE),
+                item(3, Constants.CATEGORY_MAIN_COURSE),
+                item(4, Constants.CATEGORY_BEVERAGES)), Constants.MENU_CATEGORIES);
+
+        assertEquals(0, sections.positionOf(Constants.CATEGORY_APPETIZERS));
+        assertEquals(2, sections.positionOf(Constants.CATEGORY_MAIN_COURSE));
+        assertEquals(-1, sections.positionOf(Constants.CATEGORY_DESSERTS));
+        assertEquals(5, sections.positionOf(Constants.CATEGORY_BEVERAGES));
+        assertEquals(-1, sections.positionOf("Nope"));
+        for (String category : Constants.MENU_CATEGORIES) {
+            int position = sections.positionOf(category);
+            if (position >= 0) {
+                MenuItemRow header = sections.getRows().get(position);
+                assertTrue(header.isHeader());
+                assertEquals(category, header.getName());
+            }
+        }
+    }
+
+    @Test
+    public void headerPositionForGivesTheSectionOfEveryRow() {
+        MenuSections sections = MenuSections.group(rows(
+                item(1, Constants.CATEGORY_APPETIZERS),
+                item(2, Constants.CATEGORY_APPETIZERS),
+                item(3, Constants.CATEGORY_DESSERTS)), Constants.MENU_CATEGORIES);
+
+        // Appetizers, 1, 2, Desserts, 3
+        int[] expected = {0, 0, 0, 3, 3};
+        for (int position = 0; position < expected.length; position++) {
+            assertEquals(expected[position], sections.headerPositionFor(position));
+        }
+        assertEquals(-1, sections.headerPositionFor(-1));
+        assertEquals(-1, sections.headerPositionFor(expected.length));
+    }
+
+    @Test
+    public void headerIdsNeverCollideWithItemIds() {
+        MenuSections sections = MenuSections.group(rows(
+                item(1, Constants.CATEGORY_APPETIZERS),
+                item(Integer.MAX_VALUE, Constants.CATEGORY_DESSERTS)), Constants.MENU_CATEGORIES);
+
+        for (MenuItemRow row : sections.getRows()) {
+            if (row.isHeader()) {
+                assertTrue(row.getStableId() < 0);
+            } else {
+                assertTrue(row.getStableId() > 0);
+            }
+        }
+        assertNotEquals(MenuItemRow.header(Constants.CATEGORY_APPETIZERS).getStableId(),
+                MenuItemRow.header(Constants.CATEGORY_DESSERTS).getStableId());
+    }
+
+    @Test
+    public void emptyMenuHasNoRows() {
+        MenuSections sections = MenuSections.group(Collections.<MenuItemRow>emptyList(), Constants.MENU_CATEGORIES);
+
+        assertTrue(sections.getRows().isEmpty());
+        assertEquals(-1, sections.positionOf(Constants.CATEGORY_APPETIZERS));
+        assertEquals(-1, sections.headerPositionFor(0));
+        assertTrue(MenuSections.EMPTY.getRows().isEmpty());
+        assertEquals(-1, MenuSections.EMPTY.headerPositionFor(0));
+        assertFalse(MenuSections.EMPTY.positionOf(Constants.CATEGORY_APPETIZERS) >= 0);
+    }
+
+    // ==================== HELPERS ====================
+
+    private static MenuItem item(int id, String category) {
+        MenuItem item = new MenuItem("Dish " + id, "", 5.0, category, null, true);
+        item.setItemId(id);
+        return item;
+    }
+
+    private static List<MenuItemRow> rows(MenuItem... items) {
+        return MenuItemRow.fromAll(Arrays.asList(items));
+    }
+
+    /**
+     * Header titles and item ids, in display order
+     */
+    private static List<String> describe(MenuSections sections) {
+        List<String> names = new ArrayList<>();
+        for (MenuItemRow row : sections.getRows()) {
+            names.add(row.isHeader() ? row.getName() : String.valueOf(row.getItemId()));
+        }
+        return names;
+    }
+}
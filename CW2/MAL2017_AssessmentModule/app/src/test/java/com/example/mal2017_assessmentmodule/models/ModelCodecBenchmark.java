@@ -0,0 +1,120 @@
+package com.example.mal2017_assessmentmodule.models;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ModelCodec against Gson JSON: encoded size and encode/decode time for
+ * one User, MenuItem and Reservation, and for a list of RESERVATIONS
+ * reservations.
+ *
+ * Not part of the normal test run. Run with
+ * ./gradlew :app:testDebugUnitTest -Pbenchmarks --tests '*ModelCodecBenchmark' -i
+ * and read the printed times (best of ROUNDS, after warm-up).
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class ModelCodecBenchmark {
+
+    private static final int CALLS = 20000;
+    private static final int RESERVATIONS = 100;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void againstGson() {
+        User user = new User("zoe.smith", "secret123", "Zoë", "Smith", "zoe.smith@mail.com",
+                "07123456789", "guest");
+        user.setUserId(42);
+        MenuItem item = new MenuItem("Laksa", "Spicy coconut noodle soup with prawns", 12.5, "Mains",
+                "https://example.com/images/laksa.jpg", true);
+        item.setItemId(7);
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < RESERVATIONS; i++) {
+            reservations.add(reservation(i));
+        }
+        Type reservationList = new TypeToken<List<Reservation>>() { }.getType();
+
+        compare("User", user, ModelCodec::encode, ModelCodec::decodeUser, User.class);
+        compare("MenuItem", item, ModelCodec::encode, ModelCodec::decodeMenuItem, MenuItem.class);
+        compare("Reservation", reservation(1), ModelCodec::encode, ModelCodec::decodeReservation,
+                Reservation.class);
+        compare(RESERVATIONS + " reservations", reservations, ModelCodec::encodeReservations,
+                ModelCodec::decodeReservations, reservationList);
+    }
+
+    private <T> void compare(String name, T value, Function<T, byte[]> encode, Function<byte[], T> decode,
+                             Type type) {
+        byte[] binary = encode.apply(value);
+        byte[] json = gson.toJson(value).getBytes(StandardCharsets.UTF_8);
+        // Both decode to the same model
+        assertEquals(gson.toJson(value), gson.toJson(decode.apply(binary)));
+
+        int calls = value instanceof List ? CALLS / RESERVATIONS : CALLS;
+        long[] bestBinary = {Long.MAX_VALUE, Long.MAX_VALUE};
+        long[] bestJson = {Long.MAX_VALUE, Long.MAX_VALUE};
+        int sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                sink += encode.apply(value).length;
+            }
+            long binaryEncode = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                sink += decode.apply(binary) != null ? 1 : 0;
+            }
+            long binaryDecode = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                sink += gson.toJson(value).getBytes(StandardCharsets.UTF_8).length;
+            }
+            long jsonEncode = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                T decoded = gson.fromJson(new String(json, StandardCharsets.UTF_8), type);
+                sink += decoded != null ? 1 : 0;
+            }
+            long jsonDecode = System.nanoTime() - start;
+
+            if (round >= WARMUP_ROUNDS) {
+                bestBinary[0] = Math.min(bestBinary[0], binaryEncode);
+                bestBinary[1] = Math.min(bestBinary[1], binaryDecode);
+                bestJson[0] = Math.min(bestJson[0], jsonEncode);
+                bestJson[1] = Math.min(bestJson[1], jsonDecode);
+            }
+        }
+
+        System.out.println(String.format(Locale.ROOT,
+                "%-16s binary %6d B, encode %8.2f us, decode %8.2f us | JSON %6d B, encode %8.2f us, decode %8.2f us",
+                name, binary.length, bestBinary[0] / 1e3 / calls, bestBinary[1] / 1e3 / calls,
+                json.length, bestJson[0] / 1e3 / calls, bestJson[1] / 1e3 / calls));
+        assertTrue(sink != 0);
+    }
+
+    private static Reservation reservation(int i) {
+        Reservation reservation = new Reservation(1000 + i, "Guest " + i, "guest" + i + "@mail.com",
+                "07000000" + i, 2 + i % 6, 1700000000000L + i * 3600000L, i % 3 == 0 ? "Window seat" : null,
+                "confirmed");
+        reservation.setReservationId(i + 1);
+        return reservation;
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.mal2017_assessmentmodule.models;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * ModelCodec round trips, defaults, and rejection of truncated or
+ * corrupted data.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class ModelCodecTest {
+
+    @Test
+    public void userRoundTrip() {
+        User user = user(42, "Zoë Ŝmith");
+
+        User decoded = ModelCodec.decodeUser(ModelCodec.encode(user));
+
+        assertUser(user, decoded);
+    }
+
+    @Test
+    public void menuItemRoundTrip() {
+        MenuItem item = menuItem(7, -12.5);
+
+        MenuItem decoded = ModelCodec.decodeMenuItem(ModelCodec.encode(item));
+
+        assertMenuItem(item, decoded);
+    }
+
+    @Test
+    public void reservationRoundTrip() {
+        Reservation reservation = reservation(Integer.MIN_VALUE, Long.MAX_VALUE);
+
+        Reservation decoded = ModelCodec.decodeReservation(ModelCodec.encode(reservation));
+
+        assertReservation(reservation, decoded);
+    }
+
+    @Test
+    public void listRoundTrip() {
+        List<User> users = Arrays.asList(user(1, "A"), user(-1, ""), new User());
+        List<Reservation> reservations = Arrays.asList(reservation(3, 1700000000000L),
+                reservation(Integer.MAX_VALUE, Long.MIN_VALUE));
+
+        List<User> decodedUsers = ModelCodec.decodeUsers(ModelCodec.encodeUsers(users));
+        List<Reservation> decodedReservations =
+                ModelCodec.decodeReservations(ModelCodec.encodeReservations(reservations));
+
+        assertEquals(users.size(), decodedUsers.size());
+        for (int i = 0; i < users.size(); i++) {
+            assertUser(users.get(i), decodedUsers.get(i));
+        }
+        assertEquals(reservations.size(), decodedReservations.size());
+        for (int i = 0; i < reservations.size(); i++) {
+            assertReservation(reservations.get(i), decodedReservations.get(i));
+        }
+        assertTrue(ModelCodec.decodeMenuItems(
+                ModelCodec.encodeMenuItems(Collections.<MenuItem>emptyList())).isEmpty());
+    }
+
+    @Test
+    public void unsetFieldsDecodeToDefaults() {
+        MenuItem decoded = ModelCodec.decodeMenuItem(ModelCodec.encode(new MenuItem()));
+
+        assertEquals(0, decoded.getItemId());
+        assertNull(decoded.getName());
+        assertEquals(0.0, decoded.getPrice(), 0.0);
+        assertFalse(decoded.isAvailable());
+        // Only the version and type bytes
+        assertEquals(2, ModelCodec.encode(new MenuItem()).length);
+    }
+
+    @Test
+    public void unknownFieldsAreSkipped() {
+        byte[] encoded = ModelCodec.encode(user(5, "Known"));
+        // Append tag 99 with a 3-byte payload, as a newer app version might
+        byte[] extended = Arrays.copyOf(encoded, encoded.length + 5);
+        extended[encoded.length] = 99;
+        extended[encoded.length + 1] = 3;
+
+        assertUser(user(5, "Known"), ModelCodec.decodeUser(extended));
+    }
+
+    @Test
+    public void intFieldMustFillItsDeclaredLength() {
+        // version, type, then USER_ID (tag 1) with length 1 and zigzag(5) = 10,
+        // then the username
+        byte[] encoded = ModelCodec.encode(user(5, "A"));
+        assertEquals(1, encoded[2]);
+        assertEquals(1, encoded[3]);
+        assertEquals(10, encoded[4]);
+
+        // Declared longer than the varint: the username tag would be read as payload
+        byte[] tooLong = encoded.clone();
+        tooLong[3] = 2;
+        assertRejected(() -> ModelCodec.decodeUser(tooLong));
+
+        // Declared shorter than the varint
+        byte[] tooShort = encoded.clone();
+        tooShort[3] = 0;
+        assertRejected(() -> ModelCodec.decodeUser(tooShort));
+
+        // Varint that continues past its field into the next one
+        byte[] runsOn = encoded.clone();
+        runsOn[4] = (byte) 0x8a;
+        assertRejected(() -> ModelCodec.decodeUser(runsOn));
+    }
+
+    @Test
+    public void tagCannotRunIntoTheNextRecord() {
+        // Two records in a list; the first is one byte, a tag with its continuation bit set
+        byte[] list = {ModelCodec.VERSION, 1, 2, 1, (byte) 0x81, 0};
+
+        assertRejected(() -> ModelCodec.decodeUsers(list));
+    }
+
+    @Test
+    public void everyTruncatedListIsRejected() {
+        byte[] encoded = ModelCodec.encodeUsers(Arrays.asList(user(1, "First"), user(2, "Second")));
+
+        for (int length = 0; length < encoded.length; length++) {
+            try {
+                ModelCodec.decodeUsers(Arrays.copyOf(encoded, length));
+                fail("Decoded a list truncated to " + length + " of " + encoded.length + " bytes");
+            } catch (IllegalArgumentException expected) {
+                // Rejected
+            }
+        }
+    }
+
+    @Test
+    public void truncatedRecordNeverDecodesGarbage() {
+        // A single record has no overall length, so a cut between fields
+        // decodes to the fields before the cut; a cut inside one is rejected
+        User user = user(9, "Truncated");
+        byte[] encoded = ModelCodec.encode(user);
+
+        for (int length = 0; length < encoded.length; length++) {
+            try {
+                User decoded = ModelCodec.decodeUser(Arrays.copyOf(encoded, length));
+                assertTrue(decoded.getUsertype() == null);
+                if (decoded.getUsername() != null) {
+                    assertEquals(user.getUsername(), decoded.getUsername());
+                }
+            } catch (IllegalArgumentException expected) {
+                // Rejected
+            }
+        }
+    }
+
+    @Test
+    public void wrongTypeAndNewerVersionAreRejected() {
+        byte[] encoded = ModelCodec.encode(user(1, "A"));
+        assertRejected(() -> ModelCodec.decodeMenuItem(encoded));
+
+        byte[] newer = encoded.clone();
+        newer[0] = (byte) (ModelCodec.VERSION + 1);
+        assertRejected(() -> ModelCodec.decodeUser(newer));
+        assertRejected(() -> ModelCodec.decodeUser(null));
+    }
+
+    @Test
+    public void corruptedBytesOnlyThrowIllegalArgument() {
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            reservations.add(reservation(i, 1700000000000L + i));
+        }
+        byte[] encoded = ModelCodec.encodeReservations(reservations);
+        Random random = new Random(2017);
+
+        for (int round = 0; round < 10000; round++) {
+            byte[] corrupted = encoded.clone();
+            int flips = 1 + random.nextInt(4);
+            for (int i = 0; i < flips; i++) {
+                // Keep the header so the body gets parsed
+                corrupted[2 + random.nextInt(corrupted.length - 2)] = (byte) random.nextInt(256);
+            }
+            try {
+                ModelCodec.decodeReservations(corrupted);
+            } catch (IllegalArgumentException expected) {
+                // Rejected
+            }
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private static void assertRejected(Runnable decode) {
+        try {
+            decode.run();
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            // Rejected
+        }
+    }
+
+    private static User user(int id, String firstname) {
+        User user = new User("user" + id, "secret", firstname, "Lastname",
+                "user" + id + "@mail.com", "07123456789", "guest");
+        user.setUserId(id);
+        return user;
+    }
+
+    private static MenuItem menuItem(int id, double price) {
+        MenuItem item = new MenuItem("Laksa", "Spicy noodle soup", price, "Mains",
+                "https://example.com/laksa.jpg", true);
+        item.setItemId(id);
+        return item;
+    }
+
+    private static Reservation reservation(int userId, long dateTime) {
+        Reservation reservation = new Reservation(userId, "Guest", "guest@mail.com",
+                "07000000000", 4, dateTime, null, "confirmed");
+        reservation.setReservationId(userId + 1);
+        return reservation;
+    }
+
+    private static void assertUser(User expected, User actual) {
+        assertEquals(expected.getUserId(), actual.getUserId());
+        assertEquals(expected.getUsername(), actual.getUsername());
+        assertEquals(expected.getPassword(), actual.getPassword());
+        assertEquals(expected.getFirstname(), actual.getFirstname());
+        assertEquals(expected.getLastname(), actual.getLastname());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getContact(), actual.getContact());
+        assertEquals(expected.getUsertype(), actual.getUsertype());
+    }
+
+    private static void assertMenuItem(MenuItem expected, MenuItem actual) {
+        assertEquals(expected.getItemId(), actual.getItemId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getPrice(), actual.getPrice(), 0.0);
+        assertEquals(expected.getCategory(), actual.getCategory());
+        assertEquals(expected.getImageUrl(), actual.getImageUrl());
+        assertEquals(expected.isAvailable(), actual.isAvailable());
+    }
+
+    private static void assertReservation(Reservation expected, Reservation actual) {
+        assertEquals(expected.getReservationId(), actual.getReservationId());
+        assertEquals(expected.getUserId(), actual.getUserId());
+        assertEquals(expected.getGuestName(), actual.getGuestName());
+        assertEquals(expected.getGuestEmail(), actual.getGuestEmail());
+        assertEquals(expected.getGuestContact(), actual.getGuestContact());
+        assertEquals(expected.getPartySize(), actual.getPartySize());
+        assertEquals(expected.getDateTime(), actual.getDateTime());
+        assertEquals(expected.getNotes(), actual.getNotes());
+        assertEquals(expected.getStatus(), actual.getStatus());
+    }
+}
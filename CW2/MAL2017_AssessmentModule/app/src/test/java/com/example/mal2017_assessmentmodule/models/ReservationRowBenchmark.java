@@ -0,0 +1,98 @@
+package com.example.mal2017_assessmentmodule.models;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Cost per row of binding a reservation: the old bind path that built
+ * two SimpleDateFormats and all strings in onBindViewHolder, the
+ * preformatted ReservationRow fields, and building the rows.
+ *
+ * Not part of the normal test run. Run with
+ * ./gradlew :app:testDebugUnitTest -Pbenchmarks --tests '*ReservationRowBenchmark' -i
+ * and read the printed times (best of ROUNDS, after warm-up).
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class ReservationRowBenchmark {
+
+    private static final int RESERVATIONS = 200;
+    private static final int BINDS_PER_ROW = 50;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    private long sink;
+
+    @Test
+    public void bindCostPerRow() {
+        List<Reservation> reservations = generateReservations();
+
+        double bestOld = Double.MAX_VALUE;
+        double bestNew = Double.MAX_VALUE;
+        double bestBuild = Double.MAX_VALUE;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int k = 0; k < BINDS_PER_ROW; k++) {
+                for (Reservation reservation : reservations) {
+                    oldBind(reservation);
+                }
+            }
+            double oldBind = (System.nanoTime() - start) / (double) (BINDS_PER_ROW * RESERVATIONS);
+
+            start = System.nanoTime();
+            List<ReservationRow> rows = ReservationRow.fromAll(reservations);
+            double build = (System.nanoTime() - start) / (double) RESERVATIONS;
+
+            start = System.nanoTime();
+            for (int k = 0; k < BINDS_PER_ROW; k++) {
+                for (ReservationRow row : rows) {
+                    sink += row.getDateText().length() + row.getTimeText().length()
+                            + row.getPartySizeText().length() + row.getStatusText().length();
+                }
+            }
+            double newBind = (System.nanoTime() - start) / (double) (BINDS_PER_ROW * RESERVATIONS);
+
+            if (round >= WARMUP_ROUNDS) {
+                bestOld = Math.min(bestOld, oldBind);
+                bestNew = Math.min(bestNew, newBind);
+                bestBuild = Math.min(bestBuild, build);
+            }
+        }
+
+        System.out.println(String.format(Locale.ROOT,
+                "ReservationRow, %d rows: old bind %.0f ns/row, new bind %.0f ns/row, row build %.0f ns/row (%d)",
+                RESERVATIONS, bestOld, bestNew, bestBuild, sink % 10));
+    }
+
+    /**
+     * ReservationAdapter.onBindViewHolder's formatting before ReservationRow
+     */
+    private void oldBind(Reservation reservation) {
+        String date = "Date: " + new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault())
+                .format(new Date(reservation.getDateTime()));
+        String time = "Time: " + new SimpleDateFormat("h:mm a", Locale.getDefault())
+                .format(new Date(reservation.getDateTime()));
+        String party = "Party Size: " + (reservation.getPartySize() == 1
+                ? "1 person" : reservation.getPartySize() + " people");
+        String status = reservation.getStatus().toUpperCase();
+        sink += date.length() + time.length() + party.length() + status.length();
+    }
+
+    private static List<Reservation> generateReservations() {
+        long start = 1766691000000L;
+        List<Reservation> reservations = new ArrayList<>(RESERVATIONS);
+        for (int i = 0; i < RESERVATIONS; i++) {
+            Reservation reservation = new Reservation(1, "Guest " + i, "guest" + i + "@mail.com",
+                    "07000000000", 1 + i % 6, start + i * 3600000L, null, "confirmed");
+            reservation.setReservationId(i + 1);
+            reservations.add(reservation);
+        }
+        return reservations;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.mal2017_assessmentmodule.loadgen;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ApiDriver - Blocking HTTP calls to the coursework API, one method per endpoint.
+ *
+ * Sends the same method, path, headers and JSON body as the app's
+ * ApiService, and records every call in the endpoint's LatencyStats.
+ * A failed call returns null so the calling scenario can stop,
+ * the way the app gives up on an error callback.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class ApiDriver {
+
+    public static final String CREATE_USER = "create_user";
+    public static final String READ_ALL_USERS = "read_all_users";
+    public static final String READ_USER = "read_user";
+    public static final String UPDATE_USER = "update_user";
+    public static final String DELETE_USER = "delete_user";
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String studentId;
+    private final Duration timeout;
+    private final Map<String, LatencyStats> stats = new ConcurrentHashMap<>();
+
+    public ApiDriver(LoadConfig config) {
+        this.baseUrl = config.getBaseUrl();
+        this.studentId = config.getStudentId();
+        this.timeout = Duration.ofMillis(config.getTimeoutMs());
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * GET read_all_users/{student_id}
+     *
+     * @return The "users" array, or null on failure
+     */
+    public JsonArray readAllUsers() {
+        JsonObject response = call(READ_ALL_USERS, get(READ_ALL_USERS + "/" + studentId));
+        if (response == null || !response.has("users")) {
+            return null;
+        }
+        return response.getAsJsonArray("users");
+    }
+
+    /**
+     * GET read_user/{student_id}/{user_id}
+     *
+     * @return The response object, or null on failure
+     */
+    public JsonObject readUser(int userId) {
+        return call(READ_USER, get(READ_USER + "/" + studentId + "/" + userId));
+    }
+
+    /**
+     * POST create_user/{student_id}
+     *
+     * @return The response object, or null on failure
+     */
+    public JsonObject createUser(JsonObject user, String idempotencyKey) {
+        return call(CREATE_USER, builder(CREATE_USER + "/" + studentId, idempotencyKey)
+                .POST(HttpRequest.BodyPublishers.ofString(user.toString())));
+    }
+
+    /**
+     * PUT update_user/{student_id}/{user_id}
+     *
+     * @return The response object, or null on failure
+     */
+    public JsonObject updateUser(int userId, JsonObject user, String idempotencyKey) {
+        return call(UPDATE_USER, builder(UPDATE_USER + "/" + studentId + "/" + userId, idempotencyKey)
+                .PUT(HttpRequest.BodyPublishers.ofString(user.toString())));
+    }
+
+    /**
+     * DELETE delete_user/{student_id}/{user_id}
+     *
+     * @return The response object, or null on failure
+     */
+    public JsonObject deleteUser(int userId, String idempotencyKey) {
+        return call(DELETE_USER, builder(DELETE_USER + "/" + studentId + "/" + userId, idempotencyKey)
+                .DELETE());
+    }
+
+    /**
+     * Stats for every endpoint called so far
+     */
+    public Map<String, LatencyStats> getStats() {
+        return stats;
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return builder(path, null).GET();
+    }
+
+    private HttpRequest.Builder builder(String path, String idempotencyKey) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json");
+        if (idempotencyKey != null) {
+            builder.header("Idempotency-Key", idempotencyKey);
+        }
+        return builder;
+    }
+
+    private JsonObject call(String endpoint, HttpRequest.Builder request) {
+        LatencyStats endpointStats = stats.computeIfAbsent(endpoint, LatencyStats::new);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request.build(),
+                    HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+
+            int status = response.statusCode();
+            if (status < 200 || status >= 300) {
+                endpointStats.recordFailure(elapsed, "http_" + (status / 100) + "xx");
+                return null;
+            }
+            JsonObject body = parseObject(response.body());
+            endpointStats.recordSuccess(elapsed);
+            return body;
+        } catch (HttpTimeoutException e) {
+            endpointStats.recordFailure(System.nanoTime() - start, "timeout");
+        } catch (ConnectException e) {
+            endpointStats.recordFailure(System.nanoTime() - start, "connect");
+        } catch (IOException e) {
+            endpointStats.recordFailure(System.nanoTime() - start, "io");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Responses that are not a JSON object (e.g. delete_user's plain text)
+     * are wrapped as {"message": body}, like ApiService does
+     */
+    private static JsonObject parseObject(String body) {
+        try {
+            JsonElement element = JsonParser.parseString(body);
+            if (element.isJsonObject()) {
+                return element.getAsJsonObject();
+            }
+        } catch (RuntimeException e) {
+            // Fall through to plain text
+        }
+        JsonObject wrapped = new JsonObject();
+        wrapped.addProperty("message", body);
+        return wrapped;
+    }
+}
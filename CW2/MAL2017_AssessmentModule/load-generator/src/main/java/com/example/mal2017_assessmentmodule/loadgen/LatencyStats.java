@@ -0,0 +1,77 @@
+package com.example.mal2017_assessmentmodule.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyStats - Latency histogram and outcome counts for one endpoint or scenario.
+ *
+ * Latencies go into an HDR histogram in microseconds (3 significant
+ * digits), so percentiles stay accurate out to the slowest call.
+ * Safe to record from many threads at once.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class LatencyStats {
+
+    private final String name;
+    private final Histogram histogram = new ConcurrentHistogram(3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    public LatencyStats(String name) {
+        this.name = name;
+    }
+
+    public void recordSuccess(long elapsedNanos) {
+        histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        successes.increment();
+    }
+
+    /**
+     * @param errorClass Short failure name, e.g. "http_5xx" or "timeout"
+     */
+    public void recordFailure(long elapsedNanos, String errorClass) {
+        histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        failures.increment();
+        errors.computeIfAbsent(errorClass, key -> new LongAdder()).increment();
+    }
+
+    public String getName() { return name; }
+    public long getSuccesses() { return successes.sum(); }
+    public long getFailures() { return failures.sum(); }
+
+    public long getCount() {
+        return getSuccesses() + getFailures();
+    }
+
+    /**
+     * Latency at a percentile, in milliseconds
+     */
+    public double percentileMs(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    public double maxMs() {
+        return histogram.getMaxValue() / 1000.0;
+    }
+
+    /**
+     * Failure counts by error class, sorted by name
+     */
+    public Map<String, Long> getErrors() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : errors.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().sum());
+        }
+        return result;
+    }
+}
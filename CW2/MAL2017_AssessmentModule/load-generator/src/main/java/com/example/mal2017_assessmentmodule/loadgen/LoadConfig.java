@@ -0,0 +1,187 @@
+package com.example.mal2017_assessmentmodule.loadgen;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LoadConfig - Settings for a load generator run.
+ *
+ * Set from "--key=value" command line arguments.
+ *
+ * Keys:
+ * - base-url      API base URL, ending in / (default http://localhost:8080/comp2000/coursework/)
+ * - student-id    Student database to use (default 2509254)
+ * - clients       Number of simulated clients (sessions) to start (default 100)
+ * - arrival-rate  Mean new clients per second, Poisson arrivals (default 10)
+ * - mix           Scenario weights (default login:70,register:20,profile:10)
+ * - timeout-ms    Per-request timeout (default 10000)
+ * - batch-size    Guest ids per GUESTS lookup, before removing repeats (default 20)
+ * - batch-concurrency  read_user calls in flight per GUESTS lookup (default 4,
+ *                 the app's default limit for guest lookups)
+ * - seed          Random seed, for repeatable runs (default: time based)
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class LoadConfig {
+
+    private String baseUrl = "http://localhost:8080/comp2000/coursework/";
+    private String studentId = "2509254";
+    private int clients = 100;
+    private double arrivalRate = 10.0;
+    private final Map<Scenario, Integer> mix = new LinkedHashMap<>();
+    private long timeoutMs = 10000;
+    private int batchSize = 20;
+    private int batchConcurrency = 4;
+    private long seed = System.nanoTime();
+
+    public LoadConfig() {
+        setMix("login:70,register:20,profile:10");
+    }
+
+    /**
+     * Build a config from "--key=value" arguments
+     *
+     * @throws IllegalArgumentException on an unknown key or bad value
+     */
+    public static LoadConfig fromArgs(String[] args) {
+        LoadConfig config = new LoadConfig();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            int split = arg.indexOf('=');
+            config.set(arg.substring(2, split), arg.substring(split + 1));
+        }
+        return config;
+    }
+
+    /**
+     * Change one setting
+     *
+     * @throws IllegalArgumentException on an unknown key or bad value
+     */
+    public void set(String key, String value) {
+        try {
+            switch (key) {
+                case "base-url":
+                    baseUrl = value.endsWith("/") ? value : value + "/";
+                    break;
+                case "student-id":
+                    studentId = value;
+                    break;
+                case "clients":
+                    clients = Integer.parseInt(value);
+                    if (clients < 1) {
+                        throw new IllegalArgumentException("clients must be at least 1");
+                    }
+                    break;
+                case "arrival-rate":
+                    arrivalRate = Double.parseDouble(value);
+                    if (arrivalRate <= 0) {
+                        throw new IllegalArgumentException("arrival-rate must be positive");
+                    }
+                    break;
+                case "mix":
+                    setMix(value);
+                    break;
+                case "timeout-ms":
+                    timeoutMs = Long.parseLong(value);
+                    break;
+                case "batch-size":
+                    batchSize = Integer.parseInt(value);
+                    if (batchSize < 1) {
+                        throw new IllegalArgumentException("batch-size must be at least 1");
+                    }
+                    break;
+                case "batch-concurrency":
+                    batchConcurrency = Integer.parseInt(value);
+                    if (batchConcurrency < 1) {
+                        throw new IllegalArgumentException("batch-concurrency must be at least 1");
+                    }
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown setting: " + key);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + value, e);
+        }
+    }
+
+    /**
+     * Parse "name:weight,name:weight"
+     */
+    private void setMix(String value) {
+        Map<Scenario, Integer> parsed = new LinkedHashMap<>();
+        int total = 0;
+        for (String part : value.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected scenario:weight, got: " + part);
+            }
+            Scenario scenario = Scenario.fromName(pair[0].trim());
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights must not be negative");
+            }
+            parsed.put(scenario, weight);
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("mix needs at least one positive weight");
+        }
+        mix.clear();
+        mix.putAll(parsed);
+    }
+
+    /**
+     * Pick a scenario according to the mix weights
+     *
+     * @param roll Uniform random number in [0, 1)
+     */
+    public Scenario pickScenario(double roll) {
+        int total = 0;
+        for (int weight : mix.values()) {
+            total += weight;
+        }
+        double target = roll * total;
+        Scenario last = null;
+        for (Map.Entry<Scenario, Integer> entry : mix.entrySet()) {
+            if (entry.getValue() == 0) {
+                continue;
+            }
+            target -= entry.getValue();
+            last = entry.getKey();
+            if (target < 0) {
+                break;
+            }
+        }
+        return last;
+    }
+
+    @Override
+    public String toString() {
+        return "base-url=" + baseUrl +
+                ", student-id=" + studentId +
+                ", clients=" + clients +
+                ", arrival-rate=" + arrivalRate + "/s" +
+                ", mix=" + mix +
+                ", timeout-ms=" + timeoutMs +
+                ", batch-size=" + batchSize +
+                ", batch-concurrency=" + batchConcurrency +
+                ", seed=" + seed;
+    }
+
+    // Getters
+    public String getBaseUrl() { return baseUrl; }
+    public String getStudentId() { return studentId; }
+    public int getClients() { return clients; }
+    public double getArrivalRate() { return arrivalRate; }
+    public long getTimeoutMs() { return timeoutMs; }
+    public int getBatchSize() { return batchSize; }
+    public int getBatchConcurrency() { return batchConcurrency; }
+    public long getSeed() { return seed; }
+}
@@ -0,0 +1,159 @@
+package com.example.mal2017_assessmentmodule.loadgen;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LoadGenerator - Headless load test of the coursework API.
+ *
+ * Starts N simulated clients with Poisson arrivals at the configured
+ * rate (open model: a slow server does not slow the arrivals down).
+ * Each client runs one Scenario on its own virtual thread.
+ *
+ * Report:
+ * - Per endpoint: calls, failures, throughput, latency percentiles
+ *   (p50/p90/p99/p99.9/max from an HDR histogram), failures by class
+ * - Per scenario: sessions, aborted sessions and session latency
+ *
+ * Run against the local reference API:
+ * ./gradlew :api-server:run --args="--latency-ms=50"
+ * ./gradlew :load-generator:run --args="--clients=500 --arrival-rate=50"
+ *
+ * Server load of batched user lookups, compare --batch-concurrency=1 with higher limits:
+ * ./gradlew :load-generator:run --args="--mix=guests:100 --batch-concurrency=8"
+ *
+ * or the coursework server with --base-url=http://host/comp2000/coursework/
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public class LoadGenerator {
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private final LoadConfig config;
+    private final ApiDriver api;
+    private final Map<Scenario, LatencyStats> sessionStats = new EnumMap<>(Scenario.class);
+    private long elapsedNanos;
+
+    public LoadGenerator(LoadConfig config) {
+        this.config = config;
+        this.api = new ApiDriver(config);
+        for (Scenario scenario : Scenario.values()) {
+            sessionStats.put(scenario, new LatencyStats(scenario.getName()));
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadConfig config;
+        try {
+            config = LoadConfig.fromArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LoadGenerator [--key=value ...], see LoadConfig for keys");
+            System.exit(2);
+            return;
+        }
+
+        System.out.println("Load run: " + config);
+        LoadGenerator generator = new LoadGenerator(config);
+        generator.run();
+        System.out.print(generator.report());
+    }
+
+    /**
+     * Start every client and wait for all of them to finish
+     */
+    public void run() throws InterruptedException {
+        Random arrivals = new Random(config.getSeed());
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / config.getArrivalRate();
+
+        long start = System.nanoTime();
+        long nextArrival = start;
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.getClients(); i++) {
+                long wait = nextArrival - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Scenario scenario = config.pickScenario(arrivals.nextDouble());
+                Random random = new Random(config.getSeed() + 31L * (i + 1));
+                clients.execute(() -> runSession(scenario, random));
+
+                // Exponential gaps give Poisson arrivals
+                nextArrival += (long) (-Math.log(1.0 - arrivals.nextDouble()) * meanGapNanos);
+            }
+            // close() waits for every running session
+        }
+
+        elapsedNanos = System.nanoTime() - start;
+    }
+
+    private void runSession(Scenario scenario, Random random) {
+        LatencyStats stats = sessionStats.get(scenario);
+        long start = System.nanoTime();
+        boolean completed;
+        try {
+            completed = scenario.run(api, config, random);
+        } catch (RuntimeException e) {
+            // Unexpected response shape
+            stats.recordFailure(System.nanoTime() - start, e.getClass().getSimpleName());
+            return;
+        }
+        if (completed) {
+            stats.recordSuccess(System.nanoTime() - start);
+        } else {
+            stats.recordFailure(System.nanoTime() - start, "call_failed");
+        }
+    }
+
+    /**
+     * Results of the last run as a text table
+     */
+    public String report() {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%nElapsed: %.2f s%n", seconds));
+
+        out.append(String.format("%nEndpoint latency (ms)%n"));
+        appendTable(out, new TreeMap<>(api.getStats()).values(), seconds, "req/s");
+
+        List<LatencyStats> sessions = new ArrayList<>();
+        for (LatencyStats stats : sessionStats.values()) {
+            if (stats.getCount() > 0) {
+                sessions.add(stats);
+            }
+        }
+        out.append(String.format("%nSession latency (ms)%n"));
+        appendTable(out, sessions, seconds, "sess/s");
+        return out.toString();
+    }
+
+    private static void appendTable(StringBuilder out, Iterable<LatencyStats> rows,
+                                    double seconds, String rateUnit) {
+        out.append(String.format("%-16s %8s %8s %9s %9s %9s %9s %9s %9s%n",
+                "name", "count", "failed", rateUnit, "p50", "p90", "p99", "p99.9", "max"));
+        for (LatencyStats stats : rows) {
+            out.append(String.format("%-16s %8d %8d %9.1f",
+                    stats.getName(), stats.getCount(), stats.getFailures(), stats.getCount() / seconds));
+            for (double percentile : PERCENTILES) {
+                out.append(String.format(" %9.1f", stats.percentileMs(percentile)));
+            }
+            out.append(String.format(" %9.1f%n", stats.maxMs()));
+
+            for (Map.Entry<String, Long> error : stats.getErrors().entrySet()) {
+                out.append(String.format("    %-12s %8d%n", error.getKey(), error.getValue()));
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.mal2017_assessmentmodule.loadgen;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Scenario - API call sequences of the app's screens, as one simulated client runs them.
+ *
+ * - LOGIN:    LoginActivity. read_all_users, then match the credentials
+ *             on the client (LoginOrchestrator)
+ * - REGISTER: RegisterActivity. create_user from the outbox, then the
+ *             login that follows "Account created, please login"
+ * - PROFILE:  ProfileActivity for a new account. Register and log in,
+ *             save profile (update_user), change password (update_user),
+ *             delete account (delete_user)
+ * - GUESTS:   The read_user traffic a guest lookup for a list of
+ *             reservations puts on the API: batch-size guest ids with
+ *             repeats, deduplicated, then read_user for each with at most
+ *             batch-concurrency in flight. This only reproduces the
+ *             request pattern for the server; UserBatchLoader itself is
+ *             tested by UserBatchLoaderTest in the app module
+ *
+ * Mutating calls carry a fresh Idempotency-Key, as OutboxManager sends them.
+ *
+ * @author BSCS2509254
+ * @version 1.0
+ */
+public enum Scenario {
+
+    LOGIN {
+        @Override
+        boolean run(ApiDriver api, LoadConfig config, Random random) {
+            JsonArray users = api.readAllUsers();
+            if (users == null) {
+                return false;
+            }
+            if (users.size() > 0) {
+                JsonObject user = users.get(random.nextInt(users.size())).getAsJsonObject();
+                findMatch(users, getString(user, "email"), getString(user, "password"));
+            }
+            return true;
+        }
+    },
+
+    REGISTER {
+        @Override
+        boolean run(ApiDriver api, LoadConfig config, Random random) {
+            JsonObject user = newUser(random);
+            if (api.createUser(user, UUID.randomUUID().toString()) == null) {
+                return false;
+            }
+            JsonArray users = api.readAllUsers();
+            if (users == null) {
+                return false;
+            }
+            findMatch(users, getString(user, "email"), getString(user, "password"));
+            return true;
+        }
+    },
+
+    PROFILE {
+        @Override
+        boolean run(ApiDriver api, LoadConfig config, Random random) {
+            JsonObject user = newUser(random);
+            JsonObject created = api.createUser(user, UUID.randomUUID().toString());
+            if (created == null) {
+                return false;
+            }
+
+            JsonArray users = api.readAllUsers();
+            if (users == null) {
+                return false;
+            }
+            JsonObject match = findMatch(users, getString(user, "email"), getString(user, "password"));
+            int userId;
+            if (match != null && match.has("user_id")) {
+                userId = match.get("user_id").getAsInt();
+            } else if (created.has("user_id")) {
+                userId = created.get("user_id").getAsInt();
+            } else {
+                return false;
+            }
+            user.addProperty("user_id", userId);
+
+            // Save profile
+            user.addProperty("contact", "07" + (100000000 + random.nextInt(900000000)));
+            if (api.updateUser(userId, user, UUID.randomUUID().toString()) == null) {
+                return false;
+            }
+
+            // Change password
+            user.addProperty("password", "pw" + Long.toHexString(random.nextLong()));
+            if (api.updateUser(userId, user, UUID.randomUUID().toString()) == null) {
+                return false;
+            }
+
+            // Delete account
+            return api.deleteUser(userId, UUID.randomUUID().toString()) != null;
+        }
+    },
+
+    GUESTS {
+        @Override
+        boolean run(ApiDriver api, LoadConfig config, Random random) {
+            JsonArray users = api.readAllUsers();
+            if (users == null) {
+                return false;
+            }
+            if (users.size() == 0) {
+                return true;
+            }
+
+            // Reservations repeat guests; only distinct ids are fetched
+            Set<Integer> ids = new LinkedHashSet<>();
+            for (int i = 0; i < config.getBatchSize(); i++) {
+                JsonObject user = users.get(random.nextInt(users.size())).getAsJsonObject();
+                ids.add(user.get("user_id").getAsInt());
+            }
+
+            Semaphore permits = new Semaphore(config.getBatchConcurrency());
+            List<Future<JsonObject>> results = new ArrayList<>(ids.size());
+            try (ExecutorService fetches = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int userId : ids) {
+                    results.add(fetches.submit(() -> {
+                        permits.acquire();
+                        try {
+                            return api.readUser(userId);
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                }
+            }
+
+            boolean allLoaded = true;
+            for (Future<JsonObject> result : results) {
+                try {
+                    allLoaded &= result.get() != null;
+                } catch (Exception e) {
+                    allLoaded = false;
+                }
+            }
+            return allLoaded;
+        }
+    };
+
+    /**
+     * Run the sequence once
+     *
+     * @return false if a call failed and the sequence stopped early
+     */
+    abstract boolean run(ApiDriver api, LoadConfig config, Random random);
+
+    public static Scenario fromName(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown scenario: " + name, e);
+        }
+    }
+
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Same rule as LoginOrchestrator.findMatch: email ignoring case, exact password
+     */
+    static JsonObject findMatch(JsonArray users, String email, String password) {
+        for (JsonElement element : users) {
+            JsonObject user = element.getAsJsonObject();
+            String userEmail = getString(user, "email");
+            if (userEmail != null && userEmail.equalsIgnoreCase(email)
+                    && password != null && password.equals(getString(user, "password"))) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A guest account as RegisterActivity builds it
+     */
+    static JsonObject newUser(Random random) {
+        String suffix = Long.toHexString(random.nextLong());
+        JsonObject user = new JsonObject();
+        user.addProperty("username", "load_" + suffix);
+        user.addProperty("password", "pw" + suffix);
+        user.addProperty("firstname", "Load");
+        user.addProperty("lastname", "Client");
+        user.addProperty("email", "load_" + suffix + "@example.com");
+        user.addProperty("contact", "07" + (100000000 + random.nextInt(900000000)));
+        user.addProperty("usertype", "guest");
+        return user;
+    }
+
+    private static String getString(JsonObject object, String key) {
+        JsonElement value = object.get(key);
+        return value != null && !value.isJsonNull() ? value.getAsString() : null;
+    }
+}